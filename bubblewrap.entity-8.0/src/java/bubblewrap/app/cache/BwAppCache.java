@@ -6,9 +6,17 @@ import bubblewrap.io.datetime.DateTime;
 import bubblewrap.io.schedules.TimeSpan;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.PostConstruct;
@@ -17,7 +25,16 @@ import javax.ejb.Singleton;
 import javax.ejb.Startup;
 
 /**
- *
+ * <p>The application's shared cache of Serializable content by content class and
+ * recordId. The cache is concurrent - the static put/get/contains/remove methods do
+ * not lock - and bound by a maximum number of entries and a maximum total {@linkplain
+ * BwCacheWeighted weight} (see {@linkplain #configBounds(java.lang.Integer, 
+ * java.lang.Long) configBounds}). When a bound is exceeded, the least recently
+ * accessed content is evicted until the cache is at 90% of its bounds.</p>
+ * <p>Expired content is removed when accessed and by a periodic Garbage Collection 
+ * (GC) sweep (see {@linkplain #configGC(java.util.concurrent.TimeUnit, long) 
+ * configGC}). Expiration is tracked in {@linkplain System#nanoTime() nanoTime}
+ * ticks.</p>
  * @author J.G. "Koos" Prins, D.Eng. PE.
  */
 @Startup
@@ -36,7 +53,7 @@ public class BwAppCache implements Serializable {
   /**
    * Placeholder for the application's Static BwAppCache instance.
    */
-  private static BwAppCache _singleton = null;
+  private static volatile BwAppCache _singleton = null;
   /**
    * <p>
    * Lookup the Application Singleton Enterprise 'BwAppCache' Java Bean (EJB)</p>
@@ -44,7 +61,7 @@ public class BwAppCache implements Serializable {
    * @return a reference to the BwAppCache instance
    */
   @LookupMethod
-  private synchronized static BwAppCache doLookup() {
+  private static BwAppCache doLookup() {
     BwAppCache result = null;
     try {
       result = BwAppCache._singleton;
@@ -98,14 +115,32 @@ public class BwAppCache implements Serializable {
   }
   //</editor-fold>
   
-  private static TimeUnit _gcTimeUnit = TimeUnit.DAYS;
+  //<editor-fold defaultstate="collapsed" desc="Static Configuration">
+  /**
+   * The default maximum number of cached entries (10000)
+   */
+  public static final int DefaultMaxEntries = 10000;
+  /**
+   * The default maximum total weight of the cached entries (unbound)
+   */
+  public static final long DefaultMaxWeight = Long.MAX_VALUE;
+  /**
+   * The fraction of the bounds to which the cache is reduced when evicting content
+   */
+  private static final double EvictTarget = 0.9d;
+  
+  private static TimeUnit _gcTimeUnit = TimeUnit.HOURS;
   private static long _gcDelay = 1l;
+  private static volatile int _maxEntries = BwAppCache.DefaultMaxEntries;
+  private static volatile long _maxWeight = BwAppCache.DefaultMaxWeight;
   
   /**
    * Called to set the BwAppCache's Garbage Collection (GC) configuration settings (i.e.,
-   * the GC Delay Time Unit (Default = DAYS), the GC Delay Time (default = 1). If the 
+   * the GC Delay Time Unit (Default = HOURS), the GC Delay Time (default = 1). If the 
    * settings have changed, and the BwAppCache's singleton has been initiated, it will
    * restart (reschedule) the BwAppCache's garbage collection process.
+   * <p><b>NOTE:</b> Expired content is also removed when it is accessed - the GC only
+   * reclaims expired content that is not accessed.</p>
    * @param gcTimeUnit the new TimeUnit 
    * @param gcDelay the delay in 
    */
@@ -125,128 +160,62 @@ public class BwAppCache implements Serializable {
       BwAppCache._gcTimeUnit = gcTimeUnit;
       BwAppCache._gcDelay = gcDelay;
 
-      if (BwAppCache._singleton != null) {
-        BwAppCache._singleton.restartGC();
+      BwAppCache appCache = BwAppCache._singleton;
+      if (appCache != null) {
+        appCache.restartGC();
       }
     }
   }
   
-  //<editor-fold defaultstate="collapsed" desc="Private ExecuteGCProcess class">
   /**
-   * A Runnable to execute the Garbage Collection (GC) process after pausing the
-   * runnable's thread by calling {@linkplain #_gcTimeUnit}.sleep({@linkplain
-   * #_gcDelay})
+   * Called to set the BwAppCache's bounds. If the current content exceeds the new
+   * bounds, the least recently accessed content is evicted.
+   * @param maxEntries the maximum number of cached entries (null|&le; 0 for {@linkplain 
+   * #DefaultMaxEntries})
+   * @param maxWeight the maximum total weight of the cached entries (null|&le; 0 for
+   * {@linkplain #DefaultMaxWeight})
    */
-  private class ExecuteGCProcess implements Runnable {
-    
-    // <editor-fold defaultstate="collapsed" desc="Constructor">
-    /**
-     * Public Constructor
-     */
-    public ExecuteGCProcess() {
-      super();
+  public static void configBounds(Integer maxEntries, Long maxWeight) {
+    BwAppCache._maxEntries = ((maxEntries == null) || (maxEntries <= 0))?
+                                              BwAppCache.DefaultMaxEntries: maxEntries;
+    BwAppCache._maxWeight = ((maxWeight == null) || (maxWeight <= 0))?
+                                              BwAppCache.DefaultMaxWeight: maxWeight;
+    BwAppCache appCache = BwAppCache._singleton;
+    if (appCache != null) {
+      appCache.evictIfOverBound();
     }
-    // </editor-fold>
-    
-    // <editor-fold defaultstate="collapsed" desc="Override Runnable">
-    /**
-     * {@inheritDoc}
-     * <p>
-     * OVERRIDE: It pause execution be calling {@linkplain #_gcTimeUnit}.sleep({@linkplain
-     * #_gcDelay}), and call {@linkplain #_singleton}.{@linkplain #executeGC() executeGC}
-     * when waking up.</p>
-     */
-    @Override
-    public void run() {
-      try {
-        logger.log(Level.INFO, "{0}.run Initiated On {1}",
-                new Object[]{"BwAppCache.ExecuteGC", DateTime.getNow(null).toString()});
-        try {
-          if ((BwAppCache._gcTimeUnit != null) && (BwAppCache._gcDelay > 0l)) {
-            BwAppCache._gcTimeUnit.sleep(BwAppCache._gcDelay);
-          }
-        } catch (Exception exp) {
-          throw new Exception("TimeUnit.sleep Error:\n " + exp.getMessage());
-        }
-        
-        logger.log(Level.INFO, "{0}.run Started On {1}",
-                new Object[]{"BwAppCache.ExecuteGC", DateTime.getNow(null).toString()});
-        if (BwAppCache._singleton != null) {
-          BwAppCache._singleton.executeGC();
-          if (BwAppCache._singleton.gcThread != null) {
-            Thread restart = new Thread(new RestartQCProcess(), "AppCache.GC.restart");
-            restart.start();
-          }
-        }
-        logger.log(Level.INFO, "{0}.run Completed On {1}",
-                new Object[]{"BwAppCache.ExecuteGC", DateTime.getNow(null).toString()});
-      } catch (Exception exp) {
-        logger.log(Level.WARNING, "{0}.run Error on {1}:\n {2}",
-                new Object[]{"BwAppCache.ExecuteGC", DateTime.getNow(null).toString(),
-                  exp.getMessage()});
-      }
-    }
-    // </editor-fold>
   }
   //</editor-fold>
   
-  //<editor-fold defaultstate="collapsed" desc="Private RestartQCProcess class">
+  // <editor-fold defaultstate="collapsed" desc="Private Fields">    
   /**
-   * A runnable to restart the QC Process after the ExecuteQC process has been completed
-   * it calls {@linkplain BwAppCache#startGC()} on run.
+   * The cached content maps by content class name (lower case)
    */
-  private class RestartQCProcess implements Runnable {
-    
-    // <editor-fold defaultstate="collapsed" desc="Constructor">
-    /**
-     * Public Constructor
-     */
-    public RestartQCProcess() {
-      super();
-    }
-    // </editor-fold>
-    
-    //<editor-fold defaultstate="collapsed" desc="Implements Runnable">
-    /**
-     * {@inheritDoc}
-     * <p>
-     * OVERRIDE: It calls {@linkplain BwAppCache#startGC()} and logs the completion time.
-     * </p>
-     */
-    @Override
-    public void run() {
-      try {
-        Thread curThread = null;
-        if ((BwAppCache._singleton != null) && 
-            ((curThread = BwAppCache._singleton.gcThread) != null)) {
-          if (!Thread.State.TERMINATED.equals(curThread.getState())) {
-            curThread.join(100l);
-          }
-          if (BwAppCache._singleton != null) {
-            BwAppCache._singleton.gcThread = null;
-            BwAppCache._singleton.startGC();
-            logger.log(Level.INFO, "{0}.run Completed On {1}",
-                new Object[]{"BwAppCache.RestartQC", DateTime.getNow(null).toString()});
-          }
-        }
-      } catch (Exception exp) {
-        logger.log(Level.WARNING, "{0}.run Error on {1}:\n {2}",
-                new Object[]{"BwAppCache.RestartQC", DateTime.getNow(null).toString(),
-                  exp.getMessage()});
-      }
-    }
-    //</editor-fold>
-  }
-//</editor-fold>
-  
-  // <editor-fold defaultstate="collapsed" desc="Private Fields">    
-  private HashMap<String, BwCacheContentMap> cacheMap;
-  
-  private ExecuteGCProcess execProcess;
+  private ConcurrentHashMap<String, BwCacheContentMap> cacheMap;
+  /**
+   * The number of cached entries
+   */
+  private AtomicLong numEntries;
+  /**
+   * The total weight of the cached entries
+   */
+  private AtomicLong totalWeight;
+  /**
+   * The number of entries evicted to keep the cache within its bounds
+   */
+  private AtomicLong numEvicted;
+  /**
+   * Flag set while evicting content - only one thread evicts at a time
+   */
+  private AtomicBoolean evicting;
   /**
-   * The 
+   * The executor of the GC sweep
    */
-  private Thread gcThread;
+  private ScheduledExecutorService gcExecutor;
+  /**
+   * The scheduled GC sweep
+   */
+  private ScheduledFuture<?> gcFuture;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -270,10 +239,23 @@ public class BwAppCache implements Serializable {
     String sClass = this.getClass().getSimpleName();
     logger.log(Level.INFO, "{0}.initAppCache Start", sClass);
     try {
-      this.cacheMap = new HashMap<>();
-      this.execProcess = new ExecuteGCProcess();
-      this.gcThread = null;
+      this.cacheMap = new ConcurrentHashMap<>();
+      this.numEntries = new AtomicLong();
+      this.totalWeight = new AtomicLong();
+      this.numEvicted = new AtomicLong();
+      this.evicting = new AtomicBoolean(false);
+      this.gcExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+          Thread result = new Thread(runnable, "AppCache.GC");
+          result.setDaemon(true);
+          return result;
+        }
+      });
+      this.gcFuture = null;
       BwAppCache._singleton = this;
+      this.startGC();
       logger.log(Level.INFO, "{0}.initAppCache Done", sClass);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.initAppCache Failed:\n {1}",
@@ -292,10 +274,12 @@ public class BwAppCache implements Serializable {
   protected void destroyAppCache() {
     String sClass = this.getClass().getSimpleName();
     logger.log(Level.INFO, "{0}.destroyAppCache Start", sClass);
-    this.cacheMap.clear();
-    if (this.gcThread != null) {
-      this.gcThread.interrupt();
+    if (this.gcExecutor != null) {
+      this.gcExecutor.shutdownNow();
     }
+    this.cacheMap.clear();
+    this.numEntries.set(0L);
+    this.totalWeight.set(0L);
     BwAppCache._singleton = null;
     logger.log(Level.INFO, "{0}.destroyAppCache Done", sClass);
   }
@@ -312,84 +296,206 @@ public class BwAppCache implements Serializable {
 
   // <editor-fold defaultstate="collapsed" desc="Private/Protected Methods">
   /**
-   * Called to start the GC process, it not already running. If initiates this.gcThread
-   * with this.execProcess as runnable and start the thread. If this.gcThread.isAlive
-   * - it execute successfully, it start a second thread with {@linkplain 
-   * RestartQCProcess} as a runnable, which will wait for this.gcThread to stop before
-   * it recall this.startGC.
-   * <p>
-   * <b>NOTE:</b> The GC process is not started if this.cacheMap.isEmpty</p>
+   * Called to schedule the GC sweep (if not already scheduled) to run every 
+   * {@linkplain #_gcDelay} {@linkplain #_gcTimeUnit}.
    */
   private synchronized void startGC() {
-    if ((this.gcThread == null) && (!this.cacheMap.isEmpty())) {
+    if ((this.gcFuture == null) && (!this.gcExecutor.isShutdown())) {
       try {
-        this.gcThread = new Thread(this.execProcess, "AppCache.GC");
-        this.gcThread.start();
+        this.gcFuture = this.gcExecutor.scheduleWithFixedDelay(new Runnable() {
+
+          @Override
+          public void run() {
+            BwAppCache.this.executeGC();
+          }
+        }, BwAppCache._gcDelay, BwAppCache._gcDelay, BwAppCache._gcTimeUnit);
       } catch (Exception exp) {
-        logger.log(Level.WARNING, "{0}.method Error:\n {1}",
+        logger.log(Level.WARNING, "{0}.startGC Error:\n {1}",
                 new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
       }
     }
   }
   
   /**
-   * Called to interrupt the currently executing this.gcThread. If the current
+   * Called to cancel the scheduled GC sweep and reschedule it with the current 
+   * settings.
    */
   private synchronized void restartGC() {
-    Thread curThread = this.gcThread;
-    if (curThread != null) {
-      curThread.interrupt();
+    if (this.gcFuture != null) {
+      this.gcFuture.cancel(false);
+      this.gcFuture = null;
     }
+    this.startGC();
   }
   
   /**
-   * Called by the {@linkplain ExecuteGCProcess} on run to remove cached content that has 
-   * expired. If this.cacheMap isEmpty on completion of this process, the GC Process will
-   * not be reschedule, but will automatically be restart when new content is added.
+   * Called by the scheduled GC sweep to remove cached content that has expired.
    */
-  private synchronized void executeGC() {
+  private void executeGC() {
     try {
-      logger.log(Level.INFO, "{0}.executeGC Started On {1}",
-                new Object[]{this.getClass().getSimpleName(), 
-                              DateTime.getNow(null).toString()});
-      if (!this.cacheMap.isEmpty()) {
-        List<String> keyList = new ArrayList<>(this.cacheMap.keySet()); 
-        BwCacheContentMap classMap = null;
-        for (String key : keyList) {
-          if (((classMap = this.cacheMap.get(key)) == null) ||
-                  (classMap.isEmpty()) || (classMap.executeGC())) {
-            this.cacheMap.remove(key);
+      long curNanos = System.nanoTime();
+      int numRemoved = 0;
+      for (BwCacheContentMap contentMap : this.cacheMap.values()) {
+        for (BwCacheContent content : contentMap.values()) {
+          if ((content.isExpired(curNanos)) && (this.removeContent(contentMap, content))) {
+            numRemoved++;
           }
         }
       }
-      logger.log(Level.INFO, "{0}.executeGC Completed On {1}",
-                new Object[]{this.getClass().getSimpleName(), 
-                              DateTime.getNow(null).toString()});
+      logger.log(Level.FINE, "{0}.executeGC removed {1} expired entries.",
+                new Object[]{this.getClass().getSimpleName(), numRemoved});
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.executeGC Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     }
   }
+  
+  /**
+   * Called to remove <tt>content</tt> from <tt>contentMap</tt> if it is still mapped to
+   * its key, and update the entry count and total weight.
+   * @param contentMap the content map
+   * @param content the content to remove
+   * @return true if removed
+   */
+  private boolean removeContent(BwCacheContentMap contentMap, BwCacheContent content) {
+    boolean result = contentMap.remove(content.cacheKey, content);
+    if (result) {
+      this.numEntries.decrementAndGet();
+      this.totalWeight.addAndGet(-content.weight);
+    }
+    return result;
+  }
+  
+  /**
+   * Check if the cache exceeds <tt>maxEntries</tt> or <tt>maxWeight</tt>
+   */
+  private boolean isOverBound(long maxEntries, long maxWeight) {
+    return ((this.numEntries.get() > maxEntries) || (this.totalWeight.get() > maxWeight));
+  }
+  
+  /**
+   * Called after content was added to evict content if the cache exceeds its bounds. 
+   * Only one thread evicts at a time - the others return immediately. It first removes
+   * all expired content and then - if still over bound - the least recently accessed
+   * content until the cache is within {@linkplain #EvictTarget} of its bounds.
+   */
+  private void evictIfOverBound() {
+    long maxEntries = BwAppCache._maxEntries;
+    long maxWeight = BwAppCache._maxWeight;
+    if ((!this.isOverBound(maxEntries, maxWeight)) || 
+                                          (!this.evicting.compareAndSet(false, true))) {
+      return;
+    }
+    try {
+      long curNanos = System.nanoTime();
+      List<BwCacheContent> contentList = new ArrayList<>();
+      List<BwCacheContentMap> mapList = new ArrayList<>();
+      for (BwCacheContentMap contentMap : this.cacheMap.values()) {
+        for (BwCacheContent content : contentMap.values()) {
+          if (content.isExpired(curNanos)) {
+            this.removeContent(contentMap, content);
+          } else {
+            contentList.add(content);
+            mapList.add(contentMap);
+          }
+        }
+      }
+      
+      long targetEntries = (long) (maxEntries * BwAppCache.EvictTarget);
+      long targetWeight = (maxWeight == Long.MAX_VALUE)? maxWeight:
+                                              (long) (maxWeight * BwAppCache.EvictTarget);
+      if (!this.isOverBound(targetEntries, targetWeight)) {
+        return;
+      }
+      
+      final List<BwCacheContent> sortList = contentList;
+      List<Integer> order = new ArrayList<>(contentList.size());
+      for (int iItem = 0; iItem < contentList.size(); iItem++) {
+        order.add(iItem);
+      }
+      Collections.sort(order, new Comparator<Integer>() {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          long diff = sortList.get(o1).getAccessNanos() 
+                                                  - sortList.get(o2).getAccessNanos();
+          return (diff < 0L)? -1: ((diff > 0L)? 1: 0);
+        }
+      });
+      for (Integer iItem : order) {
+        if (!this.isOverBound(targetEntries, targetWeight)) {
+          break;
+        }
+        if (this.removeContent(mapList.get(iItem), contentList.get(iItem))) {
+          this.numEvicted.incrementAndGet();
+        }
+      }
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.evictIfOverBound Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    } finally {
+      this.evicting.set(false);
+    }
+  }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="private Methods">
   /**
-   * Called by the public put Overloads to add the cached content to this.cacheMap
+   * Get the content map for <tt>contentClass</tt>
+   * @param contentClass the content's class
+   * @param create true to create the map if it does not exist
+   * @return the content map (null if not found and not created)
+   */
+  private BwCacheContentMap getContentMap(Class<?> contentClass, boolean create) {
+    String mapKey = contentClass.getName().toLowerCase();
+    BwCacheContentMap result = this.cacheMap.get(mapKey);
+    if ((result == null) && (create)) {
+      BwCacheContentMap newMap = new BwCacheContentMap();
+      result = this.cacheMap.putIfAbsent(mapKey, newMap);
+      result = (result == null)? newMap: result;
+    }
+    return result;
+  }
+  
+  /**
+   * Called by the public put Overloads to add the cached content to this.cacheMap. The
+   * class' content map is retained when it becomes empty (so that concurrent puts are
+   * never lost).
    * @param contentClass the content's class
    * @param cacheContent the wrapped BwCacheContent
    */
   private void put(Class<? extends Serializable> contentClass, 
                                                            BwCacheContent cacheContent) {
-    String mapKey = contentClass.getName().toLowerCase();
-    BwCacheContentMap contentMap = null;
-    if ((!this.cacheMap.containsKey(mapKey)) || 
-            ((contentMap = this.cacheMap.get(mapKey)) == null)) {
-      contentMap = new BwCacheContentMap();
-      this.cacheMap.put(mapKey, contentMap);
+    BwCacheContentMap contentMap = this.getContentMap(contentClass, true);
+    BwCacheContent prevContent = contentMap.put(cacheContent.cacheKey, cacheContent);
+    if (prevContent == null) {
+      this.numEntries.incrementAndGet();
+      this.totalWeight.addAndGet(cacheContent.weight);
+    } else {
+      this.totalWeight.addAndGet(cacheContent.weight - prevContent.weight);
     }
-    
-    contentMap.put(cacheContent.cacheKey, cacheContent);
-    this.startGC();
+    this.evictIfOverBound();
+  }
+  
+  /**
+   * Get the cached content for <tt>recordId</tt> and <tt>contentClass</tt>. Expired
+   * content is removed and not returned.
+   * @param recordId the content's unique record ID
+   * @param contentClass the content's class
+   * @return the content or null if not found or expired
+   */
+  private Serializable getContent(Serializable recordId, Class<?> contentClass) {
+    Serializable result = null;
+    BwCacheContentMap contentMap = this.getContentMap(contentClass, false);
+    BwCacheContent cache = null;
+    if ((contentMap != null) && ((cache = contentMap.get(recordId)) != null)) {
+      if (cache.isExpired()) {
+        this.removeContent(contentMap, cache);
+      } else {
+        result = cache.getContent();
+      }
+    }
+    return result;
   }
   // </editor-fold>
 
@@ -408,7 +514,7 @@ public class BwAppCache implements Serializable {
    * @param recordId the content's unique record ID
    * @param content the content to be cached.
    */
-  public static synchronized final void put(Serializable recordId, Serializable content) {
+  public static final void put(Serializable recordId, Serializable content) {
     try {
       BwAppCache appCache = BwAppCache.doLookup();
       if (appCache == null) {
@@ -442,7 +548,7 @@ public class BwAppCache implements Serializable {
    * @param content the content to be cached.
    * @param cacheFor the TimeSpan for setting the cached content's expiration date.
    */
-  public static synchronized final void put(Serializable recordId, Serializable content,
+  public static final void put(Serializable recordId, Serializable content,
                                                                       TimeSpan cacheFor) {
     try {
       BwAppCache appCache = BwAppCache.doLookup();
@@ -477,7 +583,7 @@ public class BwAppCache implements Serializable {
    * @param content the content to be cached.
    * @param expireDt the cached content's fixed expiration date.
    */
-  public static synchronized final void put(Serializable recordId, Serializable content, 
+  public static final void put(Serializable recordId, Serializable content, 
                                                                     DateTime expireDt) {
     try {
       BwAppCache appCache = BwAppCache.doLookup();
@@ -513,7 +619,7 @@ public class BwAppCache implements Serializable {
    * @return the matching content if found or null if not found.
    */
   @SuppressWarnings("unchecked")
-  public static synchronized final <TContent extends Serializable> TContent get( 
+  public static final <TContent extends Serializable> TContent get( 
                                   Serializable recordId, Class<TContent> contentClass) {
     TContent result = null;
     try {
@@ -526,14 +632,8 @@ public class BwAppCache implements Serializable {
         throw new Exception("The Requests recordId or contentClass is unassigned.");
       }
       
-      String mapKey = contentClass.getName().toLowerCase();
-      BwCacheContentMap contentMap = null;
-      BwCacheContent cache = null;
       Serializable content = null;
-      if ((appCache.cacheMap != null) && (appCache.cacheMap.containsKey(mapKey)) &&
-              ((contentMap = appCache.cacheMap.get(mapKey)) != null) &&
-              ((cache = contentMap.get(recordId)) != null) &&
-              ((content = cache.getContent()) != null)) {
+      if ((content = appCache.getContent(recordId, contentClass)) != null) {
         if (!contentClass.isInstance(content)) {
           // Should never reach here - just a double check
           throw new Exception("The Cached content class[" 
@@ -562,21 +662,14 @@ public class BwAppCache implements Serializable {
    * @param contentClass the content's class
    * @return true if matching content was found.
    */
-  public static synchronized final  <TContent extends Serializable> boolean contains(
+  public static final  <TContent extends Serializable> boolean contains(
                                     Serializable recordId, Class<TContent> contentClass) {
     boolean result = false;
-    String mapKey = null;
     BwAppCache appCache = null;
-    BwCacheContentMap contentMap = null;
-    BwCacheContent cache = null;
     Serializable content = null;      
     if ((recordId != null) && (contentClass != null) &&
         ((appCache = BwAppCache.doLookup()) != null) &&
-        ((mapKey = contentClass.getName().toLowerCase()) != null) &&
-        (appCache.cacheMap != null) && (appCache.cacheMap.containsKey(mapKey)) &&
-        ((contentMap = appCache.cacheMap.get(mapKey)) != null) &&
-        ((cache = contentMap.get(recordId)) != null) &&
-        ((content = cache.getContent()) != null)) {
+        ((content = appCache.getContent(recordId, contentClass)) != null)) {
       result = contentClass.isInstance(content);
     }
     return result;
@@ -586,27 +679,22 @@ public class BwAppCache implements Serializable {
    * Called to manually remove a previously cached record form the AppCache. It locates
    * the {@linkplain BwCacheContentMap contentMap} for the <tt>contentClass</tt> and
    * if found it calls {@linkplain BwCacheContentMap#remove(java.lang.Object) 
-   * contentMap.remove(recordId)} to remove the cached content (if it exists). If the
-   * contentMap is empty after removing the content, the contentMap will be removed from
-   * this.cacheMap.
+   * contentMap.remove(recordId)} to remove the cached content (if it exists).
    * @param <TContent> extends Serializable
    * @param recordId the content's unique record ID
    * @param contentClass the content's class
    */
-  public static synchronized final <TContent extends Serializable> void remove(
+  public static final <TContent extends Serializable> void remove(
                                     Serializable recordId, Class<TContent> contentClass) {
-    String mapKey = null;
     BwCacheContentMap contentMap = null;
+    BwCacheContent removed = null;
     BwAppCache appCache = null;
     if ((recordId != null) && (contentClass != null) &&
         ((appCache = BwAppCache.doLookup()) != null) &&
-        ((mapKey = contentClass.getName().toLowerCase()) != null) &&
-        (appCache.cacheMap != null) && (appCache.cacheMap.containsKey(mapKey)) &&
-        ((contentMap = appCache.cacheMap.get(mapKey)) != null)) {
-      contentMap.remove(recordId);
-      if (contentMap.isEmpty()) {
-        appCache.cacheMap.remove(mapKey);
-      }
+        ((contentMap = appCache.getContentMap(contentClass, false)) != null) &&
+        ((removed = contentMap.remove(recordId)) != null)) {
+      appCache.numEntries.decrementAndGet();
+      appCache.totalWeight.addAndGet(-removed.weight);
     }
   }
   // </editor-fold>
@@ -614,11 +702,12 @@ public class BwAppCache implements Serializable {
   // <editor-fold defaultstate="collapsed" desc="Object Overrides">
   /**
    * {@inheritDoc}
-   * <p>OVERRIDE: "BwAppCache[ size=" + this.cacheMap.size() + "]"</p>
+   * <p>OVERRIDE: "BwAppCache[ entries=..; weight=..; evicted=..]"</p>
    */
   @Override
   public String toString() {
-    return "BwAppCache[ size=" + this.cacheMap.size() + "]";
+    return "BwAppCache[ entries=" + this.numEntries.get() + "; weight=" 
+            + this.totalWeight.get() + "; evicted=" + this.numEvicted.get() + "]";
   }
   // </editor-fold>
 }
@@ -2,8 +2,8 @@ package bubblewrap.app.cache;
 
 import bubblewrap.io.datetime.DateTime;
 import bubblewrap.io.schedules.TimeSpan;
-import bubblewrap.io.schedules.enums.Interval;
 import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -16,19 +16,32 @@ public class BwCacheContent {
    * The cached content
    */
   public final BwCacheKey cacheKey;
+  /**
+   * The content's weight (see {@linkplain BwCacheWeighted}) - 1 if not weighted.
+   */
+  public final long weight;
   /**
    * The cached content
    */
   private Serializable content;
   /**
-   * The Date-Time when the Cached Content expires and and can be removed from the
-   * AppCache.
+   * Flag set if the content expires
+   */
+  private final boolean expires;
+  /**
+   * The sliding expiration time span in nanoseconds (0 if not sliding)
+   */
+  private final long spanNanos;
+  /**
+   * The {@linkplain System#nanoTime() nanoTime} when the Cached Content expires and can
+   * be removed from the AppCache (ignored if not this.expires).
    */
-  private DateTime expiredDt;
+  private volatile long expireNanos;
   /**
-   * The TimeSpan for scheduling  the Cached Content Expiration Date.
+   * The {@linkplain System#nanoTime() nanoTime} when the Cached Content was last
+   * accessed (or added).
    */
-  private TimeSpan timeSpan;
+  private volatile long accessNanos;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -37,15 +50,7 @@ public class BwCacheContent {
    * @param content the content to cache - cannot be null.
    */
   protected BwCacheContent(Serializable recordId, Serializable content) {
-    super();    
-    if ((this.cacheKey = new BwCacheKey(recordId)) == null) {
-      throw new NullPointerException("Initiating the Cached Content's Key failed.");
-    } 
-    if ((this.content = content) == null) {
-      throw new NullPointerException("The Cached Content cannot be null.");
-    }
-    this.expiredDt = null;
-    this.timeSpan = null;
+    this(recordId, content, false, 0L, 0L);
   }
   
   /**
@@ -56,11 +61,8 @@ public class BwCacheContent {
    */
   protected BwCacheContent(Serializable recordId, Serializable content, 
                                                                      TimeSpan cacheFor) {
-    this(recordId, content); 
-    if ((this.timeSpan = cacheFor) != null) {
-      this.timeSpan = cacheFor;
-      this.resetExpired();
-    }
+    this(recordId, content, (BwCacheContent.toSpanNanos(cacheFor) > 0L), 
+                                        BwCacheContent.toSpanNanos(cacheFor), 0L);
   }
   
   /**
@@ -71,8 +73,47 @@ public class BwCacheContent {
    */
   protected BwCacheContent(Serializable recordId, Serializable content, 
                                                                     DateTime expiredDt) {
-    this(recordId, content);     
-    this.expiredDt = expiredDt;
+    this(recordId, content, (expiredDt != null), 0L, (expiredDt == null)? 0L:
+        TimeUnit.MILLISECONDS.toNanos(
+              expiredDt.getTotalMilliseconds() - System.currentTimeMillis()));
+  }
+  
+  /**
+   * Private Constructor
+   * @param content the content to cache - cannot be null.
+   * @param expires true if the content expires
+   * @param spanNanos the sliding expiration span (0 if fixed)
+   * @param fixedNanos the time until the fixed expiration (if not sliding)
+   */
+  private BwCacheContent(Serializable recordId, Serializable content, boolean expires,
+                                                      long spanNanos, long fixedNanos) {
+    super();    
+    if ((this.cacheKey = new BwCacheKey(recordId)) == null) {
+      throw new NullPointerException("Initiating the Cached Content's Key failed.");
+    } 
+    if ((this.content = content) == null) {
+      throw new NullPointerException("The Cached Content cannot be null.");
+    }
+    this.weight = (content instanceof BwCacheWeighted)?
+                      Math.max(1L, ((BwCacheWeighted) content).getCacheWeight()): 1L;
+    this.expires = expires;
+    this.spanNanos = spanNanos;
+    this.accessNanos = System.nanoTime();
+    this.expireNanos = this.accessNanos + ((spanNanos > 0L)? spanNanos: fixedNanos);
+  }
+  
+  /**
+   * Get the TimeSpan in nanoseconds
+   * @param cacheFor the TimeSpan (can be null)
+   * @return the span or 0 if undefined
+   */
+  private static long toSpanNanos(TimeSpan cacheFor) {
+    long result = 0L;
+    if ((cacheFor != null) && (cacheFor.getInterval() != null) &&
+            (cacheFor.getTickCount() > 0)) {
+      result = TimeUnit.MILLISECONDS.toNanos(cacheFor.getMilliSeconds());
+    }
+    return result;
   }
   // </editor-fold>
 
@@ -94,41 +135,55 @@ public class BwCacheContent {
   }  
   
   /**
-   * Called by the constructor to initiate the expiration date of the content and also
-   * called every time the content is requested.
+   * Called every time the content is requested to record the access time and - if the 
+   * content has a sliding expiration - to postpone its expiration.
    */
   public final void resetExpired() {
-    Interval interval = null;
-    long ticks = 0;
-    if ((this.timeSpan != null) && ((interval = this.timeSpan.getInterval()) != null) &&
-            ((ticks = this.timeSpan.getTickCount()) > 0)) {
-      DateTime curDt = DateTime.getNow(null);
-      this.expiredDt = curDt.addTime(ticks, interval.getTimeUnit());
+    long curNanos = System.nanoTime();
+    this.accessNanos = curNanos;
+    if (this.spanNanos > 0L) {
+      this.expireNanos = curNanos + this.spanNanos;
     }
   }
+  
+  /**
+   * Get the {@linkplain System#nanoTime() nanoTime} when the content was last accessed
+   * @return this.accessNanos
+   */
+  public long getAccessNanos() {
+    return this.accessNanos;
+  }
     
   /**
    * Get whether the content has expired and should be removed from the cache 
-   * (typically called by the {@linkplain BwAppCache}'s Garbage Collector.
-   * @return true if (this.expiredDt != null) && earlier than the current date
+   * (checked on access and by the {@linkplain BwAppCache}'s Garbage Collector).
+   * @return true if the content expires and its expiration time has passed
    */
   public boolean isExpired() {
-    DateTime curDt = null;
-    return ((this.expiredDt != null) && ((curDt = DateTime.getNow(null)) != null) &&
-            (curDt.isAfter(this.expiredDt)));
+    return this.isExpired(System.nanoTime());
+  }
+    
+  /**
+   * Get whether the content has expired at <tt>curNanos</tt>
+   * @param curNanos the current {@linkplain System#nanoTime() nanoTime}
+   * @return true if the content expires and its expiration time has passed
+   */
+  public boolean isExpired(long curNanos) {
+    return ((this.expires) && ((curNanos - this.expireNanos) >= 0L));
   }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Object Overrides">
   /**
    * {@inheritDoc}
-   * <p>OVERRIDE: "BwCacheContent[ expiresOn: " + this.expiredDt.toString() + "]"</p>
+   * <p>OVERRIDE: "BwCacheContent[ expiresIn: " + seconds + "s]"</p>
    */
   @Override
   public String toString() {
     String result = "BwCacheContent";
-    if (this.expiredDt != null) {
-      result += "[ expiresOn: " + this.expiredDt.toString() + "]";
+    if (this.expires) {
+      result += "[ expiresIn: " + TimeUnit.NANOSECONDS.toSeconds(this.expireNanos 
+                                                        - System.nanoTime()) + "s]";
     }
     return result;
   }
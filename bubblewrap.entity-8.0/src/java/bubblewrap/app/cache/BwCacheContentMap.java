@@ -1,15 +1,14 @@
 package bubblewrap.app.cache;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * The Map object used by {@linkplain BwAppCache} to manage cached content internally.
+ * The (concurrent) Map object used by {@linkplain BwAppCache} to manage cached content 
+ * internally.
  * @author J.G. "Koos" Prins, D.Eng. PE.
  */
-public class BwCacheContentMap extends HashMap<BwCacheKey, BwCacheContent> {
+public class BwCacheContentMap extends ConcurrentHashMap<BwCacheKey, BwCacheContent> {
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
@@ -45,33 +44,13 @@ public class BwCacheContentMap extends HashMap<BwCacheKey, BwCacheContent> {
   }
   // </editor-fold>
 
-  // <editor-fold defaultstate="collapsed" desc="Public Methods">
-  /**
-   * Called to check each cache content item in the BwCacheContentMap and is expired, 
-   * remove the expired content from the map.
-   * @return this.isEmpty()
-   */
-  protected boolean executeGC() {
-    if (!this.isEmpty()) {
-      List<BwCacheContent> contentList = new ArrayList<>(this.values());
-      for (BwCacheContent content : contentList) {
-        if (content.isExpired()) {
-          if (this.containsKey(content.cacheKey)) {
-            super.remove(content.cacheKey);
-          }
-        }
-      }
-    }
-    return this.isEmpty();
-  }
-  // </editor-fold>
-
-  // <editor-fold defaultstate="collapsed" desc="Override HashMap">
+  // <editor-fold defaultstate="collapsed" desc="Override ConcurrentHashMap">
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: If the content is found call its {@linkplain BwCacheContent#resetExpired()
-   * resetExpired} method - to postpone the removal of the content from the cache.</p>
+   * OVERRIDE: If the content is found and has not expired, call its {@linkplain 
+   * BwCacheContent#resetExpired() resetExpired} method - to record the access and 
+   * postpone the removal of the content from the cache.</p>
    * <p>
    * <b>NOTE:</b> The input key is converted to a BwCacheKey and can be either a instance
    * of BwCacheKey or and instance of Serializable</p>
@@ -80,8 +59,8 @@ public class BwCacheContentMap extends HashMap<BwCacheKey, BwCacheContent> {
   public BwCacheContent get(Object key) {
     BwCacheContent result = null;
     BwCacheKey cacheKey = this.getCacheKey(key);    
-    if ((cacheKey != null) && (super.containsKey(cacheKey)) && 
-                                              ((result = super.get(cacheKey)) != null)) {
+    if ((cacheKey != null) && ((result = super.get(cacheKey)) != null) &&
+                                                              (!result.isExpired())) {
       result.resetExpired();
     }
     return result;
@@ -98,7 +77,7 @@ public class BwCacheContentMap extends HashMap<BwCacheKey, BwCacheContent> {
     boolean result = false;
     BwCacheKey cacheKey = this.getCacheKey(key);    
     if (cacheKey != null) {
-      result = super.containsKey(cacheKey);
+      result = (super.get(cacheKey) != null);
     }
     return result;
   }
@@ -113,7 +92,7 @@ public class BwCacheContentMap extends HashMap<BwCacheKey, BwCacheContent> {
   public BwCacheContent remove(Object key) {
     BwCacheContent result = null;
     BwCacheKey cacheKey = this.getCacheKey(key);    
-    if ((cacheKey != null) && (super.containsKey(cacheKey))) {
+    if (cacheKey != null) {
       result = super.remove(cacheKey);
     }
     return result;
@@ -0,0 +1,17 @@
+package bubblewrap.app.cache;
+
+/**
+ * An interface that can be implemented by content cached in the {@linkplain BwAppCache}
+ * to report its weight (e.g., its approximate size in KB). The weights of all cached
+ * content are bound by the BwAppCache's maximum weight. Content that does not
+ * implement this interface has a weight of 1.
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public interface BwCacheWeighted {
+
+  /**
+   * Get the content's cache weight
+   * @return the weight (values &lt; 1 are treated as 1)
+   */
+  long getCacheWeight();
+}
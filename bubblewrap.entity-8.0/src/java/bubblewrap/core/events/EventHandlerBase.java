@@ -1,10 +1,12 @@
 package bubblewrap.core.events;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import bubblewrap.core.reflection.ReflectionInfo;
@@ -140,41 +142,111 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
     }
     return result;
   }  
+  
+  /**
+   * The MethodType of the bound Event Method handles: void(Object listener, Object 
+   * sender, EventArgs args)
+   */
+  private static final MethodType EventMethodType = 
+          MethodType.methodType(void.class, Object.class, Object.class, EventArgs.class);
+  
+  /**
+   * The bound Event Method handles by listener class and "{methodName}|{eventArgsClass}"
+   * - the cached handles reference their listener class, which therefore stays loaded
+   * for as long as this class is loaded.
+   */
+  private static final ClassValue<ConcurrentHashMap<String, MethodHandle>> 
+          eventHandles = new ClassValue<ConcurrentHashMap<String, MethodHandle>>() {
+    @Override
+    protected ConcurrentHashMap<String, MethodHandle> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+  
+  /**
+   * Called to get the MethodHandle of the listener's PUBLIC Event Method (see {@linkplain
+   * #getEventMethod(java.lang.Object, java.lang.String, java.lang.Class) 
+   * getEventMethod}) adapted to the {@linkplain #EventMethodType}. The handle is resolved
+   * once per listener class and method name.
+   * @param listener this listener
+   * @param methodName the event method name
+   * @param eventInfoClass the EventHandler's EventArgs class
+   * @return the method handle
+   * @exception IllegalArgumentException if the method is not supported be the listener
+   * or is not accessible.
+   */
+  public static MethodHandle getEventHandle(Object listener, String methodName,
+          Class<? extends EventArgs> eventInfoClass) {
+    if ((listener == null) || (eventInfoClass == null)) {
+      throw new IllegalArgumentException("The Listener or EventInfo class is "
+              + "unassigned.");
+    }
+    ConcurrentHashMap<String, MethodHandle> handleMap = 
+                                      eventHandles.get(listener.getClass());
+    String handleKey = methodName + "|" + eventInfoClass.getName();
+    MethodHandle result = handleMap.get(handleKey);
+    if (result == null) {
+      Method method = EventHandlerBase.getEventMethod(listener, methodName, 
+                                                                    eventInfoClass);
+      if (method == null) {
+        throw new IllegalArgumentException("Listener[" 
+                + listener.getClass().getSimpleName() + "] does not support public "
+                + "Event Method[" + methodName + "(Object, " 
+                + eventInfoClass.getSimpleName() + ")].");
+      }
+      try {
+        method.setAccessible(true);
+        result = MethodHandles.lookup().unreflect(method).asType(EventMethodType);
+      } catch (Exception exp) {
+        throw new IllegalArgumentException("Binding Event Method[" + methodName 
+                + "] failed:\n " + exp.getMessage());
+      }
+      handleMap.putIfAbsent(handleKey, result);
+    }
+    return result;
+  }
   //</editor-fold>
     
   //<editor-fold defaultstate="collapsed" desc="Private Class MethodEventDelegate">
   /**
-   * A private class for storing the Listener Info
+   * A private class for storing the Listener Info and its bound Event Method handle
    */
   private class MethodEventDelegate extends EventDelegateBase<TArgs> {
     
     //<editor-fold defaultstate="collapsed" desc="Private methods">
     /**
-     * Placeholder for the Delegate's method
+     * Placeholder for the Delegate's method name
      */
-    private Method method;
+    private final String methodName;
+    /**
+     * Placeholder for the Delegate's bound method handle (see {@linkplain 
+     * EventHandlerBase#EventMethodType}) - not serialized; re-resolved from 
+     * this.methodName on first use after deserialization.
+     */
+    private transient volatile MethodHandle handle;
     //</editor-fold>
     
     // <editor-fold defaultstate="collapsed" desc="Constructor">
     /**
      * Public Constructor
      */
-    public MethodEventDelegate(Object listener, Method method) {
+    public MethodEventDelegate(Object listener, String methodName, MethodHandle handle) {
       super(listener);
-      this.method = method;
+      this.methodName = methodName;
+      this.handle = handle;
     }
     // </editor-fold>
     
     //<editor-fold defaultstate="collapsed" desc="Object Overrides">
     /**
      * {@inheritDoc}
-     * <p>OVERRIDE: Return {this.listener.class.simpleName}.{this.method.name}</p>
+     * <p>OVERRIDE: Return {this.listener.class.simpleName}.{this.methodName}</p>
      */
     @Override
     public String toString() {
       Object listener = this.getListener();
-      return listener.getClass().getSimpleName() + "."
-              + this.method.getName();
+      return ((listener == null)? "null": listener.getClass().getSimpleName()) + "."
+              + this.methodName;
     }
 
     @Override
@@ -186,18 +258,24 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
     //<editor-fold defaultstate="collapsed" desc="Override EventDelegateBase">
     /**
      * {@inheritDoc}
-     * <p>OVERRIDE: Invoke this.Method passing in sender, and eventInfo. Trap and log any
-     * errors</p>
+     * <p>OVERRIDE: Invoke this.handle passing in the listener, sender, and eventInfo
+     * (resolving the handle first if it was lost on deserialization). Trap and log 
+     * any errors</p>
      */
     @Override
     public void onEvent(Object sender, TArgs eventInfo) {
       try {
         Object listener = this.getListener();
-        if ((this.method != null) && ((listener = this.getListener()) != null)) {
-          Object[] args = new Object[]{sender, eventInfo};
-          this.method.invoke(listener, args);
+        if (listener != null) {
+          MethodHandle curHandle = this.handle;
+          if (curHandle == null) {
+            curHandle = EventHandlerBase.getEventHandle(listener, this.methodName, 
+                                          EventHandlerBase.this.getEventArgsClass());
+            this.handle = curHandle;
+          }
+          curHandle.invokeExact(listener, sender, (EventArgs) eventInfo);
         }
-      } catch (Exception exp) {
+      } catch (Throwable exp) {
         logger.log(Level.WARNING, "{0}.fireEvent Error:\n {1}",
                 new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
       }
@@ -208,9 +286,15 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
     
   // <editor-fold defaultstate="collapsed" desc="Private Fields">
   /**
-   * A List for maintaining the EventDelegateBase
+   * The shared empty delegate array
+   */
+  @SuppressWarnings("rawtypes")
+  private static final EventDelegateBase[] NoDelegates = new EventDelegateBase[0];
+  /**
+   * The copy-on-write array of EventDelegateBase - replaced (never modified) when a 
+   * delegate is added or removed.
    */
-  private List<EventDelegateBase<TArgs>> delegates;
+  private volatile EventDelegateBase<TArgs>[] delegates;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructore/Destructor">
@@ -218,8 +302,9 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
    * Public constructor with a reference to the EventSende owner.
    * @param pOwner
    */
+  @SuppressWarnings("unchecked")
   protected EventHandlerBase() {
-    this.delegates = null;
+    this.delegates = NoDelegates;
   }
 
   /**
@@ -227,14 +312,13 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
    * @throws Throwable
    */
   @Override
+  @SuppressWarnings("unchecked")
   protected void finalize() throws Throwable {
     super.finalize();
-    if (this.delegates != null) {
-      for (EventDelegateBase<TArgs> delegate : delegates) {
-        delegate.resetListener();
-      }
-      this.delegates.clear();
-      this.delegates = null;
+    EventDelegateBase<TArgs>[] curDelegates = this.delegates;
+    this.delegates = NoDelegates;
+    for (EventDelegateBase<TArgs> delegate : curDelegates) {
+      delegate.resetListener();
     }
   }
   // </editor-fold>
@@ -263,25 +347,51 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
    */
   public synchronized final void add(EventDelegateBase<TArgs> delegate) {
     if (delegate != null) {
-      if (this.delegates == null) {
-        this.delegates = new ArrayList<>();
-        this.delegates.add(delegate);
-      } else if (!this.delegates.contains(delegate)) {
-        this.delegates.add(delegate);
+      EventDelegateBase<TArgs>[] curDelegates = this.delegates;
+      for (EventDelegateBase<TArgs> curDelegate : curDelegates) {
+        if (curDelegate.equals(delegate)) {
+          return;
+        }
       }
+      EventDelegateBase<TArgs>[] newDelegates = 
+                              Arrays.copyOf(curDelegates, curDelegates.length + 1);
+      newDelegates[curDelegates.length] = delegate;
+      this.delegates = newDelegates;
     }
   }
+  
+  /**
+   * Add the <tt>listener</tt>'s PUBLIC Event Method (i.e., a method with parameter 
+   * types {Object, TArgs}) as a delegate for handling the event. The method is bound 
+   * once (see {@linkplain #getEventHandle(java.lang.Object, java.lang.String, 
+   * java.lang.Class) getEventHandle}). Ignored if the listener has already been added.
+   * @param listener the event listener
+   * @param methodName the name of the listener's Event Method
+   * @exception IllegalArgumentException if the method is not supported be the listener
+   */
+  public final void add(Object listener, String methodName) {
+    MethodHandle handle = EventHandlerBase.getEventHandle(listener, methodName, 
+                                                            this.getEventArgsClass());
+    this.add(new MethodEventDelegate(listener, methodName, handle));
+  }
 
   /**
    * Remove the Listener for the EventHandler's EventListener's list. Ignored if the
    * listener is undefined.
    * @param listener the event listener to remove
    */
+  @SuppressWarnings("unchecked")
   public synchronized void remove(Object listener) {
-    if ((listener != null) && (this.delegates != null) && (!this.delegates.isEmpty())) {
-      for (EventDelegateBase<TArgs> delegate : delegates) {
-        if (delegate.equals(listener)) {
-          this.delegates.remove(delegate);
+    EventDelegateBase<TArgs>[] curDelegates = this.delegates;
+    if ((listener != null) && (curDelegates.length > 0)) {
+      for (int iDelegate = 0; iDelegate < curDelegates.length; iDelegate++) {
+        if (curDelegates[iDelegate].equals(listener)) {
+          EventDelegateBase<TArgs>[] newDelegates = (curDelegates.length == 1)?
+                  NoDelegates: new EventDelegateBase[curDelegates.length - 1];
+          System.arraycopy(curDelegates, 0, newDelegates, 0, iDelegate);
+          System.arraycopy(curDelegates, iDelegate + 1, newDelegates, iDelegate,
+                                                  curDelegates.length - iDelegate - 1);
+          this.delegates = newDelegates;
           break;
         }
       }
@@ -303,19 +413,20 @@ public abstract class EventHandlerBase<TArgs extends EventArgs>
    * assign eventInfo to the listener. It will call the listeners in the order they were
    * added to to the list and terminate the process if the eventInfo return handled 
    * (i.e., its isHandled state is set).</p>
+   * <p>The listeners are called from a snapshot of the delegates - the call does not
+   * lock the EventHandler or allocate.</p>
    * <p><b>NOTE:</b> The process is skipped id the sender=null </p>
    * NOTE: ignored if pSender or not the Delegates owner or e = null.
    * @param pSender IEventSender
    * @param eventArgs the EventArgs to pass to the listener
    */
-   public synchronized void fireEvent(Object sender, TArgs eventArgs) {
-    if ((sender == null) || (eventArgs == null)
-            || (this.delegates == null) || (this.delegates.isEmpty())) {
+   public void fireEvent(Object sender, TArgs eventArgs) {
+    EventDelegateBase<TArgs>[] curDelegates = this.delegates;
+    if ((sender == null) || (eventArgs == null) || (curDelegates.length == 0)) {
       return;
     }
     
-    List<EventDelegateBase<TArgs>> delegateList = new ArrayList<>(this.delegates);    
-    for (EventDelegateBase<TArgs> delegate : delegateList) {
+    for (EventDelegateBase<TArgs> delegate : curDelegates) {
       try {
         delegate.onEvent(sender, eventArgs);
       } catch (Exception exp) {
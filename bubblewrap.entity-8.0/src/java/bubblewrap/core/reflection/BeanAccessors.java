@@ -0,0 +1,396 @@
+package bubblewrap.core.reflection;
+
+import bubblewrap.entity.context.FieldInfo;
+import bubblewrap.io.DataEntry;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A class-keyed registry of a bean class' GET- and SET-method tables and their bound
+ * accessors. The tables are built once per class (on first use) by a single scan of the
+ * class' methods - the same match rules as {@linkplain ReflectionInfo#getGetMethod(
+ * java.lang.Class, java.lang.String) ReflectionInfo.getGetMethod} and {@linkplain
+ * ReflectionInfo#getSetMethod(java.lang.Class, java.lang.String) getSetMethod} apply.
+ * </p>
+ * <p>The GET- and SET-methods are invoked through {@linkplain MethodHandle
+ * MethodHandles} that are bound once per method (see {@linkplain #getValue(
+ * java.lang.reflect.Method, java.lang.Object) getValue} and {@linkplain #setValue(
+ * java.lang.reflect.Method, java.lang.Object, java.lang.Object) setValue}) rather than
+ * through Method.invoke with a new argument array per call. The registry is held in a
+ * ClassValue and does not prevent the bean classes from being unloaded.</p>
+ * <p>It also caches the class' {@linkplain FieldInfo FieldInfos} resolved by
+ * {@linkplain ReflectionInfo#getFieldInfo(java.lang.Class, java.lang.String) 
+ * ReflectionInfo.getFieldInfo}.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class BeanAccessors {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger = Logger.getLogger(BeanAccessors.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Registry">
+  /**
+   * The MethodType of the bound GET-Method handles: Object(Object bean)
+   */
+  private static final MethodType GetterType =
+                                  MethodType.methodType(Object.class, Object.class);
+  /**
+   * The MethodType of the bound SET-Method handles: void(Object bean, Object value)
+   */
+  private static final MethodType SetterType =
+                        MethodType.methodType(void.class, Object.class, Object.class);
+  /**
+   * The BeanAccessors by bean class
+   */
+  private static final ClassValue<BeanAccessors> registry =
+                                                    new ClassValue<BeanAccessors>() {
+    @Override
+    protected BeanAccessors computeValue(Class<?> type) {
+      return new BeanAccessors(type);
+    }
+  };
+
+  /**
+   * Get the BeanAccessors of <tt>beanClass</tt> - initiated on the first call
+   * @param beanClass the bean class (not null)
+   * @return the class' BeanAccessors
+   */
+  public static BeanAccessors forClass(Class<?> beanClass) {
+    if (beanClass == null) {
+      throw new NullPointerException("Class reference is unassigned");
+    }
+    return BeanAccessors.registry.get(beanClass);
+  }
+
+  /**
+   * Called to invoke <tt>getMethod</tt> on <tt>bean</tt> through its bound handle.
+   * @param getMethod the GET-Method (not null)
+   * @param bean the bean instance (can be null if the method is static)
+   * @return the returned value (primitives are boxed)
+   * @throws IllegalAccessException if the method is not accessible
+   * @throws IllegalArgumentException if bean is not an instance of the method's class
+   * @throws InvocationTargetException if the method threw an exception
+   */
+  public static Object getValue(Method getMethod, Object bean)
+                                throws IllegalAccessException, InvocationTargetException {
+    MethodHandle handle =
+            BeanAccessors.forClass(getMethod.getDeclaringClass()).getHandle(getMethod);
+    if (handle == null) {
+      Object[] args = null;
+      return getMethod.invoke(bean, args);
+    }
+    BeanAccessors.checkTarget(getMethod, bean);
+    try {
+      return (Object) handle.invokeExact(bean);
+    } catch (Throwable exp) {
+      throw new InvocationTargetException(exp);
+    }
+  }
+
+  /**
+   * Called to invoke <tt>setMethod</tt> on <tt>bean</tt> through its bound handle. The
+   * value is validated as Method.invoke would (i.e., an IllegalArgumentException is
+   * thrown if the value cannot be assigned to the method's parameter).
+   * @param setMethod the SET-Method (not null)
+   * @param bean the bean instance
+   * @param value the value to assign (can be null if the parameter is not primitive)
+   * @throws IllegalAccessException if the method is not accessible
+   * @throws IllegalArgumentException if bean is not an instance of the method's class
+   * or the value cannot be assigned to the parameter
+   * @throws InvocationTargetException if the method threw an exception
+   */
+  public static void setValue(Method setMethod, Object bean, Object value)
+                                throws IllegalAccessException, InvocationTargetException {
+    MethodHandle handle =
+            BeanAccessors.forClass(setMethod.getDeclaringClass()).getHandle(setMethod);
+    if (handle == null) {
+      Object[] args = {value};
+      setMethod.invoke(bean, args);
+      return;
+    }
+    BeanAccessors.checkTarget(setMethod, bean);
+    Class<?> parType = setMethod.getParameterTypes()[0];
+    if ((value == null)? parType.isPrimitive():
+            (!BeanAccessors.toObjectType(parType).isInstance(value))) {
+      throw new IllegalArgumentException("Value[" + value + "] cannot be assigned to "
+              + setMethod.getDeclaringClass().getSimpleName() + "."
+              + setMethod.getName() + "(" + parType.getSimpleName() + ").");
+    }
+    try {
+      handle.invokeExact(bean, value);
+    } catch (Throwable exp) {
+      throw new InvocationTargetException(exp);
+    }
+  }
+
+  /**
+   * Called to validate the bean an instance method is invoked on as Method.invoke would
+   * (i.e., the bound handle would otherwise throw a ClassCastException).
+   * @param method the method
+   * @param bean the bean instance
+   * @throws NullPointerException if the method is not static and bean is null
+   * @throws IllegalArgumentException if bean is not an instance of the method's class
+   */
+  private static void checkTarget(Method method, Object bean) {
+    if (Modifier.isStatic(method.getModifiers())) {
+      return;
+    }
+    if (bean == null) {
+      throw new NullPointerException("The Bean of " 
+              + method.getDeclaringClass().getSimpleName() + "." + method.getName() 
+              + " is unassigned.");
+    }
+    if (!method.getDeclaringClass().isInstance(bean)) {
+      throw new IllegalArgumentException("Bean[" + bean.getClass().getSimpleName() 
+              + "] is not an instance of " + method.getDeclaringClass().getSimpleName()
+              + ".");
+    }
+  }
+
+  /**
+   * Get the object type of a (primitive) type
+   * @param type the type
+   * @return the boxed type if type is primitive, else type.
+   */
+  private static Class<?> toObjectType(Class<?> type) {
+    Class<?> result = type;
+    if (type.isPrimitive()) {
+      result = MethodType.methodType(type).wrap().returnType();
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The bean class
+   */
+  private final Class<?> beanClass;
+  /**
+   * The public GET-Methods by lower case field name
+   */
+  private final HashMap<String, Method> publicGetters;
+  /**
+   * The non-public declared GET-Methods by lower case field name
+   */
+  private final HashMap<String, Method> declaredGetters;
+  /**
+   * The public SET-Methods by lower case field name
+   */
+  private final HashMap<String, Method> publicSetters;
+  /**
+   * The non-public declared SET-Methods by lower case field name
+   */
+  private final HashMap<String, Method> declaredSetters;
+  /**
+   * The bound handles of the class' declared methods (lazy initiated)
+   */
+  private final ConcurrentHashMap<Method, MethodHandle> handles;
+  /**
+   * The resolved FieldInfos by lower case field name (lazy initiated)
+   */
+  private final ConcurrentHashMap<String, FieldInfo> fieldInfos;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor - build the class' method tables
+   * @param beanClass the bean class
+   */
+  private BeanAccessors(Class<?> beanClass) {
+    super();
+    this.beanClass = beanClass;
+    this.publicGetters = new HashMap<>();
+    this.declaredGetters = new HashMap<>();
+    this.publicSetters = new HashMap<>();
+    this.declaredSetters = new HashMap<>();
+    this.handles = new ConcurrentHashMap<>();
+    this.fieldInfos = new ConcurrentHashMap<>();
+    try {
+      this.addMethods(beanClass.getMethods(), false, this.publicGetters,
+                                                                  this.publicSetters);
+      this.addMethods(beanClass.getDeclaredMethods(), true, this.declaredGetters,
+                                                                this.declaredSetters);
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.new Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Called to add the GET- and SET-Methods in <tt>methods</tt> to the tables. The first
+   * matching method of a field is retained.
+   * @param methods the methods to add
+   * @param noPublic true to skip public methods
+   * @param getters the GET-Method table
+   * @param setters the SET-Method table
+   */
+  private void addMethods(Method[] methods, boolean noPublic,
+                      HashMap<String, Method> getters, HashMap<String, Method> setters) {
+    Class<?> returnType = null;
+    String methodName = null;
+    for (Method method : methods) {
+      if ((noPublic) && (Modifier.isPublic(method.getModifiers()))) {
+        continue;
+      }
+      returnType = method.getReturnType();
+      methodName = method.getName().toLowerCase();
+      int numPars = method.getParameterTypes().length;
+      if (void.class.equals(returnType)) {
+        if ((numPars > 0) && (methodName.startsWith("set"))) {
+          BeanAccessors.putFirst(setters, methodName.substring(3), method);
+        }
+      } else if ((returnType != null) && (numPars == 0)) {
+        boolean isBool = ((Boolean.class.equals(returnType)) ||
+                                                      (boolean.class.equals(returnType)));
+        if (methodName.startsWith("get")) {
+          BeanAccessors.putFirst(getters, methodName.substring(3), method);
+        } else if ((isBool) && (methodName.startsWith("is"))) {
+          BeanAccessors.putFirst(getters, methodName.substring(2), method);
+        } else if ((isBool) && (methodName.startsWith("has"))) {
+          BeanAccessors.putFirst(getters, methodName.substring(3), method);
+        }
+      }
+    }
+  }
+
+  /**
+   * Put <tt>method</tt> in <tt>table</tt> if the table has no method for the key
+   */
+  private static void putFirst(HashMap<String, Method> table, String key,
+                                                                      Method method) {
+    if ((!key.isEmpty()) && (!table.containsKey(key))) {
+      table.put(key, method);
+    }
+  }
+
+  /**
+   * Get the bound handle of one of the class' declared methods - adapted to the
+   * {@linkplain #GetterType} or the {@linkplain #SetterType}. The handle is bound to a
+   * private copy of the method so that the accessibility of the shared Method instance
+   * is not changed.
+   * @param method the method
+   * @return the handle or null if the method cannot be bound.
+   */
+  private MethodHandle getHandle(Method method) {
+    MethodHandle result = this.handles.get(method);
+    if (result == null) {
+      try {
+        boolean isSetter = void.class.equals(method.getReturnType());
+        if ((isSetter) && (method.getParameterTypes().length != 1)) {
+          return null;
+        }
+        Method target = method.getDeclaringClass().
+                          getDeclaredMethod(method.getName(), method.getParameterTypes());
+        target.setAccessible(true);
+        result = MethodHandles.lookup().unreflect(target);
+        if (Modifier.isStatic(method.getModifiers())) {
+          result = MethodHandles.dropArguments(result, 0, Object.class);
+        }
+        result = result.asType((isSetter)? SetterType: GetterType);
+      } catch (Exception exp) {
+        logger.log(Level.FINE, "{0}.getHandle Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+        return null;
+      }
+      this.handles.putIfAbsent(method, result);
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package Methods">
+  /**
+   * Get the cached FieldInfo of a field (see {@linkplain ReflectionInfo#getFieldInfo(
+   * java.lang.Class, java.lang.String) ReflectionInfo.getFieldInfo})
+   * @param fieldName the (clean) field name (case in-sensitive)
+   * @return the cached FieldInfo or null if not yet resolved.
+   */
+  FieldInfo getFieldInfo(String fieldName) {
+    return this.fieldInfos.get(fieldName.toLowerCase());
+  }
+
+  /**
+   * Called to cache the resolved FieldInfo of a field. If another thread cached the
+   * field first, its FieldInfo is retained.
+   * @param fieldName the (clean) field name (case in-sensitive)
+   * @param fieldInfo the resolved FieldInfo (not null)
+   * @return the cached FieldInfo
+   */
+  FieldInfo putFieldInfo(String fieldName, FieldInfo fieldInfo) {
+    FieldInfo result = this.fieldInfos.putIfAbsent(fieldName.toLowerCase(), fieldInfo);
+    return (result == null)? fieldInfo: result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the bean class
+   * @return the assigned class
+   */
+  public Class<?> getBeanClass() {
+    return this.beanClass;
+  }
+
+  /**
+   * Get the class' GET-method for a field (see {@linkplain ReflectionInfo#getGetMethod(
+   * java.lang.Class, java.lang.String) ReflectionInfo.getGetMethod}).
+   * @param fieldName the field name (case in-sensitive)
+   * @return the GET-Method or null if not supported.
+   */
+  public Method getGetMethod(String fieldName) {
+    Method result = null;
+    fieldName = DataEntry.cleanString(fieldName);
+    if (fieldName != null) {
+      fieldName = fieldName.toLowerCase();
+      if ((result = this.publicGetters.get(fieldName)) == null) {
+        result = this.declaredGetters.get(fieldName);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the class' SET-method for a field (see {@linkplain ReflectionInfo#getSetMethod(
+   * java.lang.Class, java.lang.String) ReflectionInfo.getSetMethod}).
+   * @param fieldName the field name (case in-sensitive)
+   * @return the SET-Method or null if not supported.
+   */
+  public Method getSetMethod(String fieldName) {
+    Method result = null;
+    fieldName = DataEntry.cleanString(fieldName);
+    if (fieldName != null) {
+      fieldName = fieldName.toLowerCase();
+      if ((result = this.publicSetters.get(fieldName)) == null) {
+        result = this.declaredSetters.get(fieldName);
+      }
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: "BeanAccessors[{beanClass.simpleName}]"</p>
+   */
+  @Override
+  public String toString() {
+    return "BeanAccessors[" + this.beanClass.getSimpleName() + "]";
+  }
+  //</editor-fold>
+}
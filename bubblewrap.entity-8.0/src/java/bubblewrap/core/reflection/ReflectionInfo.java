@@ -385,6 +385,8 @@ public class ReflectionInfo {
    * retrieve the field's Set-Method - if defined.</p>
    *  <p>This process fails if the beanClasss or fieldName is undefined, or the field or
    * its Get-Method cannot located.</p>
+   * <p>The resolved FieldInfo is cached in the class' {@linkplain BeanAccessors} and
+   * is shared by subsequent calls.</p>
    * @param beanClass the bean class that contains the field
    * @param fieldName the name of the field to search for.
    * @return the field's FieldInfo
@@ -404,6 +406,11 @@ public class ReflectionInfo {
       throw new NullPointerException("The Field Name cannot by unassigned.");
     }
     
+    BeanAccessors accessors = BeanAccessors.forClass(beanClass);
+    if ((result = accessors.getFieldInfo(fieldName)) != null) {
+      return result;
+    }
+    
     boolean hasField = false;
     Class returnType = null;
     Method getMethod = null;
@@ -443,7 +450,8 @@ public class ReflectionInfo {
     }
     
     EntityPath entityPath = new EntityPath<>(beanClass, fieldName);
-    result = new FieldInfo(entityPath, getMethod, setMethod, mappedBy);
+    result = accessors.putFieldInfo(fieldName, 
+                                  new FieldInfo(entityPath, getMethod, setMethod, mappedBy));
     return result;
   }
   
@@ -631,7 +639,8 @@ public class ReflectionInfo {
    * Get a class' GET-method for a specified field. If search a Get-Method (i.e., 
    * return of !Void and taking no parameters) that ends with the field name and a 
    * has a prefix of "get" or if the return type is boolean it also accept "is" or "has". 
-   * The field name search is not case sensitive.
+   * The field name search is not case sensitive. The class' methods are resolved once
+   * (see {@linkplain BeanAccessors}).
    * <p>
    * <b>NOTE:</b> Check the returned field's Modifiers - the field could be static, 
    * protected, private, etc.</p>
@@ -651,56 +660,7 @@ public class ReflectionInfo {
     if (fieldName == null) {
       throw new NullPointerException("The field name is unassigned");
     }
-    fieldName = fieldName.toLowerCase();    
-    if ((result = ReflectionInfo.getGetMethod(fieldName, false, beanClass.getMethods())) 
-            == null) {
-      result = ReflectionInfo.getGetMethod(fieldName, true, 
-                                                          beanClass.getDeclaredMethods());
-    }
-    return result;
-  }
-  
-  /**
-   * @since 1.00.002
-   * Get the Matching get-Method from the array of <tt>methods</tt> ignoring any public
-   * public field if <tt>noPublic</tt> = true.
-   * @param fieldName the field name to match
-   * @param noPublic true ti ignore public field.
-   * @param methods the array of methods to search
-   * @return the matching get-Method
-   */
-  private static Method getGetMethod(String fieldName, boolean noPublic, 
-                                                                      Method[] methods) {    
-    Method result = null;
-    if ((fieldName != null) && (methods != null) && (methods.length > 0)) {
-      Class returnType = null;
-      Class[] parTypes = null;
-      String methodName = null;
-      for (Method method : methods) {        
-        if (((noPublic) && (Modifier.isPublic(method.getModifiers()))) ||
-            ((returnType = method.getReturnType()) == null) || 
-            (returnType.equals(void.class)) ||
-            (((parTypes = method.getParameterTypes()) != null) && 
-                (parTypes.length > 0))) {
-          continue;
-        }
-        methodName = method.getName();
-        if (methodName.toLowerCase().endsWith(fieldName)) {
-          String prefix = methodName.substring(0, 
-                                                methodName.length() - fieldName.length());
-          if ((returnType.equals(Boolean.class)) || (returnType.equals(boolean.class))) {
-            if (DataEntry.inStringArray(prefix.toLowerCase(), "get", "is", "has")) {
-              result = method;
-              break;
-            }
-          } else if ("get".equalsIgnoreCase(prefix)) {
-            result = method;
-              break;
-          }
-        }
-      }
-      
-    }
+    result = BeanAccessors.forClass(beanClass).getGetMethod(fieldName);
     return result;
   }
   
@@ -708,7 +668,8 @@ public class ReflectionInfo {
    * @since 1.00.002
    * Get a class' SET-method for a specified field. If search a Set-Method (i.e., 
    * return Void) that ends with the field name and a has a prefix of "set". 
-   * The field name search is not case sensitive.
+   * The field name search is not case sensitive. The class' methods are resolved once
+   * (see {@linkplain BeanAccessors}).
    * <p>
    * <b>NOTE:</b> Check the returned field's Modifiers - the field could be static, 
    * protected, private, etc.</p>
@@ -728,49 +689,7 @@ public class ReflectionInfo {
     if (fieldName == null) {
       throw new NullPointerException("The field name is unassigned");
     }
-    fieldName = fieldName.toLowerCase();    
-    if ((result = ReflectionInfo.getSetMethod(fieldName, false, beanClass.getMethods())) 
-            == null) {
-      result = ReflectionInfo.getSetMethod(fieldName, true, 
-                                                          beanClass.getDeclaredMethods());
-    }
-    return result;
-  }
-  
-  /**
-   * @since 1.00.002
-   * Get the Matching set-Method from the array of <tt>methods</tt> ignoring any public
-   * public field if <tt>noPublic</tt> = true.
-   * @param fieldName the field name to match
-   * @param noPublic true ti ignore public field.
-   * @param methods the array of methods to search
-   * @return the matching set-Method
-   */
-  private static Method getSetMethod(String fieldName, boolean noPublic, 
-                                                                      Method[] methods) {    
-    Method result = null;
-    if ((fieldName != null) && (methods != null) && (methods.length > 0)) {
-      Class returnType = null;
-      Class[] parTypes = null;
-      String methodName = null;
-      for (Method method : methods) {
-        if (((noPublic) && (Modifier.isPublic(method.getModifiers()))) ||
-            ((returnType = method.getReturnType()) == null) || 
-            (!returnType.equals(void.class)) ||
-            ((parTypes = method.getParameterTypes()) == null) || 
-             (parTypes.length == 0)) {
-          continue;
-        }
-        methodName = method.getName();
-        if (methodName.toLowerCase().endsWith(fieldName)) {
-          String prefix = methodName.substring(0, methodName.length() - fieldName.length());
-          if ("set".equalsIgnoreCase(prefix)) {
-            result = method;
-            break;
-          }
-        }
-      }
-    }
+    result = BeanAccessors.forClass(beanClass).getSetMethod(fieldName);
     return result;
   }
   
@@ -846,8 +765,7 @@ public class ReflectionInfo {
               + "." + fieldName + "' is not supported");
     }
     
-    Object[] pArg = null;
-    Object pValue = pMethod.invoke(entityBean, pArg);
+    Object pValue = BeanAccessors.getValue(pMethod, entityBean);
     result = (pValue == null)? null: (TValue) pValue;
     return result;
   }
@@ -886,8 +804,7 @@ public class ReflectionInfo {
               + entityClass.getSimpleName() + "." + fieldName + " is not supported");
     }
     
-    Object[] pArg = null;
-    Object pValue = method.invoke(entityBean, pArg);
+    Object pValue = BeanAccessors.getValue(method, entityBean);
     result = (pValue == null)? null: (TValue) pValue;
     return result;
   }
@@ -932,8 +849,7 @@ public class ReflectionInfo {
     }
     
     try {
-      Object[] args = {value};
-      Object result = setMethod.invoke(entityBean, args);
+      BeanAccessors.setValue(setMethod, entityBean, value);
     } catch (IllegalAccessException | IllegalArgumentException 
             | InvocationTargetException exp) {
       throw new Exception("Setting Field '" + entityClass.getSimpleName()
@@ -985,8 +901,7 @@ public class ReflectionInfo {
               + "." + fieldName + "' is not supported");
     }
 
-    Object[] args = null;
-    result = (Collection<TChild>) method.invoke(entityBean, args);
+    result = (Collection<TChild>) BeanAccessors.getValue(method, entityBean);
     return result;
   }
 
@@ -1,5 +1,6 @@
 package bubblewrap.entity.core;
 
+import bubblewrap.core.reflection.BeanAccessors;
 import bubblewrap.core.reflection.ReflectionInfo;
 import bubblewrap.io.DataEntry;
 import bubblewrap.io.datetime.DateTime;
@@ -248,9 +249,8 @@ public class EntityComparator<TBean extends Serializable>
     }
       
     try {
-      Object[] args = null;
-      Object value1 = sortField.method.invoke(obj1, args);
-      Object value2 = sortField.method.invoke(obj2, args);
+      Object value1 = BeanAccessors.getValue(sortField.method, obj1);
+      Object value2 = BeanAccessors.getValue(sortField.method, obj2);
       if ((value1 == null) && (value2 == null)) {
         result = 0;
       } else if (value1 == null) {
@@ -308,9 +308,8 @@ public class EntityComparator<TBean extends Serializable>
     }
     
     try {
-      Object[] args = null;
-      Object value1 = (Object) sortField.method.invoke(obj1, args);
-      Object value2 = (Object) sortField.method.invoke(obj2, args);
+      Object value1 = (Object) BeanAccessors.getValue(sortField.method, obj1);
+      Object value2 = (Object) BeanAccessors.getValue(sortField.method, obj2);
       
       String sVal1 = (value1 == null)? null: DataEntry.cleanString(value1.toString());
       String sVal2 = (value2 == null)? null: DataEntry.cleanString(value2.toString());
@@ -347,9 +346,8 @@ public class EntityComparator<TBean extends Serializable>
     }
     
     try {
-      Object[] args = null;
-      Date value1 = (Date) sortField.method.invoke(obj1, args);
-      Date value2 = (Date) sortField.method.invoke(obj2, args);
+      Date value1 = (Date) BeanAccessors.getValue(sortField.method, obj1);
+      Date value2 = (Date) BeanAccessors.getValue(sortField.method, obj2);
       
       if ((value1 != null) && (value2 != null)) {
         if (value1 == null) {
@@ -385,9 +383,8 @@ public class EntityComparator<TBean extends Serializable>
     }
     
     try {
-      Object[] args = null;
-      DateTime value1 = (DateTime) sortField.method.invoke(obj1, args);
-      DateTime value2 = (DateTime) sortField.method.invoke(obj2, args);
+      DateTime value1 = (DateTime) BeanAccessors.getValue(sortField.method, obj1);
+      DateTime value2 = (DateTime) BeanAccessors.getValue(sortField.method, obj2);
       
       if ((value1 != null) && (value2 != null)) {
         if (value1 == null) {
@@ -423,9 +420,8 @@ public class EntityComparator<TBean extends Serializable>
     }
     
     try {
-      Object[] args = null;
-      Enum value1 = (Enum) sortField.method.invoke(obj1, args);
-      Enum value2 = (Enum) sortField.method.invoke(obj2, args);
+      Enum value1 = (Enum) BeanAccessors.getValue(sortField.method, obj1);
+      Enum value2 = (Enum) BeanAccessors.getValue(sortField.method, obj2);
 
       Integer intVal1 = (value1 == null)? null: value1.ordinal();
       Integer intVal2 = (value2 == null)? null: value2.ordinal();
@@ -463,9 +459,8 @@ public class EntityComparator<TBean extends Serializable>
     }
     
     try {
-      Object[] args = null;
-      Comparable value1 = (Comparable) sortField.method.invoke(obj1, args);
-      Comparable value2 = (Comparable) sortField.method.invoke(obj2, args);
+      Comparable value1 = (Comparable) BeanAccessors.getValue(sortField.method, obj1);
+      Comparable value2 = (Comparable) BeanAccessors.getValue(sortField.method, obj2);
       
       if ((value1 != null) && (value2 != null)) {
         if (value1 == null) {
@@ -3,6 +3,7 @@ package bubblewrap.entity.core;
 import bubblewrap.app.context.BwAppContext;
 import bubblewrap.core.enums.*;
 import bubblewrap.core.events.*;
+import bubblewrap.core.reflection.BeanAccessors;
 import bubblewrap.core.reflection.ReflectionInfo;
 import bubblewrap.entity.context.*;
 import bubblewrap.entity.context.ForeignKey;
@@ -95,8 +96,7 @@ public class EntityFacade <TBean extends Serializable>
     }
     
     try {
-      Object[] args = {value};
-      Object result = fieldInfo.setMethod.invoke(entityBean, args);
+      BeanAccessors.setValue(fieldInfo.setMethod, entityBean, value);
     } catch (IllegalAccessException | IllegalArgumentException 
             | InvocationTargetException pExp) {
       throw new Exception("Setting Field '" + entityClass.getSimpleName()
@@ -6,6 +6,7 @@ import bubblewrap.app.context.BwAppContext;
 import bubblewrap.core.enums.FacadeFilterEnums;
 import bubblewrap.core.enums.IntFlag;
 import bubblewrap.core.events.*;
+import bubblewrap.core.reflection.BeanAccessors;
 import bubblewrap.core.reflection.ReflectionInfo;
 import bubblewrap.entity.context.*;
 import bubblewrap.entity.enums.BwFieldAlias;
@@ -3039,8 +3040,7 @@ public class EntityWrapper<TBean extends Serializable> implements Serializable {
     }
     
     try {
-      Object[] args = {value};
-      Object result = fieldInfo.setMethod.invoke(entityBean, args);
+      BeanAccessors.setValue(fieldInfo.setMethod, entityBean, value);
     } catch (IllegalAccessException | IllegalArgumentException 
             | InvocationTargetException exp) {
       throw new Exception("Setting Field '" + entityClass.getSimpleName()
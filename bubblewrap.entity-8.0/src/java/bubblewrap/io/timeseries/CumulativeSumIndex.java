@@ -0,0 +1,258 @@
+package bubblewrap.io.timeseries;
+
+import bubblewrap.core.events.EventArgs;
+import bubblewrap.core.events.EventDelegate;
+import bubblewrap.io.datetime.DateTime;
+import bubblewrap.io.schedules.TimeInterval;
+import bubblewrap.io.schedules.TimeStep;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A prefix-sum (cumulative sum) index of a {@linkplain TimeSeries}' values. The
+ * index stores the running total of the values of the series' time steps, so that the
+ * sum of any range of time steps (e.g., Apr-Jul to date, water-year to date, or month
+ * to date) is an O(1) lookup instead of an O(n) scan of the series.</p>
+ * <p>The index listens to the series' {@linkplain TimeSeries#TimeSeriesChanged
+ * TimeSeriesChanged} event and is rebuilt (once) on the first lookup after the series
+ * changed. Inheritors must call {@linkplain #invalidate() invalidate} if the series'
+ * values are changed without firing the event (e.g., during the series'
+ * onValidate).</p>
+ * <p>Missing values (i.e., {@linkplain #onGetStepValue(bubblewrap.io.timeseries.
+ * TimeStepValue) onGetStepValue} returns null or NaN) are counted as zero or - if
+ * <tt>carryForward</tt> is set - as the last prior defined value.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ * @param <TValue> the TimeSeries' TimeStepValue type
+ */
+public abstract class CumulativeSumIndex<TValue extends TimeStepValue>
+                                                                implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger =
+                                Logger.getLogger(CumulativeSumIndex.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The indexed TimeSeries
+   */
+  private final TimeSeries<TValue> timeSeries;
+  /**
+   * Flag to substitute the last prior value for missing values
+   */
+  private final boolean carryForward;
+  /**
+   * The number of indexed time steps
+   */
+  private int numSteps;
+  /**
+   * The time (in the TimeInterval's TimeUnit) of each indexed time step (sorted)
+   */
+  private long[] stepTimes;
+  /**
+   * The effective (i.e., substituted) value of each time step
+   */
+  private double[] stepValues;
+  /**
+   * The prefix sums: sums[i] = the sum of stepValues[0..i-1]
+   */
+  private double[] sums;
+  /**
+   * Flag set when the index must be rebuilt before the next lookup
+   */
+  private boolean invalid;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param timeSeries the TimeSeries to index
+   * @param carryForward true to substitute the last prior value for missing values
+   */
+  public CumulativeSumIndex(TimeSeries<TValue> timeSeries, boolean carryForward) {
+    super();
+    if (timeSeries == null) {
+      throw new NullPointerException("The Index's TimeSeries is unassigned.");
+    }
+    this.timeSeries = timeSeries;
+    this.carryForward = carryForward;
+    this.numSteps = 0;
+    this.stepTimes = new long[0];
+    this.stepValues = new double[0];
+    this.sums = new double[]{0.0d};
+    this.invalid = true;
+    this.timeSeries.TimeSeriesChanged.add(new EventDelegate(this) {
+
+      @Override
+      public void onEvent(Object sender, EventArgs args) {
+        CumulativeSumIndex.this.invalidate();
+      }
+    });
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Called to rebuild the index if invalid
+   */
+  private void validate() {
+    if (!this.invalid) {
+      return;
+    }
+    int size = this.timeSeries.size();
+    if (this.stepTimes.length < size) {
+      this.stepTimes = new long[size];
+      this.stepValues = new double[size];
+      this.sums = new double[size + 1];
+    }
+    this.numSteps = 0;
+    this.sums[0] = 0.0d;
+    double lastValue = 0.0d;
+    TValue timeValue = null;
+    TimeStep timeStep = null;
+    Double value = null;
+    for (int iStep = 0; iStep < size; iStep++) {
+      if (((timeValue = this.timeSeries.getTimeValue(iStep)) == null) ||
+              ((timeStep = timeValue.getTimeStep()) == null)) {
+        continue;
+      }
+      double stepValue = 0.0d;
+      try {
+        value = this.onGetStepValue(timeValue);
+      } catch (Exception exp) {
+        logger.log(Level.WARNING, "{0}.onGetStepValue Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+        value = null;
+      }
+      if ((value != null) && (!value.isNaN())) {
+        stepValue = value;
+        lastValue = value;
+      } else if (this.carryForward) {
+        stepValue = lastValue;
+      }
+      this.stepTimes[this.numSteps] = timeStep.getTime();
+      this.stepValues[this.numSteps] = stepValue;
+      this.sums[this.numSteps + 1] = this.sums[this.numSteps] + stepValue;
+      this.numSteps++;
+    }
+    this.invalid = false;
+  }
+
+  /**
+   * Get the time of the series' time step that contains <tt>date</tt>
+   * @param date the date (not null)
+   * @return the step's time (in the TimeInterval's TimeUnit) or null if the series'
+   * TimeInterval is undefined.
+   */
+  private Long toStepTime(DateTime date) {
+    TimeInterval timeInterval = this.timeSeries.getTimeInterval();
+    TimeStep timeStep = (timeInterval == null)? null: timeInterval.getTimeStep(date);
+    return (timeStep == null)? null: timeStep.getTime();
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Called to mark the index invalid - it will be rebuilt on the next lookup
+   */
+  public synchronized void invalidate() {
+    this.invalid = true;
+  }
+
+  /**
+   * Get the number of indexed time steps
+   * @return the count
+   */
+  public synchronized int size() {
+    this.validate();
+    return this.numSteps;
+  }
+
+  /**
+   * Get the index of the time step that contains <tt>date</tt>
+   * @param date the date (can be null)
+   * @return the index or -1 if date = null or not in the series.
+   */
+  public synchronized int indexOf(DateTime date) {
+    this.validate();
+    Long stepTime = (date == null)? null: this.toStepTime(date);
+    int result = -1;
+    if ((stepTime != null) && (this.numSteps > 0)) {
+      result = Arrays.binarySearch(this.stepTimes, 0, this.numSteps, stepTime);
+    }
+    return (result < 0)? -1: result;
+  }
+
+  /**
+   * Get the effective (i.e., substituted) value of a time step
+   * @param index the step index
+   * @return the value or NaN if the index is out of range
+   */
+  public synchronized double getValue(int index) {
+    this.validate();
+    return ((index < 0) || (index >= this.numSteps))? Double.NaN:
+                                                      this.stepValues[index];
+  }
+
+  /**
+   * Get the cumulative sum of the time steps [0..index]
+   * @param index the step index (clamped to the indexed range)
+   * @return the sum (0.0 if index &lt; 0)
+   */
+  public synchronized double getCumulative(int index) {
+    this.validate();
+    index = Math.min(index, this.numSteps - 1);
+    return (index < 0)? 0.0d: this.sums[index + 1];
+  }
+
+  /**
+   * Get the sum of the time steps [fromIndex..toIndex]
+   * @param fromIndex the first step index (clamped to the indexed range)
+   * @param toIndex the last step index (clamped to the indexed range)
+   * @return the sum (0.0 if the range is empty)
+   */
+  public synchronized double getSum(int fromIndex, int toIndex) {
+    this.validate();
+    fromIndex = Math.max(0, fromIndex);
+    toIndex = Math.min(toIndex, this.numSteps - 1);
+    return (fromIndex > toIndex)? 0.0d: (this.sums[toIndex + 1] - this.sums[fromIndex]);
+  }
+
+  /**
+   * Get the sum of the time steps in the period [fromDt..toDt]. The period is clamped to
+   * the series' range.
+   * @param fromDt the start of the period (null for the series' start)
+   * @param toDt the end of the period (null for the series' end)
+   * @return the sum (0.0 if no steps in the period)
+   */
+  public synchronized double getSum(DateTime fromDt, DateTime toDt) {
+    this.validate();
+    int fromIndex = 0;
+    int toIndex = this.numSteps - 1;
+    Long stepTime = null;
+    if ((fromDt != null) && ((stepTime = this.toStepTime(fromDt)) != null)) {
+      fromIndex = Arrays.binarySearch(this.stepTimes, 0, this.numSteps, stepTime);
+      fromIndex = (fromIndex < 0)? (-fromIndex - 1): fromIndex;
+    }
+    if ((toDt != null) && ((stepTime = this.toStepTime(toDt)) != null)) {
+      toIndex = Arrays.binarySearch(this.stepTimes, 0, this.numSteps, stepTime);
+      toIndex = (toIndex < 0)? (-toIndex - 2): toIndex;
+    }
+    return this.getSum(fromIndex, toIndex);
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Abstract Methods">
+  /**
+   * ABSTRACT: Called to get the value of a time step to index.
+   * @param timeValue the time step value (not null)
+   * @return the value or null|NaN if missing.
+   */
+  protected abstract Double onGetStepValue(TValue timeValue);
+  //</editor-fold>
+}
@@ -2,6 +2,7 @@ package bubblewrap.threads.core;
 
 import bubblewrap.io.DataEntry;
 import bubblewrap.io.datetime.DateTime;
+import bubblewrap.threads.enums.ExecPriority;
 import bubblewrap.threads.interfaces.IExecProcess;
 import bubblewrap.threads.interfaces.IExecProcessRunnable;
 import bubblewrap.threads.interfaces.IProcessLogger;
@@ -77,6 +78,15 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
    * The Placeholder for a ExecProcessSchedule to manage the Tasks Scheduling
    */
   private ExecProcessSchedule processSchedule;
+  /**
+   * The process' Priority Class when queued (null for NORMAL)
+   */
+  private ExecPriority execPriority;
+  /**
+   * The name of the process group that shares the queue's capacity fairly (null to
+   * use the process class' name)
+   */
+  private String processGroup;
           
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
@@ -95,6 +105,8 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
     this.processLogger = null;
     this.processSchedule = null;
     this.doProcessLog = null;
+    this.execPriority = null;
+    this.processGroup = null;
     try {
       this.processId = DataEntry.newUniqueId();
     } catch (Exception pExp) {
@@ -216,6 +228,39 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
   public final void setFutureTask(ExecProcessFuture processFuture) {
     this.processFuture = processFuture;
   }
+  
+  /**
+   * Get the process' Priority Class when queued (see {@linkplain ExecProcessFairQueue})
+   * @return the assigned priority (default = NORMAL)
+   */
+  public ExecPriority getExecPriority() {
+    return (this.execPriority == null)? ExecPriority.NORMAL: this.execPriority;
+  }
+  
+  /**
+   * Set the process' Priority Class - must be set before the process is submitted
+   * @param execPriority the new priority (null to reset to NORMAL)
+   */
+  public final void setExecPriority(ExecPriority execPriority) {
+    this.execPriority = (ExecPriority.NORMAL == execPriority)? null: execPriority;
+  }
+  
+  /**
+   * Get the name of the process group that shares the queue's capacity fairly with the
+   * other groups of the same Priority Class (see {@linkplain ExecProcessFairQueue})
+   * @return the assigned group name or the process class' name if unassigned.
+   */
+  public String getProcessGroup() {
+    return (this.processGroup == null)? this.getClass().getName(): this.processGroup;
+  }
+  
+  /**
+   * Set the process' group name - must be set before the process is submitted
+   * @param processGroup the group name (null|"" to use the process class' name)
+   */
+  public final void setProcessGroup(String processGroup) {
+    this.processGroup = DataEntry.cleanString(processGroup);
+  }
   //</editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="Public Properties">
@@ -342,6 +387,16 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
     }
   }
  
+  /**
+   * Get the time when the process is Scheduled to run in milliseconds since the Epoch.
+   * @return the Process ExecProcessSchedule's ScheduledMillis (Long.MIN_VALUE if no
+   * time is scheduled).
+   */
+  public final long getScheduledMillis() {
+    ExecProcessSchedule schedule = this.getSchedule();
+    return (schedule == null)? Long.MIN_VALUE: schedule.getScheduledMillis();
+  }
+  
   /**
    * Get the DateTime when the process is Scheduled to run.
    * @return the Process ActiomSchedule's ScehduledTime.
@@ -361,6 +416,7 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
     if (schedule != null) {
       schedule.stop();
       schedule.start(startTime);
+      this.setSchedule(schedule);
     }
   }
    
@@ -375,6 +431,7 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
     if (schedule != null) {
       schedule.stop();
       schedule.start(delayTime, timeUnit);
+      this.setSchedule(schedule);
     }
   }
    
@@ -391,6 +448,7 @@ public abstract class ExecProcess implements IExecProcessRunnable, Delayed, IPro
     if (schedule != null) {
       schedule.stop();
       schedule.start(startTime, delayTime, timeUnit);
+      this.setSchedule(schedule);
     }
   }
 
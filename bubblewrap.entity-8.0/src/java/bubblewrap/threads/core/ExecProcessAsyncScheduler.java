@@ -4,8 +4,8 @@ import bubblewrap.threads.enums.ThreadExecStatus;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -22,6 +22,12 @@ import bubblewrap.threads.interfaces.IExecProcess;
  * place in the Execution Queue. The ExecProcess can be scheduled for a immediate 
  * execution, a specified start time, a delayed start, or a execution schedule at a
  * periodic interval.</p>
+ * <p>Delayed processes are not queued on the Executor. They are held in an {@linkplain
+ * ExecProcessTimerWheel} (with a {@linkplain #setTimerResolution(java.lang.Integer) 
+ * resolution} of {@linkplain ExecProcessTimerWheel#DefaultTickMillis} milliseconds) and
+ * all processes that are due in the same tick are submitted to the Executor as one 
+ * batch. Resubmitting a process that is pending in the wheel re-arms it to its current
+ * scheduled time.</p>
  * 
  * <p><b>NOTE:</b> The ExecProcessAsyncScheduler allows the repeated execution of the 
  * same process. However, the process cannot be executed while a prior instance of the
@@ -178,6 +184,19 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
    * List of Threads Queued for Execution
    */
   private HashMap<String,ExecProcessScheduledFuture<?>> executingTasks;
+  /**
+   * The Timer Wheel of the delayed processes (null if not started)
+   */
+  private ExecProcessTimerWheel<ExecProcess> timerWheel;
+  /**
+   * The Timer Wheel's pending entries by process key
+   */
+  private ConcurrentHashMap<String,ExecProcessTimerWheel.TimerEntry<ExecProcess>> 
+                                                                          timerEntries;
+  /**
+   * The Timer Wheel's tick resolution in milliseconds (null for the default)
+   */
+  private Integer timerResolution;
   //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -188,6 +207,9 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
     super();    
     this.executor = null;
     this.executingTasks = new HashMap<>();
+    this.timerWheel = null;
+    this.timerEntries = new ConcurrentHashMap<>();
+    this.timerResolution = null;
   }
 
   /**
@@ -370,15 +392,63 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
   }
     
   /**
-   * Check if execProcess is queued for execution. It check the ThreadPool's Queue for a
-   * Matching Process.
+   * <p>Called by the {@linkplain ExecProcessTimerWheel}'s timer thread with the batch of
+   * delayed processes that are due in the same tick. Each process that is still 
+   * pending (i.e., it was not cancelled or re-armed) is submitted to the Executor.</p>
+   * @param entries the expired Timer Wheel entries
+   */
+  protected void onTimerExpired(
+                        List<ExecProcessTimerWheel.TimerEntry<ExecProcess>> entries) {
+    ExecProcessAsyncExecutor pExecutor = this.executor;
+    for (ExecProcessTimerWheel.TimerEntry<ExecProcess> entry : entries) {
+      ExecProcess execProcess = entry.getItem();
+      String sKey = ExecProcess.getProcessKey(execProcess);
+      if ((sKey == null) || (!this.timerEntries.remove(sKey, entry))) {
+        continue;
+      }
+      try {
+        if ((pExecutor == null) || (pExecutor.isShutdown())) {
+          logger.log(Level.INFO, "{0}.onTimerExpired: {1} was not executed.",
+                new Object[]{this.getClass().getSimpleName(), execProcess.toString()});
+        } else {
+          pExecutor.submit(execProcess);
+        }
+      } catch (Exception pExp) {
+        logger.log(Level.WARNING, "{0}.onTimerExpired Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), pExp.getMessage()});
+      }
+    }
+  }
+  
+  /**
+   * Called to remove execProcess' pending entry from the Timer Wheel (if any).
+   * @param execProcess IExecProcess of interest
+   * @return true if a pending entry was removed.
+   */
+  protected boolean cancelTimer(IExecProcess execProcess) {
+    boolean result = false;
+    String sKey = ExecProcess.getProcessKey(execProcess);
+    ExecProcessTimerWheel.TimerEntry<ExecProcess> entry = 
+                                  (sKey == null)? null: this.timerEntries.remove(sKey);
+    ExecProcessTimerWheel<ExecProcess> pWheel = this.timerWheel;
+    if ((entry != null) && (pWheel != null)) {
+      result = pWheel.cancel(entry);
+    }
+    return result;
+  }
+    
+  /**
+   * Check if execProcess is queued for execution. It check the Timer Wheel's pending
+   * entries and the ThreadPool's Queue for a Matching Process.
    * @param execProcess IExecProcess of interest
    * @return true if it is a Queued process
    */
   protected synchronized boolean isQueued(IExecProcess execProcess) {
     boolean result = false;
     String sKey = ExecProcess.getProcessKey(execProcess);
-    if ((sKey != null) && (this.executor != null)) {
+    if ((sKey != null) && (this.timerEntries.containsKey(sKey))) {
+      result = true;
+    } else if ((sKey != null) && (this.executor != null)) {
       BlockingQueue<Runnable> pQueue = this.executor.getQueue();
       if ((pQueue != null) && (!pQueue.isEmpty())) {
         for (Runnable pRunnable : pQueue) {
@@ -423,7 +493,7 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
    * ExecProcessAsyncScheduler already has a ThreadPoolExecutor and the Executor has 
    * not been shutdown. When the Executor is (re)started and the ProcessLogger supports 
    * a Log Output Handler with a Periodic Schedule, it starts the execution of the 
-   * output handler.
+   * output handler. It also starts the Timer Wheel of the delayed processes.
    * @param iCorePoolSize the size of the ThreadPool's core size (set to {@linkplain 
    * #MaxPoolSize}) is null or less than 1).
    * @param iMaxPoolsize the maximum size of the Thread Pool (set to iCorePoolSize if
@@ -439,6 +509,17 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
       this.executor.setMaximumPoolSize(iMaxPoolsize);
       this.executor.setRemoveOnCancelPolicy(true);
     }
+    if (this.timerWheel == null) {
+      this.timerWheel = new ExecProcessTimerWheel<>(this.timerResolution,
+                              new ExecProcessTimerWheel.ExpiryHandler<ExecProcess>() {
+        @Override
+        public void onExpired(
+                        List<ExecProcessTimerWheel.TimerEntry<ExecProcess>> entries) {
+          ExecProcessAsyncScheduler.this.onTimerExpired(entries);
+        }
+      });
+      this.timerWheel.start();
+    }
     super.startExecutor();
   }
   
@@ -450,11 +531,22 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
    * shutdown} method, which will wait for all queued processes to complete before it
    * terminates. It waits until the thread has terminated and then clear the Executing
    * Tasks list and call the super method to stop the ProcessLog Output Scheduler.</p>
+   * <p>In both cases, the Timer Wheel is stopped first and its pending delayed 
+   * processes are logged as not executed.</p>
    */
   @Override
   public void stopExecutor(boolean stopNow) {
     if (this.executor != null) {
       try {
+        if (this.timerWheel != null) {
+          List<ExecProcess> pPending = this.timerWheel.stop();
+          this.timerWheel = null;
+          this.timerEntries.clear();
+          for (ExecProcess execProcess : pPending) {
+            logger.log(Level.INFO, "{0}.stopExecutor: {1} was not executed.",
+                new Object[]{this.getClass().getSimpleName(), execProcess.toString()});
+          }
+        }
         if (!this.executor.isShutdown()) {
           List<Runnable> pQueued = null;
           if (stopNow) {
@@ -503,12 +595,24 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
   // </editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="Public Methods">  
+  /**
+   * Set the tick resolution of the Timer Wheel of the delayed processes - i.e., the 
+   * maximum delay of a process' start past its scheduled time. It is applied when the
+   * Executor is (re)started.
+   * @param tickMillis the tick length in milliseconds (null|&le; 0 for {@linkplain 
+   * ExecProcessTimerWheel#DefaultTickMillis})
+   */
+  public void setTimerResolution(Integer tickMillis) {
+    this.timerResolution = ((tickMillis == null) || (tickMillis <= 0))? null: tickMillis;
+  }
+  
   /**
    * {@inheritDoc } 
    * <p>IMPLEMENT: The process is added to the {@linkplain ExecProcessAsyncExecutor 
-   * Executor}'s queue and Process log is started for Process and logging a "Queued" 
-   * message that include the scheduled start time if it is a delayed execution. 
-   * Return false if (pProces=null)</p>
+   * Executor}'s queue - or to the Timer Wheel if it is a delayed execution - and 
+   * Process log is started for Process and logging a "Queued" message that include the
+   * scheduled start time if it is a delayed execution. If the process is pending in the
+   * Timer Wheel, its prior entry is cancelled. Return false if (pProces=null)</p>
    * @exception ExecutionException if the executor has not been started.
    */
   @Override
@@ -520,14 +624,21 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
                 null);        
       }
       if (execProcess != null) {
-        Future<?> execTask = null;
-        TimeUnit eUnit = ExecProcess.DelayTimeUnit;
-        long lDelay = execProcess.getDelay(eUnit);
-        if (lDelay > 0) {          
-          execTask = 
-                 this.executor.schedule(execProcess, execProcess.getDelay(eUnit), eUnit);
+        long lDueMillis = execProcess.getScheduledMillis();
+        long lDelay = (lDueMillis == Long.MIN_VALUE)? 0l: 
+                                          (lDueMillis - System.currentTimeMillis());
+        ExecProcessTimerWheel<ExecProcess> pWheel = this.timerWheel;
+        String sKey = ExecProcess.getProcessKey(execProcess);
+        if ((lDelay > 0) && (pWheel != null) && (sKey != null)) {
+          ExecProcessTimerWheel.TimerEntry<ExecProcess> pPrior = 
+                      this.timerEntries.put(sKey, pWheel.add(execProcess, lDueMillis));
+          if (pPrior != null) {
+            pWheel.cancel(pPrior);
+          }
+        } else if (lDelay > 0) {
+          this.executor.schedule(execProcess, lDelay, ExecProcess.DelayTimeUnit);
         } else {
-          execTask = this.executor.submit(execProcess);
+          this.executor.submit(execProcess);
         }
         
         ExecProcessLogger procLogger = this.getProcessLogger();
@@ -556,6 +667,8 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
    * ExecProcess#stopSchedule()} method to stop the executing task - and prevent it from
    * being rescheduled. It will then wait until the task's execution is completed (i.e.
    * if it is executing) for up to 60 seconds.</p>
+   * <p>A delayed process that is pending in the Timer Wheel is removed from the wheel.
+   * </p>
    * <p>If (!this.isExcuting) or (this.getExecutingState(execProcess)=COMPLETED), it 
    * will still call the processes stopSchedule method.</p>
    * <p><b>NOTE:</b> Processes manually stopped can be restarted by calling the process'
@@ -570,6 +683,7 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
     boolean result = true;
     try {
       if (execProcess != null) {
+        this.cancelTimer(execProcess);
         ThreadExecStatus state = null;
         if ((this.isExecuting()) && 
                 ((state = this.getExecProcessStatus(execProcess)) !=null) &&
@@ -617,14 +731,15 @@ public class ExecProcessAsyncScheduler extends ExecProcessScheduler {
   }
   
   /**
-   * {@inheritDoc } <p>IMPLEMENT: Return the QueuedProcesses list size</p>
+   * {@inheritDoc } <p>IMPLEMENT: Return the QueuedProcesses list size plus the number of
+   * delayed processes pending in the Timer Wheel</p>
    */
   @Override
   public int getQueuedCount() {
-    int result = 0;
+    int result = this.timerEntries.size();
     if (this.executor != null) {
       BlockingQueue<Runnable> pQueue = this.executor.getQueue();
-      result = (pQueue == null)? 0: pQueue.size();
+      result += (pQueue == null)? 0: pQueue.size();
     }
     return result;
   }
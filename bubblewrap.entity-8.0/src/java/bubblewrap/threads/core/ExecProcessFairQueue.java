@@ -0,0 +1,651 @@
+package bubblewrap.threads.core;
+
+import bubblewrap.io.DataEntry;
+import bubblewrap.threads.enums.ExecPriority;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>An unbounded BlockingQueue for the {@linkplain ExecProcessSyncScheduler}'s
+ * Executor that orders the queued processes by {@linkplain ExecPriority Priority Class}
+ * and shares the capacity of each class fairly between the process groups (see
+ * {@linkplain ExecProcess#getExecPriority() ExecProcess.execPriority} and {@linkplain
+ * ExecProcess#getProcessGroup() ExecProcess.processGroup}):</p><ul>
+ * <li>A process of a higher Priority Class is always taken before the processes of a
+ * lower class - i.e., an INTERACTIVE process is not queued behind BACKGROUND
+ * processes.</li>
+ * <li>Within a Priority Class, the groups are served by weighted-fair queuing - each
+ * group's share is proportional to its weight (default=1) and a group's processes
+ * are taken in FIFO order.</li>
+ * <li>A group can have an optional concurrency cap - its processes are not taken while
+ * the cap is reached. The Executor must call {@linkplain #onCompleted(
+ * java.lang.Runnable) onCompleted} when a taken process completes.</li>
+ * </ul>
+ * <p>A ThreadPoolExecutor hands a new task directly to a new worker thread (bypassing
+ * the queue) while it has fewer than corePoolSize threads. The Executor must call
+ * {@linkplain #onStarted(java.lang.Runnable) onStarted} before it executes a task so
+ * that these tasks are counted against their group's concurrency cap - they are,
+ * however, never held back by the cap.</p>
+ * <p>Runnables that are not ExecProcesses (or their {@linkplain ExecProcessFuture}) are
+ * queued as NORMAL processes of the "" group.</p>
+ * @author kprins
+ */
+public class ExecProcessFairQueue extends AbstractQueue<Runnable>
+                                                  implements BlockingQueue<Runnable> {
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static GroupPolicy Class">
+  /**
+   * The immutable queuing policy of a process group
+   */
+  public static class GroupPolicy {
+
+    /**
+     * The group's weight (&ge; 1)
+     */
+    public final int weight;
+    /**
+     * The maximum number of the group's processes that can execute concurrently (null
+     * if unlimited)
+     */
+    public final Integer maxRunning;
+
+    /**
+     * Public Constructor
+     * @param weight the group's weight (null|&le; 0 for 1)
+     * @param maxRunning the group's concurrency cap (null|&le; 0 if unlimited)
+     */
+    public GroupPolicy(Integer weight, Integer maxRunning) {
+      this.weight = ((weight == null) || (weight <= 0))? 1: weight;
+      this.maxRunning = ((maxRunning == null) || (maxRunning <= 0))? null: maxRunning;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: "GroupPolicy[weight=..; maxRunning=..]"</p>
+     */
+    @Override
+    public String toString() {
+      return "GroupPolicy[weight=" + this.weight + "; maxRunning=" + this.maxRunning
+              + "]";
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private ProcessGroup Class">
+  /**
+   * The queued and running processes of a group within a Priority Class
+   */
+  private static class ProcessGroup {
+
+    /**
+     * The group name
+     */
+    private final String name;
+    /**
+     * The index of the group's Priority Class
+     */
+    private final int classIdx;
+    /**
+     * The group's queued processes in FIFO order
+     */
+    private final ArrayDeque<Runnable> queued;
+    /**
+     * The number of the group's taken processes that have not completed
+     */
+    private int running;
+    /**
+     * The group's virtual finish time - advanced by 1/weight per taken process
+     */
+    private double virtualTime;
+
+    /**
+     * Private Constructor
+     */
+    private ProcessGroup(String name, int classIdx) {
+      this.name = name;
+      this.classIdx = classIdx;
+      this.queued = new ArrayDeque<>();
+      this.running = 0;
+      this.virtualTime = 0.0d;
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Static Fields">
+  /**
+   * The policy of groups without an assigned policy (weight=1; no concurrency cap)
+   */
+  private static final GroupPolicy DefaultPolicy = new GroupPolicy(null, null);
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The lock guarding the queue's state
+   */
+  private final ReentrantLock lock;
+  /**
+   * Signaled when a process is queued or a capped group's process completes
+   */
+  private final Condition ready;
+  /**
+   * The active groups per Priority Class (indexed by ExecPriority.ordinal) in order of
+   * activation
+   */
+  private final List<LinkedHashMap<String, ProcessGroup>> classGroups;
+  /**
+   * The virtual time of each Priority Class (i.e., the virtual time of its last taken
+   * process)
+   */
+  private final double[] classClocks;
+  /**
+   * The assigned policies by group name
+   */
+  private final HashMap<String, GroupPolicy> policies;
+  /**
+   * The groups of the taken processes that have not completed (by runnable identity) -
+   * a process's priority or group can change after it was taken.
+   */
+  private final IdentityHashMap<Runnable, ProcessGroup> taken;
+  /**
+   * The number of queued processes
+   */
+  private int count;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   */
+  public ExecProcessFairQueue() {
+    super();
+    this.lock = new ReentrantLock();
+    this.ready = this.lock.newCondition();
+    int numClasses = ExecPriority.values().length;
+    this.classGroups = new ArrayList<>(numClasses);
+    for (int iClass = 0; iClass < numClasses; iClass++) {
+      this.classGroups.add(new LinkedHashMap<String, ProcessGroup>());
+    }
+    this.classClocks = new double[numClasses];
+    this.policies = new HashMap<>();
+    this.taken = new IdentityHashMap<>();
+    this.count = 0;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the ExecProcess of a queued runnable
+   * @return the process or null if runnable is not an ExecProcess or its Future.
+   */
+  private static ExecProcess toExecProcess(Runnable runnable) {
+    ExecProcess result = null;
+    if (runnable instanceof ExecProcessFuture<?>) {
+      result = ((ExecProcessFuture<?>) runnable).getRunnable();
+    } else if (runnable instanceof ExecProcess) {
+      result = (ExecProcess) runnable;
+    }
+    return result;
+  }
+
+  /**
+   * Get the Priority Class index of a runnable
+   */
+  private static int toClassIndex(Runnable runnable) {
+    ExecProcess process = ExecProcessFairQueue.toExecProcess(runnable);
+    return ((process == null)? ExecPriority.NORMAL: process.getExecPriority()).ordinal();
+  }
+
+  /**
+   * Get the group name of a runnable
+   */
+  private static String toGroupName(Runnable runnable) {
+    ExecProcess process = ExecProcessFairQueue.toExecProcess(runnable);
+    String result = (process == null)? null: process.getProcessGroup();
+    return (result == null)? "": result;
+  }
+
+  /**
+   * Get the policy of a group (the default policy if not assigned)
+   */
+  private GroupPolicy getPolicy(String groupName) {
+    GroupPolicy result = this.policies.get(groupName);
+    return (result == null)? DefaultPolicy: result;
+  }
+
+  /**
+   * Called to remove a group that has no queued or running processes
+   */
+  private void releaseGroup(int classIdx, ProcessGroup group) {
+    if ((group.queued.isEmpty()) && (group.running <= 0)) {
+      this.classGroups.get(classIdx).remove(group.name);
+    }
+  }
+
+  /**
+   * Get the group whose next queued process is taken next - i.e., the first group (in
+   * the highest Priority Class with an eligible group) with the lowest virtual time
+   * that has queued processes and has not reached its concurrency cap. Must be called
+   * while holding the lock.
+   * @param classIdx an array to receive the selected group's class index
+   * @return the group or null if no group is eligible.
+   */
+  private ProcessGroup selectGroup(int[] classIdx) {
+    for (int iClass = 0; iClass < this.classGroups.size(); iClass++) {
+      ProcessGroup result = null;
+      for (ProcessGroup group : this.classGroups.get(iClass).values()) {
+        if (group.queued.isEmpty()) {
+          continue;
+        }
+        Integer maxRunning = this.getPolicy(group.name).maxRunning;
+        if ((maxRunning != null) && (group.running >= maxRunning)) {
+          continue;
+        }
+        if ((result == null) || (group.virtualTime < result.virtualTime)) {
+          result = group;
+        }
+      }
+      if (result != null) {
+        classIdx[0] = iClass;
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Called to take the next eligible process. Must be called while holding the lock.
+   * @return the process or null if no process is eligible.
+   */
+  private Runnable dequeue() {
+    int[] classIdx = new int[1];
+    ProcessGroup group = this.selectGroup(classIdx);
+    if (group == null) {
+      return null;
+    }
+    Runnable result = group.queued.poll();
+    this.count--;
+    group.running++;
+    this.taken.put(result, group);
+    this.classClocks[classIdx[0]] = group.virtualTime;
+    group.virtualTime += 1.0d / this.getPolicy(group.name).weight;
+    if ((this.count > 0) && (this.lock.hasWaiters(this.ready))) {
+      this.ready.signal();
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Called by the Executor before it executes <tt>runnable</tt> to count a runnable that
+   * was not taken from this queue (i.e., handed directly to a new worker thread) as a
+   * running process of its group. Ignored if the runnable was taken from this queue.
+   * @param runnable the runnable to execute
+   */
+  public void onStarted(Runnable runnable) {
+    if (runnable == null) {
+      return;
+    }
+    int classIdx = ExecProcessFairQueue.toClassIndex(runnable);
+    String groupName = ExecProcessFairQueue.toGroupName(runnable);
+    this.lock.lock();
+    try {
+      if (this.taken.containsKey(runnable)) {
+        return;
+      }
+      LinkedHashMap<String, ProcessGroup> groups = this.classGroups.get(classIdx);
+      ProcessGroup group = groups.get(groupName);
+      if (group == null) {
+        group = new ProcessGroup(groupName, classIdx);
+        groups.put(groupName, group);
+      }
+      if ((group.queued.isEmpty()) && (group.running <= 0)) {
+        group.virtualTime = Math.max(group.virtualTime, this.classClocks[classIdx]);
+      }
+      group.running++;
+      group.virtualTime += 1.0d / this.getPolicy(group.name).weight;
+      this.taken.put(runnable, group);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Set the queuing policy of a process group. A changed policy applies to the group's
+   * next taken processes.
+   * @param groupName the group name (see {@linkplain ExecProcess#getProcessGroup()})
+   * @param policy the policy (null to reset to the default policy)
+   */
+  public void setGroupPolicy(String groupName, GroupPolicy policy) {
+    groupName = DataEntry.cleanString(groupName);
+    if (groupName == null) {
+      return;
+    }
+    this.lock.lock();
+    try {
+      if (policy == null) {
+        this.policies.remove(groupName);
+      } else {
+        this.policies.put(groupName, policy);
+      }
+      this.ready.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Called by the Executor when a taken process has completed (successfully or not) to
+   * release the concurrency slot of the group it was taken from (or counted in by 
+   * {@linkplain #onStarted(java.lang.Runnable) onStarted}). Ignored if the runnable was
+   * not counted or its completion was already reported.
+   * @param runnable the completed runnable
+   */
+  public void onCompleted(Runnable runnable) {
+    if (runnable == null) {
+      return;
+    }
+    this.lock.lock();
+    try {
+      ProcessGroup group = this.taken.remove(runnable);
+      if ((group != null) && (group.running > 0)) {
+        group.running--;
+        this.releaseGroup(group.classIdx, group);
+        if (!group.queued.isEmpty()) {
+          this.ready.signal();
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Implement BlockingQueue">
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Add the runnable to its group's queue. A newly active group starts at
+   * its class' current virtual time (i.e., idle groups do not accumulate credit).</p>
+   */
+  @Override
+  public boolean offer(Runnable runnable) {
+    if (runnable == null) {
+      throw new NullPointerException("The queued Runnable cannot be unassigned.");
+    }
+    int classIdx = ExecProcessFairQueue.toClassIndex(runnable);
+    String groupName = ExecProcessFairQueue.toGroupName(runnable);
+    this.lock.lock();
+    try {
+      LinkedHashMap<String, ProcessGroup> groups = this.classGroups.get(classIdx);
+      ProcessGroup group = groups.get(groupName);
+      if (group == null) {
+        group = new ProcessGroup(groupName, classIdx);
+        groups.put(groupName, group);
+      }
+      if (group.queued.isEmpty()) {
+        group.virtualTime = Math.max(group.virtualTime, this.classClocks[classIdx]);
+      }
+      group.queued.add(runnable);
+      this.count++;
+      this.ready.signal();
+      return true;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Call {@linkplain #offer(java.lang.Runnable) offer} - the queue is
+   * unbounded</p>
+   */
+  @Override
+  public void put(Runnable runnable) throws InterruptedException {
+    this.offer(runnable);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Call {@linkplain #offer(java.lang.Runnable) offer} - the queue is
+   * unbounded</p>
+   */
+  @Override
+  public boolean offer(Runnable runnable, long timeout, TimeUnit unit)
+                                                          throws InterruptedException {
+    return this.offer(runnable);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Wait until an eligible process is queued and take it.</p>
+   */
+  @Override
+  public Runnable take() throws InterruptedException {
+    this.lock.lockInterruptibly();
+    try {
+      Runnable result = null;
+      while ((result = this.dequeue()) == null) {
+        this.ready.await();
+      }
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Wait up to <tt>timeout</tt> for an eligible process and take it.</p>
+   */
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      Runnable result = null;
+      while ((result = this.dequeue()) == null) {
+        if (nanos <= 0l) {
+          return null;
+        }
+        nanos = this.ready.awaitNanos(nanos);
+      }
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Take the next eligible process if any.</p>
+   */
+  @Override
+  public Runnable poll() {
+    this.lock.lock();
+    try {
+      return this.dequeue();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Get the next eligible process if any.</p>
+   */
+  @Override
+  public Runnable peek() {
+    this.lock.lock();
+    try {
+      ProcessGroup group = this.selectGroup(new int[1]);
+      return (group == null)? null: group.queued.peek();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Remove the runnable from its group's queue</p>
+   */
+  @Override
+  public boolean remove(Object obj) {
+    if (!(obj instanceof Runnable)) {
+      return false;
+    }
+    Runnable runnable = (Runnable) obj;
+    int classIdx = ExecProcessFairQueue.toClassIndex(runnable);
+    this.lock.lock();
+    try {
+      ProcessGroup group =
+            this.classGroups.get(classIdx).get(ExecProcessFairQueue.toGroupName(runnable));
+      boolean result = ((group != null) && (group.queued.remove(runnable)));
+      if (result) {
+        this.count--;
+        this.releaseGroup(classIdx, group);
+      }
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Return the number of queued processes</p>
+   */
+  @Override
+  public int size() {
+    this.lock.lock();
+    try {
+      return this.count;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Return Integer.MAX_VALUE - the queue is unbounded</p>
+   */
+  @Override
+  public int remainingCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Remove all queued processes in Priority Class and group order (these
+   * processes are not counted as running).</p>
+   */
+  @Override
+  public int drainTo(Collection<? super Runnable> target) {
+    return this.drainTo(target, Integer.MAX_VALUE);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Remove up to <tt>maxElements</tt> queued processes in Priority Class
+   * and group order (these processes are not counted as running).</p>
+   */
+  @Override
+  public int drainTo(Collection<? super Runnable> target, int maxElements) {
+    if (target == null) {
+      throw new NullPointerException("The Drain Target is unassigned.");
+    }
+    if (target == this) {
+      throw new IllegalArgumentException("Cannot drain the queue to itself.");
+    }
+    int result = 0;
+    this.lock.lock();
+    try {
+      for (int iClass = 0; iClass < this.classGroups.size(); iClass++) {
+        List<ProcessGroup> groups =
+                              new ArrayList<>(this.classGroups.get(iClass).values());
+        for (ProcessGroup group : groups) {
+          while ((result < maxElements) && (!group.queued.isEmpty())) {
+            target.add(group.queued.poll());
+            this.count--;
+            result++;
+          }
+          this.releaseGroup(iClass, group);
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>IMPLEMENT: Return an iterator over a snapshot of the queued processes in
+   * Priority Class and group order. Its remove method removes the last returned
+   * process from the queue.</p>
+   */
+  @Override
+  public Iterator<Runnable> iterator() {
+    final List<Runnable> snapshot = new ArrayList<>();
+    this.lock.lock();
+    try {
+      for (LinkedHashMap<String, ProcessGroup> groups : this.classGroups) {
+        for (ProcessGroup group : groups.values()) {
+          snapshot.addAll(group.queued);
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    return new Iterator<Runnable>() {
+      private int next = 0;
+      private Runnable last = null;
+
+      @Override
+      public boolean hasNext() {
+        return (this.next < snapshot.size());
+      }
+
+      @Override
+      public Runnable next() {
+        if (this.next >= snapshot.size()) {
+          throw new NoSuchElementException();
+        }
+        this.last = snapshot.get(this.next++);
+        return this.last;
+      }
+
+      @Override
+      public void remove() {
+        if (this.last == null) {
+          throw new IllegalStateException();
+        }
+        ExecProcessFairQueue.this.remove(this.last);
+        this.last = null;
+      }
+    };
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: "ExecProcessFairQueue[queued=..]"</p>
+   */
+  @Override
+  public String toString() {
+    return "ExecProcessFairQueue[queued=" + this.size() + "]";
+  }
+  //</editor-fold>
+}
@@ -0,0 +1,160 @@
+package bubblewrap.threads.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A bounded multi-producer/single-consumer ring buffer used by the {@linkplain
+ * ExecProcessLogger} to pass log events from the executing threads to its consumer.</p>
+ * <p>Producers claim a slot with a compare-and-set on the tail sequence and publish the
+ * item through the slot's sequence - i.e., {@linkplain #offer(java.lang.Object) offer}
+ * never blocks or locks and fails if the ring is full. {@linkplain #poll() poll} may
+ * only be called by one thread at a time (the caller must serialize the consumers).</p>
+ * @author kprins
+ */
+final class ExecProcessLogRing<TItem> {
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The ring's capacity (a power of 2)
+   */
+  private final int capacity;
+  /**
+   * The mask to resolve a sequence's slot index (capacity-1)
+   */
+  private final int mask;
+  /**
+   * The slots' items
+   */
+  private final AtomicReferenceArray<TItem> items;
+  /**
+   * The slots' sequences - equal to the slot's next write sequence if the slot is free
+   * and write sequence+1 if the slot's item is published.
+   */
+  private final AtomicLongArray sequences;
+  /**
+   * The next write sequence (claimed by the producers)
+   */
+  private final AtomicLong tail;
+  /**
+   * The next read sequence (only updated by the consumer)
+   */
+  private final AtomicLong head;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Package Constructor
+   * @param capacity the minimum capacity (rounded up to a power of 2; min=2)
+   */
+  ExecProcessLogRing(int capacity) {
+    super();
+    int size = 2;
+    while ((size < capacity) && (size < (1 << 30))) {
+      size <<= 1;
+    }
+    this.capacity = size;
+    this.mask = size - 1;
+    this.items = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int iSlot = 0; iSlot < size; iSlot++) {
+      this.sequences.set(iSlot, iSlot);
+    }
+    this.tail = new AtomicLong(0l);
+    this.head = new AtomicLong(0l);
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package Methods">
+  /**
+   * Get the ring's capacity
+   * @return the number of slots
+   */
+  int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Called by a producer to add an item to the ring
+   * @param item the item to add (not null)
+   * @return false if the ring is full.
+   */
+  boolean offer(TItem item) {
+    if (item == null) {
+      throw new NullPointerException("The Ring's Item cannot be unassigned.");
+    }
+    long seq = this.tail.get();
+    while (true) {
+      int slot = (int) (seq & this.mask);
+      long slotSeq = this.sequences.get(slot);
+      if (slotSeq == seq) {
+        if (this.tail.compareAndSet(seq, seq + 1)) {
+          this.items.lazySet(slot, item);
+          this.sequences.set(slot, seq + 1);
+          return true;
+        }
+        seq = this.tail.get();
+      } else if (slotSeq < seq) {
+        return false;
+      } else {
+        seq = this.tail.get();
+      }
+    }
+  }
+
+  /**
+   * Called by the consumer to remove the next published item
+   * @return the item or null if the ring is empty or the next item is not yet
+   * published.
+   */
+  TItem poll() {
+    long seq = this.head.get();
+    int slot = (int) (seq & this.mask);
+    if (this.sequences.get(slot) != (seq + 1)) {
+      return null;
+    }
+    TItem result = this.items.get(slot);
+    this.items.lazySet(slot, null);
+    this.head.lazySet(seq + 1);
+    this.sequences.set(slot, seq + this.capacity);
+    return result;
+  }
+
+  /**
+   * Get the number of items claimed by the producers (i.e., the next write sequence)
+   * @return the count since the ring was created
+   */
+  long getOffered() {
+    return this.tail.get();
+  }
+
+  /**
+   * Get the number of items removed by the consumer (i.e., the next read sequence)
+   * @return the count since the ring was created
+   */
+  long getPolled() {
+    return this.head.get();
+  }
+
+  /**
+   * Check whether all claimed items have been removed
+   * @return true if empty
+   */
+  boolean isEmpty() {
+    return (this.head.get() >= this.tail.get());
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: "ExecProcessLogRing[capacity=..; pending=..]"</p>
+   */
+  @Override
+  public String toString() {
+    return "ExecProcessLogRing[capacity=" + this.capacity + "; pending="
+            + Math.max(0l, this.tail.get() - this.head.get()) + "]";
+  }
+  //</editor-fold>
+}
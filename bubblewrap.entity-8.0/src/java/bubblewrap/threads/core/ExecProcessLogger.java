@@ -8,6 +8,8 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import bubblewrap.io.DataEntry;
@@ -15,10 +17,23 @@ import bubblewrap.io.datetime.DateTime;
 import bubblewrap.io.datetime.DateTimeSpan;
 import bubblewrap.threads.interfaces.IExecProcess;
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
- * An Logger Class that handles the event logging of a Executable Processes. Used by the
- * {@linkplain ThreadQueue class} and the {@linkplain @ExecProcessThread} is assigned.
+ * <p>An Logger Class that handles the event logging of a Executable Processes. Used by
+ * the {@linkplain ThreadQueue class} and the {@linkplain @ExecProcessThread} is
+ * assigned.</p>
+ * <p>Logging is asynchronous: {@linkplain #log(bubblewrap.threads.interfaces.IExecProcess,
+ * java.util.logging.Level, java.lang.String) log}, {@linkplain #closeLog(
+ * bubblewrap.threads.interfaces.IExecProcess) closeLog}, and {@linkplain #clearLog(
+ * bubblewrap.threads.interfaces.IExecProcess) clearLog(process)} only post a log event
+ * to a bounded ring buffer (see {@linkplain ExecProcessLogRing}) without locking. A
+ * single consumer thread applies the events to the Active and Archived Logs. The
+ * methods that read the logs first apply all events posted before the call. If the
+ * buffer is full, a log entry is dropped or its caller waits for space depending on the
+ * {@linkplain Overflow} policy (see {@linkplain #setQueue(java.lang.Integer,
+ * bubblewrap.threads.core.ExecProcessLogger.Overflow) setQueue}) - close and clear
+ * events are never dropped.</p>
  * @author kprins
  */
 public class ExecProcessLogger implements Serializable {
@@ -41,6 +56,155 @@ public class ExecProcessLogger implements Serializable {
     ARCHIVED;
   }
   // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Public Overflow Enum">
+  /**
+   * The policy applied to a log entry when the log queue is full (DROP | WAIT)
+   */
+  public static enum Overflow {
+
+    /**
+     * Drop the log entry (the number of dropped entries is reported in the log)
+     */
+    DROP,
+    /**
+     * Wait for space in the queue (i.e., back pressure on the logging thread)
+     */
+    WAIT;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static Fields">
+  /**
+   * The default capacity of the log queue (8192 events)
+   */
+  public static final int DefaultQueueCapacity = 8192;
+  /**
+   * The default Overflow policy (DROP)
+   */
+  public static final Overflow DefaultOverflow = Overflow.DROP;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Static Fields">
+  /**
+   * The time (in nanoseconds) the consumer parks when the queue is empty (10ms)
+   */
+  private static final long ConsumerParkNanos = TimeUnit.MILLISECONDS.toNanos(10);
+  /**
+   * The idle time (in nanoseconds) after which the consumer thread stops (60s). It is
+   * restarted on the next posted event.
+   */
+  private static final long ConsumerIdleNanos = TimeUnit.SECONDS.toNanos(60);
+  /**
+   * The maximum number of events applied per consumer batch
+   */
+  private static final int MaxBatchSize = 1024;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private LogEvent Class">
+  /**
+   * The types of the queued log events
+   */
+  private static enum EventType {
+    LOG,
+    CLOSE,
+    CLEAR;
+  }
+
+  /**
+   * An immutable log event posted to the log queue
+   */
+  private static final class LogEvent {
+
+    /**
+     * The event type
+     */
+    private final EventType eventType;
+    /**
+     * The event's process
+     */
+    private final IExecProcess process;
+    /**
+     * The entry's log Level (LOG only)
+     */
+    private final Level logLevel;
+    /**
+     * The entry's log message (LOG only)
+     */
+    private final String logMsg;
+    /**
+     * The time the event was posted
+     */
+    private final long logTime;
+
+    /**
+     * Private Constructor
+     */
+    private LogEvent(EventType eventType, IExecProcess process, Level logLevel,
+                                                                      String logMsg) {
+      this.eventType = eventType;
+      this.process = process;
+      this.logLevel = logLevel;
+      this.logMsg = logMsg;
+      this.logTime = System.currentTimeMillis();
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private LogConsumer Class">
+  /**
+   * The Runnable of the consumer thread that applies the queued log events until the
+   * queue was idle for {@linkplain #ConsumerIdleNanos}.
+   */
+  private class LogConsumer implements Runnable {
+
+    /**
+     * The consumer's queue
+     */
+    private final ExecProcessLogRing<LogEvent> ring;
+
+    /**
+     * Private Constructor
+     */
+    private LogConsumer(ExecProcessLogRing<LogEvent> ring) {
+      this.ring = ring;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Apply the queued events in batches. When idle, clear
+     * ExecProcessLogger.consumer before checking the queue a last time - a producer
+     * posting an event after the check starts a new consumer.</p>
+     */
+    @Override
+    public void run() {
+      long idleSince = System.nanoTime();
+      while (true) {
+        try {
+          if (ExecProcessLogger.this.applyEvents(this.ring, -1l) > 0) {
+            idleSince = System.nanoTime();
+            continue;
+          }
+        } catch (Exception exp) {
+          logger.log(Level.WARNING, "{0}.run Error:\n {1}",
+                  new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+        }
+        if ((System.nanoTime() - idleSince) < ConsumerIdleNanos) {
+          LockSupport.parkNanos(this, ConsumerParkNanos);
+          continue;
+        }
+        synchronized (this.ring) {
+          ExecProcessLogger.this.consumer = null;
+          if (this.ring.isEmpty()) {
+            return;
+          }
+          ExecProcessLogger.this.consumer = Thread.currentThread();
+        }
+        idleSince = System.nanoTime();
+      }
+    }
+  }
+  //</editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="LogEntry Class">
   /**
@@ -70,7 +234,17 @@ public class ExecProcessLogger implements Serializable {
      * @param logMsg the log message
      */
     public LogEntry(Level logLevel, String logMsg) {
-      this.logTime = DateTime.getNow(null);
+      this(logLevel, logMsg, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor Initiate a new entry logged at a specified time
+     * @param logLevel the log Level
+     * @param logMsg the log message
+     * @param logTime the time (in milliseconds) the message was logged
+     */
+    public LogEntry(Level logLevel, String logMsg, long logTime) {
+      this.logTime = new DateTime(logTime);
       this.logLevel = logLevel;
       this.logMsg = logMsg;
     }
@@ -247,6 +421,17 @@ public class ExecProcessLogger implements Serializable {
      * @param logMsg the message to log.
      */
     public void addLog(Level logLevel, String logMsg) {
+      this.addLog(logLevel, logMsg, System.currentTimeMillis());
+    }
+
+    /**
+     * Add a new Log Entry logged at <tt>logTime</tt>. Skip is this.isClosed or 
+     * logMsg = null|"".
+     * @param logLevel the Log Level
+     * @param logMsg the message to log.
+     * @param logTime the time (in milliseconds) the message was logged
+     */
+    public void addLog(Level logLevel, String logMsg, long logTime) {
       logMsg = DataEntry.cleanString(logMsg);
       if (logMsg == null) {
         return;
@@ -256,7 +441,7 @@ public class ExecProcessLogger implements Serializable {
         this.logEntries = new ArrayList<>();
       }
       
-      LogEntry logEntry = new LogEntry(logLevel, logMsg);
+      LogEntry logEntry = new LogEntry(logLevel, logMsg, logTime);
       this.logEntries.add(logEntry);
       this.lastLogTime = logEntry.getLogTime();
     }
@@ -305,16 +490,16 @@ public class ExecProcessLogger implements Serializable {
      * @return the log entries
      */
     public String getLog() {
-      String result = this.toString() + ":\n\r";
+      StringBuilder result = new StringBuilder(this.toString()).append(":\n\r");
       if (this.isEmpty()) {
-        result += "\tNo log entries\n\r";
+        result.append("\tNo log entries\n\r");
       } else {
         for (LogEntry logEntry : this.logEntries) {
-          result += "\t" + logEntry.toString() + "\n\r";
+          result.append("\t").append(logEntry.toString()).append("\n\r");
         }
       }
-      result += "\t---- End Log -----\n\r";
-      return result;
+      result.append("\t---- End Log -----\n\r");
+      return result.toString();
     }
     
     /**
@@ -322,18 +507,18 @@ public class ExecProcessLogger implements Serializable {
      * @return the formatted string
      */
     public String getHtmlLog() {
-      String result = "<div class='bwgProcessLog collapsed'>\n"
-              + "  <span class='caption' onclick='return bw.toggleProcLog(this);'>" 
-              + this.processName + ":</span>\n  <ul>\n";
+      StringBuilder result = new StringBuilder("<div class='bwgProcessLog collapsed'>\n")
+              .append("  <span class='caption' onclick='return bw.toggleProcLog(this);'>")
+              .append(this.processName).append(":</span>\n  <ul>\n");
       if (this.isEmpty()) {
-        result += "    <li>No log entries</li>\n";
+        result.append("    <li>No log entries</li>\n");
       } else {
         for (LogEntry logEntry : this.logEntries) {
-          result += "    <li>" + logEntry.toString() + "</li>\n";
+          result.append("    <li>").append(logEntry.toString()).append("</li>\n");
         }
       }
-      result += "  </ul>\n</div>\n";
-      return result;
+      result.append("  </ul>\n</div>\n");
+      return result.toString();
     }
     
     /**
@@ -459,9 +644,9 @@ public class ExecProcessLogger implements Serializable {
      * {@inheritDoc} <p>OVERRIDE: Skip the process if this.isClosed</p>
      */
     @Override
-    public final void addLog(Level logLevel, String logMsg) {
+    public final void addLog(Level logLevel, String logMsg, long logTime) {
       if (!this.isClosed()) {
-        super.addLog(logLevel, logMsg);
+        super.addLog(logLevel, logMsg, logTime);
       }
     }
     //</editor-fold>
@@ -519,6 +704,38 @@ public class ExecProcessLogger implements Serializable {
    * log to the server or a file.
    */
   private ExecProcessLogHandler loggerHandler;
+  /**
+   * The capacity of the log queue (null for {@linkplain #DefaultQueueCapacity})
+   */
+  private Integer queueCapacity;
+  /**
+   * The log queue's Overflow policy (null for {@linkplain #DefaultOverflow})
+   */
+  private Overflow overflow;
+  /**
+   * The queue of posted log events (lazy initiated)
+   */
+  private transient volatile ExecProcessLogRing<LogEvent> logRing;
+  /**
+   * The number of log entries dropped because the queue was full
+   */
+  private transient volatile AtomicLong numDropped;
+  /**
+   * The consumer thread (null if not running)
+   */
+  private transient volatile Thread consumer;
+  /**
+   * Incremented when an event changed the logs - used to validate the HTML snapshots
+   */
+  private transient long logVersion;
+  /**
+   * The logVersion of the cached HTML snapshots
+   */
+  private transient long snapshotVersion;
+  /**
+   * The cached HTML snapshots by format and sources (lazy initiated)
+   */
+  private transient HashMap<String, String> htmlSnapshots;
   //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -532,6 +749,14 @@ public class ExecProcessLogger implements Serializable {
     this.maxProcesses = null;
     this.maxAge = null;
     this.loggerHandler = null;
+    this.queueCapacity = null;
+    this.overflow = null;
+    this.logRing = null;
+    this.numDropped = null;
+    this.consumer = null;
+    this.logVersion = 0l;
+    this.snapshotVersion = -1l;
+    this.htmlSnapshots = null;
   }
   
   /**
@@ -555,6 +780,18 @@ public class ExecProcessLogger implements Serializable {
     }
   }
 
+  /**
+   * Set the Logger's queue settings. The capacity is applied when the queue is
+   * initiated (i.e., on the first posted event) - the Overflow policy immediately.
+   * @param capacity the queue's capacity (null|&le; 0 for {@linkplain 
+   * #DefaultQueueCapacity})
+   * @param overflow the Overflow policy (null for {@linkplain #DefaultOverflow})
+   */
+  public void setQueue(Integer capacity, Overflow overflow) {
+    this.queueCapacity = ((capacity == null) || (capacity <= 0))? null: capacity;
+    this.overflow = overflow;
+  }
+
   /**
    * {@inheritDoc} <p>OVERRIDE: Clear the Output Handler reference and its assignment
    * to the handler.</p>
@@ -670,6 +907,9 @@ public class ExecProcessLogger implements Serializable {
       /** Remove logs that exceeds the age limit - if set **/
       if ((this.maxAge != null) && (this.maxAge > 0)) {
         for (ActiveProcessLog procLog : activeLogs) {
+          if (procLog.getAge() <= this.maxAge) {
+            continue;
+          }
           String procKey = ExecProcess.getProcessKey(procLog);
           if (!procLog.isClosed()) {
             procLog.closeLog();
@@ -717,6 +957,161 @@ public class ExecProcessLogger implements Serializable {
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     }
   }
+
+  /**
+   * Get the log queue - initiated on the first call.
+   * @return the queue
+   */
+  private ExecProcessLogRing<LogEvent> getRing() {
+    ExecProcessLogRing<LogEvent> result = this.logRing;
+    if (result == null) {
+      synchronized (this) {
+        if ((result = this.logRing) == null) {
+          this.numDropped = new AtomicLong(0l);
+          result = new ExecProcessLogRing<>((this.queueCapacity == null)?
+                  DefaultQueueCapacity: this.queueCapacity);
+          this.logRing = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Called to post a log event to the queue and start the consumer if it is not
+   * running. If the queue is full, the event is dropped if (canDrop) and the Overflow
+   * policy is DROP. Otherwise, the call waits until the event is queued.
+   * @param event the event to post
+   * @param canDrop true if the event can be dropped
+   */
+  private void postEvent(LogEvent event, boolean canDrop) {
+    ExecProcessLogRing<LogEvent> ring = this.getRing();
+    if (!ring.offer(event)) {
+      if ((canDrop) && (Overflow.WAIT != this.overflow)) {
+        this.numDropped.incrementAndGet();
+        return;
+      }
+      while (!ring.offer(event)) {
+        Thread consumerThread = this.consumer;
+        if (consumerThread == null) {
+          this.startConsumer(ring);
+        } else {
+          LockSupport.unpark(consumerThread);
+        }
+        LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+      }
+    }
+    if (this.consumer == null) {
+      this.startConsumer(ring);
+    }
+  }
+
+  /**
+   * Called to start a daemon consumer thread for <tt>ring</tt> - skipped if a consumer
+   * is already running.
+   * @param ring the log queue
+   */
+  private void startConsumer(ExecProcessLogRing<LogEvent> ring) {
+    synchronized (ring) {
+      if (this.consumer == null) {
+        Thread thread = new Thread(new LogConsumer(ring),
+                                        this.getClass().getSimpleName() + ".Consumer");
+        thread.setDaemon(true);
+        this.consumer = thread;
+        thread.start();
+      }
+    }
+  }
+
+  /**
+   * Called to apply the queued events to the logs. The consumer thread applies up to
+   * {@linkplain #MaxBatchSize} events per call. The log readers apply all events posted
+   * before their call - i.e., up to the queue's current write sequence.
+   * @param ring the log queue (can be null if not yet initiated)
+   * @param toSequence the write sequence to apply the events to (-1 to apply a batch)
+   * @return the number of applied events
+   */
+  private synchronized int applyEvents(ExecProcessLogRing<LogEvent> ring,
+                                                                     long toSequence) {
+    int result = 0;
+    if (ring == null) {
+      return result;
+    }
+    LogEvent event = null;
+    while ((toSequence < 0l)? (result < MaxBatchSize): 
+                                                (ring.getPolled() < toSequence)) {
+      if ((event = ring.poll()) == null) {
+        if ((toSequence < 0l) || (ring.getPolled() >= ring.getOffered())) {
+          break;
+        }
+        Thread.yield();
+        continue;
+      }
+      result++;
+      this.applyEvent(event);
+    }
+    if (result > 0) {
+      this.logVersion++;
+    }
+    return result;
+  }
+
+  /**
+   * Called by the log readers to apply all events posted before the call.
+   */
+  private synchronized void applyPosted() {
+    ExecProcessLogRing<LogEvent> ring = this.logRing;
+    if (ring != null) {
+      this.applyEvents(ring, ring.getOffered());
+    }
+  }
+
+  /**
+   * Called to apply a single log event to the logs.
+   * @param event the event to apply
+   */
+  private void applyEvent(LogEvent event) {
+    try {
+      switch (event.eventType) {
+        case LOG: {
+          ActiveProcessLog procLog = this.getActiveLog(event.process);
+          if ((procLog != null) && (!procLog.isClosed())) {
+            procLog.addLog(event.logLevel, event.logMsg, event.logTime);
+          }
+          break;
+        }
+        case CLOSE: {
+          if (this.hasActiveProcessLog(event.process)) {
+            ActiveProcessLog procLog = this.getActiveLog(event.process);
+            if (procLog != null) {
+              procLog.closeLog();
+            }
+            this.cleanLog();
+          }
+          break;
+        }
+        case CLEAR: {
+          String procKey = ExecProcess.getProcessKey(event.process);
+          if ((procKey != null)
+                  && (this.activeLogs != null) && (this.activeLogs.containsKey(procKey))) {
+            ActiveProcessLog procLog = this.activeLogs.get(procKey);
+            if (procLog != null) {
+              if (!procLog.isClosed()) {
+                procLog.closeLog();
+              }
+              procLog.clearLog();
+            }
+            this.activeLogs.remove(procKey);
+            this.cleanLog();
+          }
+          break;
+        }
+      }
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.applyEvent Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
+  }
   // </editor-fold>
 
   //<editor-fold defaultstate="collapsed" desc="Public Methods">  
@@ -739,19 +1134,18 @@ public class ExecProcessLogger implements Serializable {
   /**
    * Called to enter a new log entry for the specified executable process. This call
    * will be ignored if the process' log is closed or the message is undefined.
+   * <p>The entry is posted to the log queue without locking (see {@linkplain 
+   * Overflow}).</p>
    * @param process the calling Executable Process
    * @param logLevel thelogMsglog level
    * @param logMsg the message to log
    */
-  public synchronized void log(IExecProcess process, Level logLevel, String logMsg) {
-    if ((process == null) && ((logMsg = DataEntry.cleanString(logMsg)) == null)) {
+  public void log(IExecProcess process, Level logLevel, String logMsg) {
+    if ((process == null) || ((logMsg = DataEntry.cleanString(logMsg)) == null)) {
       return;
     }
     try {
-      ActiveProcessLog procLog = this.getActiveLog(process);
-      if ((procLog != null) && (!procLog.isClosed())) {
-        procLog.addLog(logLevel, logMsg);
-      }
+      this.postEvent(new LogEvent(EventType.LOG, process, logLevel, logMsg), true);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.log Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
@@ -765,7 +1159,7 @@ public class ExecProcessLogger implements Serializable {
    * @param message the message to log
    * @param args Argument to format logMsg
    */
-  public synchronized void log(IExecProcess process, Level logLevel, String message, 
+  public void log(IExecProcess process, Level logLevel, String message, 
           Object[] args){
     try {
       String logMsg = (args == null)? message: String.format(message, args);
@@ -778,49 +1172,37 @@ public class ExecProcessLogger implements Serializable {
   
   /**
    * Called to close the Process' Log - no further entries can be added to this
-   * process's log.
+   * process's log. The close is posted to the log queue and applied after the
+   * process' prior entries.
    * @param process the calling Executable Process
    */
-  public synchronized void closeLog(IExecProcess process){
-    if ((process == null) || (!this.hasActiveProcessLog(process))) {
+  public void closeLog(IExecProcess process){
+    if (process == null) {
       return;
     }
-    
-    ActiveProcessLog procLog = this.getActiveLog(process);
-    if (procLog != null) {
-      procLog.closeLog();
-    }
-    
-    this.cleanLog();
+    this.postEvent(new LogEvent(EventType.CLOSE, process, null, null), false);
   }
   
   /**
    * Locate and remove the ActiveProcessLog for the specified Process. Before removing 
    * the Log, call is closeLog method if not yet closed and call clearLog to remove
-   * all log entries. The call is skipped is the log no longer exists.
+   * all log entries. The call is skipped is the log no longer exists. The clear is 
+   * posted to the log queue and applied after the process' prior entries.
    * @param process the process of interest
    */
-  public synchronized void clearLog(IExecProcess process) {
-    String procKey = ExecProcess.getProcessKey(process);
-    if ((procKey != null)
-            && (this.activeLogs != null) && (this.activeLogs.containsKey(procKey))) {
-      ActiveProcessLog procLog = this.activeLogs.get(procKey);
-      if (procLog != null) {
-        if (!procLog.isClosed()) {
-          procLog.closeLog();
-        }
-        procLog.clearLog();
-        procLog = null;
-      }
-      this.activeLogs.remove(procKey);   
-      this.cleanLog();
+  public void clearLog(IExecProcess process) {
+    if (ExecProcess.getProcessKey(process) == null) {
+      return;
     }
+    this.postEvent(new LogEvent(EventType.CLEAR, process, null, null), false);
   }
   
   /**
-   * Called to clear all logs (active and archived) and release all resources.
+   * Called to clear all logs (active and archived) and release all resources. All 
+   * events posted before the call are applied before the logs are cleared.
    */
   public synchronized void clearLog() {
+    this.applyPosted();
     if ((this.activeLogs != null) && (!this.activeLogs.isEmpty())) {
       for (ActiveProcessLog procLog : this.activeLogs.values()) {
         procLog.clearLog();
@@ -835,21 +1217,36 @@ public class ExecProcessLogger implements Serializable {
       this.archivedLogs.clear();
       this.archivedLogs = null;
     }
+    if (this.numDropped != null) {
+      this.numDropped.set(0l);
+    }
+    this.logVersion++;
   }
   
   /**
    * Get whether the Logger is Empty
    * @return true if both the Active and Archived Logs are empty,
    */
-  public final boolean isEmpty() {
-    return (((this.activeLogs == null) || (this.archivedLogs.isEmpty()))
+  public final synchronized boolean isEmpty() {
+    this.applyPosted();
+    return (((this.activeLogs == null) || (this.activeLogs.isEmpty()))
             && ((this.archivedLogs == null) || (this.archivedLogs.isEmpty())));
   }
   
+  /**
+   * Get the number of log entries dropped because the log queue was full (since the
+   * logs were last cleared).
+   * @return the count
+   */
+  public long getDroppedCount() {
+    AtomicLong dropped = this.numDropped;
+    return (dropped == null)? 0l: dropped.get();
+  }
+  
   /**
    * Dump the Entire Log to the Server Log. Waits a 100 millisecond to output log.
    */
-  public synchronized void dumpLog() {
+  public void dumpLog() {
     String logMsg = this.getLog();
     logger.log(Level.INFO, logMsg);
     try {
@@ -862,45 +1259,52 @@ public class ExecProcessLogger implements Serializable {
    * @return the log as a string
    */
   public synchronized String getLog() {
-    String result = "";
+    this.applyPosted();
+    StringBuilder result = new StringBuilder();
     if ((this.activeLogs == null) || (this.activeLogs.isEmpty())) {
-      result += "\n-- The Active Process Log is Empty.\n";
+      result.append("\n-- The Active Process Log is Empty.\n");
     } else {
-      result += "\n---------------------------- Start Active Process Log "
-              + "----------------------------\n\r";
+      result.append("\n---------------------------- Start Active Process Log ")
+            .append("----------------------------\n\r");
       for (ActiveProcessLog procLog : this.activeLogs.values()) {
-        result += procLog.getLog();
+        result.append(procLog.getLog());
       }
       
-      result += "----------------------------- End Active Process Log "
-              + "-----------------------------\n\r";
+      result.append("----------------------------- End Active Process Log ")
+            .append("-----------------------------\n\r");
     }
     if ((this.archivedLogs == null) || (this.archivedLogs.isEmpty())) {
-      result += "\n-- The Archived Process Log is Empty.\n";
+      result.append("\n-- The Archived Process Log is Empty.\n");
     } else {
-      result += "\n---------------------------- Start Archived Process Log "
-              + "----------------------------\n\r";
+      result.append("\n---------------------------- Start Archived Process Log ")
+            .append("----------------------------\n\r");
       for (ProcessLog procLog : this.archivedLogs.values()) {
-        result += procLog.getLog();
+        result.append(procLog.getLog());
       }
       
-      result += "----------------------------- End Archived Process Log "
-              + "-----------------------------\n\r";
+      result.append("----------------------------- End Archived Process Log ")
+            .append("-----------------------------\n\r");
     }
-    return result;
+    long dropped = this.getDroppedCount();
+    if (dropped > 0l) {
+      result.append("\n-- ").append(dropped)
+            .append(" log entries were dropped (the log queue was full).\n");
+    }
+    return result.toString();
   }
   
   /**
    * Get the Log as an HTML formatted String.
    * @return the log as an HTML string
    */
-  public synchronized String getHtmlLog() {    
+  public String getHtmlLog() {    
     Source[] sources = null;
     return this.getHtmlLog(false,sources);
   }
   
   /**
-   * Get the Log as an HTML formatted String.
+   * Get the Log as an HTML formatted String. The rendered log is cached until the 
+   * logs change.
    * @param forPrint true if the log is for print
    * @param logSources the log sources to report (assumed {Source.ACTIVE, Source.ARCHIVED}
    * if null | empty)
@@ -910,35 +1314,52 @@ public class ExecProcessLogger implements Serializable {
     if ((logSources == null) || (logSources.length == 0)) {
       logSources = new Source[]{Source.ACTIVE, Source.ARCHIVED};
     }
+    this.applyPosted();
+    long dropped = this.getDroppedCount();
+    String snapshotKey = forPrint + Arrays.toString(logSources) + dropped;
+    if ((this.htmlSnapshots == null) || (this.snapshotVersion != this.logVersion)) {
+      this.htmlSnapshots = new HashMap<>();
+      this.snapshotVersion = this.logVersion;
+    }
+    String result = this.htmlSnapshots.get(snapshotKey);
+    if (result != null) {
+      return result;
+    }
     
-    String result = (forPrint)? "<div class='bwgProcessPanel forPrint'>\n": 
-            "<div class='bwgProcessPanel'>\n";
+    StringBuilder html = new StringBuilder((forPrint)?
+            "<div class='bwgProcessPanel forPrint'>\n": "<div class='bwgProcessPanel'>\n");
     if (DataEntry.inArray(Source.ACTIVE, logSources)) {
       if ((this.activeLogs == null) || (this.activeLogs.isEmpty())) {
-        result += "<p>The Active Process Log is Empty.</p>\n";
+        html.append("<p>The Active Process Log is Empty.</p>\n");
       } else {
-        result += "<h3>The Active Process Log</h3>\n";
+        html.append("<h3>The Active Process Log</h3>\n");
         List<ActiveProcessLog> logList = new ArrayList<>(this.activeLogs.values());
         Collections.sort(logList);
         for (ActiveProcessLog procLog : logList) {
-          result += procLog.getHtmlLog();
+          html.append(procLog.getHtmlLog());
         }
       }
     }
     
     if (DataEntry.inArray(Source.ARCHIVED, logSources)) {
       if ((this.archivedLogs == null) || (this.archivedLogs.isEmpty())) {
-        result += "<p>The Archived Process Log is Empty.</p>\n";
+        html.append("<p>The Archived Process Log is Empty.</p>\n");
       } else {
         List<ProcessLog> logList = new ArrayList<>(this.archivedLogs.values());
         Collections.sort(logList);
-        result += "<h3>The Archived Process Log</h3>\n";
+        html.append("<h3>The Archived Process Log</h3>\n");
         for (ProcessLog procLog : logList) {
-          result += procLog.getHtmlLog();
+          html.append(procLog.getHtmlLog());
         }
       }
     }
-    result += "</div>\n";
+    if (dropped > 0l) {
+      html.append("<p>").append(dropped)
+          .append(" log entries were dropped (the log queue was full).</p>\n");
+    }
+    html.append("</div>\n");
+    result = html.toString();
+    this.htmlSnapshots.put(snapshotKey, result);
     return result;
   }
   //</editor-fold>
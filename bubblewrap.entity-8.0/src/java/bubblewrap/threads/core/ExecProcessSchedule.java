@@ -245,6 +245,16 @@ public final class ExecProcessSchedule implements IExecProcess {
     return this.scheduledTime;
   }
   
+  /**
+   * Get the Scheduled Time in milliseconds since the Epoch (see {@linkplain 
+   * #getScheduledTime() getScheduledTime}).
+   * @return the milliseconds or Long.MIN_VALUE if no time is scheduled.
+   */
+  public long getScheduledMillis() {
+    DateTime schedDt = this.getScheduledTime();
+    return (schedDt == null)? Long.MIN_VALUE: schedDt.getTotalMilliseconds();
+  }
+  
   /**
    * Get the Scheduled Delay. If Stopped, it will throw an IllegalArgumentException
    * @param timeUnit the TiemUnit to convert the delay time to
@@ -254,11 +264,10 @@ public final class ExecProcessSchedule implements IExecProcess {
   public long getDelay(TimeUnit timeUnit) {
     long result = 0;    
     try {
-      DateTime schedDt = this.getScheduledTime();
-      if (schedDt != null) {        
-        DateTime pNow = DateTime.getNow(null);
-        result = schedDt.diff(pNow, timeUnit);
-        result = (result <= 0)? 0: result;
+      long schedMillis = this.getScheduledMillis();
+      if (schedMillis != Long.MIN_VALUE) {        
+        result = schedMillis - System.currentTimeMillis();
+        result = (result <= 0)? 0: timeUnit.convert(result, TimeUnit.MILLISECONDS);
       }
     } catch (Exception pExp) {
       logger.log(Level.WARNING, "{0}.getDelay Error:\n {1}",
@@ -3,12 +3,13 @@ package bubblewrap.threads.core;
 import bubblewrap.core.events.EventArgs;
 import bubblewrap.core.events.EventHandler;
 import bubblewrap.core.reflection.ReflectionInfo;
+import bubblewrap.io.DataEntry;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -25,7 +26,10 @@ import bubblewrap.io.datetime.DateTime;
  * </p>
  * <p>The Scheduler's {@link ExecProcessSyncExecutor} extends {@link ThreadPoolExecutor}
  * and allow the assignment of a custom BlockingQueue for handling the queued tasks.
- * If unassigned, it will use a {@linkplain LinkedBlockingQueue} - A FIFO queue.</p>
+ * If unassigned, it will use a {@linkplain ExecProcessFairQueue}, which orders the 
+ * queued processes by Priority Class and shares the queue fairly between the process
+ * groups (see {@linkplain #setGroupPolicy(java.lang.String, java.lang.Integer, 
+ * java.lang.Integer) setGroupPolicy}).</p>
  * <p>The ExecProcessSyncScheduler does not "re-schedule" ExcProcesses, even if the 
  * process is setup with a periodic run schedule. Each queued ExecProcess is run only 
  * once.</p>
@@ -90,6 +94,10 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
     @Override
     protected void beforeExecute(Thread thread, Runnable runnable) {
       super.beforeExecute(thread, runnable);
+      BlockingQueue<Runnable> queue = this.getQueue();
+      if (queue instanceof ExecProcessFairQueue) {
+        ((ExecProcessFairQueue) queue).onStarted(runnable);
+      }
       if ((runnable != null) && (runnable instanceof ExecProcessFuture<?>)) {
         ExecProcessFuture<?> task = (ExecProcessFuture<?>) runnable;
         task.setThread(thread);
@@ -118,6 +126,10 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
     @Override
     protected void afterExecute(Runnable runnable, Throwable throwable) {
       super.afterExecute(runnable, throwable);
+      BlockingQueue<Runnable> queue = this.getQueue();
+      if (queue instanceof ExecProcessFairQueue) {
+        ((ExecProcessFairQueue) queue).onCompleted(runnable);
+      }
       ExecProcessFuture<?> task = null;
       if ((runnable != null) && (runnable instanceof ExecProcessFuture<?>)) {
         task = (ExecProcessFuture<?>) runnable;
@@ -432,12 +444,17 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
    * The Total number of Processes added for execution
    */
   private Integer processCount;
+  /**
+   * The assigned process group policies by group name (applied if the queue is an 
+   * {@linkplain ExecProcessFairQueue})
+   */
+  private final HashMap<String, ExecProcessFairQueue.GroupPolicy> groupPolicies;
   //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
    * Public Constructor - using the default BlockingQueue class {@linkplain 
-   * LinkedBlockingQueue}.
+   * ExecProcessFairQueue}.
    */
   public ExecProcessSyncScheduler() {
     this(null);    
@@ -450,7 +467,7 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
    * java.lang.Class) ReflectionInfo.castAsGenericClass} to cast the generic 
    * BlockingQueue classes as Class<? extends BlockingQueue<Runnable>></p>
    * @param queueClass the specified BlockingQueue or null to use the default 
-   * {@linkplain LinkedBlockingQueue} class.
+   * {@linkplain ExecProcessFairQueue} class.
    */
   protected ExecProcessSyncScheduler(Class<? extends BlockingQueue<Runnable>> 
           queueClass){
@@ -463,6 +480,7 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
     this.postExecTask = null;
     this.postExecThread = null;
     this.processCount = 0;
+    this.groupPolicies = new HashMap<>();
   }
 
   /**
@@ -639,13 +657,44 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
       this.postExecHandler.setScheduler(this);
     }
   }
+  
+  /**
+   * Called to set the queuing policy of a process group (see {@linkplain 
+   * ExecProcess#getProcessGroup() ExecProcess.processGroup}). The policy applies to the
+   * group's processes in all Priority Classes and is ignored if the Scheduler was
+   * initiated with a queue class other than {@linkplain ExecProcessFairQueue}.
+   * @param groupName the group name
+   * @param weight the group's share of the queue relative to the other groups of the 
+   * same Priority Class (null|&le; 0 for 1)
+   * @param maxRunning the maximum number of the group's processes that can execute 
+   * concurrently (null|&le; 0 if unlimited)
+   */
+  public final void setGroupPolicy(String groupName, Integer weight, 
+                                                                  Integer maxRunning) {
+    groupName = DataEntry.cleanString(groupName);
+    if (groupName == null) {
+      throw new NullPointerException("The Process Group name is unassigned.");
+    }
+    ExecProcessFairQueue.GroupPolicy policy = 
+                                  new ExecProcessFairQueue.GroupPolicy(weight, maxRunning);
+    ExecProcessSyncExecutor curExecutor = null;
+    synchronized (this.groupPolicies) {
+      this.groupPolicies.put(groupName, policy);
+      curExecutor = this.executor;
+    }
+    BlockingQueue<Runnable> queue = (curExecutor == null)? null: curExecutor.getQueue();
+    if (queue instanceof ExecProcessFairQueue) {
+      ((ExecProcessFairQueue) queue).setGroupPolicy(groupName, policy);
+    }
+  }
   //</editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="Implements ExecProcessScheduler">
   /**
    * {@inheritDoc} <p>IMPLEMENT: this process retrieves the assigned {@linkplain 
-   * BlockingQueue} class or used  {@linkplain LinkedBlockingQueue} class if unassigned. 
-   * It initiates a new instance of the BlockingQueue class and use this instance to 
+   * BlockingQueue} class or used  {@linkplain ExecProcessFairQueue} class if unassigned. 
+   * It initiates a new instance of the BlockingQueue class (assigning the process group
+   * policies if it is an ExecProcessFairQueue) and use this instance to 
    * initiate a new {@linkplain ExecProcessSyncExecutor} as this Scheduler's Executor.
    * It the calls {@linkplain ExecProcessScheduler#startExecutor() super.startExecutor}
    * to start the ProcessLogger.
@@ -663,7 +712,7 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
       try {
         Class<? extends BlockingQueue<Runnable>> queueClass = this.queueClass;
         if (queueClass == null) {
-          queueClass = ReflectionInfo.castAsGenericClass(LinkedBlockingQueue.class);
+          queueClass = ExecProcessFairQueue.class;
         }
         try {
           queue = queueClass.newInstance();
@@ -676,7 +725,17 @@ public class ExecProcessSyncScheduler extends ExecProcessScheduler {
                 + ".startExecutor Error:\n " + exp.getMessage(), exp);
       }
       
-      this.executor = new ExecProcessSyncExecutor(this, queue);
+      if (queue instanceof ExecProcessFairQueue) {
+        synchronized (this.groupPolicies) {
+          for (String groupName : this.groupPolicies.keySet()) {
+            ((ExecProcessFairQueue) queue).setGroupPolicy(groupName, 
+                                                  this.groupPolicies.get(groupName));
+          }
+        }
+      }
+      synchronized (this.groupPolicies) {
+        this.executor = new ExecProcessSyncExecutor(this, queue);
+      }
       super.startExecutor();
     }
   }
@@ -0,0 +1,526 @@
+package bubblewrap.threads.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A hierarchical timing wheel used by the {@linkplain ExecProcessAsyncScheduler} to
+ * hold its delayed processes until they are due. Time is counted in primitive ticks of
+ * {@linkplain #getTickMillis() tickMillis} since the wheel was created. The wheel has
+ * {@linkplain #NumLevels} levels of {@linkplain #NumSlots} slots - level[n] covers
+ * NumSlots<sup>n+1</sup> ticks - and an overflow list for entries beyond the last
+ * level. An entry is added to the slot of its due tick at the level that covers its
+ * delay and is cascaded to the lower levels as the wheel turns.</p>
+ * <p>The slots are doubly-linked lists - i.e., {@linkplain #add(java.lang.Object, long)
+ * add} and {@linkplain #cancel(bubblewrap.threads.core.ExecProcessTimerWheel.TimerEntry)
+ * cancel} are O(1). The wheel's timer thread passes all the entries that are due in the
+ * same tick as one batch to the wheel's {@linkplain ExpiryHandler}. It only wakes up for
+ * a tick with due entries or to cascade the next level's slot, and waits for the next
+ * {@linkplain #add(java.lang.Object, long) add} when the wheel is empty.</p>
+ * @author kprins
+ */
+final class ExecProcessTimerWheel<TItem> {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger =
+                                  Logger.getLogger(ExecProcessTimerWheel.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default tick resolution in milliseconds. [{@value}]
+   */
+  static final int DefaultTickMillis = 10;
+  /**
+   * The number of bits of a level's slot index. [{@value}]
+   */
+  private static final int SlotBits = 6;
+  /**
+   * The number of slots per level. [{@value}]
+   */
+  static final int NumSlots = (1 << SlotBits);
+  /**
+   * The number of levels. [{@value}]
+   */
+  static final int NumLevels = 4;
+  /**
+   * The mask to resolve a slot index
+   */
+  private static final long SlotMask = NumSlots - 1;
+  /**
+   * The maximum wait of the timer thread in milliseconds if the wheel is empty
+   */
+  private static final long MaxWaitMillis = 1000l;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package ExpiryHandler Interface">
+  /**
+   * The handler of the wheel's expired entries
+   */
+  interface ExpiryHandler<TItem> {
+
+    /**
+     * Called by the timer thread (outside the wheel's lock) with the entries that are
+     * due in the same tick.
+     * @param entries the expired entries (not empty)
+     */
+    void onExpired(List<TimerEntry<TItem>> entries);
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package TimerEntry Class">
+  /**
+   * An entry of the wheel. Its links are only accessed under the wheel's lock.
+   */
+  static final class TimerEntry<TItem> {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The scheduled item (null for a slot's head)
+     */
+    private final TItem item;
+    /**
+     * The tick the entry is due
+     */
+    private long dueTick;
+    /**
+     * The previous entry in the slot's list
+     */
+    private TimerEntry<TItem> prev;
+    /**
+     * The next entry in the slot's list (null if not in the wheel)
+     */
+    private TimerEntry<TItem> next;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Private Constructor
+     * @param item the scheduled item
+     * @param dueTick the due tick
+     */
+    private TimerEntry(TItem item, long dueTick) {
+      super();
+      this.item = item;
+      this.dueTick = dueTick;
+      this.prev = null;
+      this.next = null;
+    }
+
+    /**
+     * Private Constructor for a slot's head - linked to itself.
+     */
+    private TimerEntry() {
+      this(null, 0l);
+      this.prev = this;
+      this.next = this;
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Called to add <tt>entry</tt> at the end of this head's list
+     */
+    private void append(TimerEntry<TItem> entry) {
+      entry.prev = this.prev;
+      entry.next = this;
+      this.prev.next = entry;
+      this.prev = entry;
+    }
+
+    /**
+     * Called to remove this entry from its list
+     */
+    private void unlink() {
+      this.prev.next = this.next;
+      this.next.prev = this.prev;
+      this.prev = null;
+      this.next = null;
+    }
+
+    /**
+     * Check whether this head's list is empty
+     */
+    private boolean isEmptyList() {
+      return (this.next == this);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Get the scheduled item
+     * @return the assigned item
+     */
+    public TItem getItem() {
+      return this.item;
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The tick resolution in milliseconds
+   */
+  private final long tickMillis;
+  /**
+   * The time (in milliseconds since the Epoch) of tick[0]
+   */
+  private final long baseMillis;
+  /**
+   * The slots' heads by [level][slot]
+   */
+  private final TimerEntry<TItem>[][] slots;
+  /**
+   * The head of the entries that are beyond the last level
+   */
+  private final TimerEntry<TItem> overflow;
+  /**
+   * The handler of the expired entries
+   */
+  private final ExpiryHandler<TItem> handler;
+  /**
+   * The next tick to process
+   */
+  private long currentTick;
+  /**
+   * The tick the timer thread waits for (Long.MAX_VALUE if the wheel is empty)
+   */
+  private long wakeTick;
+  /**
+   * The number of entries in the wheel
+   */
+  private int count;
+  /**
+   * The timer thread (null if not started)
+   */
+  private Thread timerThread;
+  /**
+   * Flag set when the wheel is stopped
+   */
+  private volatile boolean stopped;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Package Constructor
+   * @param tickMillis the tick resolution in milliseconds (null|&le; 0 for {@linkplain
+   * #DefaultTickMillis})
+   * @param handler the handler of the expired entries (not null)
+   */
+  @SuppressWarnings("unchecked")
+  ExecProcessTimerWheel(Integer tickMillis, ExpiryHandler<TItem> handler) {
+    super();
+    if (handler == null) {
+      throw new NullPointerException("The Wheel's ExpiryHandler cannot be unassigned.");
+    }
+    this.tickMillis = ((tickMillis == null) || (tickMillis <= 0))?
+                                                          DefaultTickMillis: tickMillis;
+    this.baseMillis = System.currentTimeMillis();
+    this.slots = new TimerEntry[NumLevels][NumSlots];
+    for (int iLevel = 0; iLevel < NumLevels; iLevel++) {
+      for (int iSlot = 0; iSlot < NumSlots; iSlot++) {
+        this.slots[iLevel][iSlot] = new TimerEntry<>();
+      }
+    }
+    this.overflow = new TimerEntry<>();
+    this.handler = handler;
+    this.currentTick = 0l;
+    this.wakeTick = Long.MAX_VALUE;
+    this.count = 0;
+    this.timerThread = null;
+    this.stopped = false;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the tick of a time - rounded up so that an entry never expires early
+   * @param timeMillis the time in milliseconds since the Epoch
+   * @return the tick
+   */
+  private long toTick(long timeMillis) {
+    long elapsed = timeMillis - this.baseMillis;
+    return (elapsed <= 0)? 0l: ((elapsed + this.tickMillis - 1) / this.tickMillis);
+  }
+
+  /**
+   * Get the number of ticks that have fully elapsed at <tt>timeMillis</tt>
+   */
+  private long elapsedTicks(long timeMillis) {
+    long elapsed = timeMillis - this.baseMillis;
+    return (elapsed <= 0)? 0l: (elapsed / this.tickMillis);
+  }
+
+  /**
+   * Called (under the lock) to add an entry to the slot that covers its delay relative
+   * to the {@linkplain #currentTick}. Entries that are past due are moved to the
+   * current tick.
+   * @param entry the entry to add
+   * @return true if the entry was added to level[0]
+   */
+  private boolean place(TimerEntry<TItem> entry) {
+    if (entry.dueTick < this.currentTick) {
+      entry.dueTick = this.currentTick;
+    }
+    long delta = entry.dueTick - this.currentTick;
+    for (int iLevel = 0; iLevel < NumLevels; iLevel++) {
+      if (delta < (1l << (SlotBits * (iLevel + 1)))) {
+        int iSlot = (int) ((entry.dueTick >>> (SlotBits * iLevel)) & SlotMask);
+        this.slots[iLevel][iSlot].append(entry);
+        return (iLevel == 0);
+      }
+    }
+    this.overflow.append(entry);
+    return false;
+  }
+
+  /**
+   * Called (under the lock) to re-place the entries of a list relative to the
+   * {@linkplain #currentTick}.
+   * @param head the list's head
+   */
+  private void cascade(TimerEntry<TItem> head) {
+    if (head.isEmptyList()) {
+      return;
+    }
+    TimerEntry<TItem> entry = head.next;
+    head.prev.next = null;
+    head.prev = head;
+    head.next = head;
+    while (entry != null) {
+      TimerEntry<TItem> nextEntry = entry.next;
+      entry.prev = null;
+      entry.next = null;
+      this.place(entry);
+      entry = nextEntry;
+    }
+  }
+
+  /**
+   * Called (under the lock) to process the {@linkplain #currentTick} - cascade the
+   * higher levels' slots at the tick's level boundaries and move the tick's level[0]
+   * entries to <tt>expired</tt>.
+   * @param expired the list of expired entries
+   */
+  private void processTick(List<TimerEntry<TItem>> expired) {
+    long tick = this.currentTick;
+    if ((tick & SlotMask) == 0l) {
+      int numLevels = 1;
+      while ((numLevels < NumLevels) &&
+              (((tick >>> (SlotBits * numLevels)) & SlotMask) == 0l)) {
+        numLevels++;
+      }
+      if (numLevels == NumLevels) {
+        this.cascade(this.overflow);
+      }
+      for (int iLevel = Math.min(numLevels, NumLevels - 1); iLevel >= 1; iLevel--) {
+        int iSlot = (int) ((tick >>> (SlotBits * iLevel)) & SlotMask);
+        this.cascade(this.slots[iLevel][iSlot]);
+      }
+    }
+    TimerEntry<TItem> head = this.slots[0][(int) (tick & SlotMask)];
+    while (!head.isEmptyList()) {
+      TimerEntry<TItem> entry = head.next;
+      entry.unlink();
+      expired.add(entry);
+      this.count--;
+    }
+    this.currentTick = tick + 1;
+  }
+
+  /**
+   * Get (under the lock) the next tick the timer thread must process - the next tick
+   * with level[0] entries or the next level[0] wrap (to cascade level[1]).
+   * @return the tick or Long.MAX_VALUE if the wheel is empty.
+   */
+  private long getNextTick() {
+    if (this.count == 0) {
+      return Long.MAX_VALUE;
+    }
+    long tick = this.currentTick;
+    do {
+      if (!this.slots[0][(int) (tick & SlotMask)].isEmptyList()) {
+        break;
+      }
+      tick++;
+    } while ((tick & SlotMask) != 0l);
+    return tick;
+  }
+
+  /**
+   * The timer thread's loop: process the elapsed ticks, pass each tick's expired
+   * entries to the handler, and wait for the next tick.
+   */
+  private void runTimer() {
+    List<TimerEntry<TItem>> expired = new ArrayList<>();
+    while (!this.stopped) {
+      synchronized (this) {
+        if (this.stopped) {
+          break;
+        }
+        long nowTick = this.elapsedTicks(System.currentTimeMillis());
+        if (this.count == 0) {
+          this.currentTick = Math.max(this.currentTick, nowTick + 1);
+        }
+        while ((this.currentTick <= nowTick) && (expired.isEmpty())) {
+          this.processTick(expired);
+        }
+        if (expired.isEmpty()) {
+          this.wakeTick = this.getNextTick();
+          long waitMillis = (this.wakeTick == Long.MAX_VALUE)? MaxWaitMillis:
+                  (this.baseMillis + this.wakeTick * this.tickMillis)
+                                                            - System.currentTimeMillis();
+          if (waitMillis > 0) {
+            try {
+              this.wait(Math.min(waitMillis, MaxWaitMillis));
+            } catch (InterruptedException exp) {
+              break;
+            }
+          }
+          this.wakeTick = Long.MAX_VALUE;
+          continue;
+        }
+      }
+      try {
+        this.handler.onExpired(expired);
+      } catch (Exception exp) {
+        logger.log(Level.WARNING, "{0}.runTimer Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      }
+      expired = new ArrayList<>();
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package Methods">
+  /**
+   * Get the tick resolution
+   * @return the tick length in milliseconds
+   */
+  long getTickMillis() {
+    return this.tickMillis;
+  }
+
+  /**
+   * Called to start the wheel's timer thread - ignored if already started or stopped.
+   */
+  synchronized void start() {
+    if ((this.timerThread == null) && (!this.stopped)) {
+      this.timerThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          ExecProcessTimerWheel.this.runTimer();
+        }
+      }, this.getClass().getSimpleName());
+      this.timerThread.setDaemon(true);
+      this.timerThread.start();
+    }
+  }
+
+  /**
+   * Called to stop the wheel's timer thread and remove all pending entries.
+   * @return the items of the pending entries (an empty list if none)
+   */
+  List<TItem> stop() {
+    List<TItem> result = new ArrayList<>();
+    Thread thread = null;
+    synchronized (this) {
+      this.stopped = true;
+      thread = this.timerThread;
+      this.timerThread = null;
+      List<TimerEntry<TItem>> heads = new ArrayList<>();
+      for (int iLevel = 0; iLevel < NumLevels; iLevel++) {
+        for (int iSlot = 0; iSlot < NumSlots; iSlot++) {
+          heads.add(this.slots[iLevel][iSlot]);
+        }
+      }
+      heads.add(this.overflow);
+      for (TimerEntry<TItem> head : heads) {
+        while (!head.isEmptyList()) {
+          TimerEntry<TItem> entry = head.next;
+          entry.unlink();
+          result.add(entry.item);
+        }
+      }
+      this.count = 0;
+      this.notifyAll();
+    }
+    if ((thread != null) && (thread != Thread.currentThread())) {
+      try {
+        thread.join(MaxWaitMillis);
+      } catch (InterruptedException exp) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Called to add an item that is due at <tt>dueMillis</tt>. If past due, it expires
+   * in the next tick.
+   * @param item the item to schedule (not null)
+   * @param dueMillis the due time in milliseconds since the Epoch
+   * @return the item's entry (to {@linkplain #cancel(
+   * bubblewrap.threads.core.ExecProcessTimerWheel.TimerEntry) cancel} it)
+   * @throws IllegalStateException if the wheel is stopped
+   */
+  synchronized TimerEntry<TItem> add(TItem item, long dueMillis) {
+    if (item == null) {
+      throw new NullPointerException("The Wheel's Item cannot be unassigned.");
+    }
+    if (this.stopped) {
+      throw new IllegalStateException("The " + this.getClass().getSimpleName()
+              + " has been stopped.");
+    }
+    TimerEntry<TItem> result = new TimerEntry<>(item, this.toTick(dueMillis));
+    boolean wasEmpty = (this.count == 0);
+    this.place(result);
+    this.count++;
+    if ((wasEmpty) || (result.dueTick < this.wakeTick)) {
+      this.notifyAll();
+    }
+    return result;
+  }
+
+  /**
+   * Called to remove a pending entry from the wheel
+   * @param entry the entry to remove
+   * @return true if removed; false if already expired or cancelled.
+   */
+  synchronized boolean cancel(TimerEntry<TItem> entry) {
+    boolean result = false;
+    if ((entry != null) && (entry.next != null)) {
+      entry.unlink();
+      this.count--;
+      result = true;
+    }
+    return result;
+  }
+
+  /**
+   * Get the number of pending entries
+   * @return the count
+   */
+  synchronized int size() {
+    return this.count;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: "ExecProcessTimerWheel[tickMillis=..; pending=..]"</p>
+   */
+  @Override
+  public String toString() {
+    return "ExecProcessTimerWheel[tickMillis=" + this.tickMillis + "; pending="
+            + this.size() + "]";
+  }
+  //</editor-fold>
+}
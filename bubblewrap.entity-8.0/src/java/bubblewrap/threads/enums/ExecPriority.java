@@ -0,0 +1,59 @@
+package bubblewrap.threads.enums;
+
+/**
+ * An enum class for the Priority Class of a queued {@linkplain ExecProcess}. Queued
+ * processes of a higher priority class are executed before those of a lower class (see
+ * {@linkplain ExecProcessFairQueue}).
+ * @author kprins
+ */
+public enum ExecPriority {
+  /**
+   * Short, interactive processes (e.g., a user request) - executed first.
+   */
+  INTERACTIVE(0,"Interactive"),
+  /**
+   * The default - regular processes.
+   */
+  NORMAL(1,"Normal"),
+  /**
+   * Long running background processes - executed when no other processes are queued.
+   */
+  BACKGROUND(2,"Background");
+
+  // <editor-fold defaultstate="collapsed" desc="Enum Definition">
+  // <editor-fold defaultstate="collapsed" desc="Public Final Fields">
+  public final String label;
+  public final int value;
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor
+   * @param value the option value
+   * @param label the option label
+   */
+  private ExecPriority(int value, String label) {
+    this.label = label;
+    this.value = value;
+  }
+  // </editor-fold>
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Public Static Methods">
+  /**
+   * Get the ExecPriority associated with <tt>value</tt>
+   * @param value the ExecPriority.value to search for
+   * @return the matching ExecPriority or NORMAL if not found.
+   */
+  public static ExecPriority fromValue(int value) {
+    ExecPriority result = ExecPriority.NORMAL;
+    for (ExecPriority enumVal : ExecPriority.values()) {
+      if (enumVal.value == value) {
+        result = enumVal;
+        break;
+      }
+    }
+    return result;
+  }
+  // </editor-fold>
+}
@@ -0,0 +1,203 @@
+package gov.water.cdec.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>An immutable, pre-rendered JSON response. The JSON string is serialized once to
+ * its UTF-8 bytes (and - if larger than {@linkplain #MinGzipSize} - to its gzipped
+ * bytes) and tagged with an ETag derived from its content. {@linkplain
+ * #write(javax.servlet.http.HttpServletRequest, javax.servlet.http.HttpServletResponse)
+ * write} streams the cached bytes to the client or answers a matching If-None-Match
+ * header with 304 (Not Modified).</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public final class CachedJsonResponse implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The minimum body size (in bytes) for which a gzipped body is pre-rendered (1024)
+   */
+  public static final int MinGzipSize = 1024;
+  /**
+   * The response's content type
+   */
+  public static final String ContentType = "application/json;charset=UTF-8";
+  /**
+   * Hex digits for formatting the ETag
+   */
+  private static final char[] HexDigits = "0123456789abcdef".toCharArray();
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The version of the data the response was rendered for
+   */
+  public final long version;
+  /**
+   * The (quoted) ETag of the response's content
+   */
+  public final String etag;
+  /**
+   * The time (in milliseconds) the response was rendered
+   */
+  public final long renderTime;
+  /**
+   * The UTF-8 encoded body
+   */
+  private final byte[] body;
+  /**
+   * The gzipped body (null if the body is smaller than MinGzipSize)
+   */
+  private final byte[] gzipBody;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param version the version of the data
+   * @param json the JSON string to render (null for "{}")
+   * @throws IOException if the body could not be gzipped
+   */
+  public CachedJsonResponse(long version, String json) throws IOException {
+    super();
+    this.version = version;
+    this.renderTime = System.currentTimeMillis();
+    this.body = ((json == null)? "{}": json).getBytes(StandardCharsets.UTF_8);
+    this.etag = CachedJsonResponse.toETag(this.body);
+    if (this.body.length >= MinGzipSize) {
+      ByteArrayOutputStream outStream = new ByteArrayOutputStream(this.body.length / 4);
+      try (GZIPOutputStream gzipStream = new GZIPOutputStream(outStream)) {
+        gzipStream.write(this.body);
+      }
+      this.gzipBody = outStream.toByteArray();
+    } else {
+      this.gzipBody = null;
+    }
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the quoted ETag of <tt>body</tt> - the hex-encoded MD5 digest of its content.
+   * @param body the body
+   * @return the ETag
+   */
+  private static String toETag(byte[] body) {
+    byte[] digest = null;
+    try {
+      digest = MessageDigest.getInstance("MD5").digest(body);
+    } catch (Exception exp) {
+      throw new IllegalStateException("MD5 digest is not supported.", exp);
+    }
+    char[] result = new char[2 * digest.length + 2];
+    result[0] = '"';
+    for (int iByte = 0; iByte < digest.length; iByte++) {
+      result[2 * iByte + 1] = HexDigits[(digest[iByte] >> 4) & 0x0F];
+      result[2 * iByte + 2] = HexDigits[digest[iByte] & 0x0F];
+    }
+    result[result.length - 1] = '"';
+    return new String(result);
+  }
+
+  /**
+   * Check whether the request's If-None-Match header matches this.etag (or "*")
+   * @param request the HTTP request
+   * @return true if the client's copy is current.
+   */
+  private boolean isNotModified(HttpServletRequest request) {
+    String ifNoneMatch = request.getHeader("If-None-Match");
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if ((tag.equals("*")) || (tag.equals(this.etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check whether the request's Accept-Encoding header accepts gzip
+   * @param request the HTTP request
+   * @return true if accepted
+   */
+  private static boolean acceptsGzip(HttpServletRequest request) {
+    String encoding = request.getHeader("Accept-Encoding");
+    return ((encoding != null) && (encoding.toLowerCase().contains("gzip")));
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the size of the (uncompressed) body
+   * @return the number of bytes
+   */
+  public int getLength() {
+    return this.body.length;
+  }
+
+  /**
+   * Get the body as a JSON string
+   * @return the decoded body
+   */
+  public String getJson() {
+    return new String(this.body, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Called to write the cached response. If the request's If-None-Match header matches
+   * this.etag, it only sets the status to 304 (Not Modified). Otherwise, it streams the
+   * gzipped body (if accepted by the client and available) or the plain body.
+   * @param request the HTTP request
+   * @param response the HTTP response
+   * @throws IOException if writing the response failed.
+   */
+  public void write(HttpServletRequest request, HttpServletResponse response)
+                                                                    throws IOException {
+    response.setHeader("ETag", this.etag);
+    response.setHeader("Cache-Control", "no-cache");
+    response.setHeader("Vary", "Accept-Encoding");
+    if ((request != null) && (this.isNotModified(request))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    byte[] content = this.body;
+    if ((this.gzipBody != null) && (request != null) &&
+            (CachedJsonResponse.acceptsGzip(request))) {
+      response.setHeader("Content-Encoding", "gzip");
+      content = this.gzipBody;
+    }
+    response.setContentType(ContentType);
+    response.setContentLength(content.length);
+    ServletOutputStream outStream = response.getOutputStream();
+    outStream.write(content);
+    outStream.flush();
+  }
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: return the version, ETag, and size</p>
+   */
+  @Override
+  public String toString() {
+    return "CachedJsonResponse[ version=" + this.version + "; etag=" + this.etag
+            + "; size=" + this.body.length + "]";
+  }
+  // </editor-fold>
+}
@@ -1,5 +1,6 @@
 package gov.water.cdec.importer;
 
+import bubblewrap.threads.enums.ExecPriority;
 import gov.ca.water.cdec.importers.ImportUtils;
 import java.io.Serializable;
 import org.json.JSONObject;
@@ -63,6 +64,15 @@ public abstract class CdecImportRequest implements Serializable {
   //</editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * CAN OVERRIDE: Get the request's Priority Class - queued requests of a higher class
+   * are launched first (see {@linkplain CdecImporter}). The base method returns NORMAL.
+   * @return the priority class
+   */
+  public ExecPriority getExecPriority() {
+    return ExecPriority.NORMAL;
+  }
+
   /**
    * Get the current Request Status  
    * @return the current status
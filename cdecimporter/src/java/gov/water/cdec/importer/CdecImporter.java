@@ -44,6 +44,10 @@ public class CdecImporter implements Serializable {
    * The default maximum number of Download Connection Tries
    */
   public static final int MaxConnectTries = 5;
+  /**
+   * The maximum age (in milliseconds) of a cached Import Status response (1 second)
+   */
+  public static final long StatusMaxAge = 1000L;
   /**
    * The Sensors for importing daily data = {{@linkplain CdecSensorTypes#DailyPrecip}, 
    * {@linkplain CdecSensorTypes#DailyPcpAdj}, {@linkplain CdecSensorTypes#DailySnow},
@@ -96,6 +100,10 @@ public class CdecImporter implements Serializable {
   private List<CdecImportRequest> requestQueue;
   private List<CdecImportRequest> historyQueue;
   private CdecImportRequest executingRequest;
+  /**
+   * The cache of the pre-rendered Import Status response
+   */
+  private final JsonResponseCache statusCache = new JsonResponseCache(1);
   // </editor-fold>
   
 
@@ -339,12 +347,22 @@ public class CdecImporter implements Serializable {
   /**
    * Called to add the <tt>request</tt> to the queue and call {@linkplain #onExecute() 
    * this.onExecute} to start the execution process if this.dataImporter is available.
+   * The request is queued after all queued requests of the same or a higher {@linkplain
+   * CdecImportRequest#getExecPriority() Priority Class} - i.e., an INTERACTIVE request
+   * is not queued behind BACKGROUND (period-of-record) requests. The executing request
+   * is not interrupted.
    * @param request 
    */
   private void submitRequest(CdecImportRequest request) {
     try {
       if ((request != null) && (request.isPending())) {
-        this.requestQueue.add(request);
+        int priority = request.getExecPriority().ordinal();
+        int iPos = this.requestQueue.size();
+        while ((iPos > 0) && 
+              (this.requestQueue.get(iPos - 1).getExecPriority().ordinal() > priority)) {
+          iPos--;
+        }
+        this.requestQueue.add(iPos, request);
       }
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.submitRequest Error:\n {1}",
@@ -410,7 +428,7 @@ public class CdecImporter implements Serializable {
       if (request instanceof TimeSeriesImportRequest) {
         TimeSeriesImportRequest timeRequest = (TimeSeriesImportRequest) request;
         if (!importer.importTimeSeriesData(timeRequest.startDate, timeRequest.endDate,
-                                                      timeRequest.sensorTypes)) {
+                              timeRequest.incremental, timeRequest.sensorTypes)) {
           throw new Exception(importer.getErrorMsg());
         } else if (!importer.isBusy()) {
           request.completeExecution();
@@ -492,6 +510,19 @@ public class CdecImporter implements Serializable {
    * @param numDays the number of days {@linkplain #DefaultImportDays DefaultImportDays}
    */
   public void importDailyData(Date endDate, Integer numDays) {
+    this.importDailyData(endDate, numDays, false);
+  }
+  
+  /**
+   * Called to the service to start the import of all daily data for the period 
+   * <tt>numDays</tt> prior to the endDate to the endDate. If <tt>incremental</tt>, each
+   * sensor's data is only imported from its watermark (less the revision look-back) 
+   * with the period's start date as the earliest date.
+   * @param endDate the end Date - set as today if unassigned.
+   * @param numDays the number of days {@linkplain #DefaultImportDays DefaultImportDays}
+   * @param incremental true to import incrementally
+   */
+  public void importDailyData(Date endDate, Integer numDays, boolean incremental) {
     try {
       Calendar cal = Calendar.getInstance();
       Date today = cal.getTime();
@@ -507,7 +538,7 @@ public class CdecImporter implements Serializable {
       Date startDate = cal.getTime();
           
       TimeSeriesImportRequest request = new TimeSeriesImportRequest("Import DailyData",
-                                    startDate, endDate, CdecImporter.DailySensors);
+                        startDate, endDate, incremental, CdecImporter.DailySensors);
       this.submitRequest(request);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.importDailyData Error:\n {1}",
@@ -548,6 +579,20 @@ public class CdecImporter implements Serializable {
    * @param numDays the number of days {@linkplain #DefaultImportDays DefaultImportDays}
    */
   public void importMonthlyData(Date endDate, Integer numMonths) {
+    this.importMonthlyData(endDate, numMonths, false);
+  }
+  
+  /**
+   * Called to the service to start the import of all monthly data for the period 
+   * <tt>numMonths</tt> prior to the endDate to the endDate. If <tt>incremental</tt>, 
+   * each sensor's data is only imported from its watermark (less the revision 
+   * look-back) with the period's start date as the earliest date.
+   * @param endDate the end Date - set as today if unassigned.
+   * @param numMonths the number of months {@linkplain #DefaultImportMonth 
+   * DefaultImportMonth}
+   * @param incremental true to import incrementally
+   */
+  public void importMonthlyData(Date endDate, Integer numMonths, boolean incremental) {
     try {
       Calendar cal = Calendar.getInstance();
       endDate = this.getFirstOfMonthDate(endDate);
@@ -560,7 +605,7 @@ public class CdecImporter implements Serializable {
       Date startDate = cal.getTime();
           
       TimeSeriesImportRequest request = new TimeSeriesImportRequest("Import MonthlyData", 
-                                        startDate, endDate, CdecImporter.MonthlySensors);
+                      startDate, endDate, incremental, CdecImporter.MonthlySensors);
       this.submitRequest(request);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.importMonthlyData Error:\n {1}",
@@ -634,10 +679,12 @@ public class CdecImporter implements Serializable {
   
   /**
    * Get the Importer Status as a JSON String
-   * @return a JSON string containing three elements: "request", "executing", "history".
-   * The first and last elements contains list of {@linkplain 
+   * @return a JSON string containing four elements: "request", "executing", "history",
+   * and "retry". The first and third elements contains list of {@linkplain 
    * CdecImportRequest#getAsJSON() CdecImportRquest JsonObjects}. The "executing" 
-   * contains the CdecImportRquest JsonObjects for the currently executing request.
+   * contains the CdecImportRquest JsonObjects for the currently executing request. The
+   * "retry" element contains the importer's {@linkplain 
+   * CdecDataImporter#getRetryMetrics() retry and circuit breaker metrics}.
    */
   public String getImportStatus() {
     String result = null;
@@ -695,9 +742,32 @@ public class CdecImporter implements Serializable {
       }
       statusObj.put("history", queue);
     }
+    CdecDataImporter importer = this.dataImporter;
+    if (importer != null) {
+      statusObj.put("retry", importer.getRetryMetrics());
+    }
     result = ImportUtils.cleanString(statusObj.toString());
     return (result == null)? "[]": result;
   }
+  
+  /**
+   * Get the pre-rendered {@linkplain #getImportStatus() Import Status} response. The 
+   * status is rendered at most once per {@linkplain #StatusMaxAge} - polling clients 
+   * within the same period share the cached bytes. Its ETag is derived from the 
+   * content, so a client whose status has not changed receives a 304 response.
+   * @return the cached response
+   * @throws Exception if rendering the status failed.
+   */
+  public CachedJsonResponse getImportStatusResponse() throws Exception {
+    long version = System.currentTimeMillis() / StatusMaxAge;
+    return this.statusCache.get("status", version, 
+                                              new JsonResponseCache.JsonRenderer() {
+      @Override
+      public String render() throws Exception {
+        return CdecImporter.this.getImportStatus();
+      }
+    });
+  }
   // </editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Object Overrides">
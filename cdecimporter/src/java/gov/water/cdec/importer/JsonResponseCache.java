@@ -0,0 +1,134 @@
+package gov.water.cdec.importer;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONObject;
+
+/**
+ * <p>A cache of {@linkplain CachedJsonResponse pre-rendered JSON responses} by key. A
+ * response is rendered once per data version - {@linkplain #get(java.lang.String, long,
+ * gov.water.cdec.importer.JsonResponseCache.JsonRenderer) get} returns the cached
+ * response if its version matches the current version and otherwise calls the
+ * {@linkplain JsonRenderer} to render and cache a new response.</p>
+ * <p>Concurrent misses for the same key may render the response more than once - the
+ * last rendered response is cached. The cache is cleared when it exceeds its maximum
+ * number of entries.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class JsonResponseCache implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default maximum number of cached responses (512)
+   */
+  public static final int DefaultMaxEntries = 512;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Interface[JsonRenderer]">
+  /**
+   * The renderer of a cache miss's JSON content
+   */
+  public static interface JsonRenderer {
+
+    /**
+     * ABSTRACT: Called to render the JSON content of the current data version.
+     * @return the JSON string
+     * @throws Exception if the rendering failed
+     */
+    String render() throws Exception;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The cached responses by key
+   */
+  private final ConcurrentHashMap<String, CachedJsonResponse> cacheMap;
+  /**
+   * The maximum number of cached responses
+   */
+  private final int maxEntries;
+  /**
+   * The number of requests served from the cache
+   */
+  private final AtomicLong numHits;
+  /**
+   * The number of responses rendered
+   */
+  private final AtomicLong numMisses;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param maxEntries the maximum number of cached responses (null|&le; 0 for
+   * {@linkplain #DefaultMaxEntries})
+   */
+  public JsonResponseCache(Integer maxEntries) {
+    super();
+    this.maxEntries = ((maxEntries == null) || (maxEntries <= 0))? DefaultMaxEntries:
+                                                                   maxEntries;
+    this.cacheMap = new ConcurrentHashMap<>();
+    this.numHits = new AtomicLong();
+    this.numMisses = new AtomicLong();
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the cached response for <tt>key</tt> if rendered for <tt>version</tt>, else
+   * render, cache, and return a new response.
+   * @param key the response key
+   * @param version the current version of the response's data
+   * @param renderer the renderer of the JSON content
+   * @return the cached or new response
+   * @throws Exception if the rendering failed
+   */
+  public CachedJsonResponse get(String key, long version, JsonRenderer renderer)
+                                                                      throws Exception {
+    CachedJsonResponse result = this.cacheMap.get(key);
+    if ((result != null) && (result.version == version)) {
+      this.numHits.incrementAndGet();
+      return result;
+    }
+
+    this.numMisses.incrementAndGet();
+    result = new CachedJsonResponse(version, renderer.render());
+    if ((this.cacheMap.size() >= this.maxEntries) && (!this.cacheMap.containsKey(key))) {
+      this.cacheMap.clear();
+    }
+    this.cacheMap.put(key, result);
+    return result;
+  }
+
+  /**
+   * Called to remove the cached response for <tt>key</tt>
+   * @param key the response key
+   */
+  public void invalidate(String key) {
+    if (key != null) {
+      this.cacheMap.remove(key);
+    }
+  }
+
+  /**
+   * Called to remove all cached responses
+   */
+  public void clear() {
+    this.cacheMap.clear();
+  }
+
+  /**
+   * Get the cache metrics as a JSONObject
+   * @return {"entries": #, "hits": #, "misses": #}
+   */
+  public JSONObject getAsJSON() {
+    JSONObject result = new JSONObject();
+    result.put("entries", this.cacheMap.size());
+    result.put("hits", this.numHits.get());
+    result.put("misses", this.numMisses.get());
+    return result;
+  }
+  //</editor-fold>
+}
@@ -1,5 +1,6 @@
 package gov.water.cdec.importer;
 
+import bubblewrap.threads.enums.ExecPriority;
 import org.json.JSONObject;
 
 
@@ -31,6 +32,16 @@ public class PeriodOfRecordImportRequest extends CdecImportRequest {
   // </editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Override CdecImportRequest">
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: Return BACKGROUND - a long running import</p>
+   */
+  @Override
+  public ExecPriority getExecPriority() {
+    return ExecPriority.BACKGROUND;
+  }
+
   /**
    * {@inheritDoc}
    * <p>
@@ -1,5 +1,7 @@
 package gov.water.cdec.importer;
 
+import bubblewrap.threads.enums.ExecPriority;
+
 /**
  *
  * @author J.G. "Koos" Prins, D.Eng. PE.
@@ -14,4 +16,16 @@ public class StationSensorImportRequest extends CdecImportRequest {
     super("Import Station-Sensor Data");  
   }
   // </editor-fold>
+  
+  // <editor-fold defaultstate="collapsed" desc="Override CdecImportRequest">
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: Return INTERACTIVE - a short import requested by a user</p>
+   */
+  @Override
+  public ExecPriority getExecPriority() {
+    return ExecPriority.INTERACTIVE;
+  }
+  // </editor-fold>
 }
@@ -24,6 +24,11 @@ public class TimeSeriesImportRequest extends CdecImportRequest {
    * The Import Start Date
    */
   public final CdecSensorTypes[] sensorTypes;
+  /**
+   * Flag indicating whether only the data after each sensor's watermark (less the
+   * revision look-back) should be imported.
+   */
+  public final boolean incremental;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -32,6 +37,14 @@ public class TimeSeriesImportRequest extends CdecImportRequest {
    */
   public TimeSeriesImportRequest(String requestType, Date startDate, Date endDate,
                                                      CdecSensorTypes...sensorTypes) {
+    this(requestType, startDate, endDate, false, sensorTypes);
+  }
+  
+  /**
+   * Overload 2: Public Constructor with an incremental flag
+   */
+  public TimeSeriesImportRequest(String requestType, Date startDate, Date endDate,
+                            boolean incremental, CdecSensorTypes...sensorTypes) {
     super(requestType);      
     if (startDate == null) {
       throw new NullPointerException("The CdecImportRequest's startDate is unassigned.");
@@ -45,6 +58,7 @@ public class TimeSeriesImportRequest extends CdecImportRequest {
     this.startDate = startDate;
     this.endDate = endDate;
     this.sensorTypes = sensorTypes;
+    this.incremental = incremental;
   }
   // </editor-fold>
   
@@ -52,14 +66,14 @@ public class TimeSeriesImportRequest extends CdecImportRequest {
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: Add the startDate and endDate properties</p>
+   * OVERRIDE: Add the startDate, endDate, and incremental properties</p>
    */
   @Override
   protected void onAsJson(JSONObject jsonObj) {
     SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
     jsonObj.put("startDate", formatter.format(this.startDate));
     jsonObj.put("endDate", formatter.format(this.endDate));
-    
+    jsonObj.put("incremental", this.incremental);
   }
   // </editor-fold>
 }
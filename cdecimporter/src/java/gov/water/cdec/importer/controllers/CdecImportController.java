@@ -62,7 +62,10 @@ public class CdecImportController {
   // </editor-fold>
 
   /**
-   * Get the current {@linkplain CdecImporter#getImportStatus() CdecImporter.importStatus}
+   * Get the current {@linkplain CdecImporter#getImportStatus() CdecImporter.importStatus}.
+   * It streams the importer's {@linkplain CdecImporter#getImportStatusResponse() cached
+   * response} (gzipped if accepted) or responds with 304 if the client's If-None-Match 
+   * ETag is current.
    * @param request the Servlet Request
    * @param response the Servlet Request
    * @throws IOException if an IO error occur.
@@ -75,16 +78,13 @@ public class CdecImportController {
   public void getStatus(HttpServletRequest request, 
                         HttpServletResponse response)
                         throws IOException {
-    String result = null;
     try {      
-      Calendar cal = Calendar.getInstance();
-      Long now = cal.getTimeInMillis();
       CdecImporter importer = this.getImporter();
-      if (importer != null) {
-        result = importer.getImportStatus();
+      if (importer == null) {
+        throw new Exception("The CDEC Importer is not accessible to handle the "
+                + "Request[/import/status]");
       }
-      Long then = cal.getTimeInMillis();
-      response.getWriter().write(result);
+      importer.getImportStatusResponse().write(request, response);
     } catch (Exception exp) {
       throw new IOException(this.getClass().getSimpleName()
               + ".getStatus Error:\n " + exp.getMessage());
@@ -93,7 +93,8 @@ public class CdecImportController {
 
   /**
    * POST method for launching the import of daily data.
-   * @param jsonInput the expected format is "{"enddate": "yyyy-MM-dd", "months": ??}".
+   * @param jsonInput the expected format is "{"enddate": "yyyy-MM-dd", "days": ??,
+   * "incremental": true|false}".
    * @return an HTTP response with content of the updated or created resource.
    */
   @RequestMapping(
@@ -114,6 +115,7 @@ public class CdecImportController {
       }
       Date endDt = null;
       Integer numDays = null;
+      boolean incremental = false;
       JSONObject jsonObj = null; 
       jsonInput = HttpUtils.decodeString(jsonInput);
       if (((jsonInput = ImportUtils.cleanString(jsonInput)) != null) && 
@@ -140,9 +142,11 @@ public class CdecImportController {
         if ((numDays = jsonObj.optInt("days",-1)) <= 0){
           numDays = null;
         }
+        
+        incremental = jsonObj.optBoolean("incremental", false);
       }
       
-      importer.importDailyData(endDt, numDays);
+      importer.importDailyData(endDt, numDays, incremental);
       result.put("status", "success");
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.importDailyData Error:\n {1}",
@@ -160,7 +164,8 @@ public class CdecImportController {
 
   /**
    * POST method for launching the import of monthly data. 
-   * @param jsonInput the expected format is "{"enddate": "yyyy-MM-dd", "months": ??}".
+   * @param jsonInput the expected format is "{"enddate": "yyyy-MM-dd", "months": ??,
+   * "incremental": true|false}".
    * @return an HTTP response with content of the updated or created resource.
    */
   @RequestMapping(
@@ -183,6 +188,7 @@ public class CdecImportController {
       //String jsonInput = null;
       Date endDt = null;
       Integer numMonths = null;
+      boolean incremental = false;
       jsonInput = HttpUtils.decodeString(jsonInput);
       JSONObject jsonObj = null; 
       if (((jsonInput = ImportUtils.cleanString(jsonInput)) != null) && 
@@ -206,9 +212,11 @@ public class CdecImportController {
         if ((numMonths = jsonObj.optInt("months",-1)) <= 0) {
           numMonths = null;
         }
+        
+        incremental = jsonObj.optBoolean("incremental", false);
       }
       
-      importer.importMonthlyData(endDt, numMonths);
+      importer.importMonthlyData(endDt, numMonths, incremental);
 
       result.put("status", "success");
     } catch (Exception exp) {
@@ -121,6 +121,14 @@ public class B120WsFcastMap implements Serializable {
     return result;
   }
   
+  /**
+   * Get a list of the map's forecasts in the order they were added
+   * @return a new list (empty if no forecasts)
+   */
+  public List<B120WsFcast> getForecasts() {
+    return new ArrayList<>(this.dataMap.values());
+  }
+  
   /**
    * Get the Map contains a B120WsFcast entry for the specified date
    * @param fcastDt the forecast date
@@ -0,0 +1,200 @@
+package gov.water.cdec.reservoirs;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>A columnar backing store for a {@linkplain ReservoirTimeSeries}' daily values. It
+ * holds one primitive <tt>double[]</tt> column per {@linkplain ReservoirSensor} (and
+ * one for the cumulative observed Apr-Jul runoff) indexed by row (the step's water year
+ * day). Missing values are stored as NaN.</p>
+ * <p>The series' {@linkplain ReservoirTimeStepValue ReservoirTimeStepValues} are views
+ * on a row of the store, which replaces a HashMap and boxed Doubles per time step with
+ * a few primitive arrays per series.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ReservoirColumnStore implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default initial number of rows (366 - the days in a leap water year)
+   */
+  public static final int DefaultCapacity = 366;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The sensor value columns by ReservoirSensor.ordinal()
+   */
+  private double[][] columns;
+  /**
+   * The cumulative observed Apr-Jul runoff column
+   */
+  private double[] obsAjColumn;
+  /**
+   * The number of allocated rows
+   */
+  private int capacity;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param capacity the initial number of rows (null|&le; 0 for {@linkplain
+   * #DefaultCapacity})
+   */
+  public ReservoirColumnStore(Integer capacity) {
+    super();
+    this.capacity = ((capacity == null) || (capacity <= 0))? DefaultCapacity: capacity;
+    this.columns = new double[ReservoirSensor.values().length][];
+    for (int iCol = 0; iCol < this.columns.length; iCol++) {
+      this.columns[iCol] = ReservoirColumnStore.newColumn(this.capacity);
+    }
+    this.obsAjColumn = ReservoirColumnStore.newColumn(this.capacity);
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get a new column filled with NaN
+   * @param size the column size
+   * @return the new column
+   */
+  private static double[] newColumn(int size) {
+    double[] result = new double[size];
+    Arrays.fill(result, Double.NaN);
+    return result;
+  }
+
+  /**
+   * Get a copy of <tt>column</tt> grown to <tt>size</tt> - the new rows are NaN
+   * @param column the column to copy
+   * @param size the new size
+   * @return the grown column
+   */
+  private static double[] growColumn(double[] column, int size) {
+    double[] result = Arrays.copyOf(column, size);
+    Arrays.fill(result, column.length, size, Double.NaN);
+    return result;
+  }
+
+  /**
+   * Check that <tt>row</tt> is a valid row index
+   * @param row the row index
+   * @throws IndexOutOfBoundsException if out of range
+   */
+  private void checkRow(int row) {
+    if ((row < 0) || (row >= this.capacity)) {
+      throw new IndexOutOfBoundsException("Row[" + row + "] is out of range[0.."
+              + (this.capacity - 1) + "].");
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Called to make sure <tt>row</tt> is allocated - grow the columns if not.
+   * @param row the row index (&ge; 0)
+   */
+  public synchronized void ensureRow(int row) {
+    if (row < 0) {
+      throw new IndexOutOfBoundsException("Row[" + row + "] cannot be negative.");
+    }
+    if (row < this.capacity) {
+      return;
+    }
+    int size = Math.max(row + 1, this.capacity + (this.capacity >> 1));
+    for (int iCol = 0; iCol < this.columns.length; iCol++) {
+      this.columns[iCol] = ReservoirColumnStore.growColumn(this.columns[iCol], size);
+    }
+    this.obsAjColumn = ReservoirColumnStore.growColumn(this.obsAjColumn, size);
+    this.capacity = size;
+  }
+
+  /**
+   * Get the stored value of a sensor (no substitution)
+   * @param sensor the ReservoirSensor (not null)
+   * @param row the row index
+   * @return the value or NaN if missing
+   */
+  public synchronized double get(ReservoirSensor sensor, int row) {
+    this.checkRow(row);
+    return this.columns[sensor.ordinal()][row];
+  }
+
+  /**
+   * Set the stored value of a sensor
+   * @param sensor the ReservoirSensor (not null)
+   * @param row the row index
+   * @param value the value (NaN to clear)
+   */
+  public synchronized void set(ReservoirSensor sensor, int row, double value) {
+    this.checkRow(row);
+    this.columns[sensor.ordinal()][row] = value;
+  }
+
+  /**
+   * Get a row's cumulative observed Apr-Jul runoff
+   * @param row the row index
+   * @return the value or NaN if unassigned
+   */
+  public synchronized double getObsAj(int row) {
+    this.checkRow(row);
+    return this.obsAjColumn[row];
+  }
+
+  /**
+   * Set a row's cumulative observed Apr-Jul runoff
+   * @param row the row index
+   * @param value the value (NaN to clear)
+   */
+  public synchronized void setObsAj(int row, double value) {
+    this.checkRow(row);
+    this.obsAjColumn[row] = value;
+  }
+
+  /**
+   * Check whether all of a row's sensor values are missing
+   * @param row the row index
+   * @return true if all sensor values are NaN
+   */
+  public synchronized boolean isEmptyRow(int row) {
+    this.checkRow(row);
+    for (double[] column : this.columns) {
+      if (!Double.isNaN(column[row])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Called to clear a row's sensor values (not its observed Apr-Jul runoff)
+   * @param row the row index
+   */
+  public synchronized void clearRow(int row) {
+    this.checkRow(row);
+    for (double[] column : this.columns) {
+      column[row] = Double.NaN;
+    }
+  }
+
+  /**
+   * Called to clear all values
+   */
+  public synchronized void clear() {
+    for (double[] column : this.columns) {
+      Arrays.fill(column, Double.NaN);
+    }
+    Arrays.fill(this.obsAjColumn, Double.NaN);
+  }
+
+  /**
+   * Get the number of allocated rows
+   * @return this.capacity
+   */
+  public synchronized int getCapacity() {
+    return this.capacity;
+  }
+  //</editor-fold>
+}
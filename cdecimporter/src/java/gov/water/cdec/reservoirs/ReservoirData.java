@@ -3,10 +3,12 @@ package gov.water.cdec.reservoirs;
 import bubblewrap.core.events.EventArgs;
 import bubblewrap.core.events.EventDelegate;
 import bubblewrap.io.datetime.DateTime;
+import gov.water.cdec.importer.CachedJsonResponse;
+import gov.water.cdec.importer.JsonResponseCache;
 import gov.water.cdec.reservoirs.annotations.ReservoirDef;
 import gov.water.cdec.reservoirs.annotations.ReservoirImpl;
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.json.JSONObject;
@@ -38,6 +40,14 @@ public class ReservoirData implements Serializable {
    * Placeholder for the ReservoirWsFcastMap reference
    */
   private ReservoirWsFcastMap wsFcastMap;
+  /**
+   * The reference to the last published (immutable) snapshot
+   */
+  private final AtomicReference<ReservoirSnapshot> snapshot;
+  /**
+   * The cache of the pre-rendered JSON responses of the current snapshot
+   */
+  private final JsonResponseCache responseCache;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -52,6 +62,8 @@ public class ReservoirData implements Serializable {
     }
     this.timeSeries = new ReservoirTimeSeries(reservoidDef);
     this.wsFcastMap = ReservoirWsFcastMap.getInstance();
+    this.snapshot = new AtomicReference<>(ReservoirSnapshot.empty(this.reservoidDef));
+    this.responseCache = new JsonResponseCache(null);
   }
   // </editor-fold>
 
@@ -95,13 +107,20 @@ public class ReservoirData implements Serializable {
   }
 
   /**
-   * Calls to execute any post-process after the ReservoirData's settings have changed
-   * (e.g. fire an event).
+   * Calls to execute any post-process after the ReservoirData's settings have changed.
+   * It builds a new {@linkplain ReservoirSnapshot} of the updated time series and 
+   * forecasts and publishes it with a single atomic swap.
    */
   protected void onUpdateEnds() {
-//    if (this.obsDate == null) {
-//      this.onObsDateChanged();
-//    }
+    try {
+      ReservoirSnapshot newSnapshot = ReservoirSnapshot.build(this.reservoidDef, 
+              this.timeSeries, this.wsFcastMap.getForecasts(this.reservoidDef.id()));
+      this.snapshot.set(newSnapshot);
+      this.responseCache.clear();
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.onUpdateEnds Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
   }
   
   /**
@@ -130,116 +149,79 @@ public class ReservoirData implements Serializable {
    * forecasted data. If <tt>force</tt> = ture if will force a partial reload of the data
    * regardless of any wait time.
    * @param force true to force a reload.
+   * @return true if the timeseries and forecasts were updated and a new snapshot was
+   * published (or the call was skipped because an update is in progress) - false if
+   * the update failed.
    */
-  public synchronized void update(boolean force) {
+  public synchronized boolean update(boolean force) {
+    boolean result = true;
     if (this.isUpdating()) {
       if ((!this.waitWhileUpdating()) || (!force)) {
-        return;
+        return result;
       }
     }
     
+    ReservoirSnapshot priorSnapshot = this.snapshot.get();
     try {
       this.beginUpdate();
-      this.timeSeries.update(force);
-      this.wsFcastMap.update(force);
+      result = this.timeSeries.update(force);
+      result = (this.wsFcastMap.update(force) && (result));
     } catch (Exception exp) {
+      result = false;
       logger.log(Level.WARNING, "{0}.update Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     } finally {
       this.endUpdate();
     }
+    if ((!this.isUpdating()) && (this.snapshot.get() == priorSnapshot)) {
+      result = false;
+    }
+    return result;
+  }
+  /**
+   * Get the last published snapshot of the reservoir's data. It never blocks - while
+   * a refresh is in progress, the snapshot of the former refresh is returned.
+   * @return the current snapshot (empty if the data has not yet been loaded)
+   */
+  public ReservoirSnapshot getSnapshot() {
+    return this.snapshot.get();
   }
+  
   /**
    * Called to get the JSON formatted data of this ReservoirData record for a specified
    * request Date. If <tt>requestDt</tt> = null | after this.timeSeries.lastObservedDt,
-   * the record for this.timeSeries.lastObservedDt will be returned.. 
+   * the record for this.timeSeries.lastObservedDt will be returned. It reads the 
+   * {@linkplain #getSnapshot() current snapshot} - no locking or waiting.
    * <p>
    * <b>NOTE:</b> Call {@linkplain #update(boolean) this.update(force)} before calling 
    * this method to ensure the latest data has been imported.</p>
-   * <p>
    * @param json the JSON Object to update
    * @param requestDt the requested Time Step Date
-   * @return the formatted JSON = an empty object is this.obsDate = null;
    */
-  public synchronized void toJson(JSONObject json, DateTime requestDt) {
-    if (json == null) {
-      throw new NullPointerException("The JSON Object to update is unassigned");
-    }
-    if (this.isUpdating()) {
-      this.waitWhileUpdating();
-    }
-    
-    String dtFormat = "M/d/yyyy";
-    Object nullValue = null;
-    Double obsVal = null;
-    Double obsAj = null;
-    Double storVal = null;
-    Double tocVal = null;
-    String field = null;
-    json.put("id", this.reservoidDef.id());
-    json.put("name", this.reservoidDef.name());
-    json.put("rescap", this.reservoidDef.capacity());
-    ReservoirTimeStepValue timeValue = this.timeSeries.getObservedStepValue(requestDt);
-    if (timeValue != null) {      
-      json.put("obsdate", timeValue.getDateTime().toLocaleString(dtFormat));
-      for (ReservoirSensor sensor : ReservoirSensor.values()) {
-        if (((obsVal =  timeValue.getValue(sensor)) == null) || (obsVal.isNaN())) {
-          json.put(sensor.field, nullValue);
-        } else {    
-          obsVal = obsVal * sensor.scaleFactor;
-          json.put(sensor.field, obsVal);
-        }
-      }
-      
-      field = "perc_stor";
-      if (((storVal =  timeValue.getValue(ReservoirSensor.STOR)) == null) || 
-              (storVal.isNaN()) || (this.reservoidDef.capacity() <= 0.0d)) {
-        json.put(field, nullValue);
-        storVal = null;
-      } else {
-        storVal = storVal * ReservoirSensor.STOR.scaleFactor;
-        obsVal = (storVal/this.reservoidDef.capacity())*100;
-        json.put(field, obsVal);
-      }
-      
-      field = "encr";
-      if ((storVal == null) || 
-              ((tocVal =  timeValue.getValue(ReservoirSensor.TOC)) == null) || 
-              (tocVal.isNaN())) {
-        json.put(field, nullValue);
-      } else {
-        tocVal = tocVal * ReservoirSensor.TOC.scaleFactor;
-        json.put(field, (storVal - tocVal));
-      }
-      
-      obsAj = timeValue.getObsAj();
-    }
-    
-    B120WsFcast fcastData = this.wsFcastMap.getWsFcast(this.reservoidDef.id(), requestDt);
-    if (fcastData != null) {   
-      obsAj = (obsAj == null)? 0.0: obsAj;      
-      json.put("fcastdt", fcastData.fcastDt.toLocaleString(dtFormat));
-      json.put("obsAj", obsAj);
-      
-      field = "aj50";
-      if (fcastData.fcastMed == null) {
-        json.put(field, nullValue);
-      } else {
-        json.put(field, (fcastData.fcastMed - obsAj));
-      }
-      field = "aj90";
-      if (fcastData.fcast90 == null) {
-        json.put(field, nullValue);
-      } else {
-        json.put(field, (fcastData.fcast90 - obsAj));
-      }
-      field = "aj10";
-      if (fcastData.fcast10 == null) {
-        json.put(field, nullValue);
-      } else {
-        json.put(field, (fcastData.fcast10 - obsAj));
+  public void toJson(JSONObject json, DateTime requestDt) {
+    this.snapshot.get().toJson(json, requestDt);
+  }
+  
+  /**
+   * Get the pre-rendered JSON response of {@linkplain #toJson(org.json.JSONObject, 
+   * bubblewrap.io.datetime.DateTime) toJson} for <tt>requestDt</tt>. The response is
+   * rendered once per snapshot and per resolved time step and forecast - the cache is
+   * cleared when a new snapshot is published.
+   * @param requestDt the requested Time Step Date
+   * @return the cached response
+   * @throws Exception if rendering the response failed.
+   */
+  public CachedJsonResponse getJsonResponse(final DateTime requestDt) throws Exception {
+    final ReservoirSnapshot curSnapshot = this.snapshot.get();
+    return this.responseCache.get(curSnapshot.getResponseKey(requestDt), 
+            curSnapshot.version, new JsonResponseCache.JsonRenderer() {
+      @Override
+      public String render() throws Exception {
+        JSONObject json = new JSONObject();
+        curSnapshot.toJson(json, requestDt);
+        return json.toString();
       }
-    }
+    });
   }
   // </editor-fold>
 
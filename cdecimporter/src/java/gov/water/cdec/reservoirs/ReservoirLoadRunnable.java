@@ -2,53 +2,152 @@ package gov.water.cdec.reservoirs;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.json.JSONObject;
 
 /**
- * A Runnable to ZLazy-Load the ReservoirDataMap data on deployment
+ * A Runnable to Lazy-Load (and periodically refresh) the data of a single ReservoirData
+ * record. It is scheduled by the {@linkplain ReservoirRefreshScheduler} at the
+ * reservoir's own refresh interval and it records the latency of each refresh.
  * @author J.G. "Koos" Prins, D.Eng. PE.
  */
 public class ReservoirLoadRunnable implements Runnable {
-  
+
   //<editor-fold defaultstate="collapsed" desc="Static Logger">
   /**
    * Protected Static Logger object for logging errors, warnings, and info messages.
    */
   protected static final Logger logger
           = Logger.getLogger(ReservoirLoadRunnable.class.getName());
-  //</editor-fold>        
+  //</editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Private Fields">
   /**
-   * Placeholder for the owner ReservoirDataMap
+   * Placeholder for the ReservoirData to refresh
+   */
+  public final ReservoirData resData;
+  /**
+   * The refresh interval in milliseconds
+   */
+  public final long refreshMillis;
+  /**
+   * The maximum jitter (+/-) added to the refresh interval in milliseconds
+   */
+  public final long jitterMillis;
+  /**
+   * The number of completed refreshes
+   */
+  private long numRefreshes;
+  /**
+   * The number of refreshes that failed
+   */
+  private long numFailures;
+  /**
+   * The time (in milliseconds) the last refresh started (0 if never)
+   */
+  private long lastStart;
+  /**
+   * The latency of the last refresh in milliseconds
+   */
+  private long lastLatency;
+  /**
+   * The maximum latency of all refreshes in milliseconds
+   */
+  private long maxLatency;
+  /**
+   * The total latency of all refreshes in milliseconds
    */
-  private ReservoirDataMap dataMap;
+  private long totalLatency;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
    * Public Constructor
+   * @param resData the ReservoirData to refresh
+   * @param refreshMillis the refresh interval in milliseconds
+   * @param jitterMillis the maximum jitter in milliseconds
    */
-  public ReservoirLoadRunnable(ReservoirDataMap dataMap) {
-    super();      
-    this.dataMap = dataMap;
+  public ReservoirLoadRunnable(ReservoirData resData, long refreshMillis,
+                                                                  long jitterMillis) {
+    super();
+    if (resData == null) {
+      throw new NullPointerException("The ReservoirLoadRunnable's ReservoirData is "
+              + "unassigned");
+    }
+    this.resData = resData;
+    this.refreshMillis = refreshMillis;
+    this.jitterMillis = Math.max(0L, Math.min(jitterMillis, refreshMillis / 2));
+    this.numRefreshes = 0;
+    this.numFailures = 0;
+    this.lastStart = 0;
+    this.lastLatency = 0;
+    this.maxLatency = 0;
+    this.totalLatency = 0;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the ID of the reservoir refreshed by this runnable
+   * @return the reservoir ID
+   */
+  public String getResId() {
+    return this.resData.reservoidDef.id();
+  }
+
+  /**
+   * Get the refresh metrics as a JSONObject
+   * @return {"id": resId, "refreshMs": #, "jitterMs": #, "refreshes": #,
+   * "failures": #, "lastStart": #, "lastMs": #, "avgMs": #, "maxMs": #}
+   */
+  public synchronized JSONObject getAsJSON() {
+    JSONObject result = new JSONObject();
+    result.put("id", this.getResId());
+    result.put("refreshMs", this.refreshMillis);
+    result.put("jitterMs", this.jitterMillis);
+    result.put("refreshes", this.numRefreshes);
+    result.put("failures", this.numFailures);
+    result.put("lastStart", this.lastStart);
+    result.put("lastMs", this.lastLatency);
+    result.put("avgMs", (this.numRefreshes == 0)? 0L:
+                                              (this.totalLatency / this.numRefreshes));
+    result.put("maxMs", this.maxLatency);
+    return result;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Called to record the latency of a completed refresh
+   * @param startTime the start time in milliseconds
+   * @param failed true if the refresh failed
+   */
+  private synchronized void recordRefresh(long startTime, boolean failed) {
+    long latency = Math.max(0L, System.currentTimeMillis() - startTime);
+    this.numRefreshes++;
+    if (failed) {
+      this.numFailures++;
+    }
+    this.lastStart = startTime;
+    this.lastLatency = latency;
+    this.maxLatency = Math.max(this.maxLatency, latency);
+    this.totalLatency += latency;
   }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Override Runnable">
   @Override
   public void run() {
-    if ((this.dataMap == null) || (this.dataMap.isEmpty())) {
-      return;
-    }
-    
-    for (ReservoirData resData : this.dataMap) {
-      try {
-        resData.update(false);
-      } catch (Exception exp) {
-        logger.log(Level.WARNING, "{0}.LazyLoad Reservoir[{1}] Error:\n {2}",
-                new Object[]{this.getClass().getSimpleName(), resData.reservoidDef.id(),
-                  exp.getMessage()});
-      }
+    long startTime = System.currentTimeMillis();
+    boolean failed = false;
+    try {
+      failed = (!this.resData.update(false));
+    } catch (Exception exp) {
+      failed = true;
+      logger.log(Level.WARNING, "{0}.LazyLoad Reservoir[{1}] Error:\n {2}",
+              new Object[]{this.getClass().getSimpleName(), this.getResId(),
+                exp.getMessage()});
+    } finally {
+      this.recordRefresh(startTime, failed);
     }
   }
   // </editor-fold>
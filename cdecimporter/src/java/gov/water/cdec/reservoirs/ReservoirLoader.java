@@ -7,6 +7,7 @@ import javax.annotation.PreDestroy;
 import javax.ejb.DependsOn;
 import javax.ejb.Singleton;
 import javax.ejb.Startup;
+import org.json.JSONObject;
 
 /**
  *
@@ -27,20 +28,26 @@ public class ReservoirLoader {
   
   private static long LazyLoadWait = 10000l;
   
+  // <editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The scheduler that refreshes the reservoirs (null if not initiated)
+   */
+  private ReservoirRefreshScheduler scheduler;
+  // </editor-fold>
+  
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
    * Public Constructor  
    */
   public ReservoirLoader() {
     super();  
+    this.scheduler = null;
   }
   /**
    * <p>
-   * A private PostConstruct method to initiate the BwAppContext's core settings:</p>
-   * <ul>
-   * <li>It assign this instance as static this.mpAppContext</li>
-   * <li>It adds BwCoreExtension to the AppExtension list.</li>
-   * </ul>
+   * A private PostConstruct method to initiate and start the {@linkplain 
+   * ReservoirRefreshScheduler}, which lazy-loads and refreshes the ReservoirDataMap's 
+   * reservoirs concurrently.</p>
    */
   @PostConstruct
   protected void initAppContext() {
@@ -52,9 +59,8 @@ public class ReservoirLoader {
         throw new Exception("The ReservoirDataMap is not accesible or empty");
       }
       
-      ReservoirLoadRunnable runnable = new ReservoirLoadRunnable(dataMap);
-      Thread loadThread = new Thread(runnable);
-      loadThread.start();
+      this.scheduler = new ReservoirRefreshScheduler(dataMap);
+      this.scheduler.start();
       logger.log(Level.INFO, "{0}.initReservoirLoader Done", sClass);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.initReservoirLoader Failed:\n {1}",
@@ -64,12 +70,24 @@ public class ReservoirLoader {
 
   /**
    * <p>
-   * A private PreDestroy method to reset this.mpAppContext and to clear the
-   * Application Context's content. Calling {@linkplain #clearAppContext()
-   * clearAppContext}.</p>
+   * A private PreDestroy method to stop the ReservoirRefreshScheduler.</p>
    */
   @PreDestroy
   protected void destroyAppContext() {
+    if (this.scheduler != null) {
+      this.scheduler.stop();
+    }
+  }
+  // </editor-fold>
+  
+  // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the reservoirs' refresh status
+   * @return {@linkplain ReservoirRefreshScheduler#getAsJSON()} or an empty JSONObject 
+   * if the scheduler is not initiated.
+   */
+  public JSONObject getRefreshStatus() {
+    return (this.scheduler == null)? new JSONObject(): this.scheduler.getAsJSON();
   }
   // </editor-fold>
 }
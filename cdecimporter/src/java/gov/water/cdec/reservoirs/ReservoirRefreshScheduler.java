@@ -0,0 +1,247 @@
+package gov.water.cdec.reservoirs;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * <p>The scheduler that refreshes the {@linkplain ReservoirDataMap}'s reservoirs
+ * concurrently on a bounded pool of daemon threads. Each reservoir is refreshed by its
+ * own {@linkplain ReservoirLoadRunnable} at its own interval - {@linkplain
+ * gov.water.cdec.reservoirs.annotations.ReservoirDef#refreshMinutes()
+ * ReservoirDef.refreshMinutes} or the scheduler's default interval. A random jitter of
+ * up to +/-{@linkplain #DefaultJitterRate} of the interval is added to each delay so
+ * that the reservoirs' CDEC downloads are spread out.</p>
+ * <p>The next refresh of a reservoir is only scheduled after its current refresh
+ * completed, so a slow CDEC station delays only its own reservoir and never queues
+ * overlapping refreshes.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ReservoirRefreshScheduler implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger
+          = Logger.getLogger(ReservoirRefreshScheduler.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default number of refresh threads (4)
+   */
+  public static final int DefaultPoolSize = 4;
+  /**
+   * The default refresh interval in minutes (30)
+   */
+  public static final int DefaultRefreshMinutes = 30;
+  /**
+   * The default jitter as a fraction of the refresh interval (0.1)
+   */
+  public static final double DefaultJitterRate = 0.1d;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[RefreshThreadFactory]">
+  /**
+   * The ThreadFactory for the scheduler's daemon threads (named "ReservoirRefresh-#").
+   */
+  private static class RefreshThreadFactory implements ThreadFactory {
+
+    /**
+     * The thread counter
+     */
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable task) {
+      Thread result = new Thread(task, "ReservoirRefresh-"
+              + this.threadCount.incrementAndGet());
+      result.setDaemon(true);
+      return result;
+    }
+  }
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * Placeholder for the ReservoirDataMap
+   */
+  private final ReservoirDataMap dataMap;
+  /**
+   * The number of refresh threads
+   */
+  private int poolSize;
+  /**
+   * The default refresh interval in minutes
+   */
+  private int refreshMinutes;
+  /**
+   * The executor of the refresh tasks (null if not started)
+   */
+  private transient ScheduledThreadPoolExecutor executor;
+  /**
+   * The refresh tasks of the reservoirs
+   */
+  private final List<ReservoirLoadRunnable> refreshTasks;
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor with the default settings
+   * @param dataMap the ReservoirDataMap to refresh
+   */
+  public ReservoirRefreshScheduler(ReservoirDataMap dataMap) {
+    super();
+    if (dataMap == null) {
+      throw new NullPointerException("The Scheduler's ReservoirDataMap is unassigned");
+    }
+    this.dataMap = dataMap;
+    this.poolSize = DefaultPoolSize;
+    this.refreshMinutes = DefaultRefreshMinutes;
+    this.executor = null;
+    this.refreshTasks = new ArrayList<>();
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Call to configure the scheduler while it is not {@linkplain #start() running}.
+   * @param poolSize the number of refresh threads (null|&le; 0 for {@linkplain
+   * #DefaultPoolSize})
+   * @param refreshMinutes the default refresh interval in minutes (null|&le; 0 for
+   * {@linkplain #DefaultRefreshMinutes})
+   */
+  public synchronized void configure(Integer poolSize, Integer refreshMinutes) {
+    if (this.isRunning()) {
+      throw new IllegalStateException("The Scheduler cannot be configured while running.");
+    }
+    this.poolSize = ((poolSize == null) || (poolSize <= 0))? DefaultPoolSize: poolSize;
+    this.refreshMinutes = ((refreshMinutes == null) || (refreshMinutes <= 0))?
+                                                  DefaultRefreshMinutes: refreshMinutes;
+  }
+
+  /**
+   * Check whether the scheduler has been started and not yet stopped
+   * @return true if running
+   */
+  public synchronized boolean isRunning() {
+    return ((this.executor != null) && (!this.executor.isShutdown()));
+  }
+
+  /**
+   * Called to start the scheduler. It initiates a refresh task for each reservoir and
+   * schedules its initial load after a random delay of up to the task's jitter. Ignored
+   * if already running.
+   */
+  public synchronized void start() {
+    if (this.isRunning()) {
+      return;
+    }
+    this.executor = new ScheduledThreadPoolExecutor(this.poolSize,
+                                                    new RefreshThreadFactory());
+    this.executor.setRemoveOnCancelPolicy(true);
+    this.refreshTasks.clear();
+    for (ReservoirData resData : this.dataMap) {
+      int resMinutes = resData.reservoidDef.refreshMinutes();
+      long refreshMillis = TimeUnit.MINUTES.toMillis((resMinutes > 0)? resMinutes:
+                                                                this.refreshMinutes);
+      long jitterMillis = (long) (refreshMillis * DefaultJitterRate);
+      ReservoirLoadRunnable task =
+                        new ReservoirLoadRunnable(resData, refreshMillis, jitterMillis);
+      this.refreshTasks.add(task);
+      this.schedule(task, ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+    logger.log(Level.INFO, "{0}: Started {1} reservoir refresh tasks on {2} threads.",
+            new Object[]{this.getClass().getSimpleName(), this.refreshTasks.size(),
+              this.poolSize});
+  }
+
+  /**
+   * Called to stop the scheduler. Refreshes in progress are interrupted.
+   */
+  public synchronized void stop() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Get the scheduler's status and each reservoir's refresh metrics as a JSONObject
+   * @return {"running": bool, "poolSize": #, "active": #,
+   * "reservoirs": [{@linkplain ReservoirLoadRunnable#getAsJSON()}, ..]}
+   */
+  public synchronized JSONObject getAsJSON() {
+    JSONObject result = new JSONObject();
+    result.put("running", this.isRunning());
+    result.put("poolSize", this.poolSize);
+    result.put("active", (this.executor == null)? 0: this.executor.getActiveCount());
+    JSONArray resArr = new JSONArray();
+    for (ReservoirLoadRunnable task : this.refreshTasks) {
+      resArr.put(task.getAsJSON());
+    }
+    result.put("reservoirs", resArr);
+    return result;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the jittered delay of the next refresh of <tt>task</tt>
+   * @param task the refresh task
+   * @return task.refreshMillis +/- a random jitter of up to task.jitterMillis
+   */
+  private long getNextDelay(ReservoirLoadRunnable task) {
+    long jitter = ThreadLocalRandom.current().nextLong(2 * task.jitterMillis + 1)
+                                                                  - task.jitterMillis;
+    return Math.max(0L, task.refreshMillis + jitter);
+  }
+
+  /**
+   * Called to schedule the execution of <tt>task</tt> after <tt>delay</tt>. After the
+   * task completed, {@linkplain #onRefreshDone onRefreshDone} schedules its next
+   * refresh.
+   * @param task the refresh task
+   * @param delay the delay in milliseconds
+   */
+  private synchronized void schedule(final ReservoirLoadRunnable task, long delay) {
+    final ScheduledThreadPoolExecutor curExecutor = this.executor;
+    if ((curExecutor == null) || (curExecutor.isShutdown())) {
+      return;
+    }
+    curExecutor.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+        try {
+          task.run();
+        } finally {
+          ReservoirRefreshScheduler.this.onRefreshDone(curExecutor, task);
+        }
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Called when <tt>task</tt> completed to schedule its next refresh - unless the
+   * scheduler was stopped (or restarted) since the task was scheduled.
+   * @param taskExecutor the executor that executed the task
+   * @param task the refresh task
+   */
+  private synchronized void onRefreshDone(ScheduledThreadPoolExecutor taskExecutor,
+                                                            ReservoirLoadRunnable task) {
+    if ((taskExecutor == this.executor) && (!taskExecutor.isShutdown())) {
+      this.schedule(task, this.getNextDelay(task));
+    }
+  }
+  // </editor-fold>
+}
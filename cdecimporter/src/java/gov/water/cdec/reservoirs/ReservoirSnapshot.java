@@ -0,0 +1,391 @@
+package gov.water.cdec.reservoirs;
+
+import bubblewrap.io.datetime.DateTime;
+import gov.ca.water.cdec.core.TimeStepIndex;
+import gov.water.cdec.reservoirs.annotations.ReservoirImpl;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONObject;
+
+/**
+ * <p>An immutable snapshot of a {@linkplain ReservoirData}'s observed time series and
+ * B120 forecasts. A new snapshot is built at the end of each refresh and published by
+ * the ReservoirData with a single atomic reference swap - readers always access the
+ * last complete snapshot without locking or waiting for a refresh in progress.</p>
+ * <p>The time steps are stored in primitive arrays sorted by their (local calendar)
+ * Epoch Day - the sensor values already have the FNF/QIN substitution of {@linkplain
+ * ReservoirTimeStepValue#getValue(gov.water.cdec.reservoirs.ReservoirSensor)
+ * ReservoirTimeStepValue.getValue} applied (NaN = missing).</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public final class ReservoirSnapshot implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The format of the observed and forecast dates in the JSON output
+   */
+  public static final String DateFormat = "M/d/yyyy";
+  /**
+   * The Epoch Day assigned to an undefined date
+   */
+  private static final int NoDay = Integer.MIN_VALUE;
+  /**
+   * The sequence of the snapshot versions
+   */
+  private static final AtomicLong VersionSequence = new AtomicLong();
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Methods">
+  /**
+   * Get the Epoch Day of the <tt>dateTime</tt>'s calendar date (in its own TimeZone)
+   * @param dateTime the date (can be null)
+   * @return the epoch day or {@linkplain #NoDay} if dateTime = null
+   */
+  private static int toEpochDay(DateTime dateTime) {
+    return (dateTime == null)? NoDay: (int) TimeStepIndex.toEpochDay(dateTime.getYear(),
+                                       dateTime.getMonth() + 1, dateTime.getDayOfMonth());
+  }
+
+  /**
+   * Build a snapshot of the reservoir's current time series and forecasts.
+   * <p>
+   * <b>NOTE:</b> Must be called from the thread that updates the time series (i.e.,
+   * after {@linkplain ReservoirTimeSeries#update(boolean)} completed).</p>
+   * @param reservoirDef the reservoir definition
+   * @param timeSeries the observed time series (can be null)
+   * @param fcastList the reservoir's B120 forecasts (can be null)
+   * @return the new snapshot
+   */
+  public static ReservoirSnapshot build(ReservoirImpl reservoirDef,
+                           ReservoirTimeSeries timeSeries, List<B120WsFcast> fcastList) {
+    int numSteps = (timeSeries == null)? 0: timeSeries.size();
+    int numSensors = ReservoirSensor.values().length;
+    int[] stepDays = new int[numSteps];
+    String[] stepDates = new String[numSteps];
+    double[][] values = new double[numSensors][numSteps];
+    double[] obsAjs = new double[numSteps];
+    int numValid = 0;
+    ReservoirTimeStepValue timeValue = null;
+    Double value = null;
+    for (int iStep = 0; iStep < numSteps; iStep++) {
+      if ((timeValue = timeSeries.getTimeValue(iStep)) == null) {
+        continue;
+      }
+      stepDays[numValid] = ReservoirSnapshot.toEpochDay(timeValue.getDateTime());
+      stepDates[numValid] = timeValue.getDateTime().toLocaleString(DateFormat);
+      for (ReservoirSensor sensor : ReservoirSensor.values()) {
+        values[sensor.ordinal()][numValid] =
+                ((value = timeValue.getValue(sensor)) == null)? Double.NaN: value;
+      }
+      obsAjs[numValid] = timeValue.getObsAj();
+      numValid++;
+    }
+
+    int numFcasts = (fcastList == null)? 0: fcastList.size();
+    B120WsFcast[] fcasts = new B120WsFcast[numFcasts];
+    int numFcastValid = 0;
+    for (int iFcast = 0; iFcast < numFcasts; iFcast++) {
+      B120WsFcast fcast = fcastList.get(iFcast);
+      if ((fcast != null) && (fcast.fcastDt != null)) {
+        fcasts[numFcastValid++] = fcast;
+      }
+    }
+    fcasts = Arrays.copyOf(fcasts, numFcastValid);
+    int[] fcastDays = new int[numFcastValid];
+    for (int iFcast = 0; iFcast < numFcastValid; iFcast++) {
+      fcastDays[iFcast] = ReservoirSnapshot.toEpochDay(fcasts[iFcast].fcastDt);
+    }
+    ReservoirSnapshot.sortByDay(fcastDays, fcasts);
+
+    int lastObsDay = (timeSeries == null)? NoDay:
+                            ReservoirSnapshot.toEpochDay(timeSeries.getLastObservedDt());
+    return new ReservoirSnapshot(reservoirDef, numValid, stepDays, stepDates, values,
+                                                obsAjs, lastObsDay, fcastDays, fcasts);
+  }
+
+  /**
+   * Get an empty snapshot (i.e., the snapshot of a reservoir not yet loaded)
+   * @param reservoirDef the reservoir definition
+   * @return the new snapshot
+   */
+  public static ReservoirSnapshot empty(ReservoirImpl reservoirDef) {
+    return ReservoirSnapshot.build(reservoirDef, null, null);
+  }
+
+  /**
+   * Sort the forecasts by day (an insertion sort - the list is short and typically
+   * already sorted)
+   * @param days the forecast days
+   * @param fcasts the forecasts
+   */
+  private static void sortByDay(int[] days, B120WsFcast[] fcasts) {
+    for (int i = 1; i < days.length; i++) {
+      int day = days[i];
+      B120WsFcast fcast = fcasts[i];
+      int j = i - 1;
+      while ((j >= 0) && (days[j] > day)) {
+        days[j + 1] = days[j];
+        fcasts[j + 1] = fcasts[j];
+        j--;
+      }
+      days[j + 1] = day;
+      fcasts[j + 1] = fcast;
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The reservoir's ID
+   */
+  public final String resId;
+  /**
+   * The reservoir's display name
+   */
+  public final String name;
+  /**
+   * The reservoir's capacity
+   */
+  public final double capacity;
+  /**
+   * The time (in milliseconds) the snapshot was built
+   */
+  public final long buildTime;
+  /**
+   * The snapshot's unique version (increments with each snapshot built)
+   */
+  public final long version;
+  /**
+   * The number of time steps
+   */
+  private final int numSteps;
+  /**
+   * The Epoch Day of each time step (sorted)
+   */
+  private final int[] stepDays;
+  /**
+   * The formatted date of each time step
+   */
+  private final String[] stepDates;
+  /**
+   * The time steps' values by [ReservoirSensor.ordinal][step] (NaN = missing)
+   */
+  private final double[][] values;
+  /**
+   * The time steps' cumulative observed Apr-Jul runoff (taf)
+   */
+  private final double[] obsAjs;
+  /**
+   * The Epoch Day of the last observed date (NoDay if undefined)
+   */
+  private final int lastObsDay;
+  /**
+   * The Epoch Day of each forecast (sorted)
+   */
+  private final int[] fcastDays;
+  /**
+   * The forecasts sorted by date
+   */
+  private final B120WsFcast[] fcasts;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor - see {@linkplain #build build}
+   */
+  private ReservoirSnapshot(ReservoirImpl reservoirDef, int numSteps, int[] stepDays,
+                            String[] stepDates, double[][] values, double[] obsAjs,
+                            int lastObsDay, int[] fcastDays, B120WsFcast[] fcasts) {
+    super();
+    if (reservoirDef == null) {
+      throw new NullPointerException("The Snapshot's Reservoir Definition is "
+              + "unassigned");
+    }
+    this.resId = reservoirDef.id();
+    this.name = reservoirDef.name();
+    this.capacity = reservoirDef.capacity();
+    this.buildTime = System.currentTimeMillis();
+    this.version = ReservoirSnapshot.VersionSequence.incrementAndGet();
+    this.numSteps = numSteps;
+    this.stepDays = stepDays;
+    this.stepDates = stepDates;
+    this.values = values;
+    this.obsAjs = obsAjs;
+    this.lastObsDay = lastObsDay;
+    this.fcastDays = fcastDays;
+    this.fcasts = fcasts;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the index of the observed time step for the <tt>requestDt</tt>. If (requestDt =
+   * null) or not before the last observed date, return the step of the last observed
+   * date, else return the step of requestDt.
+   * @param requestDt the request date (can be null)
+   * @return the step index or -1 if not found.
+   */
+  private int getObservedStep(DateTime requestDt) {
+    int stepDay = this.lastObsDay;
+    if ((requestDt != null) && (stepDay != NoDay)) {
+      int reqDay = ReservoirSnapshot.toEpochDay(requestDt);
+      stepDay = (reqDay < stepDay)? reqDay: stepDay;
+    }
+    int result = -1;
+    if ((stepDay != NoDay) && (this.numSteps > 0)) {
+      result = Arrays.binarySearch(this.stepDays, 0, this.numSteps, stepDay);
+    }
+    return (result < 0)? -1: result;
+  }
+
+  /**
+   * Get the index of the latest forecast on or before <tt>requestDt</tt>. If (requestDt
+   * = null), return the index of the latest forecast.
+   * @param requestDt the request date (can be null)
+   * @return the index or -1 if no forecast was issued before requestDt.
+   */
+  private int getFcastIndex(DateTime requestDt) {
+    int result = this.fcasts.length - 1;
+    if ((requestDt != null) && (result >= 0)) {
+      int reqDay = ReservoirSnapshot.toEpochDay(requestDt);
+      result = Arrays.binarySearch(this.fcastDays, reqDay);
+      if (result < 0) {
+        result = -result - 2;
+      } else {
+        while ((result < (this.fcastDays.length - 1)) &&
+                (this.fcastDays[result + 1] == reqDay)) {
+          result++;
+        }
+      }
+    }
+    return result;
+  }
+
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get whether the snapshot has any observed time steps
+   * @return (this.numSteps == 0)
+   */
+  public boolean isEmpty() {
+    return (this.numSteps == 0);
+  }
+
+  /**
+   * Get the key of the response for <tt>requestDt</tt>. Request dates resolving to the
+   * same observed time step and forecast share the same key (and the same JSON 
+   * content).
+   * @param requestDt the request date (can be null)
+   * @return the key
+   */
+  public String getResponseKey(DateTime requestDt) {
+    int step = this.getObservedStep(requestDt);
+    return this.resId + ":" + step + ":" + this.getFcastIndex(requestDt);
+  }
+
+  /**
+   * Get the latest forecast on or before <tt>requestDt</tt>. If (requestDt = null),
+   * return the latest forecast.
+   * @param requestDt the request date (can be null)
+   * @return the forecast or null if no forecast was issued before requestDt.
+   */
+  public B120WsFcast getLastFcast(DateTime requestDt) {
+    int index = this.getFcastIndex(requestDt);
+    return (index < 0)? null: this.fcasts[index];
+  }
+
+  /**
+   * Called to get the JSON formatted data of this snapshot for a specified request
+   * Date. If <tt>requestDt</tt> = null | after the last observed date, the record for
+   * the last observed date will be returned.
+   * @param json the JSON Object to update
+   * @param requestDt the requested Time Step Date
+   */
+  public void toJson(JSONObject json, DateTime requestDt) {
+    if (json == null) {
+      throw new NullPointerException("The JSON Object to update is unassigned");
+    }
+
+    Object nullValue = null;
+    double obsVal = Double.NaN;
+    Double obsAj = null;
+    Double storVal = null;
+    double tocVal = Double.NaN;
+    String field = null;
+    json.put("id", this.resId);
+    json.put("name", this.name);
+    json.put("rescap", this.capacity);
+    int step = this.getObservedStep(requestDt);
+    if (step >= 0) {
+      json.put("obsdate", this.stepDates[step]);
+      for (ReservoirSensor sensor : ReservoirSensor.values()) {
+        if (Double.isNaN(obsVal = this.values[sensor.ordinal()][step])) {
+          json.put(sensor.field, nullValue);
+        } else {
+          json.put(sensor.field, obsVal * sensor.scaleFactor);
+        }
+      }
+
+      field = "perc_stor";
+      if ((Double.isNaN(obsVal = this.values[ReservoirSensor.STOR.ordinal()][step])) ||
+              (this.capacity <= 0.0d)) {
+        json.put(field, nullValue);
+      } else {
+        storVal = obsVal * ReservoirSensor.STOR.scaleFactor;
+        json.put(field, (storVal / this.capacity) * 100);
+      }
+
+      field = "encr";
+      if ((storVal == null) ||
+              (Double.isNaN(tocVal = this.values[ReservoirSensor.TOC.ordinal()][step]))) {
+        json.put(field, nullValue);
+      } else {
+        json.put(field, (storVal - tocVal * ReservoirSensor.TOC.scaleFactor));
+      }
+
+      obsAj = this.obsAjs[step];
+    }
+
+    B120WsFcast fcastData = this.getLastFcast(requestDt);
+    if (fcastData != null) {
+      obsAj = (obsAj == null)? 0.0: obsAj;
+      json.put("fcastdt", fcastData.fcastDt.toLocaleString(DateFormat));
+      json.put("obsAj", obsAj);
+
+      field = "aj50";
+      if (fcastData.fcastMed == null) {
+        json.put(field, nullValue);
+      } else {
+        json.put(field, (fcastData.fcastMed - obsAj));
+      }
+      field = "aj90";
+      if (fcastData.fcast90 == null) {
+        json.put(field, nullValue);
+      } else {
+        json.put(field, (fcastData.fcast90 - obsAj));
+      }
+      field = "aj10";
+      if (fcastData.fcast10 == null) {
+        json.put(field, nullValue);
+      } else {
+        json.put(field, (fcastData.fcast10 - obsAj));
+      }
+    }
+  }
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: return the reservoir ID and the number of steps and forecasts</p>
+   */
+  @Override
+  public String toString() {
+    return "ReservoirSnapshot[ res=" + this.resId + "; steps=" + this.numSteps
+            + "; fcasts=" + this.fcasts.length + "]";
+  }
+  // </editor-fold>
+}
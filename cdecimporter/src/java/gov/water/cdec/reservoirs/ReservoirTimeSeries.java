@@ -16,8 +16,9 @@ import bubblewrap.io.wateryr.enums.WyDate;
 import gov.ca.water.cdec.core.CdecSensorTypes;
 import gov.ca.water.cdec.enums.DurationCodes;
 import gov.water.cdec.reservoirs.annotations.*;
+import gov.ca.water.cdec.importers.ImportHttpClient;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.TimeZone;
@@ -45,6 +46,10 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
    * The Last Observed Date - last date that has a full record - no missing values.
    */
   private DateTime lastObsDt;
+  /**
+   * The columnar store of the time steps' values (by water year day)
+   */
+  private ReservoirColumnStore columnStore;
   // </editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Public Events">
@@ -74,6 +79,7 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
     this.ObsDateChanged = new EventHandler();
     this.nextDtMap = new HashMap<>();
     this.lastObsDt = null;
+    this.columnStore = new ReservoirColumnStore(null);
   }
   // </editor-fold>
 
@@ -143,9 +149,11 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
    * #loadSensorData(gov.water.cdec.reservoirs.ReservoirSensor, 
    * bubblewrap.io.datetime.DateRange) this.loadSensorData} for each ReservoirSensor
    * @param now today's date
-   * @return true if successful
+   * @return true if successful - false if the import of a sensor failed (a sensor
+   * whose data is not yet available is not a failure)
    */
-  private void loadObservedData(DateTime now, boolean force) {
+  private boolean loadObservedData(DateTime now, boolean force) {
+    boolean result = true;
     try {
       DateTime startDt = this.getLastObsDt();
       DateTime endDt = now.addTime(-1, TimeUnit.DAYS);
@@ -156,7 +164,16 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
       for (ReservoirSensor sensor : ReservoirSensor.values()) {
         if ((force) || ((nextDt = this.getNextImportDt(sensor)) == null) ||
                 (now.isAfter(nextDt))) {
-          if (this.loadSensorData(sensor, dtRange)) {
+          boolean loaded = false;
+          try {
+            loaded = this.loadSensorData(sensor, dtRange);
+          } catch (Exception exp) {
+            result = false;
+            logger.log(Level.WARNING, "{0}.loadSensorData[{1}] Error:\n {2}",
+                    new Object[]{this.getClass().getSimpleName(), sensor.field, 
+                      exp.getMessage()});
+          }
+          if (loaded) {
             nextDt = DateTime.toZeroHourInTimeZone(now, WyConverter.PstTimeZone);
             nextDt = nextDt.addTime(30, TimeUnit.HOURS);
           } else {
@@ -171,40 +188,41 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
         }
       }
     } catch (Exception exp) {
+      result = false;
       logger.log(Level.WARNING, "{0}.loadObservedData[res={1}] Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), this.reservoirDef.id(),
                 exp.getMessage()});
     }
+    return result;
   }
   
   /**
    * Called to import the Date for a specified ReservoirSensor and date range
    * @param sensor the ReservoirSensor
    * @param dtRange the date range
-   * @return true if successful
+   * @return true if the data through the end of the range was imported - false if the
+   * imported data set is empty or incomplete.
+   * @throws Exception if the import or parsing of the data failed.
    */
-  private boolean loadSensorData(ReservoirSensor sensor, DateRange dtRange) {
+  private boolean loadSensorData(ReservoirSensor sensor, DateRange dtRange) 
+                                                                      throws Exception {
     boolean result = false;
-    try {
-      SensorImpl sensorDef = this.reservoirDef.getSensorDef(sensor);
-      if (sensorDef == null) {
-        throw new Exception("Teh Sensor Defintion is undefined or not supported");
-      }
-      URL importUrl = this.getImportURL(sensorDef, dtRange);
-      String dataStr = this.onImportData(importUrl);
-      if ((dataStr == null) || (DataEntry.isEq(dataStr, "[]", false))) {
-        throw new Exception("The Improtted data set is empty");
-      }
-      
-      DateRange importDates = this.onParseData(sensor, sensorDef, dataStr);
-      result = ((importDates != null) && (!importDates.isEmpty()) &&
-                (dtRange.getMax().equals(importDates.getMax(), Interval.DAYS)));
-    } catch (Exception exp) {
-      result = false;
+    SensorImpl sensorDef = this.reservoirDef.getSensorDef(sensor);
+    if (sensorDef == null) {
+      throw new Exception("Teh Sensor Defintion is undefined or not supported");
+    }
+    URL importUrl = this.getImportURL(sensorDef, dtRange);
+    String dataStr = this.onImportData(importUrl);
+    if ((dataStr == null) || (DataEntry.isEq(dataStr, "[]", false))) {
       logger.log(Level.WARNING, "{0}.loadSensorData[{1}] Error:\n {2}",
               new Object[]{this.getClass().getSimpleName(), sensor.field, 
-                exp.getMessage()});
+                "The Improtted data set is empty"});
+      return result;
     }
+
+    DateRange importDates = this.onParseData(sensor, sensorDef, dataStr);
+    result = ((importDates != null) && (!importDates.isEmpty()) &&
+              (dtRange.getMax().equals(importDates.getMax(), Interval.DAYS)));
     return result;
   }
   
@@ -269,50 +287,31 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
       if (importUrl == null) {
         throw new Exception("The Import URL is undefined or accessible.");
       }
-      HttpURLConnection conn = null;
-      String dataStr = null;
-      try {
-        conn = (HttpURLConnection) importUrl.openConnection();
-        conn.setRequestMethod("GET");
-        conn.connect();
+      try (ImportHttpClient.Response response = 
+                                      ImportHttpClient.getInstance().get(importUrl)) {
+        InputStream inStream = null;
+        if ((!response.isOk()) || ((inStream = response.getInputStream()) == null)) {
+          throw new Exception("Connection[" + importUrl.toString() + "] failed.");
+        }
         
-        InputStream inStream = conn.getInputStream();
-        int respondCode = conn.getResponseCode();
-        if (respondCode == HttpURLConnection.HTTP_OK) {
-          int iRead = 0;
-          byte[] readBuffer = new byte[4096];
-          String subStr = null;
-          
-          /** Read the first line to validate that the data is correct **/
-          iRead = inStream.read(readBuffer);
-          if (iRead > 0) {
-            subStr = new String(readBuffer, 0, iRead, "UTF-8");
-            if ((subStr == null) || ((subStr.startsWith("<!DOCTYPE")))) {
-              throw new Exception("Connection[" + importUrl.toString() + "] failed.");
-            }
-            dataStr = subStr;
+        int iRead = 0;
+        byte[] readBuffer = new byte[4096];
+        
+        /** Read the first line to validate that the data is correct **/
+        iRead = inStream.read(readBuffer);
+        if (iRead > 0) {
+          String subStr = new String(readBuffer, 0, iRead, "UTF-8");
+          if (subStr.startsWith("<!DOCTYPE")) {
+            throw new Exception("Connection[" + importUrl.toString() + "] failed.");
           }
           
-          if (dataStr != null) {
-            while (true) {
-              iRead = inStream.read(readBuffer);
-              if (iRead <= 0) {
-                break;
-              }
-              subStr = new String(readBuffer, 0, iRead, "UTF-8");
-              if (subStr != null) {
-                dataStr += subStr;
-              }
-            }
+          ByteArrayOutputStream outStream = 
+                                      new ByteArrayOutputStream(2 * readBuffer.length);
+          outStream.write(readBuffer, 0, iRead);
+          while ((iRead = inStream.read(readBuffer)) > 0) {
+            outStream.write(readBuffer, 0, iRead);
           }
-        } else {
-          throw new Exception("Connection[" + importUrl.toString() + "] failed.");
-        }
-        
-        result = dataStr;
-      } finally {
-        if (conn != null) {
-          conn.disconnect();
+          result = outStream.toString("UTF-8");
         }
       }
     } catch (Exception exp) {
@@ -408,8 +407,9 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
   
   /**
    * Called by {@linkplain #onValidate() this.onValidate} to update the AJ-TimeSteps
-   * cumulative observed Apr-Jun runoff between Apr 1 and obsDt. On and after Aug1, the
-   * observed Apr-Jun runoff is a constant value.
+   * cumulative observed Apr-Jul runoff between Apr 1 and obsDt. On and after Aug1, the
+   * observed Apr-Jul runoff is a constant value (the Apr 1 to Jul 31 total). Missing
+   * FNF values are substituted with the last prior value since Apr 1 (0 if none).
    * @param obsDt the current Observed Date
    */
   private void calcAjObs(DateTime obsDt) {
@@ -433,13 +433,11 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
           continue;
         }
 
-        if (wyDay >= aug1WyDay) {
-          obsAj = (lastValue * factor);
-        } else if (((curValue = timeStep.getValue(ReservoirSensor.FNF)) != null) &&
-                (!curValue.isNaN())) {
-          obsAj += (curValue * factor);
-          lastValue = curValue;
-        } else {
+        if (wyDay < aug1WyDay) {
+          if (((curValue = timeStep.getValue(ReservoirSensor.FNF)) != null) &&
+                  (!curValue.isNaN())) {
+            lastValue = curValue;
+          }
           obsAj += (lastValue * factor);
         }
         timeStep.setObsAj(obsAj);
@@ -474,11 +472,15 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
    * loadObservedData(today)} to execute the update. If successfully updates, it find 
    * and assigned the new last Observed Date, which will trigger the {@linkplain 
    * #ObsDateChanged ObsDateChanged} event.
+   * @param force true to force a reload.
+   * @return false if the update failed (true if completed or skipped because another
+   * update is in progress).
    */
-  public synchronized void update(boolean force) {
+  public synchronized boolean update(boolean force) {
+    boolean result = true;
     if (this.isUpdating()) {
       if ((!this.waitWhileUpdating()) || (!force)) {
-        return;
+        return result;
       }
     }
     
@@ -494,13 +496,23 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
         force = true;
       }
         
-      this.loadObservedData(now, force);      
+      result = this.loadObservedData(now, force);      
     } catch (Exception exp) {
+      result = false;
       logger.log(Level.WARNING, "{0}.update Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     } finally {
       this.endUpdating();
     }
+    return result;
+  }
+  
+  /**
+   * Get the Last Observed Date - the last date that has a full record.
+   * @return the assigned date or null if not yet loaded.
+   */
+  public DateTime getLastObservedDt() {
+    return this.lastObsDt;
   }
   
   /**
@@ -572,22 +584,30 @@ public class ReservoirTimeSeries extends WyTimeSeries<ReservoirTimeStepValue>{
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: Reset this.nextDtMap and this.lastObservedDt</p>
+   * OVERRIDE: Reset this.nextDtMap, this.lastObservedDt, and this.columnStore</p>
    */
   @Override
   protected void onResetTimeSeries() {
     this.nextDtMap.clear();
+    if (this.columnStore != null) {
+      this.columnStore.clear();
+    }
     this.lastObsDt = null;
   }
 
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: Return new ReservoirTimeStepValue(timeStep)</p>
+   * OVERRIDE: Return a new ReservoirTimeStepValue view on the timeStep's row (its water
+   * year day) in this.columnStore</p>
    */
   @Override
   protected ReservoirTimeStepValue onNewTimeValue(TimeStep timeStep) {
-    return new ReservoirTimeStepValue(timeStep);
+    if (this.columnStore == null) {
+      this.columnStore = new ReservoirColumnStore(null);
+    }
+    return new ReservoirTimeStepValue(timeStep, this.columnStore,
+                                          ReservoirTimeStepValue.toStoreRow(timeStep));
   }
   // </editor-fold>
 }
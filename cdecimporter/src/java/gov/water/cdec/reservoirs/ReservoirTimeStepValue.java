@@ -3,35 +3,58 @@ package gov.water.cdec.reservoirs;
 import bubblewrap.io.schedules.TimeStep;
 import bubblewrap.io.timeseries.TimeStepValue;
 import bubblewrap.io.wateryr.WyTimeStepValue;
-import java.util.HashMap;
+import bubblewrap.io.wateryr.WyConverter;
 import org.json.JSONObject;
 
 /**
- * A WyTimeStepValue for storing the ReservoirTimeSeries daily record values
+ * A WyTimeStepValue for storing the ReservoirTimeSeries daily record values. The values
+ * are stored in a row of a {@linkplain ReservoirColumnStore} - the instance is a view on
+ * its row of the owner series' store (or of its own store if created stand-alone).
  * @author J.G. "Koos" Prins, D.Eng. PE.
  */
 public class ReservoirTimeStepValue extends WyTimeStepValue {
 
   // <editor-fold defaultstate="collapsed" desc="Private Fields">
   /**
-   * A HashMap containing the assigned observed data for the timeStep
+   * The columnar store containing the timeStep's values
    */
-  private HashMap<ReservoirSensor, Double> valueMap;
+  private final ReservoirColumnStore store;
   /**
-   * The cumulative Observed Apr-Jul runoff for this date - 0.0 if Pre-AJ - 
-   * a fixed value if post-AJ
+   * The timeStep's row in this.store
    */
-  private Double obsAj;
+  private final int row;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
-   * Public Constructor  
+   * Public Constructor for a stand-alone value (backed by its own single row store)
    */
   public ReservoirTimeStepValue(TimeStep timeStep) {
-    super(timeStep); 
-    this.valueMap = new HashMap<>();
-    this.obsAj = null;
+    this(timeStep, new ReservoirColumnStore(1), 0);
+  }
+
+  /**
+   * Public Constructor for a view on <tt>row</tt> of <tt>store</tt>
+   * @param timeStep the TimeStep (not null)
+   * @param store the columnar store (not null)
+   * @param row the timeStep's row in store (allocated if not yet allocated)
+   */
+  public ReservoirTimeStepValue(TimeStep timeStep, ReservoirColumnStore store, int row) {
+    super(timeStep);
+    if ((this.store = store) == null) {
+      throw new NullPointerException("The TimeStepValue's Column Store is undefined.");
+    }
+    this.row = row;
+    this.store.ensureRow(row);
+  }
+
+  /**
+   * Get the store row of <tt>timeStep</tt> - its water year day
+   * @param timeStep the daily TimeStep (not null)
+   * @return the row index
+   */
+  public static int toStoreRow(TimeStep timeStep) {
+    return WyConverter.toWyDay(timeStep.getDateTime());
   }
   // </editor-fold>
 
@@ -45,13 +68,7 @@ public class ReservoirTimeStepValue extends WyTimeStepValue {
     if (sensor == null) {
       throw new NullPointerException("The value Sensor key is undefined.");
     }
-    if ((value == null) || (value.isNaN())) {
-      if (this.valueMap.containsKey(sensor)) {
-        this.valueMap.remove(sensor);
-      }
-    } else {
-      this.valueMap.put(sensor, value);
-    }
+    this.store.set(sensor, this.row, (value == null)? Double.NaN: value);
   }
   /**
    * Call to get the Sensor Value. 
@@ -61,24 +78,22 @@ public class ReservoirTimeStepValue extends WyTimeStepValue {
    * @return the value (can be null)
    */
   public Double getValue(ReservoirSensor sensor) {
-    Double result = null;
-    if ((sensor != null) && (this.valueMap.containsKey(sensor))) {
-      result = this.valueMap.get(sensor);
+    if (sensor == null) {
+      return null;
     }
+    double result = this.store.get(sensor, this.row);
     
     /*
      * Substitute QIN for FNF if FNF is undefined and vise versa
      */
-    if (result == null) {
-      if ((ReservoirSensor.FNF.equals(sensor)) &&
-              (this.valueMap.containsKey(ReservoirSensor.QIN))) {
-        result = this.valueMap.get(ReservoirSensor.QIN);
-      } else if ((ReservoirSensor.QIN.equals(sensor)) &&
-              (this.valueMap.containsKey(ReservoirSensor.FNF))) {
-        result = this.valueMap.get(ReservoirSensor.FNF);
+    if (Double.isNaN(result)) {
+      if (ReservoirSensor.FNF.equals(sensor)) {
+        result = this.store.get(ReservoirSensor.QIN, this.row);
+      } else if (ReservoirSensor.QIN.equals(sensor)) {
+        result = this.store.get(ReservoirSensor.FNF, this.row);
       }
     }
-    return result;
+    return (Double.isNaN(result))? null: result;
   }
   
   /**
@@ -86,15 +101,16 @@ public class ReservoirTimeStepValue extends WyTimeStepValue {
    * @param obsAj the runoff in taf.
    */
   protected void setObsAj(Double obsAj) {
-    this.obsAj = obsAj;
+    this.store.setObsAj(this.row, (obsAj == null)? Double.NaN: obsAj);
   }
   
   /**
    * Get the TimeStep's Observed cumulative Apr-Jul Runoff (taf)
-   * @return this.obsAj or 0.0 if undefined
+   * @return the stored value or 0.0 if undefined
    */
   public Double getObsAj() {
-    return (this.obsAj == null)? 0.0d:  this.obsAj;
+    double result = this.store.getObsAj(this.row);
+    return (Double.isNaN(result))? 0.0d: result;
   }
   // </editor-fold>
 
@@ -102,11 +118,11 @@ public class ReservoirTimeStepValue extends WyTimeStepValue {
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: Clear this.valueMap</p>
+   * OVERRIDE: Clear the sensor values of this.row in this.store</p>
    */
   @Override
   protected void onReset() throws Exception {
-    this.valueMap.clear();
+    this.store.clearRow(this.row);
   }
   
   /**
@@ -116,7 +132,7 @@ public class ReservoirTimeStepValue extends WyTimeStepValue {
    */
   @Override
   public boolean isMissingValue() {
-    boolean result = this.valueMap.isEmpty();
+    boolean result = this.store.isEmptyRow(this.row);
     if (!result) {
       for (ReservoirSensor sensor : ReservoirSensor.values()) {
         if (this.getValue(sensor) == null) {
@@ -5,20 +5,25 @@ import bubblewrap.io.DataEntry;
 import bubblewrap.io.datetime.DateTime;
 import bubblewrap.io.schedules.enums.Interval;
 import bubblewrap.io.wateryr.WyConverter;
+import gov.ca.water.cdec.importers.ImportHttpClient;
 import gov.water.cdec.reservoirs.annotations.*;
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
-import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  * A {@linkplain DataImporter} that import the B-120 Water Supply (WS) Forecast data using
@@ -53,25 +58,6 @@ public class ReservoirWsFcastMap implements Serializable {
   }
   //</editor-fold>
   
-  // <editor-fold defaultstate="collapsed" desc="Private WsFcast Class">
-  private static class WsFcast {
-
-    public final DateTime fcastDt;
-    public final JSONObject data;
-
-    // <editor-fold defaultstate="collapsed" desc="Constructor">
-    /**
-     * Public Constructor
-     */
-    public WsFcast(DateTime fcastDt, JSONObject data) {
-      super();      
-      this.fcastDt = fcastDt;
-      this.data = data;
-    }
-    // </editor-fold>
-  }
-  // </editor-fold>
-  
   // <editor-fold defaultstate="collapsed" desc="Public Static Fields">
   /**
    * The RecordId of the B-120 WsFcastSource
@@ -85,6 +71,10 @@ public class ReservoirWsFcastMap implements Serializable {
                                       "http://cdec.water.ca.gov/preciptemp/req/wsfcast";
 //                            "http://webdev01.geiconsultants.com/wsfcast/ws/b120/wsfcast";
 //                              "http://localhost:8081/wsfcast/ws/b120/wsfcast";
+  /**
+   * The minimum number of minutes between retries of a failed update (30)
+   */
+  public static final int RetryMinutes = 30;
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Private Fields">
@@ -92,6 +82,10 @@ public class ReservoirWsFcastMap implements Serializable {
    * Placeholder for the cached reservoirDefMap
    */
   private HashMap<String, ReservoirImpl> reservoirDefMap;
+  /**
+   * Placeholder for the cached HashMap[wsFcastId->resId]
+   */
+  private HashMap<String, String> resIdMap;
   /**
    * Placeholder for the cached fcastDataMap
    */
@@ -100,10 +94,28 @@ public class ReservoirWsFcastMap implements Serializable {
    * The Last Date that an update
    */
   private DateTime lastUpdateDt;
+  /**
+   * The time of the last failed update (null if the last update succeeded)
+   */
+  private DateTime lastFailedDt;
   /**
    * The Forecast WaterYear
    */
   private Integer waterYr;
+  /**
+   * The issue dates (as imported - "MM/dd/yyyy") of the forecasts already parsed for
+   * this.waterYr
+   */
+  private HashSet<String> parsedIssues;
+  /**
+   * The ETag of the last imported forecast response (null if not assigned)
+   */
+  private String fcastEtag;
+  /**
+   * The Last-Modified time of the last imported forecast response (null if not
+   * assigned)
+   */
+  private Long fcastLastModified;
   // </editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -113,9 +125,14 @@ public class ReservoirWsFcastMap implements Serializable {
   private ReservoirWsFcastMap() {
     super();  
     this.reservoirDefMap = null;
+    this.resIdMap = null;
     this.fcastDataMap = new HashMap<>();
     this.lastUpdateDt = null;
+    this.lastFailedDt = null;
     this.waterYr = null;
+    this.parsedIssues = new HashSet<>();
+    this.fcastEtag = null;
+    this.fcastLastModified = null;
   }
 
   @Override
@@ -129,15 +146,16 @@ public class ReservoirWsFcastMap implements Serializable {
 
   // <editor-fold defaultstate="collapsed" desc="Private/Protected Methods">
   /**
-   * Called by {@linkplain #onExecute(com.gei.fco.importers.DataImportRequest) 
-   * this.onExecute} to import the B-120 WSFcast data from the WSFcast Tool web service.
+   * Called by {@linkplain #update(boolean) this.update} to import the B-120 WSFcast data
+   * from the WSFcast Tool web service. The request is conditional on the validators of
+   * the last import (this.fcastEtag and this.fcastLastModified) and the response is
+   * parsed in a single pass from the response stream.
    * @param fcastWy the specified Water Year (assume the current WaterYear if null)
-   * @param monthRange the specified Month Range (assumed YTD if null and fcastWy is the 
-   * current Water Year or Month 1-6 if null and not the current WY)
-   * @param args the request arguments
-   * @return the result as an JSON Array.
+   * @return the imported forecasts as an JSON Array or null if the forecasts have not
+   * been modified since the last import.
+   * @throws Exception if the import failed (the validators are cleared).
    */
-  private JSONArray importWsFcast(Integer fcastWy) {
+  private JSONArray importWsFcast(Integer fcastWy) throws Exception {
     JSONArray result = null;
     try {
       String reqStr = ReservoirWsFcastMap.importUrl;
@@ -146,107 +164,91 @@ public class ReservoirWsFcastMap implements Serializable {
         reqStr = HttpUtils.appendToUrl(reqStr,"wy",fcastWy.toString());
       }
       
-      String dataStr = null;
+      Object dataObj = null;
       URL reqUrl = new URL(reqStr);      
-      HttpURLConnection conn = (HttpURLConnection) reqUrl.openConnection();
-      conn.setRequestMethod("GET");
-      conn.setRequestProperty("Accept", "text/json");
-      try {
-        conn.connect();
-        int conCode = conn.getResponseCode();
-        if (conCode != HttpURLConnection.HTTP_OK) {
-          String errMsg = conn.getResponseMessage();
+      try (ImportHttpClient.Response response = ImportHttpClient.getInstance().
+                get(reqUrl, "text/json", this.fcastEtag, this.fcastLastModified)) {
+        if (response.isNotModified()) {
+          return null;
+        } else if (!response.isOk()) {
+          String errMsg = response.getResponseMessage();
           errMsg = (errMsg == null)? 
                         "Unable to connect to WSFcast Server - cause unknown.": errMsg;
           throw new Exception(errMsg);
-        } else {
-          try (BufferedReader reader = 
-                    new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            String inLine  = null;
-            dataStr = "";
-            while ((inLine = reader.readLine()) != null) {
-              dataStr += inLine;
-            }
-          }
         }
-      } finally {
-        conn.disconnect();
+        
+        InputStream inStream = response.getInputStream();
+        if (inStream == null) {
+          throw new Exception("The WSFcast Server's response is empty.");
+        }
+        dataObj = new JSONTokener(new BufferedReader(
+                  new InputStreamReader(inStream, StandardCharsets.UTF_8))).nextValue();
+        this.fcastEtag = response.getHeader("ETag");
+        this.fcastLastModified = response.getLastModified();
       }
       
       String errMsg = null;
-      JSONObject resultObj = null;
-      if ((dataStr != null) && (dataStr.startsWith("{")) && (dataStr.contains("Error")) &&
-              ((resultObj = new JSONObject(dataStr)) != null) &&
-              ((errMsg = DataEntry.cleanString(resultObj.optString("Error",null)))
-                != null)) {
+      if ((dataObj instanceof JSONObject) &&
+              ((errMsg = DataEntry.cleanString(((JSONObject) dataObj).
+                                                      optString("Error",null))) != null)) {
         throw new Exception(errMsg);
       }
       
-      result = new JSONArray(dataStr);
-      if ((result == null) || (result.length() == 0)) {
+      if ((!(dataObj instanceof JSONArray)) || 
+                                  ((result = (JSONArray) dataObj).length() == 0)) {
         throw new Exception("The Imported Forecast is empty or in an invalid JSONArray "
                 + "format.");
       }
     } catch (Exception exp) {
-      result = null;
-      logger.log(Level.WARNING, "{0}.importWsFcast Error:\n {1}",
-              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      this.fcastEtag = null;
+      this.fcastLastModified = null;
+      throw new Exception(this.getClass().getSimpleName() + ".importWsFcast Error:\n "
+              + exp.getMessage(), exp);
     }
     return result;
   }
-  
+
   /**
-   * Called to Extract the Latest Forecast from the Water Year
-   * @param fcastSource the forecast source to update
-   * @param basinFcasts the imported basin forecasts
-   * @param args the request arguments
+   * Parse the B120WsFcasts for the wsFacstId's defined in this.reservoirDefMap from the
+   * imported forecasts. Forecasts of issue dates that have already been parsed are
+   * skipped without parsing their basin forecasts. If any issue fails to parse, the
+   * validators of the last import are cleared so that the next import is not answered
+   * with "not modified" and the failed issue is retried.
+   * @param importArray the imported forecasts
+   * @return the number of new forecast issues parsed
+   * @throws Exception if any issue failed to parse (after parsing all other issues).
    */
-  private List<WsFcast> getLoadedFcasts(JSONArray importArray) {
-    List<WsFcast> result = new ArrayList<>();
-    try {
-      JSONObject fcastData = null;
-      TimeZone tz = WyConverter.PstTimeZone;
-      for (int iFcast = 0; iFcast < importArray.length(); iFcast++) {
+  private int parseFcastData(JSONArray importArray) throws Exception {
+    int result = 0;
+    int numFailed = 0;
+    if ((importArray == null) || (importArray.length() == 0)) {
+      return result;
+    }
+    HashMap<String, String> resIdMap = this.getResIdMap();
+    TimeZone tz = WyConverter.PstTimeZone;
+    JSONObject fcastData = null;
+    for (int iFcast = 0; iFcast < importArray.length(); iFcast++) {
+      try {
         if (((fcastData = importArray.optJSONObject(iFcast)) == null) ||
                 (fcastData.length() == 0)) {
           continue;
         }
-        
+
         DateTime fcastDt = null;
-        String strVal = DataEntry.cleanString(fcastData.optString("fcastDt", null));
-        if ((strVal == null) || 
-            ((fcastDt = DateTime.FromString(strVal, "MM/dd/yyyy", tz))
-                == null)) {
+        String issueStr = DataEntry.cleanString(fcastData.optString("fcastDt", null));
+        if ((issueStr != null) && (this.parsedIssues.contains(issueStr))) {
+          continue;
+        }
+        if ((issueStr == null) || 
+            ((fcastDt = DateTime.FromString(issueStr, "MM/dd/yyyy", tz)) == null)) {
           throw new Exception("Invalid FcastDt: WsFcast Input:\n " 
                   + fcastData.toString());
         }
         
-        WsFcast data = new WsFcast(fcastDt, fcastData);
-        result.add(data);
-      }
-    } catch (Exception exp) {
-      logger.log(Level.WARNING, "{0}.getLoadedFcasts Error:\n {1}",
-              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
-    }
-    return result;
-  }
-
-  /**
-   * Parse the B120WsFcast form the specified list of fcastData for the wsFacstId's 
-   * defined in this.resIdMap
-   * @param fcastDataList the list of WsFcast data to parse.
-   */
-  private void parseFcastData(List<WsFcast> fcastDataList) {
-    if ((fcastDataList == null) || (fcastDataList.isEmpty())) {
-      return;
-    }
-    try {
-      HashMap<String, String> resIdMap = this.getResIdMap();
-      for (WsFcast fcastData : fcastDataList) {
-        DateTime fcastDt = fcastData.fcastDt;
-        JSONArray basinFcasts = fcastData.data.optJSONArray("basinFcasts");
+        JSONArray basinFcasts = fcastData.optJSONArray("basinFcasts");
         if ((basinFcasts == null) || (basinFcasts.length() == 0)) {
-          throw new Exception("The Forecast's Basin Forecasts is empty");
+          throw new Exception("The Forecast[" + issueStr + "]'s Basin Forecasts is "
+                  + "empty");
         }
 
         JSONObject basin = null;
@@ -255,7 +257,7 @@ public class ReservoirWsFcastMap implements Serializable {
         Double aj10 = null;
         Double aj90 = null;
         for (int item = 0; item < basinFcasts.length(); item++) {
-          if (((basin = basinFcasts.getJSONObject(item)) == null) ||
+          if (((basin = basinFcasts.optJSONObject(item)) == null) ||
             ((staId = DataEntry.cleanUpString(basin.optString("stationId", ""))) == null)
             || (!resIdMap.containsKey(staId))) {
             continue;
@@ -279,11 +281,21 @@ public class ReservoirWsFcastMap implements Serializable {
             fcastMap.add(data);
           }
         }
+        this.parsedIssues.add(issueStr);
+        result++;
+      } catch (Exception exp) {
+        numFailed++;
+        logger.log(Level.WARNING, "{0}.parseFcastData Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
       }
-    } catch (Exception exp) {
-      logger.log(Level.WARNING, "{0}.parseFcastData Error:\n {1}",
-              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     }
+    if (numFailed > 0) {
+      this.fcastEtag = null;
+      this.fcastLastModified = null;
+      throw new Exception(this.getClass().getSimpleName() + ".parseFcastData Error:\n "
+              + numFailed + " forecast issue(s) failed to parse.");
+    }
+    return result;
   }
   
   /**
@@ -308,16 +320,18 @@ public class ReservoirWsFcastMap implements Serializable {
   }
   
   /**
-   * Get the HashMap[wsFcastId->resId] from this.reservoirDefMap
-   * @return the hashMap
+   * Get the cached HashMap[wsFcastId->resId] - initiated from this.reservoirDefMap
+   * @return this.resIdMap
    */
   private HashMap<String, String> getResIdMap() {
-    HashMap<String, ReservoirImpl> resDefMap = this.getReservoirDefMap();
-    HashMap<String, String> result = new HashMap<>();
-    for (ReservoirImpl resDef : resDefMap.values()) {
-      result.put(resDef.wsFcastId(), resDef.id());
+    if (this.resIdMap == null) {
+      HashMap<String, ReservoirImpl> resDefMap = this.getReservoirDefMap();
+      this.resIdMap = new HashMap<>();
+      for (ReservoirImpl resDef : resDefMap.values()) {
+        this.resIdMap.put(resDef.wsFcastId(), resDef.id());
+      }
     }
-    return result;
+    return this.resIdMap;
   }
   
   /**
@@ -426,39 +440,74 @@ public class ReservoirWsFcastMap implements Serializable {
 
   // <editor-fold defaultstate="collapsed" desc="Public Methods">
   /**
-   * Called to update the forecast
+   * Called to update the forecast. It is synchronized because the reservoirs are
+   * refreshed concurrently - all but the first caller of the day will return without
+   * importing the forecasts. The import is a conditional request and only forecast
+   * issues that have not yet been parsed are added - all reservoirs share the parsed
+   * forecasts. A failed update is retried after {@linkplain #RetryMinutes} minutes.
+   * @param force true to force the import
+   * @return false if the import or the parsing of any forecast issue failed or a 
+   * failed update is waiting to be retried (true if completed, not modified, or 
+   * already updated today).
    */
-  public void update(boolean force) {   
+  public synchronized boolean update(boolean force) {   
+    boolean result = true;
     try {
       DateTime today = DateTime.getNow(WyConverter.PstTimeZone);
       Integer curWy = WyConverter.getWaterYear(today);
       if ((this.waterYr == null) || ((!this.waterYr.equals(curWy)))) {
         this.lastUpdateDt = null;
+        this.lastFailedDt = null;
         this.fcastDataMap.clear();
+        this.parsedIssues.clear();
+        this.fcastEtag = null;
+        this.fcastLastModified = null;
+        this.waterYr = curWy;
         force = true;
       }
       
       if ((!force) && (this.lastUpdateDt != null) && 
                                   (!today.isAfter(this.lastUpdateDt, Interval.DAYS))) {
-        return;
+        return result;
+      }
+      if ((!force) && (this.lastFailedDt != null) &&
+              (today.getTime(this.lastFailedDt, TimeUnit.MINUTES) < RetryMinutes)) {
+        return false;
       }
       
-      
-      List<WsFcast> fcastData = null;
-      JSONArray importData = this.importWsFcast(waterYr);
-      if ((importData != null) && 
-              ((fcastData = this.getLoadedFcasts(importData)) != null) &&
-              (!fcastData.isEmpty())){
-        this.parseFcastData(fcastData);
+      JSONArray importData = this.importWsFcast(this.waterYr);
+      if (importData != null) {
+        this.parseFcastData(importData);
       }      
       
       //this.temp();
       
       this.lastUpdateDt = today;
+      this.lastFailedDt = null;
     } catch (Exception exp) {
+      result = false;
+      this.lastFailedDt = DateTime.getNow(WyConverter.PstTimeZone);
       logger.log(Level.WARNING, "{0}.update Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     }    
+    return result;
+  }
+  
+  /**
+   * Get a copy of the reservoir's forecasts. It is synchronized with {@linkplain 
+   * #update(boolean) update} so that the list is never read while being updated.
+   * @param resId the reservoir ID
+   * @return a new list of forecasts (empty if none are loaded)
+   */
+  public synchronized List<B120WsFcast> getForecasts(String resId) {
+    List<B120WsFcast> result = new ArrayList<>();
+    B120WsFcastMap fcastMap = null;
+    if (((resId = DataEntry.cleanString(resId)) != null) && 
+            (this.fcastDataMap != null) &&
+            ((fcastMap = this.fcastDataMap.get(resId)) != null)) {
+      result = fcastMap.getForecasts();
+    }
+    return result;
   }
   
   /**
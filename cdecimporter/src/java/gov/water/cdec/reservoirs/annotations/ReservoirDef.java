@@ -55,4 +55,11 @@ public @interface ReservoirDef {
    * @return the assigned identifier
    */
   String wsFcastId();  
+  /**
+   * The reservoir's refresh interval in minutes (&le; 0 to use the {@linkplain 
+   * gov.water.cdec.reservoirs.ReservoirRefreshScheduler ReservoirRefreshScheduler}'s
+   * default interval)
+   * @return the assigned interval
+   */
+  int refreshMinutes() default 0;
 }
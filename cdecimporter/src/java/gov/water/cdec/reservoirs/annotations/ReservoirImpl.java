@@ -48,6 +48,10 @@ public class ReservoirImpl implements Serializable, ReservoirDef{
    * See {@linkplain ReservoirDef#wsFcastId()}
    */
   private String wsFcastId; 
+  /**
+   * See {@linkplain ReservoirDef#refreshMinutes()}
+   */
+  private int refreshMinutes; 
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -85,6 +89,7 @@ public class ReservoirImpl implements Serializable, ReservoirDef{
     }
     
     this.wsFcastId = DataEntry.cleanString(annot.wsFcastId());
+    this.refreshMinutes = Math.max(0, annot.refreshMinutes());
   }
   // </editor-fold>
 
@@ -189,6 +194,13 @@ public class ReservoirImpl implements Serializable, ReservoirDef{
   public String wsFcastId() {
     return (this.wsFcastId == null)? "": this.wsFcastId;
   }
+  /**
+   * See {@linkplain ReservoirDef#refreshMinutes()} - 0 if not assigned
+   */
+  @Override
+  public int refreshMinutes() {
+    return this.refreshMinutes;
+  }
 
   @Override
   public Class<? extends Annotation> annotationType() {
@@ -1,6 +1,5 @@
 package gov.ca.water.cdec.core;
 
-import java.util.Calendar;
 import java.util.Date;
 
 /**
@@ -31,11 +30,42 @@ public class DateKey extends TimeStepKey<DateKey> {
    */
   public DateKey(Date actualDt) {
     super(actualDt);
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(actualDt);
-    this.year = cal.get(Calendar.YEAR);
-    this.month = cal.get(Calendar.MONTH);
-    this.day = cal.get(Calendar.DAY_OF_MONTH);
+    int ymd = TimeStepIndex.toYearMonthDay(TimeStepIndex.toEpochDay(actualDt));
+    this.year = ymd / 10000;
+    this.month = ((ymd / 100) % 100) - 1;
+    this.day = ymd % 100;
+  }
+  
+  /**
+   * Private Constructor from a packed year-month-day 
+   * @param ymd the packed date (see {@linkplain TimeStepIndex#toYearMonthDay(long)})
+   */
+  private DateKey(int ymd) {
+    super();
+    this.year = ymd / 10000;
+    this.month = ((ymd / 100) % 100) - 1;
+    this.day = ymd % 100;
+  }
+  // </editor-fold>
+  
+  // <editor-fold defaultstate="collapsed" desc="Public Static Methods">
+  /**
+   * Get the DateKey of an Epoch Day without initiating a Date or Calendar
+   * @param epochDay the epoch day (see {@linkplain TimeStepIndex#toEpochDay(long)})
+   * @return a new DateKey
+   */
+  public static DateKey fromEpochDay(int epochDay) {
+    return new DateKey(TimeStepIndex.toYearMonthDay(epochDay));
+  }
+  // </editor-fold>
+  
+  // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the key's Epoch Day
+   * @return the epoch day of the key's year, month, and day
+   */
+  public int toEpochDay() {
+    return (int) TimeStepIndex.toEpochDay(this.year, this.month + 1, this.day);
   }
   // </editor-fold>
   
@@ -73,26 +103,12 @@ public class DateKey extends TimeStepKey<DateKey> {
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: return calendar(this.year,this.month,this.day).date</p>
+   * OVERRIDE: return the Date (at local midnight) of the key's {@linkplain 
+   * #toEpochDay() Epoch Day}</p>
    */
   @Override
   public Date getDate() {
-    Date result = null;
-    try {
-      Calendar calendar = Calendar.getInstance();
-      calendar.set(Calendar.YEAR, this.year);
-      calendar.set(Calendar.MONTH, this.month); 
-      calendar.set(Calendar.DAY_OF_MONTH, this.day);
-      calendar.set(Calendar.HOUR_OF_DAY, 0);
-      calendar.set(Calendar.MINUTE, 0);
-      calendar.set(Calendar.SECOND, 0);
-      calendar.set(Calendar.MILLISECOND, 0);
-      result = calendar.getTime();
-    } catch (Exception exp) {
-      throw new IllegalArgumentException(this.getClass().getSimpleName() 
-              + ".getDate Error: \n\t" + exp.getMessage());
-    }
-    return result;
+    return TimeStepIndex.fromEpochDay(this.toEpochDay());
   }
   // </editor-fold>
 
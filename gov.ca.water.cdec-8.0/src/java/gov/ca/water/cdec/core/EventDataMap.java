@@ -44,6 +44,29 @@ public class EventDataMap extends TimeSeriesMap<EventData, EventStepKey> {
   public EventStepKey toDateKey(Date rawDate) {
     return (rawDate == null)? null: new EventStepKey(rawDate, this.eventStep);
   }  
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: return the local date and time as an {@linkplain 
+   * TimeStepIndex#toEpochMinute(long, gov.ca.water.cdec.enums.EventStep) 
+   * Epoch Minute} rounded down to this.eventStep</p>
+   */
+  @Override
+  public int toStepIndex(long actualTime) {
+    return TimeStepIndex.toEpochMinute(actualTime, this.eventStep);
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: return the Date of the {@linkplain TimeStepIndex#fromEpochMinute(long) 
+   * Epoch Minute}</p>
+   */
+  @Override
+  public Date fromStepIndex(int stepIndex) {
+    return TimeStepIndex.fromEpochMinute(stepIndex);
+  }
   /**
    * {@inheritDoc}
    * <p>
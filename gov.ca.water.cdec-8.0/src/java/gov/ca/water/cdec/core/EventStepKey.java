@@ -1,7 +1,6 @@
 package gov.ca.water.cdec.core;
 
 import gov.ca.water.cdec.enums.EventStep;
-import java.util.Calendar;
 import java.util.Date;
 
 /**
@@ -40,28 +39,57 @@ public class EventStepKey extends TimeStepKey<EventStepKey> {
    */
   public EventStepKey(Date actualDt, EventStep eventStep) {
     super(actualDt);
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(actualDt);
-    this.year = cal.get(Calendar.YEAR);
-    this.month = cal.get(Calendar.MONTH);
-    this.day = cal.get(Calendar.DAY_OF_MONTH);
-    switch (eventStep) {
-      case MINUTES:
-        this.minute = cal.get(Calendar.MINUTE);
-        this.hour = cal.get(Calendar.HOUR_OF_DAY);        
-        break;
-      case HOURS:
-        this.hour = cal.get(Calendar.HOUR_OF_DAY);
-        this.minute = 0;
-        break;
-      default:
-        this.hour = 0;
-        this.minute = 0;
-    }
+    int epochMinute = TimeStepIndex.toEpochMinute(actualDt, eventStep);
+    int minOfDay = (int) Math.floorMod(epochMinute, TimeStepIndex.MinutesPerDay);
+    int ymd = TimeStepIndex.toYearMonthDay(
+                        Math.floorDiv(epochMinute, TimeStepIndex.MinutesPerDay));
+    this.year = ymd / 10000;
+    this.month = ((ymd / 100) % 100) - 1;
+    this.day = ymd % 100;
+    this.hour = minOfDay / 60;
+    this.minute = minOfDay % 60;
+  }
+  
+  /**
+   * Private Constructor from an Epoch Minute
+   * @param epochMinute the epoch minute (see {@linkplain 
+   * TimeStepIndex#toEpochMinute(long, gov.ca.water.cdec.enums.EventStep)})
+   */
+  private EventStepKey(int epochMinute) {
+    super();
+    int minOfDay = (int) Math.floorMod(epochMinute, TimeStepIndex.MinutesPerDay);
+    int ymd = TimeStepIndex.toYearMonthDay(
+                        Math.floorDiv(epochMinute, TimeStepIndex.MinutesPerDay));
+    this.year = ymd / 10000;
+    this.month = ((ymd / 100) % 100) - 1;
+    this.day = ymd % 100;
+    this.hour = minOfDay / 60;
+    this.minute = minOfDay % 60;
   }
     // </editor-fold>
   
+  // <editor-fold defaultstate="collapsed" desc="Public Static Methods">
+  /**
+   * Get the EventStepKey of an Epoch Minute (already rounded to the event step) 
+   * without initiating a Date or Calendar
+   * @param epochMinute the epoch minute
+   * @return a new EventStepKey
+   */
+  public static EventStepKey fromEpochMinute(int epochMinute) {
+    return new EventStepKey(epochMinute);
+  }
+  // </editor-fold>
+  
   // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the key's Epoch Minute
+   * @return the epoch minute of the key's year, month, day, hour and minute
+   */
+  public int toEpochMinute() {
+    return (int) (TimeStepIndex.toEpochDay(this.year, this.month + 1, this.day) 
+                        * TimeStepIndex.MinutesPerDay + this.hour * 60 + this.minute);
+  }
+  
   /**
    * Get whether this Date is before <tt>other</tt>
    * @param other
@@ -115,27 +143,12 @@ public class EventStepKey extends TimeStepKey<EventStepKey> {
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: return calendar(this.year,this.month,this.day,this.hour,this.minute).date
-   * </p>
+   * OVERRIDE: return the Date of the key's {@linkplain #toEpochMinute() Epoch 
+   * Minute}</p>
    */
   @Override
   public Date getDate() {
-    Date result = null;
-    try {
-      Calendar calendar = Calendar.getInstance();
-      calendar.set(Calendar.YEAR, this.year);
-      calendar.set(Calendar.MONTH, this.month); 
-      calendar.set(Calendar.DAY_OF_MONTH, this.day);
-      calendar.set(Calendar.HOUR_OF_DAY, this.hour);
-      calendar.set(Calendar.MINUTE, this.minute);
-      calendar.set(Calendar.SECOND, 0);
-      calendar.set(Calendar.MILLISECOND, 0);
-      result = calendar.getTime();
-    } catch (Exception exp) {
-      throw new IllegalArgumentException(this.getClass().getSimpleName() 
-              + ".getDate Error: \n\t" + exp.getMessage());
-    }
-    return result;
+    return TimeStepIndex.fromEpochMinute(this.toEpochMinute());
   }
   // </editor-fold>
 
@@ -29,6 +29,28 @@ public class MonthlyDataMap extends TimeSeriesMap<MonthlyData, DateKey> {
   public DateKey toDateKey(Date rawDate) {
     return (rawDate == null)? null: new DateKey(rawDate);
   }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: return the local calendar day as an {@linkplain 
+   * TimeStepIndex#toEpochDay(long) Epoch Day}</p>
+   */
+  @Override
+  public int toStepIndex(long actualTime) {
+    return TimeStepIndex.toEpochDay(actualTime);
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: return the Date (at local midnight) of the {@linkplain 
+   * TimeStepIndex#fromEpochDay(long) Epoch Day}</p>
+   */
+  @Override
+  public Date fromStepIndex(int stepIndex) {
+    return TimeStepIndex.fromEpochDay(stepIndex);
+  }
   /**
    * {@inheritDoc}
    * <p>
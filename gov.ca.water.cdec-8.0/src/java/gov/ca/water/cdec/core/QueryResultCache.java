@@ -0,0 +1,304 @@
+package gov.ca.water.cdec.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A cache of a time series table's query results by {@linkplain QueryKey} (i.e., the
+ * query name, the set of sensors, the date range, and any other parameters). An entry
+ * is invalidated when a change to the table's records of one of its sensors is
+ * written within its date range (see {@linkplain #invalidate(int, java.util.Date,
+ * java.util.Date) invalidate}). The cache retains the {@linkplain #DefaultMaxEntries}
+ * most recently used entries.</p>
+ * <p>A loaded result is only retained if no change started or was in progress while it
+ * was loaded (see {@linkplain #beginChange() beginChange} and {@linkplain #put(
+ * gov.ca.water.cdec.core.QueryResultCache.QueryKey, java.lang.Object, long) put}).
+ * Cached results are shared - callers must return copies of mutable results.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class QueryResultCache {
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static QueryKey Class">
+  /**
+   * The key of a cached query result
+   */
+  public static class QueryKey {
+
+    //<editor-fold defaultstate="collapsed" desc="Fields">
+    /**
+     * The query name
+     */
+    public final String queryName;
+    /**
+     * The sorted and unique sensorIds
+     */
+    private final int[] sensorIds;
+    /**
+     * The start time of the query's date range (Long.MIN_VALUE if unbound)
+     */
+    public final long startTime;
+    /**
+     * The end time of the query's date range (Long.MAX_VALUE if unbound)
+     */
+    public final long endTime;
+    /**
+     * The query's other parameters
+     */
+    private final Object[] params;
+    /**
+     * The cached hashCode
+     */
+    private final int hash;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Public Constructor
+     * @param queryName the query name (required)
+     * @param sensorIds the query's sensorIds (required)
+     * @param startDt the start of the query's date range (null if unbound)
+     * @param endDt the end of the query's date range (null if unbound)
+     * @param params the query's other parameters (e.g., the dates of a date list)
+     */
+    public QueryKey(String queryName, Collection<Integer> sensorIds, Date startDt,
+                                                          Date endDt, Object...params) {
+      super();
+      if ((queryName == null) || (sensorIds == null)) {
+        throw new NullPointerException("The QueryKey's Name or SensorIds are "
+                + "unassigned.");
+      }
+      this.queryName = queryName;
+      int[] ids = new int[sensorIds.size()];
+      int numIds = 0;
+      for (Integer sensorId : sensorIds) {
+        if (sensorId != null) {
+          ids[numIds++] = sensorId;
+        }
+      }
+      Arrays.sort(ids, 0, numIds);
+      int numUnique = 0;
+      for (int iId = 0; iId < numIds; iId++) {
+        if ((numUnique == 0) || (ids[numUnique - 1] != ids[iId])) {
+          ids[numUnique++] = ids[iId];
+        }
+      }
+      this.sensorIds = Arrays.copyOf(ids, numUnique);
+      this.startTime = (startDt == null)? Long.MIN_VALUE: startDt.getTime();
+      this.endTime = (endDt == null)? Long.MAX_VALUE: endDt.getTime();
+      this.params = (params == null)? new Object[0]: params.clone();
+      int hashCode = 7;
+      hashCode = 83 * hashCode + this.queryName.hashCode();
+      hashCode = 83 * hashCode + Arrays.hashCode(this.sensorIds);
+      hashCode = 83 * hashCode + (int) (this.startTime ^ (this.startTime >>> 32));
+      hashCode = 83 * hashCode + (int) (this.endTime ^ (this.endTime >>> 32));
+      hashCode = 83 * hashCode + Arrays.hashCode(this.params);
+      this.hash = hashCode;
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Check whether a change of <tt>sensorId</tt>'s records in the period
+     * [startTime..endTime] affects the key's result
+     * @param sensorId the changed sensor
+     * @param fromTime the start of the changed period
+     * @param toTime the end of the changed period
+     * @return true if the key contains the sensor and the periods overlap
+     */
+    public boolean isAffected(int sensorId, long fromTime, long toTime) {
+      return ((fromTime <= this.endTime) && (toTime >= this.startTime) &&
+              (Arrays.binarySearch(this.sensorIds, sensorId) >= 0));
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Return the cached hashCode</p>
+     */
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Return true if all the key's fields are equal</p>
+     */
+    @Override
+    public boolean equals(Object obj) {
+      boolean result = (obj == this);
+      if ((!result) && (obj instanceof QueryKey)) {
+        QueryKey other = (QueryKey) obj;
+        result = ((this.hash == other.hash) && (this.queryName.equals(other.queryName))
+                && (this.startTime == other.startTime) && (this.endTime == other.endTime)
+                && (Arrays.equals(this.sensorIds, other.sensorIds))
+                && (Arrays.equals(this.params, other.params)));
+      }
+      return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: "QueryKey[query=..; sensors=..]"</p>
+     */
+    @Override
+    public String toString() {
+      return "QueryKey[query=" + this.queryName + "; sensors="
+              + this.sensorIds.length + "]";
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static Fields">
+  /**
+   * The default maximum number of cached results (1000)
+   */
+  public static final int DefaultMaxEntries = 1000;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The maximum number of cached results
+   */
+  private final int maxEntries;
+  /**
+   * The cached results by QueryKey in access order
+   */
+  private final LinkedHashMap<QueryKey, Object> results;
+  /**
+   * The change stamp - incremented when a change starts and ends
+   */
+  private long stamp;
+  /**
+   * The number of changes in progress
+   */
+  private int activeChanges;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param maxEntries the maximum number of cached results (null|&le; 0 for {@linkplain
+   * #DefaultMaxEntries})
+   */
+  public QueryResultCache(Integer maxEntries) {
+    super();
+    this.maxEntries = ((maxEntries == null) || (maxEntries <= 0))?
+                                                        DefaultMaxEntries: maxEntries;
+    this.results = new LinkedHashMap<QueryKey, Object>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<QueryKey, Object> eldest) {
+        return (this.size() > QueryResultCache.this.maxEntries);
+      }
+    };
+    this.stamp = 0l;
+    this.activeChanges = 0;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get a cached result
+   * @param <TResult> the result type
+   * @param key the query key
+   * @param resultClass the result's class
+   * @return the shared result or null if not cached or not of type TResult
+   */
+  public synchronized <TResult> TResult get(QueryKey key, Class<TResult> resultClass) {
+    Object result = (key == null)? null: this.results.get(key);
+    return (resultClass.isInstance(result))? resultClass.cast(result): null;
+  }
+
+  /**
+   * Get the current change stamp. Must be called before the query is executed and
+   * passed to {@linkplain #put(gov.ca.water.cdec.core.QueryResultCache.QueryKey,
+   * java.lang.Object, long) put}.
+   * @return the stamp
+   */
+  public synchronized long getStamp() {
+    return this.stamp;
+  }
+
+  /**
+   * Called to cache a query result - ignored if the result is null or a change started
+   * or was in progress since <tt>loadStamp</tt>.
+   * @param key the query key
+   * @param result the query result
+   * @param loadStamp the {@linkplain #getStamp() stamp} before the query was executed
+   * @return true if cached
+   */
+  public synchronized boolean put(QueryKey key, Object result, long loadStamp) {
+    boolean cached = false;
+    if ((key != null) && (result != null) && (loadStamp == this.stamp) &&
+            (this.activeChanges == 0)) {
+      this.results.put(key, result);
+      cached = true;
+    }
+    return cached;
+  }
+
+  /**
+   * Called before a change to the table's records is written
+   */
+  public synchronized void beginChange() {
+    this.stamp++;
+    this.activeChanges++;
+  }
+
+  /**
+   * Called after a change to the table's records is written and its cached results are
+   * invalidated.
+   */
+  public synchronized void endChange() {
+    this.stamp++;
+    this.activeChanges = Math.max(0, this.activeChanges - 1);
+  }
+
+  /**
+   * Called to remove the cached results affected by a change of <tt>sensorId</tt>'s
+   * records in the period [startDt..endDt]
+   * @param sensorId the changed sensor
+   * @param startDt the start of the changed period (null if unbound)
+   * @param endDt the end of the changed period (null if unbound)
+   * @return the number of removed results
+   */
+  public synchronized int invalidate(int sensorId, Date startDt, Date endDt) {
+    long fromTime = (startDt == null)? Long.MIN_VALUE: startDt.getTime();
+    long toTime = (endDt == null)? Long.MAX_VALUE: endDt.getTime();
+    List<QueryKey> removeKeys = new ArrayList<>();
+    for (QueryKey key : this.results.keySet()) {
+      if (key.isAffected(sensorId, fromTime, toTime)) {
+        removeKeys.add(key);
+      }
+    }
+    for (QueryKey key : removeKeys) {
+      this.results.remove(key);
+    }
+    return removeKeys.size();
+  }
+
+  /**
+   * Called to remove all cached results
+   */
+  public synchronized void clear() {
+    this.results.clear();
+    this.stamp++;
+  }
+
+  /**
+   * Get the number of cached results
+   * @return the count
+   */
+  public synchronized int size() {
+    return this.results.size();
+  }
+  //</editor-fold>
+}
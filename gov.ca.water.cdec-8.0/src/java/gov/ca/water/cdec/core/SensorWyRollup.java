@@ -0,0 +1,199 @@
+package gov.ca.water.cdec.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * The materialized monthly totals of a single sensor's values for a water year. The
+ * months are indexed by WyMonth [0..11] (i.e., 0=October .. 11=September). For each
+ * month it holds the number of records, the number of records with a value, the sum of
+ * the values, and the first actual date - i.e., the same as a SQL
+ * <tt>COUNT(*), COUNT(VALUE), SUM(VALUE), MIN(ACTUAL_DATE) ... GROUP BY</tt>.
+ * <p>Instances are maintained by a {@linkplain WyRollupTable} - callers receive
+ * copies.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class SensorWyRollup implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Public Fields">
+  /**
+   * The rollup's sensorId
+   */
+  public final int sensorId;
+  /**
+   * The rollup's water year
+   */
+  public final int waterYear;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The number of records per WyMonth
+   */
+  private final int[] rowCounts;
+  /**
+   * The number of records with a value per WyMonth
+   */
+  private final int[] valueCounts;
+  /**
+   * The sum of the values per WyMonth
+   */
+  private final double[] sums;
+  /**
+   * The first actual time per WyMonth (Long.MAX_VALUE if no records)
+   */
+  private final long[] firstTimes;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor - an empty rollup
+   * @param sensorId the sensorId
+   * @param waterYear the water year
+   */
+  public SensorWyRollup(int sensorId, int waterYear) {
+    super();
+    this.sensorId = sensorId;
+    this.waterYear = waterYear;
+    this.rowCounts = new int[12];
+    this.valueCounts = new int[12];
+    this.sums = new double[12];
+    this.firstTimes = new long[12];
+    Arrays.fill(this.firstTimes, Long.MAX_VALUE);
+  }
+
+  /**
+   * Private Copy Constructor
+   * @param source the rollup to copy
+   */
+  private SensorWyRollup(SensorWyRollup source) {
+    super();
+    this.sensorId = source.sensorId;
+    this.waterYear = source.waterYear;
+    this.rowCounts = source.rowCounts.clone();
+    this.valueCounts = source.valueCounts.clone();
+    this.sums = source.sums.clone();
+    this.firstTimes = source.firstTimes.clone();
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Package Methods">
+  /**
+   * Called to add a record
+   * @param wyMonth the record's WyMonth [0..11]
+   * @param actualTime the record's actual time
+   * @param value the record's value (NaN if missing)
+   */
+  void addRecord(int wyMonth, long actualTime, double value) {
+    this.rowCounts[wyMonth]++;
+    this.firstTimes[wyMonth] = Math.min(this.firstTimes[wyMonth], actualTime);
+    this.addValue(wyMonth, value);
+  }
+
+  /**
+   * Called to add a value to a month's sum (ignored if NaN)
+   * @param wyMonth the WyMonth [0..11]
+   * @param value the value to add
+   */
+  void addValue(int wyMonth, double value) {
+    if (!Double.isNaN(value)) {
+      this.valueCounts[wyMonth]++;
+      this.sums[wyMonth] += value;
+    }
+  }
+
+  /**
+   * Called to remove a value from a month's sum (ignored if NaN)
+   * @param wyMonth the WyMonth [0..11]
+   * @param value the value to remove
+   */
+  void removeValue(int wyMonth, double value) {
+    if (!Double.isNaN(value)) {
+      this.valueCounts[wyMonth]--;
+      this.sums[wyMonth] -= value;
+      if (this.valueCounts[wyMonth] <= 0) {
+        this.valueCounts[wyMonth] = 0;
+        this.sums[wyMonth] = 0.0d;
+      }
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get a copy of this rollup
+   * @return a new instance
+   */
+  public SensorWyRollup copy() {
+    return new SensorWyRollup(this);
+  }
+
+  /**
+   * Check whether the rollup has no records
+   * @return true if no month has records
+   */
+  public boolean isEmpty() {
+    for (int rowCount : this.rowCounts) {
+      if (rowCount > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the number of records in a month
+   * @param wyMonth the WyMonth [0..11]
+   * @return the count
+   */
+  public int getRowCount(int wyMonth) {
+    return this.rowCounts[wyMonth];
+  }
+
+  /**
+   * Get the first actual date of a month's records
+   * @param wyMonth the WyMonth [0..11]
+   * @return the date or null if the month has no records
+   */
+  public Date getFirstDate(int wyMonth) {
+    return (this.rowCounts[wyMonth] == 0)? null: new Date(this.firstTimes[wyMonth]);
+  }
+
+  /**
+   * Get the sum of a month's values
+   * @param wyMonth the WyMonth [0..11]
+   * @return the sum or null if the month has no values
+   */
+  public Double getSum(int wyMonth) {
+    return (this.valueCounts[wyMonth] == 0)? null: this.sums[wyMonth];
+  }
+
+  /**
+   * Get the sum of the values of the months [fromWyMonth..toWyMonth]
+   * @param fromWyMonth the first WyMonth [0..11]
+   * @param toWyMonth the last WyMonth [0..11]
+   * @return the sum or null if the months have no values
+   */
+  public Double getSum(int fromWyMonth, int toWyMonth) {
+    Double result = null;
+    for (int iMon = Math.max(0, fromWyMonth); iMon <= Math.min(11, toWyMonth); iMon++) {
+      if (this.valueCounts[iMon] > 0) {
+        result = (result == null)? this.sums[iMon]: result + this.sums[iMon];
+      }
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: "SensorWyRollup[sensorId=..; wy=..]"</p>
+   */
+  @Override
+  public String toString() {
+    return "SensorWyRollup[sensorId=" + this.sensorId + "; wy=" + this.waterYear + "]";
+  }
+  //</editor-fold>
+}
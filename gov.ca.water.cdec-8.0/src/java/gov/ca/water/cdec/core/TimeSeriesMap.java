@@ -5,7 +5,12 @@ import java.util.*;
 
 /**
  * A Base Class for all TimeSeriesMap use in reading Event, Daily, or Monthly Values into
- * a TimeSeries
+ * a TimeSeries.
+ * <p>The records are not stored as entities, but as parallel primitive arrays (int time
+ * step indices, double values with NaN for missing values, long observation times, and
+ * byte data flag codes) with an open-addressing index by time step. Entities are only
+ * initiated on demand (e.g., {@linkplain #getRecords() getRecords} or {@linkplain 
+ * #toRecord(int) toRecord}) for the records that must be written.</p>
  * @author J.G. "Koos" Prins, D.Eng. PE.
  */
 public abstract class TimeSeriesMap<TEntity extends Serializable, 
@@ -78,19 +83,67 @@ public abstract class TimeSeriesMap<TEntity extends Serializable,
   }
 //</editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The obsTime value of a record without an observation date
+   */
+  public static final long NoObsTime = Long.MIN_VALUE;
+  /**
+   * The flagCode value of a record without a data flag
+   */
+  private static final byte NoFlag = (byte) -1;
+  /**
+   * The maximum number of distinct data flags per map
+   */
+  private static final int MaxFlags = 255;
+  /**
+   * The initial capacity of the value arrays
+   */
+  private static final int InitCapacity = 32;
+  //</editor-fold>
+  
   //<editor-fold defaultstate="collapsed" desc="Private/Public Fields">
   /**
    * Public final field containing the SensorId
    */
   public final int sensorId;
   /**
-   * Placeholder for the Daily data map
+   * The records' time step indices (see {@linkplain #toStepIndex(java.util.Date) 
+   * toStepIndex}) in the order entered.
+   */
+  private int[] stepIndices;
+  /**
+   * The records' observed values (NaN if missing)
+   */
+  private double[] obsValues;
+  /**
+   * The records' observation dates in milliseconds ({@linkplain #NoObsTime} if 
+   * unassigned)
+   */
+  private long[] obsTimes;
+  /**
+   * The records' data flags as an index in this.flagTable ({@linkplain #NoFlag} if
+   * unassigned)
    */
-  protected LinkedHashMap<TStepKey, TEntity> dataMap;
+  private byte[] flagCodes;
   /**
-   * Placeholder for the TimeSeriesMap dateRange
+   * The number of records in the map
    */
-  private DateRange dateRange;
+  private int size;
+  /**
+   * The open-addressing hash table of (record index + 1) by stepIndex (0 = empty 
+   * slot). Its length is a power of 2 and at least twice this.size.
+   */
+  private int[] indexTable;
+  /**
+   * The distinct data flags referenced by this.flagCodes
+   */
+  private ArrayList<String> flagTable;
+  /**
+   * The minimum and maximum stepIndex in the map
+   */
+  private int minStep;
+  private int maxStep;
   //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
@@ -100,34 +153,156 @@ public abstract class TimeSeriesMap<TEntity extends Serializable,
    */
   public TimeSeriesMap(int sensorId) {
     this.sensorId = sensorId;
-    this.dataMap = new LinkedHashMap<>();
-    this.dateRange = new DateRange();
+    this.stepIndices = new int[InitCapacity];
+    this.obsValues = new double[InitCapacity];
+    this.obsTimes = new long[InitCapacity];
+    this.flagCodes = new byte[InitCapacity];
+    this.indexTable = new int[2 * InitCapacity];
+    this.flagTable = new ArrayList<>();
+    this.size = 0;
+    this.minStep = Integer.MAX_VALUE;
+    this.maxStep = Integer.MIN_VALUE;
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the indexTable's hash slot for a stepIndex
+   * @param stepIndex the time step index
+   * @param mask the indexTable.length - 1
+   * @return the slot
+   */
+  private static int hashSlot(int stepIndex, int mask) {
+    int hash = stepIndex * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+  
+  /**
+   * Called to grow the value arrays and rebuild the indexTable when the map is full.
+   */
+  private void ensureCapacity() {
+    if (this.size < this.stepIndices.length) {
+      return;
+    }
+    int newCapacity = 2 * this.stepIndices.length;
+    this.stepIndices = Arrays.copyOf(this.stepIndices, newCapacity);
+    this.obsValues = Arrays.copyOf(this.obsValues, newCapacity);
+    this.obsTimes = Arrays.copyOf(this.obsTimes, newCapacity);
+    this.flagCodes = Arrays.copyOf(this.flagCodes, newCapacity);
+    this.indexTable = new int[2 * newCapacity];
+    int mask = this.indexTable.length - 1;
+    for (int iRec = 0; iRec < this.size; iRec++) {
+      int slot = TimeSeriesMap.hashSlot(this.stepIndices[iRec], mask);
+      while (this.indexTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      this.indexTable[slot] = iRec + 1;
+    }
+  }
+  
+  /**
+   * Get the code of a data flag - adding it to this.flagTable if new
+   * @param dataFlag the data flag (can be null)
+   * @return the code
+   */
+  private byte toFlagCode(String dataFlag) {
+    if (dataFlag == null) {
+      return NoFlag;
+    }
+    int result = this.flagTable.indexOf(dataFlag);
+    if (result < 0) {
+      if (this.flagTable.size() >= MaxFlags) {
+        throw new IllegalStateException("The " + this.getClass().getSimpleName() 
+                + " cannot contain more than " + MaxFlags + " distinct data flags.");
+      }
+      result = this.flagTable.size();
+      this.flagTable.add(dataFlag);
+    }
+    return (byte) result;
+  }
+  
+  /**
+   * Called to add or replace the values of the record at <tt>stepIndex</tt>.
+   * @param stepIndex the time step index
+   * @param obsValue the observed value (NaN if missing)
+   * @param obsTime the observation date in milliseconds ({@linkplain #NoObsTime} if
+   * unassigned)
+   * @param flagCode the data flag's code
+   */
+  private void putValue(int stepIndex, double obsValue, long obsTime, byte flagCode) {
+    int recIndex = this.indexOf(stepIndex);
+    if (recIndex < 0) {
+      this.ensureCapacity();
+      recIndex = this.size++;
+      int mask = this.indexTable.length - 1;
+      int slot = TimeSeriesMap.hashSlot(stepIndex, mask);
+      while (this.indexTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      this.indexTable[slot] = recIndex + 1;
+      this.stepIndices[recIndex] = stepIndex;
+      this.minStep = Math.min(this.minStep, stepIndex);
+      this.maxStep = Math.max(this.maxStep, stepIndex);
+    }
+    this.obsValues[recIndex] = obsValue;
+    this.obsTimes[recIndex] = obsTime;
+    this.flagCodes[recIndex] = flagCode;
   }
   //</editor-fold>
 
   //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Convert an actual Date to the map's primitive time step index.
+   * @param actualDt the actual date (not null)
+   * @return this.toStepIndex(actualDt.time)
+   */
+  public final int toStepIndex(Date actualDt) {
+    return this.toStepIndex(actualDt.getTime());
+  }
+  
+  /**
+   * Get the DateRange of the map's actual dates (normalized to the map's time step).
+   * @return a new DateRange instance (empty if the map is empty)
+   */
   public DateRange getDateRange() {
-    return this.dateRange;
+    DateRange result = new DateRange();
+    if (this.size > 0) {
+      result.addDate(this.fromStepIndex(this.minStep));
+      result.addDate(this.fromStepIndex(this.maxStep));
+    }
+    return result;
   }
   
   /**
-   * Return a Set of DateKey's in the dataMap (in the order entered).
-   * @return this.dataMap.keySet()
+   * Return a Set of DateKey's in the map (in the order entered).
+   * @return a new LinkedHashSet
    */
   public Set<TStepKey> getDateKeys() {
-    return this.dataMap.keySet();
+    LinkedHashSet<TStepKey> result = new LinkedHashSet<>();
+    for (int iRec = 0; iRec < this.size; iRec++) {
+      result.add(this.toDateKey(this.fromStepIndex(this.stepIndices[iRec])));
+    }
+    return result;
   }
+  
   /**
-   * Return a Collection of TimeSeries records
-   * @return this.dataMap.values()
+   * Return a Collection of TimeSeries records (in the order entered). The records are
+   * initiated from the map's primitive values on each call - use the indexed getters
+   * (e.g., {@linkplain #getObsValue(int) getObsValue(recIndex)}) to read the values 
+   * without initiating the entities.
+   * @return a new list of records
    */
   public Collection<TEntity> getRecords() {
-    return this.dataMap.values();
+    List<TEntity> result = new ArrayList<>(this.size);
+    for (int iRec = 0; iRec < this.size; iRec++) {
+      result.add(this.toRecord(iRec));
+    }
+    return result;
   }
   
   /**
    * Add a new record to the TiemStepMap. If a record for the date already exist, it  
-   * will be overridden.
+   * will be overridden. Only the record's values are stored in the map.
    * @param record the new record to add. Ignored if null.
    * @exception if the record.dailyDataPK.sensorId does not match this.sensorId.
    */
@@ -143,38 +318,213 @@ public abstract class TimeSeriesMap<TEntity extends Serializable,
     if (actDt == null) {
       throw new IllegalArgumentException("The record's actual date is unassigned.");
     }
-    TStepKey mapKey = this.toDateKey(actDt);
-    if (mapKey == null) {
-      throw new IllegalArgumentException("Intiating a DtaKey from Date[" 
-              + actDt.toString() + "] failed.");
+    this.addValue(actDt, this.getRecordObsDt(record), this.getRecordObsValue(record),
+                                                      this.getRecordDataFlag(record));
+  }
+  
+  /**
+   * Add the values of a new record without initiating the record's entity. If a record
+   * for the date already exist, it will be overridden.
+   * @param actualDt the record's actual date (required)
+   * @param obsDt the observation date (can be null)
+   * @param obsValue the observed value (can be null)
+   * @param dataFlag the data flag (can be null)
+   * @exception IllegalArgumentException if actualDt is unassigned.
+   */
+  public void addValue(Date actualDt, Date obsDt, Double obsValue, String dataFlag) {
+    this.addValue(actualDt, obsDt, (obsValue == null)? Double.NaN: obsValue, dataFlag);
+  }
+  
+  /**
+   * Add the values of a new record without boxing the observed value. If a record for
+   * the date already exist, it will be overridden.
+   * @param actualDt the record's actual date (required)
+   * @param obsDt the observation date (can be null)
+   * @param obsValue the observed value (NaN if missing)
+   * @param dataFlag the data flag (can be null)
+   * @exception IllegalArgumentException if actualDt is unassigned.
+   */
+  public void addValue(Date actualDt, Date obsDt, double obsValue, String dataFlag) {
+    if (actualDt == null) {
+      throw new IllegalArgumentException("The record's actual date is unassigned.");
     }
-    this.dataMap.put(mapKey, record);
-    this.dateRange.addDate(actDt);
+    this.addValue(actualDt.getTime(), (obsDt == null)? NoObsTime: obsDt.getTime(), 
+                                                              obsValue, dataFlag);
+  }
+  
+  /**
+   * Add the values of a new record from its actual and observation times (e.g., as
+   * parsed by a {@linkplain gov.ca.water.cdec.importers.CdecDateCodec}) without 
+   * initiating any Date or entity. If a record for the date already exist, it will be
+   * overridden.
+   * @param actualTime the record's actual time in milliseconds
+   * @param obsTime the observation time in milliseconds ({@linkplain #NoObsTime} if
+   * unassigned)
+   * @param obsValue the observed value (NaN if missing)
+   * @param dataFlag the data flag (can be null)
+   */
+  public void addValue(long actualTime, long obsTime, double obsValue, 
+                                                                    String dataFlag) {
+    this.putValue(this.toStepIndex(actualTime), obsValue, obsTime,
+                  this.toFlagCode(dataFlag));
+  }
+  
+  /**
+   * Add (or override) the record at <tt>recIndex</tt> of the <tt>source</tt> map - 
+   * typically a map of the same type (e.g., a {@linkplain #cloneInstance() clone}).
+   * @param source the source map
+   * @param recIndex the record's index in the source map
+   */
+  public void addFrom(TimeSeriesMap<TEntity, TStepKey> source, int recIndex) {
+    this.putValue(source.stepIndices[recIndex], source.obsValues[recIndex],
+            source.obsTimes[recIndex], this.toFlagCode(source.getDataFlag(recIndex)));
   }
 
   /**
    * Get the TimeSeries Record for the matching Date.
-   * @param TEntity the entity type
    * @param actualDt the date to search for
-   * @return the record or null if not found.
+   * @return a new record initiated from the map's values or null if not found.
    */
   public TEntity getData(Date actualDt) {
     TEntity result = null;
-    if (actualDt != null) {
-      TStepKey mapKey = this.toDateKey(actualDt);
-      if ((mapKey != null) && (this.dataMap.containsKey(mapKey))) {
-        result = this.dataMap.get(mapKey);
-      }
+    int recIndex = -1;
+    if ((actualDt != null) && 
+            ((recIndex = this.indexOf(this.toStepIndex(actualDt))) >= 0)) {
+      result = this.toRecord(recIndex);
     }
     return result;
   }
   
   /**
    * Check if the TimeSeries Map is empty
-   * @return (this.dataMap = null | empty)
+   * @return (this.size = 0)
    */
   public boolean isEmpty() {
-    return ((this.dataMap == null) || (this.dataMap.isEmpty()));
+    return (this.size == 0);
+  }
+  
+  /**
+   * Get the number of records in the map
+   * @return this.size
+   */
+  public int size() {
+    return this.size;
+  }
+  
+  /**
+   * Get the index of the record at <tt>stepIndex</tt>
+   * @param stepIndex the time step index (see {@linkplain #toStepIndex(java.util.Date)
+   * toStepIndex})
+   * @return the record index or -1 if not found.
+   */
+  public int indexOf(int stepIndex) {
+    int mask = this.indexTable.length - 1;
+    int slot = TimeSeriesMap.hashSlot(stepIndex, mask);
+    int entry = 0;
+    while ((entry = this.indexTable[slot]) != 0) {
+      if (this.stepIndices[entry - 1] == stepIndex) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+  
+  /**
+   * Get the time step index of the record at <tt>recIndex</tt>
+   * @param recIndex the record index [0..size)
+   * @return the step index
+   */
+  public int getStepIndex(int recIndex) {
+    return this.stepIndices[recIndex];
+  }
+  
+  /**
+   * Get the actual date of the record at <tt>recIndex</tt> (normalized to the map's
+   * time step)
+   * @param recIndex the record index [0..size)
+   * @return a new Date
+   */
+  public Date getActualDate(int recIndex) {
+    return this.fromStepIndex(this.stepIndices[recIndex]);
+  }
+  
+  /**
+   * Get the observed value of the record at <tt>recIndex</tt>
+   * @param recIndex the record index [0..size)
+   * @return the value or NaN if missing
+   */
+  public double getObsValue(int recIndex) {
+    return this.obsValues[recIndex];
+  }
+  
+  /**
+   * Get the observation date (in milliseconds) of the record at <tt>recIndex</tt>
+   * @param recIndex the record index [0..size)
+   * @return the time or {@linkplain #NoObsTime} if unassigned
+   */
+  public long getObsTime(int recIndex) {
+    return this.obsTimes[recIndex];
+  }
+  
+  /**
+   * Get the data flag of the record at <tt>recIndex</tt>
+   * @param recIndex the record index [0..size)
+   * @return the flag or null if unassigned
+   */
+  public String getDataFlag(int recIndex) {
+    byte flagCode = this.flagCodes[recIndex];
+    return (flagCode == NoFlag)? null: this.flagTable.get(flagCode & 0xFF);
+  }
+  
+  /**
+   * Check whether the observed value or observation date of the record at 
+   * <tt>recIndex</tt> differ from that of the record at <tt>otherIndex</tt> in
+   * <tt>other</tt>. 
+   * @param recIndex the record index in this map
+   * @param other the other map
+   * @param otherIndex the record index in the other map
+   * @return true if the records' values differ.
+   */
+  public boolean isChanged(int recIndex, TimeSeriesMap<TEntity, TStepKey> other, 
+                                                                      int otherIndex) {
+    return ((Double.doubleToLongBits(this.obsValues[recIndex]) != 
+                            Double.doubleToLongBits(other.obsValues[otherIndex])) ||
+            (this.obsTimes[recIndex] != other.obsTimes[otherIndex]));
+  }
+  
+  /**
+   * Initiate a new record (see {@linkplain #newRecord(java.util.Date) newRecord}) with
+   * the values of the record at <tt>recIndex</tt>.
+   * @param recIndex the record index [0..size)
+   * @return the new record
+   */
+  public TEntity toRecord(int recIndex) {
+    TEntity result = this.newRecord(this.getActualDate(recIndex));
+    double obsValue = this.obsValues[recIndex];
+    long obsTime = this.obsTimes[recIndex];
+    this.setRecordObsData(result, (obsTime == NoObsTime)? null: new Date(obsTime),
+                          (Double.isNaN(obsValue))? null: obsValue, 
+                          this.getDataFlag(recIndex));
+    return result;
+  }
+  
+  /**
+   * Get the actual date of the last record with an observed value (i.e., ignoring
+   * trailing records with missing values).
+   * @return the date or null if the map contains no observed values.
+   */
+  public Date getLastObsDate() {
+    int lastStep = Integer.MIN_VALUE;
+    boolean found = false;
+    for (int iRec = 0; iRec < this.size; iRec++) {
+      if ((!Double.isNaN(this.obsValues[iRec])) && 
+              ((!found) || (this.stepIndices[iRec] > lastStep))) {
+        lastStep = this.stepIndices[iRec];
+        found = true;
+      }
+    }
+    return (found)? this.fromStepIndex(lastStep): null;
   }
   // </editor-fold>
 
@@ -185,6 +535,20 @@ public abstract class TimeSeriesMap<TEntity extends Serializable,
    * @return the new record instance
    */
   public abstract TStepKey toDateKey(Date rawDate);
+  /**
+   * ABSTRACT: Called to convert an actual time (in milliseconds) to the map's primitive
+   * time step index. Times that map to the same {@linkplain #toDateKey(java.util.Date) 
+   * DateKey} must return the same index.
+   * @param actualTime the actual time in milliseconds
+   * @return the time step index
+   */
+  public abstract int toStepIndex(long actualTime);
+  /**
+   * ABSTRACT: Called to convert a time step index to its actual Date
+   * @param stepIndex the time step index
+   * @return the actual date
+   */
+  public abstract Date fromStepIndex(int stepIndex);
   /**
    * ABSTRACT: Called to initiate a new Record for the specified actual Date
    * @param actualDt the record's actual Date
@@ -0,0 +1,206 @@
+package gov.ca.water.cdec.core;
+
+import gov.ca.water.cdec.enums.EventStep;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Static utilities for converting Dates to and from the primitive int time step indices
+ * used by the {@linkplain TimeSeriesMap TimeSeriesMap's} array-backed storage. Like the
+ * {@linkplain DateKey} and {@linkplain EventStepKey}, the indices are based on the
+ * local (default TimeZone) calendar date and time:<ul>
+ *  <li><b>Epoch Day:</b> - the number of days since 1970-01-01 (Daily and Monthly
+ *    data).</li>
+ *  <li><b>Epoch Minute:</b> - the number of minutes since 1970-01-01 00:00, rounded
+ *    down to the {@linkplain EventStep} (Event data).</li>
+ * </ul>
+ * <p>The conversions use integer calendar arithmetic (proleptic Gregorian, as
+ * java.time's LocalDate) and the TimeZone's offsets - no Calendar or other
+ * intermediate objects are allocated. Out of range fields (e.g. month=13) are rolled
+ * over like a lenient Calendar.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public final class TimeStepIndex {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The number of minutes in an hour
+   */
+  public static final long MinutesPerHour = 60L;
+  /**
+   * The number of minutes in a day
+   */
+  public static final long MinutesPerDay = 1440L;
+  /**
+   * The number of milliseconds in a minute
+   */
+  public static final long MillisPerMinute = 60000L;
+  /**
+   * The number of milliseconds in a day
+   */
+  public static final long MillisPerDay = 86400000L;
+  /**
+   * The number of days from 0000-03-01 to 1970-01-01
+   */
+  private static final long DaysTo1970 = 719468L;
+  /**
+   * The number of days in a 400-year era
+   */
+  private static final long DaysPerEra = 146097L;
+  /**
+   * The local TimeZone (the JVM's default TimeZone at class initiation -
+   * TimeZone.getDefault returns a new clone on each call).
+   */
+  private static final TimeZone LocalZone = TimeZone.getDefault();
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor - static class
+   */
+  private TimeStepIndex() {
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Calendar Arithmetic">
+  /**
+   * Get the local TimeZone used by the step indices
+   * @return the cached default TimeZone
+   */
+  public static TimeZone getLocalZone() {
+    return TimeStepIndex.LocalZone;
+  }
+
+  /**
+   * Get the Epoch Day of a calendar date
+   * @param year the year
+   * @param month the month (1-based - rolled over if not in [1..12])
+   * @param day the day of the month (rolled over if not in the month)
+   * @return the epoch day
+   */
+  public static long toEpochDay(int year, int month, int day) {
+    long yr = year + Math.floorDiv(month - 1, 12);
+    int mon = Math.floorMod(month - 1, 12) + 1;
+    if (mon <= 2) {
+      yr--;
+    }
+    long era = Math.floorDiv(yr, 400L);
+    long yoe = yr - era * 400L;
+    long doy = (153L * (mon + ((mon > 2)? -3: 9)) + 2L) / 5L;
+    long doe = yoe * 365L + yoe / 4L - yoe / 100L + doy;
+    return era * DaysPerEra + doe - DaysTo1970 + (day - 1);
+  }
+
+  /**
+   * Get the calendar date of an Epoch Day packed as (year * 10000 + month * 100 + day)
+   * with a 1-based month (e.g., 20200131).
+   * @param epochDay the epoch day (for a year &ge; 0)
+   * @return the packed date
+   */
+  public static int toYearMonthDay(long epochDay) {
+    long days = epochDay + DaysTo1970;
+    long era = Math.floorDiv(days, DaysPerEra);
+    long doe = days - era * DaysPerEra;
+    long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+    long doy = doe - (365L * yoe + yoe / 4L - yoe / 100L);
+    long mp = (5L * doy + 2L) / 153L;
+    int day = (int) (doy - (153L * mp + 2L) / 5L + 1L);
+    int month = (int) ((mp < 10L)? mp + 3L: mp - 9L);
+    int year = (int) (yoe + era * 400L + ((month <= 2)? 1L: 0L));
+    return year * 10000 + month * 100 + day;
+  }
+
+  /**
+   * Get the local wall-clock time (in milliseconds since 1970-01-01 00:00 local) of an
+   * UTC time.
+   * @param time the UTC time in milliseconds
+   * @param timeZone the TimeZone
+   * @return the local time in milliseconds
+   */
+  public static long toLocalMillis(long time, TimeZone timeZone) {
+    return time + timeZone.getOffset(time);
+  }
+
+  /**
+   * Get the UTC time of a local wall-clock time. A local time in a daylight saving gap
+   * is moved forward (as a lenient Calendar).
+   * @param localMillis the local time in milliseconds since 1970-01-01 00:00 local
+   * @param timeZone the TimeZone
+   * @return the UTC time in milliseconds
+   */
+  public static long fromLocalMillis(long localMillis, TimeZone timeZone) {
+    long result = localMillis - timeZone.getOffset(localMillis - timeZone.getRawOffset());
+    return localMillis - timeZone.getOffset(result);
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Step Index Methods">
+  /**
+   * Get the local calendar day of <tt>date</tt> as an Epoch Day.
+   * @param date the date to convert (not null)
+   * @return the epoch day
+   */
+  public static int toEpochDay(Date date) {
+    return TimeStepIndex.toEpochDay(date.getTime());
+  }
+
+  /**
+   * Get the local calendar day of a UTC time as an Epoch Day.
+   * @param time the time in milliseconds
+   * @return the epoch day
+   */
+  public static int toEpochDay(long time) {
+    return (int) Math.floorDiv(TimeStepIndex.toLocalMillis(time, LocalZone),
+                               MillisPerDay);
+  }
+
+  /**
+   * Get the Date (at local midnight) of an Epoch Day
+   * @param epochDay the epoch day
+   * @return the date
+   */
+  public static Date fromEpochDay(long epochDay) {
+    return new Date(TimeStepIndex.fromLocalMillis(epochDay * MillisPerDay, LocalZone));
+  }
+
+  /**
+   * Get the local date and time of <tt>date</tt> as an Epoch Minute, rounded down to
+   * the <tt>eventStep</tt> (i.e., the hour for {@linkplain EventStep#HOURS} or the
+   * day for {@linkplain EventStep#DAYS}).
+   * @param date the date to convert (not null)
+   * @param eventStep the event step (MINUTES if null)
+   * @return the epoch minute
+   */
+  public static int toEpochMinute(Date date, EventStep eventStep) {
+    return TimeStepIndex.toEpochMinute(date.getTime(), eventStep);
+  }
+
+  /**
+   * Get the local date and time of a UTC time as an Epoch Minute, rounded down to
+   * the <tt>eventStep</tt>.
+   * @param time the time in milliseconds
+   * @param eventStep the event step (MINUTES if null)
+   * @return the epoch minute
+   */
+  public static int toEpochMinute(long time, EventStep eventStep) {
+    long result = Math.floorDiv(TimeStepIndex.toLocalMillis(time, LocalZone),
+                                MillisPerMinute);
+    if (EventStep.HOURS.equals(eventStep)) {
+      result = Math.floorDiv(result, MinutesPerHour) * MinutesPerHour;
+    } else if (EventStep.DAYS.equals(eventStep)) {
+      result = Math.floorDiv(result, MinutesPerDay) * MinutesPerDay;
+    }
+    return Math.toIntExact(result);
+  }
+
+  /**
+   * Get the Date of an Epoch Minute in the local TimeZone
+   * @param epochMinute the epoch minute
+   * @return the date
+   */
+  public static Date fromEpochMinute(long epochMinute) {
+    return new Date(TimeStepIndex.fromLocalMillis(epochMinute * MillisPerMinute,
+                                                  LocalZone));
+  }
+  //</editor-fold>
+}
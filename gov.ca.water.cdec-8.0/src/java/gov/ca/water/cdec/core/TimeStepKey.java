@@ -12,6 +12,13 @@ public abstract class TimeStepKey<TKey extends TimeStepKey>
                                               implements Serializable, Comparable<TKey> {
 
   // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Protected Constructor for keys initiated from a time step index.
+   */
+  protected TimeStepKey() {
+    super();
+  }
+  
   /**
    * Public Constructor
    */
@@ -0,0 +1,259 @@
+package gov.ca.water.cdec.core;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.TimeZone;
+
+/**
+ * <p>A materialized rollup table of a time series table's monthly totals per sensor and
+ * water year (see {@linkplain SensorWyRollup}). Rollups are loaded once per sensor and
+ * water year and then maintained incrementally from the records that a merge actually
+ * inserted or updated.</p>
+ * <p>A loaded rollup is only retained if no change started or was in progress while it
+ * was loaded (see {@linkplain #beginChange() beginChange}, {@linkplain #endChange()
+ * endChange}, and {@linkplain #putLoaded(gov.ca.water.cdec.core.SensorWyRollup, long)
+ * putLoaded}) - i.e., a rollup never misses or double counts a change.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class WyRollupTable {
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The TimeZone used to resolve the records' water year and month
+   */
+  private final TimeZone timeZone;
+  /**
+   * The rollups by {@linkplain #toKey(int, int) key}
+   */
+  private final HashMap<Long, SensorWyRollup> rollups;
+  /**
+   * The change stamp - incremented when a change starts and ends
+   */
+  private long stamp;
+  /**
+   * The number of changes in progress
+   */
+  private int activeChanges;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor
+   * @param timeZone the TimeZone used to resolve the records' water year and month
+   * (null to use the default TimeZone)
+   */
+  public WyRollupTable(TimeZone timeZone) {
+    super();
+    this.timeZone = (timeZone == null)? TimeZone.getDefault(): timeZone;
+    this.rollups = new HashMap<>();
+    this.stamp = 0l;
+    this.activeChanges = 0;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the rollups' key
+   * @param sensorId the sensorId
+   * @param waterYear the water year
+   * @return the key
+   */
+  private static long toKey(int sensorId, int waterYear) {
+    return (((long) sensorId) << 32) | (waterYear & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Get a Calendar set to <tt>actualTime</tt> in this.timeZone
+   */
+  private Calendar toCalendar(long actualTime) {
+    Calendar result = Calendar.getInstance(this.timeZone);
+    result.setTimeInMillis(actualTime);
+    return result;
+  }
+
+  /**
+   * Get the retained rollup of the record at <tt>recIndex</tt> in <tt>recMap</tt>
+   * @return the rollup or null if not loaded
+   */
+  private SensorWyRollup getRecordRollup(TimeSeriesMap<?, ?> recMap, int recIndex,
+                                                                        Calendar recCal) {
+    recCal.setTime(recMap.getActualDate(recIndex));
+    return this.rollups.get(WyRollupTable.toKey(recMap.sensorId,
+                                              WyRollupTable.toWaterYear(recCal)));
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static Methods">
+  /**
+   * Get the water year of a date (i.e. year+1 if the month is Oct..Dec)
+   * @param actualCal the Calendar set to the date
+   * @return the water year
+   */
+  public static int toWaterYear(Calendar actualCal) {
+    int result = actualCal.get(Calendar.YEAR);
+    return (actualCal.get(Calendar.MONTH) >= Calendar.OCTOBER)? result + 1: result;
+  }
+
+  /**
+   * Get the WyMonth [0..11] (0=October) of a date
+   * @param actualCal the Calendar set to the date
+   * @return the WyMonth
+   */
+  public static int toWyMonth(Calendar actualCal) {
+    return (actualCal.get(Calendar.MONTH) + 3) % 12;
+  }
+
+  /**
+   * Get the WyMonth [0..11] (0=October) of a calendar month
+   * @param month the calendar month [1..12]
+   * @return the WyMonth
+   */
+  public static int toWyMonth(int month) {
+    return (month + 2) % 12;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the start date (Oct 1, waterYear-1) of a water year in this.timeZone
+   * @param waterYear the water year
+   * @return the start date
+   */
+  public Date getWyStartDate(int waterYear) {
+    Calendar result = Calendar.getInstance(this.timeZone);
+    result.clear();
+    result.set(waterYear - 1, Calendar.OCTOBER, 1, 0, 0, 0);
+    return result.getTime();
+  }
+
+  /**
+   * Called to add a loaded record to <tt>rollup</tt>
+   * @param rollup the rollup being loaded
+   * @param actualTime the record's actual time
+   * @param value the record's value (NaN if missing)
+   * @return false if the record is not in the rollup's water year
+   */
+  public boolean addLoaded(SensorWyRollup rollup, long actualTime, double value) {
+    Calendar actualCal = this.toCalendar(actualTime);
+    if (WyRollupTable.toWaterYear(actualCal) != rollup.waterYear) {
+      return false;
+    }
+    rollup.addRecord(WyRollupTable.toWyMonth(actualCal), actualTime, value);
+    return true;
+  }
+
+  /**
+   * Get a copy of the retained rollup
+   * @param sensorId the sensorId
+   * @param waterYear the water year
+   * @return the copy or null if not loaded
+   */
+  public synchronized SensorWyRollup get(int sensorId, int waterYear) {
+    SensorWyRollup result = this.rollups.get(WyRollupTable.toKey(sensorId, waterYear));
+    return (result == null)? null: result.copy();
+  }
+
+  /**
+   * Get the current change stamp. Must be called before loading a rollup and passed to
+   * {@linkplain #putLoaded(gov.ca.water.cdec.core.SensorWyRollup, long) putLoaded}.
+   * @return the stamp
+   */
+  public synchronized long getStamp() {
+    return this.stamp;
+  }
+
+  /**
+   * Called to retain a loaded rollup - ignored if a change started or was in progress
+   * since <tt>loadStamp</tt> or the rollup is already retained.
+   * @param rollup the loaded rollup
+   * @param loadStamp the {@linkplain #getStamp() stamp} before the rollup was loaded
+   * @return true if retained
+   */
+  public synchronized boolean putLoaded(SensorWyRollup rollup, long loadStamp) {
+    boolean result = false;
+    Long key = WyRollupTable.toKey(rollup.sensorId, rollup.waterYear);
+    if ((loadStamp == this.stamp) && (this.activeChanges == 0) &&
+            (!this.rollups.containsKey(key))) {
+      this.rollups.put(key, rollup.copy());
+      result = true;
+    }
+    return result;
+  }
+
+  /**
+   * Called before a change to the table's records is written
+   */
+  public synchronized void beginChange() {
+    this.stamp++;
+    this.activeChanges++;
+  }
+
+  /**
+   * Called after a change to the table's records is written and applied (see
+   * {@linkplain #applyMerge(gov.ca.water.cdec.core.TimeSeriesMap,
+   * gov.ca.water.cdec.core.TimeSeriesMap, gov.ca.water.cdec.core.TimeSeriesMap)
+   * applyMerge}) or invalidated.
+   */
+  public synchronized void endChange() {
+    this.stamp++;
+    this.activeChanges = Math.max(0, this.activeChanges - 1);
+  }
+
+  /**
+   * Called to apply the written records of a merge to the retained rollups.
+   * @param updateMap the updated records (can be null)
+   * @param localMap the records' prior values (required if updateMap is not empty)
+   * @param insertMap the inserted records (can be null)
+   */
+  public synchronized void applyMerge(TimeSeriesMap<?, ?> updateMap,
+                               TimeSeriesMap<?, ?> localMap, TimeSeriesMap<?, ?> insertMap) {
+    Calendar recCal = Calendar.getInstance(this.timeZone);
+    SensorWyRollup rollup = null;
+    if (updateMap != null) {
+      for (int iRec = 0; iRec < updateMap.size(); iRec++) {
+        int localIndex = localMap.indexOf(updateMap.getStepIndex(iRec));
+        if (((rollup = this.getRecordRollup(updateMap, iRec, recCal)) == null) ||
+                (localIndex < 0)) {
+          continue;
+        }
+        int wyMonth = WyRollupTable.toWyMonth(recCal);
+        rollup.removeValue(wyMonth, localMap.getObsValue(localIndex));
+        rollup.addValue(wyMonth, updateMap.getObsValue(iRec));
+      }
+    }
+    if (insertMap != null) {
+      for (int iRec = 0; iRec < insertMap.size(); iRec++) {
+        if ((rollup = this.getRecordRollup(insertMap, iRec, recCal)) != null) {
+          rollup.addRecord(WyRollupTable.toWyMonth(recCal), recCal.getTimeInMillis(),
+                                                          insertMap.getObsValue(iRec));
+        }
+      }
+    }
+  }
+
+  /**
+   * Called to remove the retained rollups of the records in <tt>recMap</tt> - e.g.,
+   * after the records were written without their prior values being known.
+   * @param recMap the records (can be null)
+   */
+  public synchronized void invalidate(TimeSeriesMap<?, ?> recMap) {
+    if (recMap != null) {
+      Calendar recCal = Calendar.getInstance(this.timeZone);
+      for (int iRec = 0; iRec < recMap.size(); iRec++) {
+        recCal.setTime(recMap.getActualDate(iRec));
+        this.rollups.remove(WyRollupTable.toKey(recMap.sensorId,
+                                              WyRollupTable.toWaterYear(recCal)));
+      }
+    }
+  }
+
+  /**
+   * Called to remove all retained rollups
+   */
+  public synchronized void clear() {
+    this.rollups.clear();
+    this.stamp++;
+  }
+  //</editor-fold>
+}
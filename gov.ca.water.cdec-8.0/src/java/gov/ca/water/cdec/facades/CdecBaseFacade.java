@@ -106,10 +106,6 @@ public abstract class CdecBaseFacade<TBean extends Serializable> implements Seri
    * Placeholder for the facade's Entity Class reference
    */
   private Class<TBean> entityClass;
-  /**
-   * 
-   */
-  private transient EntityTransaction transaction;
   /**
    * Flag indicating if the persistent unit use JTA transaction
    * (default = null|true)
@@ -152,24 +148,24 @@ public abstract class CdecBaseFacade<TBean extends Serializable> implements Seri
   public void beginTransaction() {
     EntityManager entMngr = null;
     if ((!this.doUseJTA()) && ((entMngr = this.getEntityManager()) != null)) {
-      this.transaction = entMngr.getTransaction();
-      if (this.transaction != null) {
-         this.transaction.begin();
+      EntityTransaction tx = entMngr.getTransaction();
+      if (tx != null) {
+         tx.begin();
       }
     }
   }
   
   /**
-   * Commit the EntityManager's current transaction - ignored if this.doUseJTA
+   * Commit the EntityManager's current transaction - ignored if this.doUseJTA or the
+   * transaction is no longer active (e.g., after a rollback).
    */
   public void commitTransaction() {
     EntityManager entMngr = null;
     if ((!this.doUseJTA()) && ((entMngr = this.getEntityManager()) != null)) {
-      this.transaction = entMngr.getTransaction();
-      if (this.transaction != null) {
-         this.transaction.commit();
+      EntityTransaction tx = entMngr.getTransaction();
+      if ((tx != null) && (tx.isActive())) {
+         tx.commit();
       }
-      this.transaction = null;
     }
   }
   
@@ -179,11 +175,10 @@ public abstract class CdecBaseFacade<TBean extends Serializable> implements Seri
   public void rollbackTransaction() {
     EntityManager entMngr = null;
     if ((!this.doUseJTA()) && ((entMngr = this.getEntityManager()) != null)) {
-      this.transaction = entMngr.getTransaction();
-      if (this.transaction != null) {
-         this.transaction.rollback();
+      EntityTransaction tx = entMngr.getTransaction();
+      if ((tx != null) && (tx.isActive())) {
+         tx.rollback();
       }
-      this.transaction = null;
     }
   }
   
@@ -668,8 +663,19 @@ public abstract class CdecBaseFacade<TBean extends Serializable> implements Seri
       logger.log(Level.WARNING, "{0}.mergeAll Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
       throw new IllegalArgumentException(exp);
+    } finally {
+      this.onMerged();
     }
   }
+  
+  /**
+   * CAN OVERRIDE: Called by {@linkplain #mergeAll(java.util.HashMap, 
+   * gov.ca.water.cdec.core.MapperDelegate, gov.ca.water.cdec.core.EntityMergeDelegate, 
+   * boolean) this.mergeAll} after the records were merged (or the merge failed) to
+   * invalidate cached copies of the records. The base method does nothing.
+   */
+  protected void onMerged() {    
+  }
   // </editor-fold>
 
   //<editor-fold defaultstate="collapsed" desc="Abstract Methods">
@@ -1,6 +1,7 @@
 package gov.ca.water.cdec.facades;
 
 import gov.ca.water.cdec.core.*;
+import gov.ca.water.cdec.core.QueryResultCache.QueryKey;
 import gov.ca.water.cdec.entities.*;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -36,6 +37,27 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
   }
   //</editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get a copy of the DailyDataMaps in <tt>source</tt> - used to copy cached results.
+   * @param source the maps to copy
+   * @return a new HashMap with new DailyDataMaps.
+   */
+  private static HashMap<Integer, DailyDataMap> copyDataMaps(
+                                                  HashMap<Integer, DailyDataMap> source) {
+    HashMap<Integer, DailyDataMap> result = new HashMap<>();
+    for (Map.Entry<Integer, DailyDataMap> entry : source.entrySet()) {
+      DailyDataMap srcMap = entry.getValue();
+      DailyDataMap dataMap = srcMap.cloneInstance();
+      for (int iRec = 0; iRec < srcMap.size(); iRec++) {
+        dataMap.addFrom(srcMap, iRec);
+      }
+      result.put(entry.getKey(), dataMap);
+    }
+    return result;
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="collapsed" desc="Public methods">
   /**
    * Called to retrieve the DailyData for a specified sensor between two dates.
@@ -124,7 +146,8 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
   /**
    * Called to retrieve a Monthly (first of the Month) Snow Sensor readings for a 
    * specified WaterYear for a range of WyMonths between October and the specified
-   * Current Month.
+   * Current Month. The results are cached until a merge changes the sensors' data in 
+   * the period.
    * @param waterYear the specified WaterYear
    * @param curMonth the Current Month
    * @param sensorIds the sensors for which to retrieve the data
@@ -139,6 +162,7 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
       }
       
       Calendar dtCal = Calendar.getInstance(CdecBaseFacade.CdecTimeZone);      
+      dtCal.set(Calendar.MILLISECOND, 0);
       DateFormat dtFormat = new SimpleDateFormat("yyyy-MM-dd");
       dtFormat.setTimeZone(dtCal.getTimeZone());
       
@@ -160,6 +184,15 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
         }
       }      
       
+      QueryKey cacheKey = new QueryKey("DailyData.monthlySnoData", sensorIds,
+                          monthDates.get(0), monthDates.get(monthDates.size() - 1));
+      MonthlyWyData cached = this.getCachedResult(cacheKey, MonthlyWyData.class);
+      if (cached != null) {
+        result.merge(cached);
+        return result;
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       EntityManager myEm = this.getEntityManager();
       Query qry = myEm.createNamedQuery("DailyData.monthlySnoData");
       if (qry == null) {
@@ -182,6 +215,10 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
           result.add(monthlyData);
         }
       }
+      
+      cached = new MonthlyWyData(true);
+      cached.merge(result);
+      this.putCachedResult(cacheKey, cached, loadStamp);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.getMonthlySnowSensorData Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
@@ -189,13 +226,17 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
     return result;
   }
   
-//SELECT s.SENSOR_ID, MIN(s.ACTUAL_DATE) as START_DATE, SUM(s.VALUE) as OBS_VALUE 
-//FROM DAILY_DATA s
-//WHERE (s.SENSOR_ID in (9594, 9616)) AND 
-//  (s.ACTUAL_DATE BETWEEN TO_DATE('01/01/2013','MM/dd/yyyy') AND 
-//      TO_DATE('01/31/2013','MM/dd/yyyy'))
-//GROUP BY s.SENSOR_ID;
-  @SuppressWarnings("unchecked")
+  /**
+   * Called to retrieve the Monthly Precip totals of the specified sensors for the
+   * WyMonths between October and the specified Current Month. The totals are read from
+   * the facade's materialized {@linkplain #getWyRollups(int, java.util.Collection) 
+   * water year rollups} rather than summing the DAILY_DATA records on each call. Each
+   * month's MonthlyData has the month's first actual date and the sum of its values.
+   * @param waterYear the specified WaterYear
+   * @param curMonth the Current Month
+   * @param sensorIds the sensors for which to retrieve the data
+   * @return the result set - can be empty is an error occurred.
+   */
   public MonthlyWyData getMonthlyPcpSensorData(Integer waterYear, Integer curMonth, 
                                                             List<Integer> sensorIds) {
     MonthlyWyData result = new MonthlyWyData();
@@ -204,56 +245,35 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
         throw new Exception("The SensorIds list is undefined or empty.");
       }
       
-      Calendar dtCal = Calendar.getInstance(CdecBaseFacade.CdecTimeZone);      
-      DateFormat dtFormat = new SimpleDateFormat("yyyy-MM-dd");
-      dtFormat.setTimeZone(dtCal.getTimeZone());
-      
-      EntityManager myEm = this.getEntityManager();
-      Query qry = myEm.createNamedQuery("DailyData.monthlyPcpData");
-      if (qry == null) {
-        throw new Exception("Unable to access NamedQuery[DailyData.monthlyPcpData]");
-      }
+      HashMap<Integer, SensorWyRollup> rollups = this.getWyRollups(waterYear, sensorIds);
+      List<Integer> sortedIds = new ArrayList<>(new TreeSet<>(rollups.keySet()));
       
       int[] months = new int[] {10,11,12,1,2,3,4,5,6,7,8,9};
       for (int iMon = 0; iMon < 12; iMon++) {
         int wyMonth = months[iMon];
-        
-        Integer dtYr = (wyMonth >= 10)? waterYear-1: waterYear;
-        dtCal.set(dtYr, wyMonth-1, 1, 0, 0, 0);
-        Date startDt = dtCal.getTime();
-        dtCal.set(dtYr, wyMonth, 1, 0, 0, 0);
-        dtCal.add(Calendar.DAY_OF_MONTH, -1);
-        Date endDt = dtCal.getTime();
-        
-        /* Asign the Query Parameters */
-        qry.setParameter("sensorIds", sensorIds);
-        qry.setParameter("startDt", startDt, TemporalType.TIMESTAMP);
-        qry.setParameter("endDt", endDt, TemporalType.TIMESTAMP);
-                
-        List<Object[]> qryResult = qry.getResultList();
-        if ((qryResult == null) || (qryResult.isEmpty())) {
-          throw new Exception("The result list from NamedQuery[MonthlyData.wyData] is "
-                  + "empty. Query SQL = " + qry.toString());
-        }
-
-        for (Object[] dailyData : qryResult) {
-          Integer sensorId = null;
-          Date actualDate = null;          
-          if ((dailyData != null) && (dailyData.length >= 3) &&
-                  ((sensorId = (Integer) dailyData[0]) != null) &&
-                  ((actualDate = (Date) dailyData[1]) != null)) {
-            Double obsValue = (Double) dailyData[2];
-            MonthlyData monthlyData = new MonthlyData(sensorId, actualDate, obsValue);
+        boolean hasData = false;
+        SensorWyRollup rollup = null;
+        for (Integer sensorId : sortedIds) {
+          if (((rollup = rollups.get(sensorId)) != null) && 
+                  (rollup.getRowCount(iMon) > 0)) {
+            MonthlyData monthlyData = new MonthlyData(sensorId, 
+                                          rollup.getFirstDate(iMon), rollup.getSum(iMon));
             result.add(monthlyData);
+            hasData = true;
           }
         }
         
+        if (!hasData) {
+          throw new Exception("The DailyData rollups of WaterYear[" + waterYear 
+                  + "] have no records for Month[" + wyMonth + "].");
+        }
+        
         if (wyMonth == curMonth) {
           break;
         }
       }
     } catch (Exception exp) {
-      logger.log(Level.WARNING, "{0}.getMonthlySnowSensorData Error:\n {1}",
+      logger.log(Level.WARNING, "{0}.getMonthlyPcpSensorData Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
     }
     return result;
@@ -263,7 +283,8 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
    * Called to retrieve the B120 SnwoWater Equivalent records for a specified list if 
    * sensors for the specified Forecast Date. The result a HashMap with key = sensorId
    * and value=DailyDataMap containing three records for the ForecastDt, prevDay
-   * (ForecastDt - 1day), and (priorWeek) forecastDt - 7 days.
+   * (ForecastDt - 1day), and (priorWeek) forecastDt - 7 days. The results are cached
+   * until a merge changes the sensors' data in the period.
    * @param fcastDt the Forecast date (required)
    * @param prevDay the day before Forecast date (required)
    * @param priorWeek 7-days before the Forecast date (required)
@@ -271,6 +292,7 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
    * @return the HashMap of DailyData values or null if an error occurs or no values are 
    * found.
    */
+  @SuppressWarnings("unchecked")
   public HashMap<Integer,DailyDataMap> getB120SweData(Date fcastDt, Date prevDay,
                                               Date priorWeek, List<Integer> sensorIds) {
     HashMap<Integer,DailyDataMap> result = null;
@@ -283,6 +305,16 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
         throw new Exception("The Forecast, Prior Day, or Prior Week Date is undefined.");
       }
       
+      List<Date> qryDates = Arrays.asList(fcastDt, prevDay, priorWeek);
+      QueryKey cacheKey = new QueryKey("DailyData.b120SweData", sensorIds, 
+              Collections.min(qryDates), Collections.max(qryDates), fcastDt, prevDay, 
+              priorWeek);
+      HashMap<?, ?> cached = this.getCachedResult(cacheKey, HashMap.class);
+      if (cached != null) {
+        return DailyDataFacade.copyDataMaps((HashMap<Integer, DailyDataMap>) cached);
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       EntityManager myEm = this.getEntityManager();
       Query qry = myEm.createNamedQuery("DailyData.b120SweData");
       if (qry == null) {
@@ -313,7 +345,8 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
           dataMap.add(dailyData);
           result.put(sensorId, dataMap);
         }
-      }      
+      }
+      this.putCachedResult(cacheKey, DailyDataFacade.copyDataMaps(result), loadStamp);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.getSensorData Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
@@ -415,8 +448,8 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
     return result;
   }
   /**
-    * Get the Period-of-Record date range for the specified SensorId.
-   * All errors are trapped and logged.
+    * Get the Period-of-Record date range for the specified SensorId. The range is 
+   * cached until a merge changes the sensor's data. All errors are trapped and logged.
    * @param sensorId the senor ID - must be defined
    * @return the valid range or null if no result is found.
    */
@@ -426,6 +459,14 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
       if ((sensorId == null)) {
         throw new Exception("SensorId is undefined.");
       }
+      QueryKey cacheKey = new QueryKey("DailyData.PORDates", 
+                                          Collections.singleton(sensorId), null, null);
+      DateKeyRange cached = this.getCachedResult(cacheKey, DateKeyRange.class);
+      if (cached != null) {
+        return new DateKeyRange(cached.getMin(), cached.getMax());
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       EntityManager myEm = this.getEntityManager();
       Query qry = myEm.createNamedQuery("DailyData.PORDates");
       if (qry == null) {
@@ -460,7 +501,8 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
         throw new Exception("The Query Result from NamedQuery[DailyData.PORDates]'s "
                 + "maximum date is undefined or invalid.");
       }
-      result = new DateKeyRange(dt1, dt2);    
+      result = new DateKeyRange(dt1, dt2);
+      this.putCachedResult(cacheKey, new DateKeyRange(dt1, dt2), loadStamp);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.getPorDates Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
@@ -469,6 +511,54 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
   }
   //</editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Implement TimeSeriesFacade">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "DAILY_DATA"</p>
+   */
+  @Override
+  protected String getTableName() {
+    return "DAILY_DATA";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "ACTUAL_DATE"</p>
+   */
+  @Override
+  protected String getActualDateColumn() {
+    return "ACTUAL_DATE";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return TemporalType.DATE</p>
+   */
+  @Override
+  protected TemporalType getActualDateType() {
+    return TemporalType.DATE;
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return true</p>
+   */
+  @Override
+  protected boolean hasObsDateColumn() {
+    return true;
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return true - the monthly precip totals are read from the 
+   * rollups</p>
+   */
+  @Override
+  protected boolean doRollup() {
+    return true;
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="expanded" desc="Implment CdecBaseFacade">  
 //  /**
 //   * {@inheritDoc}
@@ -484,10 +574,15 @@ public class DailyDataFacade extends TimeSeriesFacade<DailyData, DateKey, DailyD
 //  }
   /**
    * {@inheritDoc}
-   * <p>OVERRIDE: Return Em[gov.ca.water.cdecPU]</p>
+   * <p>OVERRIDE: Return the EntityManager bound to the current thread by a merge in
+   * progress, else Em[gov.ca.water.cdecPU]</p>
    */
   @Override
   protected EntityManager getEntityManager() {
+    EntityManager mergeEm = this.getThreadEntityManager();
+    if (mergeEm != null) {
+      return mergeEm;
+    }
     CdecEJBContext ejbCtx = null;
     if (this.em == null) {
       if ((ejbCtx = CdecEJBContext.getInstance()) != null) {
@@ -1,6 +1,7 @@
 package gov.ca.water.cdec.facades;
 
 import gov.ca.water.cdec.core.*;
+import gov.ca.water.cdec.core.QueryResultCache.QueryKey;
 import gov.ca.water.cdec.entities.EventData;
 import gov.ca.water.cdec.entities.EventDataPK;
 import gov.ca.water.cdec.enums.EventStep;
@@ -212,8 +213,8 @@ public class EventDataFacade extends TimeSeriesFacade<EventData, EventStepKey, E
   }
   
   /**
-    * Get the Period-of-Record date range for the specified SensorId.
-   * All errors are trapped and logged.
+    * Get the Period-of-Record date range for the specified SensorId. The range is 
+   * cached until a merge changes the sensor's data. All errors are trapped and logged.
    * @param sensorId the sensor ID - must be defined
    * @return the valid range or null if no result is found.
    */
@@ -223,6 +224,14 @@ public class EventDataFacade extends TimeSeriesFacade<EventData, EventStepKey, E
       if ((sensorId == null)) {
         throw new Exception("SensorId is undefined.");
       }
+      QueryKey cacheKey = new QueryKey("EventData.PORDates", 
+                                          Collections.singleton(sensorId), null, null);
+      DateKeyRange cached = this.getCachedResult(cacheKey, DateKeyRange.class);
+      if (cached != null) {
+        return new DateKeyRange(cached.getMin(), cached.getMax());
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       EntityManager myEm = this.getEntityManager();
       Query qry = myEm.createNamedQuery("EventData.PORDates");
       if (qry == null) {
@@ -257,7 +266,8 @@ public class EventDataFacade extends TimeSeriesFacade<EventData, EventStepKey, E
         throw new Exception("The Query Result from NamedQuery[EventData.PORDates]'s "
                 + "maximum date is undefined or invalid.");
       }
-      result = new DateKeyRange(dt1, dt2);    
+      result = new DateKeyRange(dt1, dt2);
+      this.putCachedResult(cacheKey, new DateKeyRange(dt1, dt2), loadStamp);
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.getPorDates Error:\n {1}",
               new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
@@ -358,13 +368,56 @@ public class EventDataFacade extends TimeSeriesFacade<EventData, EventStepKey, E
   }
   //</editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Implement TimeSeriesFacade">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "EVENT_DATA"</p>
+   */
+  @Override
+  protected String getTableName() {
+    return "EVENT_DATA";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "DATE_TIME"</p>
+   */
+  @Override
+  protected String getActualDateColumn() {
+    return "DATE_TIME";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return TemporalType.TIMESTAMP</p>
+   */
+  @Override
+  protected TemporalType getActualDateType() {
+    return TemporalType.TIMESTAMP;
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return false</p>
+   */
+  @Override
+  protected boolean hasObsDateColumn() {
+    return false;
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="expanded" desc="Implement CdecBaseFacade">  
   /**
    * {@inheritDoc}
-   * <p>OVERRIDE: Return Em[gov.ca.water.cdecPU]</p>
+   * <p>OVERRIDE: Return the EntityManager bound to the current thread by a merge in
+   * progress, else Em[gov.ca.water.cdecPU]</p>
    */
   @Override
   protected EntityManager getEntityManager() {
+    EntityManager mergeEm = this.getThreadEntityManager();
+    if (mergeEm != null) {
+      return mergeEm;
+    }
     CdecEJBContext ejbCtx = null;
     if (this.em == null) {
       if ((ejbCtx = CdecEJBContext.getInstance()) != null) {
@@ -1,6 +1,7 @@
 package gov.ca.water.cdec.facades;
 
 import gov.ca.water.cdec.core.*;
+import gov.ca.water.cdec.core.QueryResultCache.QueryKey;
 import gov.ca.water.cdec.entities.*;
 import static gov.ca.water.cdec.facades.CdecBaseFacade.logger;
 import java.util.*;
@@ -176,10 +177,10 @@ public class MonthlyDataFacade extends
   }
   
   /**
-   * Called to load the Monthly PCP Data for a set of Sensors into a {@linkplain 
-   * MonthlyWyData}. It uses the NamedQuery[MonthlyData.wyData] to retrieve the date by
-   * setting the start date of the query as Oct 1. and the endDt as the first day of the 
-   * specified current month (e.g. if curMonth=2 (Feb) the lastDt = Feb 1).
+   * Called to load the Water Year to date Precip totals for a set of Stations. The 
+   * totals are read from the facade's materialized {@linkplain #getWyRollups(int, 
+   * java.util.Collection) water year rollups} for the months from Oct. through the 
+   * specified current month (e.g. if curMonth=2 (Feb) the last month = Feb).
    * <p><b>NOTE:</b> All errors are trapped an logged and an empty HashMap is returned</p>
    * @param waterYear the Water Year
    * @param curMonth the specified current (calender) month [1..12]
@@ -190,23 +191,6 @@ public class MonthlyDataFacade extends
                                                               List<String> stationIds) {
     HashMap<String, Double> result = new HashMap<>();
     try {
-      /** Oct 1, waterYear-1 **/
-      Calendar wyStart = Calendar.getInstance(CdecBaseFacade.CdecTimeZone);
-      wyStart.set(waterYear-1, 9, 1, 0, 0, 0);
-      Date startDt = wyStart.getTime();
-      if (startDt == null) {
-        throw new Exception("The Start Date is undefined.");
-      }
-      
-      /** curMonth-1 1, waterYear-1 **/
-      Calendar wyCur = Calendar.getInstance(CdecBaseFacade.CdecTimeZone);
-      Integer curYr = (curMonth >= 10)? waterYear-1: waterYear;
-      wyCur.set(curYr, curMonth-1, 1, 0, 0, 0);
-      Date endDt = wyCur.getTime();
-      if (endDt == null) {
-        throw new Exception("The End Date is undefined.");
-      }
-      
       if ((stationIds == null) || (stationIds.isEmpty())) {
         throw new Exception("The Precip StationId list is undefined or empty.");
       }
@@ -218,34 +202,19 @@ public class MonthlyDataFacade extends
       }
       
       List<Integer> sensorIds = new ArrayList<>(pcpSensors.keySet());
-      
-      EntityManager myEm = this.getEntityManager();
-      Query qry = myEm.createNamedQuery("MonthlyData.wyToDateData");
-      if (qry == null) {
-        throw new Exception("Unable to access NamedQuery[MonthlyData.wyToDateData]");
+      HashMap<Integer, SensorWyRollup> rollups = this.getWyRollups(waterYear, sensorIds);
+      if (!rollups.keySet().containsAll(sensorIds)) {
+        throw new Exception("Loading the MonthlyData rollups of WaterYear[" + waterYear
+                + "] failed.");
       }
       
-      /* Asign the Query Parameters */
-      qry.setParameter("startDt", startDt, TemporalType.DATE);
-      qry.setParameter("endDt", endDt, TemporalType.DATE);
-      qry.setParameter("sensorIds", sensorIds);
-      
-      List<Object[]> qryResult = qry.getResultList();
-      if ((qryResult == null) || (qryResult.isEmpty())) {
-        throw new Exception("The result list from NamedQuery[MonthlyData.wyToDateData] "
-                + "is empty. Query SQL = " + qry.toString());
-      }
-      
-      Integer sensorId;
+      int toWyMonth = WyRollupTable.toWyMonth(curMonth);
       Double obsValue;
       Sensor sensor;
       String stationId;
-      for (Object[] monthlyData : qryResult) {
-        if ((monthlyData != null) && (monthlyData.length >= 2) &&
-                  ((sensorId = (Integer) monthlyData[0]) != null) &&
-                  ((obsValue = (Double) monthlyData[1]) != null) &&
-                  (pcpSensors.containsKey(sensorId)) &&
-                  ((sensor =  pcpSensors.get(sensorId)) != null) &&
+      for (SensorWyRollup rollup : rollups.values()) {
+        if (((obsValue = rollup.getSum(0, toWyMonth)) != null) &&
+                  ((sensor =  pcpSensors.get(rollup.sensorId)) != null) &&
                   ((stationId = sensor.getSensorPK().getStationId()) != null)) {
           Double curValue = (result.containsKey(stationId))? result.get(stationId): 0.0d;
           curValue += obsValue;
@@ -526,12 +495,14 @@ public class MonthlyDataFacade extends
    * a specified data. It calls {@linkplain #getSnoSensors(java.util.List) 
    * this.getSnoSensors} to get the associated list of sensorIds for the list of 
    * stationIds. It then calls {@linkplain #getByDate(java.util.List, java.util.Date) 
-   * this.getByDate} to retrieve the data.
+   * this.getByDate} to retrieve the data. The results are cached until a merge changes
+   * the sensors' data on the date.
    * <p><b>NOTE:</b> All errors are trapped an logged and null value is returned</p>
    * @param stationIds the list of StationId to filter on
    * @param actualDt the Actual Date to filter on
    * @return the result - null if an error occurred or not found.
    */
+  @SuppressWarnings("unchecked")
   public HashMap<String, Double> getSnoStasByDate(List<String> stationIds, Date actualDt){
     
     HashMap<String, Double> result = new HashMap<>();
@@ -542,6 +513,15 @@ public class MonthlyDataFacade extends
                 + "of Stations");
       }
       List<Integer> sensorIds = new ArrayList<>(sensorMap.keySet());
+      QueryKey cacheKey = new QueryKey("MonthlyData.snoStasByDate", sensorIds, actualDt,
+                                                                            actualDt);
+      HashMap<?, ?> cached = this.getCachedResult(cacheKey, HashMap.class);
+      if (cached != null) {
+        result.putAll((HashMap<String, Double>) cached);
+        return result;
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       HashMap<Integer, Double> snowData = this.getByDate(sensorIds, actualDt);    
       Sensor sensor = null;
       String staId = null;
@@ -555,6 +535,7 @@ public class MonthlyDataFacade extends
             result.put(staId, obsVal);
           }
         }
+        this.putCachedResult(cacheKey, new HashMap<>(result), loadStamp);
       }
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.method Error:\n {1}",
@@ -566,7 +547,8 @@ public class MonthlyDataFacade extends
   /**
    * Called to load the Monthly Data for a specified Sensors between two dates and 
    * calculate the sum of the observed values. 
-   * It uses the NamedQuery[MonthlyData.sensorData] .
+   * It uses the NamedQuery[MonthlyData.sensorData]. The sum is cached until a merge 
+   * changes the sensor's data in the period.
    * <p><b>NOTE:</b> All errors are trapped an logged and null value is returned</p>
    * @param sensorId the Sensor to filter on
    * @param startDt the Start Date in Date Range
@@ -588,6 +570,14 @@ public class MonthlyDataFacade extends
         throw new Exception("The Sensor's Id is undefined.");
       }
       
+      QueryKey cacheKey = new QueryKey("MonthlyData.sensorSum", 
+                                        Collections.singleton(sensorId), startDt, endDt);
+      Double cached = this.getCachedResult(cacheKey, Double.class);
+      if (cached != null) {
+        return cached;
+      }
+      long loadStamp = this.getQueryCache().getStamp();
+      
       EntityManager myEm = this.getEntityManager();
       Query qry = myEm.createNamedQuery("MonthlyData.sensorData");
       if (qry == null) {
@@ -612,6 +602,7 @@ public class MonthlyDataFacade extends
           result += obsVal;
         }
       }
+      this.putCachedResult(cacheKey, result, loadStamp);
     } catch (Exception exp) {
       result = null;
       logger.log(Level.WARNING, "{0}.getWyData Error:\n {1}",
@@ -673,6 +664,54 @@ public class MonthlyDataFacade extends
   }
   //</editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Implement TimeSeriesFacade">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return true - the water year to date precip totals are read from the 
+   * rollups</p>
+   */
+  @Override
+  protected boolean doRollup() {
+    return true;
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "MONTHLY_DATA"</p>
+   */
+  @Override
+  protected String getTableName() {
+    return "MONTHLY_DATA";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return "ACTUAL_DATE"</p>
+   */
+  @Override
+  protected String getActualDateColumn() {
+    return "ACTUAL_DATE";
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return TemporalType.DATE</p>
+   */
+  @Override
+  protected TemporalType getActualDateType() {
+    return TemporalType.DATE;
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Return true</p>
+   */
+  @Override
+  protected boolean hasObsDateColumn() {
+    return true;
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="collapsed" desc="Implement CdecBaseFacade">  
 //  /**
 //   * {@inheritDoc}
@@ -688,10 +727,15 @@ public class MonthlyDataFacade extends
 //  }
   /**
    * {@inheritDoc}
-   * <p>OVERRIDE: Return Em[gov.ca.water.cdecPU]</p>
+   * <p>OVERRIDE: Return the EntityManager bound to the current thread by a merge in
+   * progress, else Em[gov.ca.water.cdecPU]</p>
    */
   @Override
   protected EntityManager getEntityManager() {
+    EntityManager mergeEm = this.getThreadEntityManager();
+    if (mergeEm != null) {
+      return mergeEm;
+    }
     CdecEJBContext ejbCtx = null;
     if (this.em == null) {
       if ((ejbCtx = CdecEJBContext.getInstance()) != null) {
@@ -0,0 +1,354 @@
+package gov.ca.water.cdec.facades;
+
+import gov.ca.water.cdec.entities.Sensor;
+import gov.ca.water.cdec.entities.SensorPK;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A read-mostly, in-memory cache of the CDEC Sensor records used by the {@linkplain
+ * SensorFacade} to resolve sensors without querying the database. The sensors are
+ * loaded once (by calling {@linkplain SensorFacade#findAll() findAll}) into an
+ * immutable index with lookups by sensorId, by (stationId, sensorNum, durCode), by
+ * sensor type (sensorNum, durCode), and by stationId.</p>
+ * <p>The index is replaced - never updated - so readers do not lock. It is reloaded on
+ * the first lookup after it was {@linkplain #invalidate() invalidated} (i.e., after a
+ * Station, Sensor, or SensorDef import was merged) or after it is older than {@linkplain
+ * #MaxAgeMillis}.</p>
+ * @author kprins
+ */
+public class SensorCache implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger = Logger.getLogger(SensorCache.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The maximum age of the loaded index (24 hours) - it is reloaded on the next lookup
+   * if older.
+   */
+  public static final long MaxAgeMillis = 24L * 60L * 60L * 1000L;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="SensorCache Singleton">
+  /**
+   * Static class for holding and initiating the SensorCache singleton in.
+   */
+  private static class SensorCacheHolder {
+
+    private static final SensorCache INSTANCE = new SensorCache();
+  }
+
+  /**
+   * Static method for accessing the Singleton
+   * @return SensorCacheHolder.INSTANCE
+   */
+  public static SensorCache getInstance() {
+    return SensorCacheHolder.INSTANCE;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[SensorIndex]">
+  /**
+   * An immutable index of the loaded sensors
+   */
+  private static class SensorIndex {
+
+    /**
+     * The time (in milliseconds) the index was loaded
+     */
+    public final long loadTime;
+    /**
+     * The sensors by sensorId
+     */
+    public final HashMap<Integer, Sensor> bySensorId;
+    /**
+     * The sensors by SensorCache.toKey(stationId, sensorNum, durCode)
+     */
+    public final HashMap<String, Sensor> byStationSensor;
+    /**
+     * The sensors by SensorCache.toKey(null, sensorNum, durCode)
+     */
+    public final HashMap<String, List<Sensor>> bySensorType;
+    /**
+     * The sensors by SensorCache.toKey(stationId) - sorted on sensorNum and durCode
+     */
+    public final HashMap<String, List<Sensor>> byStation;
+
+    /**
+     * Public Constructor - index <tt>sensors</tt>
+     * @param sensors the list of all sensors
+     */
+    public SensorIndex(List<Sensor> sensors) {
+      this.loadTime = System.currentTimeMillis();
+      this.bySensorId = new HashMap<>();
+      this.byStationSensor = new HashMap<>();
+      this.bySensorType = new HashMap<>();
+      this.byStation = new HashMap<>();
+      SensorPK senPk = null;
+      for (Sensor sensor : sensors) {
+        if ((sensor == null) || ((senPk = sensor.getSensorPK()) == null)) {
+          continue;
+        }
+        if (this.bySensorId.put(sensor.getSensorId(), sensor) != null) {
+          logger.log(Level.WARNING, "SensorCache: SensorId[{0}] has multiple Sensors.",
+                  sensor.getSensorId());
+        }
+        this.byStationSensor.put(SensorCache.toKey(senPk.getStationId(),
+                senPk.getSensorNum(), senPk.getDurCode()), sensor);
+        SensorIndex.addTo(this.bySensorType,
+                SensorCache.toKey(null, senPk.getSensorNum(), senPk.getDurCode()), sensor);
+        SensorIndex.addTo(this.byStation, SensorCache.toKey(senPk.getStationId()), sensor);
+      }
+
+      Comparator<Sensor> comparator = new Comparator<Sensor>() {
+
+        @Override
+        public int compare(Sensor o1, Sensor o2) {
+          SensorPK pk1 = o1.getSensorPK();
+          SensorPK pk2 = o2.getSensorPK();
+          int result = Integer.compare(pk1.getSensorNum(), pk2.getSensorNum());
+          if (result == 0) {
+            String code1 = (pk1.getDurCode() == null)? "": pk1.getDurCode();
+            String code2 = (pk2.getDurCode() == null)? "": pk2.getDurCode();
+            result = code1.compareTo(code2);
+          }
+          return result;
+        }
+      };
+      for (List<Sensor> staSensors : this.byStation.values()) {
+        Collections.sort(staSensors, comparator);
+      }
+    }
+
+    /**
+     * Add <tt>sensor</tt> to the list of <tt>key</tt> in <tt>map</tt>
+     */
+    private static void addTo(HashMap<String, List<Sensor>> map, String key,
+                                                                      Sensor sensor) {
+      List<Sensor> sensorList = map.get(key);
+      if (sensorList == null) {
+        sensorList = new ArrayList<>();
+        map.put(key, sensorList);
+      }
+      sensorList.add(sensor);
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The current index (null if not loaded or invalidated)
+   */
+  private volatile SensorIndex index;
+  /**
+   * The lock held while loading the index
+   */
+  private final Object loadLock;
+  /**
+   * The invalidation count - an index loaded while invalidated is not retained
+   */
+  private final AtomicLong generation;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor
+   */
+  private SensorCache() {
+    super();
+    this.index = null;
+    this.loadLock = new Object();
+    this.generation = new AtomicLong();
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get a case-insensitive lookup key (stationId:sensorNum:durCode)
+   * @param stationId the stationId (can be null)
+   * @param sensorNum the sensorNum
+   * @param durCode the duration code (can be null)
+   * @return the key
+   */
+  private static String toKey(String stationId, int sensorNum, String durCode) {
+    return SensorCache.toKey(stationId) + ":" + sensorNum + ":"
+            + SensorCache.toKey(durCode);
+  }
+
+  /**
+   * Get a case-insensitive lookup key of <tt>code</tt>
+   * @param code the code (can be null)
+   * @return the trimmed upper case code or "" if null
+   */
+  private static String toKey(String code) {
+    return (code == null)? "": code.trim().toUpperCase();
+  }
+
+  /**
+   * Get the current index - (re)load it from <tt>facade</tt> if not loaded or stale.
+   * @param facade the facade to load the sensors from
+   * @return the index or null if loading failed.
+   */
+  private SensorIndex getIndex(SensorFacade facade) {
+    SensorIndex result = this.index;
+    if ((result != null) &&
+            ((System.currentTimeMillis() - result.loadTime) < SensorCache.MaxAgeMillis)) {
+      return result;
+    }
+    synchronized (this.loadLock) {
+      result = this.index;
+      if ((result == null) ||
+            ((System.currentTimeMillis() - result.loadTime) >= SensorCache.MaxAgeMillis)) {
+        try {
+          long loadGeneration = this.generation.get();
+          List<Sensor> sensors = (facade == null)? null: facade.findAll();
+          if ((sensors == null) || (sensors.isEmpty())) {
+            throw new Exception("The Sensor records are not accessible or empty.");
+          }
+          result = new SensorIndex(sensors);
+          if (loadGeneration == this.generation.get()) {
+            this.index = result;
+          }
+        } catch (Exception exp) {
+          result = null;
+          logger.log(Level.WARNING, "{0}.getIndex Error:\n {1}",
+                  new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the current index - (re)load it if not loaded or stale.
+   * @param facade the facade to load the sensors from
+   * @return the index
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  private SensorIndex getLoadedIndex(SensorFacade facade) {
+    SensorIndex result = this.getIndex(facade);
+    if (result == null) {
+      throw new IllegalStateException("The Sensor Cache could not be loaded.");
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Called to invalidate the index - it is reloaded on the next lookup
+   */
+  public void invalidate() {
+    this.generation.incrementAndGet();
+    this.index = null;
+  }
+
+  /**
+   * Get whether the index is loaded and current
+   * @return true if loaded
+   */
+  public boolean isLoaded() {
+    SensorIndex curIndex = this.index;
+    return ((curIndex != null) &&
+           ((System.currentTimeMillis() - curIndex.loadTime) < SensorCache.MaxAgeMillis));
+  }
+
+  /**
+   * Called to load the index from <tt>facade</tt> if not loaded or stale.
+   * @param facade the facade to load the sensors from
+   * @return true if the index is loaded; false if loading failed.
+   */
+  public boolean load(SensorFacade facade) {
+    return (this.getIndex(facade) != null);
+  }
+
+  /**
+   * Get the Sensor for <tt>sensorId</tt>
+   * @param facade the facade to load the sensors from (if not loaded)
+   * @param sensorId the sensorId
+   * @return the Sensor or null if not found
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  public Sensor findBySensorId(SensorFacade facade, int sensorId) {
+    return this.getLoadedIndex(facade).bySensorId.get(sensorId);
+  }
+
+  /**
+   * Get the Sensor for (stationId, sensorNum, durCode)
+   * @param facade the facade to load the sensors from (if not loaded)
+   * @param stationId the stationId
+   * @param sensorNum the sensorNum
+   * @param durCode the duration code
+   * @return the Sensor or null if not found
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  public Sensor getStationSensor(SensorFacade facade, String stationId, int sensorNum,
+                                                                      String durCode) {
+    return this.getLoadedIndex(facade).byStationSensor.
+                                  get(SensorCache.toKey(stationId, sensorNum, durCode));
+  }
+
+  /**
+   * Get the Sensors of a sensor type
+   * @param facade the facade to load the sensors from (if not loaded)
+   * @param sensorNum the sensorNum
+   * @param durCode the duration code
+   * @return a new list of sensors (empty if none found)
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  public List<Sensor> getSensorsBySensorType(SensorFacade facade, int sensorNum,
+                                                                      String durCode) {
+    List<Sensor> sensorList = this.getLoadedIndex(facade).bySensorType.
+                                  get(SensorCache.toKey(null, sensorNum, durCode));
+    return (sensorList == null)? new ArrayList<Sensor>(): new ArrayList<>(sensorList);
+  }
+
+  /**
+   * Get the Sensors of a sensor type for a list of stations
+   * @param facade the facade to load the sensors from (if not loaded)
+   * @param stationIds the list of stationIds
+   * @param sensorNum the sensorNum
+   * @param durCode the duration code
+   * @return a new list of sensors (empty if none found)
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  public List<Sensor> getSensorsForStations(SensorFacade facade, List<String> stationIds,
+                                                        int sensorNum, String durCode) {
+    SensorIndex curIndex = this.getLoadedIndex(facade);
+    List<Sensor> result = new ArrayList<>();
+    HashSet<String> staKeys = new HashSet<>();
+    Sensor sensor = null;
+    for (String stationId : stationIds) {
+      String key = SensorCache.toKey(stationId, sensorNum, durCode);
+      if ((staKeys.add(key)) &&
+              ((sensor = curIndex.byStationSensor.get(key)) != null)) {
+        result.add(sensor);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the Sensors of a station
+   * @param facade the facade to load the sensors from (if not loaded)
+   * @param stationId the stationId
+   * @return a new list of sensors - sorted on sensorNum and durCode (empty if none
+   * found)
+   * @throws IllegalStateException if the index could not be loaded
+   */
+  public List<Sensor> getSensorsByStation(SensorFacade facade, String stationId) {
+    List<Sensor> sensorList = this.getLoadedIndex(facade).byStation.
+                                                        get(SensorCache.toKey(stationId));
+    return (sensorList == null)? new ArrayList<Sensor>(): new ArrayList<>(sensorList);
+  }
+
+  //</editor-fold>
+}
@@ -72,5 +72,15 @@ public class SensorDefFacade extends CdecBaseFacade<SensorDef> {
       this.em = em;
     }
   }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: Invalidate the {@linkplain SensorCache}</p>
+   */
+  @Override
+  protected void onMerged() {
+    SensorCache.getInstance().invalidate();
+  }
   //</editor-fold>
 }
@@ -35,7 +35,24 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
   }
   //</editor-fold>
   
-  //<editor-fold defaultstate="collapsed" desc="Custom Queries">
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the loaded {@linkplain SensorCache} - it is loaded (synchronized with the
+   * database queries of this facade) if not loaded or stale.
+   * @return the cache or null if it could not be loaded
+   */
+  private SensorCache getSensorCache() {
+    SensorCache result = SensorCache.getInstance();
+    if (!result.isLoaded()) {
+      synchronized (this) {
+        if (!result.load(this)) {
+          result = null;
+        }
+      }
+    }
+    return result;
+  }
+  
   /**
    * Get the Sensor for the unique sensorId
    * @param sensorId the SensorId to search for
@@ -43,7 +60,7 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
    * @throws IllegalArgumentException is the input parameters are invalid or if multiple 
    * records are returned
    */
-  public synchronized Sensor findBySensorId(Integer sensorId) {
+  private synchronized Sensor queryBySensorId(Integer sensorId) {
     Sensor result = null;
     try {      
       if ((sensorId == null) || (sensorId < 0)) {
@@ -81,8 +98,8 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
    * @throws IllegalArgumentException is the input parameters are invalid or if multiple 
    * records are returned
    */
-  public synchronized Sensor getStationSensor(String stationId, Integer sensorNum, 
-                              DurationCodes durCode)  {
+  private synchronized Sensor queryStationSensor(String stationId, 
+                                              Integer sensorNum, DurationCodes durCode)  {
     Sensor result = null;
     try {
       if ((stationId == null) || (((stationId.trim()).length()) == 0)) {
@@ -131,8 +148,8 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
    * @return the resulting list of sensors.
    * @throws Exception
    */
-  public synchronized List<Sensor> getSensorsBySensorType(Integer sensorNum, DurationCodes durCode)
-          throws Exception {
+  private synchronized List<Sensor> querySensorsBySensorType(Integer sensorNum, 
+                                              DurationCodes durCode) throws Exception {
     List<Sensor> result = null;
     try {
       if ((sensorNum == null) || (sensorNum < 0)) {
@@ -170,8 +187,8 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
    * @param sensorNum Sensor Number (denoting sensor type).
    * @return the SensorPK or null if not found
    */
-  public synchronized List<Sensor> getSensorsForStations(List<String> stationIds, String durCode,
-                                                             int sensorNum) {
+  private synchronized List<Sensor> querySensorsForStations(List<String> stationIds, 
+                                                          String durCode, int sensorNum) {
     List<Sensor> result = null;
     try {
       if ((stationIds == null) || (stationIds.isEmpty())) {
@@ -202,6 +219,125 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
     return result;
   }
     
+  /**
+   * Get a list of Sensor records for the Station[stationId] 
+   * @param stationId the StationId to to search for
+   * @return the list of sensors or null | empty if not found
+   */
+  private synchronized List<Sensor> querySensorsByStation(String stationId) {
+    List<Sensor> result = null;
+    try {
+      if ((stationId = ImportUtils.cleanString(stationId)) != null) {
+        EntityManager myEm = this.getEntityManager();
+        Query qry = myEm.createNamedQuery("Sensor.findByStationId");
+        if (qry == null) {
+          throw new Exception("Unable to access NamedQuery[Sensor.findByStationId]");
+        }
+
+        /* Asign the Query Parameters */
+        qry.setParameter("stationId", stationId);
+
+        result = qry.getResultList();
+      }
+    } catch (Exception exp) {
+      result = null;
+      logger.log(Level.WARNING, "{0}.getSensorsForStations Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
+    return result;
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Custom Queries">
+  /**
+   * Get the Sensor for the unique sensorId. It is resolved from the {@linkplain 
+   * SensorCache} and only queried from the database if the cache is not accessible.
+   * @param sensorId the SensorId to search for
+   * @return the sensor or null if not found
+   * @throws IllegalArgumentException is the input parameters are invalid or if multiple 
+   * records are returned
+   */
+  public Sensor findBySensorId(Integer sensorId) {
+    SensorCache cache = null;
+    if ((sensorId != null) && (sensorId >= 0) &&
+            ((cache = this.getSensorCache()) != null)) {
+      return cache.findBySensorId(this, sensorId);
+    }
+    return this.queryBySensorId(sensorId);
+  }
+  
+  /**
+   * Get the Sensor for the unique StationId, SensorNum and Duration Codes primary key.
+   * It is resolved from the {@linkplain SensorCache} and only queried from the database
+   * if the cache is not accessible.
+   * @param sationId the CDEC StationId
+   * @param sensorNum the SensorNum to search for
+   * @param durCode the Duration Code to search for
+   * @return the sensor record or null if not found.
+   * @throws IllegalArgumentException is the input parameters are invalid or if multiple 
+   * records are returned
+   */
+  public Sensor getStationSensor(String stationId, Integer sensorNum, 
+                              DurationCodes durCode)  {
+    SensorCache cache = null;
+    if ((ImportUtils.cleanString(stationId) != null) && (sensorNum != null) && 
+            (sensorNum >= 0) && (durCode != null) &&
+            ((cache = this.getSensorCache()) != null)) {
+      return cache.getStationSensor(this, stationId, sensorNum, durCode.toString());
+    }
+    return this.queryStationSensor(stationId, sensorNum, durCode);
+  }
+  
+  /**
+   * Return a list of Sensors with matching SensorNum and Duration Codes. It is resolved
+   * from the {@linkplain SensorCache} and only queried from the database if the cache
+   * is not accessible.
+   * @param sensorNum the SensorNum to search for
+   * @param durCode the Duration Code to search for
+   * @return the resulting list of sensors.
+   * @throws Exception
+   */
+  public List<Sensor> getSensorsBySensorType(Integer sensorNum, DurationCodes durCode)
+          throws Exception {
+    SensorCache cache = null;
+    if ((sensorNum != null) && (sensorNum >= 0) && (durCode != null) &&
+            ((cache = this.getSensorCache()) != null)) {
+      return cache.getSensorsBySensorType(this, sensorNum, durCode.toString());
+    }
+    return this.querySensorsBySensorType(sensorNum, durCode);
+  }
+  
+  /**
+   * Get a list of Sensor records for the specified stationIds, durationCode and
+   * sensorNum. It is resolved from the {@linkplain SensorCache} and only queried from
+   * the database if the cache is not accessible.
+   * @param stationIds List of StationIds to return sensor info for
+   * @param durCode Duration code (H,D,M,Y...).
+   * @param sensorNum Sensor Number (denoting sensor type).
+   * @return the list of sensors or null if none found or an error occurred.
+   */
+  public List<Sensor> getSensorsForStations(List<String> stationIds, String durCode,
+                                                             int sensorNum) {
+    SensorCache cache = null;
+    if ((stationIds != null) && (!stationIds.isEmpty()) &&
+            ((cache = this.getSensorCache()) != null)) {
+      List<Sensor> result = null;
+      try {
+        result = cache.getSensorsForStations(this, stationIds, sensorNum, durCode);
+        if (result.isEmpty()) {
+          throw new Exception("The Sensor Cache has no Sensors[" + sensorNum + ", "
+                  + durCode + "] for Stations" + stationIds.toString() + ".");
+        }
+      } catch (Exception exp) {
+        result = null;
+        logger.log(Level.WARNING, "{0}.getSensorsForStations Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      }
+      return result;
+    }
+    return this.querySensorsForStations(stationIds, durCode, sensorNum);
+  }
+    
   /**
    * Get a list of CdecSensorInfo definitions for the specified sensorType and stationIds 
    * and SesnoroType. If <tt>stationIds</tt> = null|empty it will return all the sensors
@@ -211,7 +347,7 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
    * @param stationIds List of StationIds to return sensor info for
    * @return the SensorPK or null if not found
    */
-  public synchronized List<CdecSensorInfo> getSensorInfos(CdecSensorTypes sensorType, 
+  public List<CdecSensorInfo> getSensorInfos(CdecSensorTypes sensorType, 
                                                               String...stationIds) {
     List<CdecSensorInfo> result = null;
     try {
@@ -253,31 +389,27 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
   }
       
   /**
-   * Get a list of Sensor records for the Station[stationId] 
+   * Get a list of Sensor records for the Station[stationId]. It is resolved from the
+   * {@linkplain SensorCache} and only queried from the database if the cache is not
+   * accessible.
    * @param stationId the StationId to to search for
    * @return the list of sensors or null | empty if not found
    */
-  public synchronized List<Sensor> getSensorsByStation(String stationId) {
-    List<Sensor> result = null;
-    try {
-      if ((stationId = ImportUtils.cleanString(stationId)) != null) {
-        EntityManager myEm = this.getEntityManager();
-        Query qry = myEm.createNamedQuery("Sensor.findByStationId");
-        if (qry == null) {
-          throw new Exception("Unable to access NamedQuery[Sensor.findByStationId]");
-        }
-
-        /* Asign the Query Parameters */
-        qry.setParameter("stationId", stationId);
-
-        result = qry.getResultList();
+  public List<Sensor> getSensorsByStation(String stationId) {
+    SensorCache cache = null;
+    if (((stationId = ImportUtils.cleanString(stationId)) != null) &&
+            ((cache = this.getSensorCache()) != null)) {
+      List<Sensor> result = null;
+      try {
+        result = cache.getSensorsByStation(this, stationId);
+      } catch (Exception exp) {
+        result = null;
+        logger.log(Level.WARNING, "{0}.getSensorsByStation Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
       }
-    } catch (Exception exp) {
-      result = null;
-      logger.log(Level.WARNING, "{0}.getSensorsForStations Error:\n {1}",
-              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      return result;
     }
-    return result;
+    return this.querySensorsByStation(stationId);
   }
 //</editor-fold>
   
@@ -324,5 +456,15 @@ public class SensorFacade extends CdecBaseFacade<Sensor> {
       this.em = em;
     }
   }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: Invalidate the {@linkplain SensorCache}</p>
+   */
+  @Override
+  protected void onMerged() {
+    SensorCache.getInstance().invalidate();
+  }
   //</editor-fold>
 }
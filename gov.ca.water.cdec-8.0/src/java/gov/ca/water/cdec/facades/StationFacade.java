@@ -165,5 +165,15 @@ public class StationFacade extends CdecBaseFacade<Station> {
       this.em = em;
     }
   }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: Invalidate the {@linkplain SensorCache}</p>
+   */
+  @Override
+  protected void onMerged() {
+    SensorCache.getInstance().invalidate();
+  }
   //</editor-fold>
 }
@@ -1,9 +1,23 @@
 package gov.ca.water.cdec.facades;
 
+import gov.ca.water.cdec.core.QueryResultCache;
+import gov.ca.water.cdec.core.QueryResultCache.QueryKey;
+import gov.ca.water.cdec.core.SensorWyRollup;
 import gov.ca.water.cdec.core.TimeSeriesMap;
 import gov.ca.water.cdec.core.TimeStepKey;
+import gov.ca.water.cdec.core.WyRollupTable;
 import java.io.Serializable;
-import java.util.Date;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
 
 /**
  *
@@ -14,15 +28,666 @@ public abstract class TimeSeriesFacade<TBean extends Serializable,
                                     TMap extends TimeSeriesMap<TBean, TStepKey>>
                                   extends CdecBaseFacade<TBean> {
   
+  // <editor-fold defaultstate="collapsed" desc="Public Static Field(s)">
+  /**
+   * The default number of rows per JDBC batch (500).
+   */
+  public static final int DefaultBatchSize = 500;
+  /**
+   * The number of sensor lock stripes (64).
+   */
+  public static final int SensorLockStripes = 64;
+  /**
+   * The maximum number of sensorIds per IN-list of a sensor query (500).
+   */
+  public static final int MaxInListSize = 500;
+  // </editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Private Static Fields">
+  /**
+   * The materialized water year rollup tables by table name
+   */
+  private static final ConcurrentHashMap<String, WyRollupTable> rollupTables = 
+                                                              new ConcurrentHashMap<>();
+  /**
+   * The query result caches by table name
+   */
+  private static final ConcurrentHashMap<String, QueryResultCache> queryCaches = 
+                                                              new ConcurrentHashMap<>();
+  /**
+   * The striped locks used to serialize the merges of the same sensor - shared by all
+   * facade instances because the container pools the (stateless) facades.
+   */
+  private static final Object[] sensorLocks = new Object[SensorLockStripes];
+  static {
+    for (int iLock = 0; iLock < SensorLockStripes; iLock++) {
+      sensorLocks[iLock] = new Object();
+    }
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The number of rows per JDBC batch (null = {@linkplain #DefaultBatchSize};
+   * 0 = batch writes disabled)
+   */
+  private Integer batchSize;
+  /**
+   * The EntityManager bound to the current merge thread (if any)
+   */
+  private final transient ThreadLocal<EntityManager> threadEm;
+  //</editor-fold>
+  
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
    * Public Constructor
    */
   public TimeSeriesFacade(Class<TBean> entityClass) {
     super(entityClass);  
+    this.batchSize = null;
+    this.threadEm = new ThreadLocal<>();
   }
   // </editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Thread Merge Methods">
+  /**
+   * Get the lock used to serialize the merges of the sensor with <tt>sensorId</tt>.
+   * Merges of sensors assigned to different stripes can proceed in parallel - each on
+   * its own thread-bound EntityManager (see {@linkplain #bindThreadEntityManager() 
+   * bindThreadEntityManager}).
+   * @param sensorId the sensor's ID
+   * @return the lock object
+   */
+  protected final Object getSensorLock(int sensorId) {
+    return sensorLocks[(sensorId & Integer.MAX_VALUE) % SensorLockStripes];
+  }
+  
+  /**
+   * Get the EntityManager bound to the current thread by a merge in progress. 
+   * Inheritors' {@linkplain #getEntityManager() getEntityManager} must return this
+   * EntityManager if assigned.
+   * @return the bound EntityManager or null if no merge is in progress on the thread.
+   */
+  protected final EntityManager getThreadEntityManager() {
+    return this.threadEm.get();
+  }
+  
+  /**
+   * Called to bind a new EntityManager - created from the facade's 
+   * EntityManagerFactory - to the current thread so that concurrent merges do not share
+   * the facade's EntityManager. If {@linkplain #doUseJTA() this.doUseJTA}, the new
+   * EntityManager joins the thread's active JTA transaction (i.e., the container
+   * transaction of the facade's business method) and its changes are committed with
+   * that transaction. Ignored if an EntityManager is already bound to the thread.
+   * @return true if an EntityManager was bound and must be released by calling 
+   * {@linkplain #releaseThreadEntityManager() releaseThreadEntityManager}; false if 
+   * the merge must use the facade's EntityManager (e.g., no JTA transaction is active).
+   */
+  private boolean bindThreadEntityManager() {
+    boolean result = false;
+    if (this.threadEm.get() == null) {
+      EntityManager mergeEm = null;
+      try {
+        EntityManager sharedEm = this.getEntityManager();
+        EntityManagerFactory factory = null;
+        if ((sharedEm != null) && 
+            ((factory = sharedEm.getEntityManagerFactory()) != null) &&
+            ((mergeEm = factory.createEntityManager()) != null)) {
+          if (this.doUseJTA()) {
+            mergeEm.joinTransaction();
+          }
+          this.threadEm.set(mergeEm);
+          result = true;
+        }
+      } catch (Exception exp) {
+        if ((mergeEm != null) && (mergeEm.isOpen())) {
+          mergeEm.close();
+        }
+        logger.log(Level.FINE, "{0}.bindThreadEntityManager: The merge uses the facade's "
+                + "EntityManager because:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Called to close and remove the EntityManager bound to the current thread by
+   * {@linkplain #bindThreadEntityManager() bindThreadEntityManager}. A JTA 
+   * EntityManager's changes remain managed until its transaction completes.
+   */
+  private void releaseThreadEntityManager() {
+    EntityManager mergeEm = this.threadEm.get();
+    this.threadEm.remove();
+    if ((mergeEm != null) && (mergeEm.isOpen())) {
+      try {
+        mergeEm.close();
+      } catch (Exception exp) {
+        logger.log(Level.WARNING, "{0}.releaseThreadEntityManager Error:\n {1}",
+                new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+      }
+    }
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Batch Write Methods">
+  /**
+   * Get the number of rows per JDBC batch
+   * @return the assigned value (default = {@linkplain #DefaultBatchSize}; 0 if batch
+   * writes are disabled)
+   */
+  public int getBatchSize() {
+    return (this.batchSize == null)? DefaultBatchSize: this.batchSize;
+  }
+  
+  /**
+   * Set the number of rows per JDBC batch.
+   * @param batchSize the new size (null|&lt; 0 to reset to the default; 0 to disable
+   * batch writes and insert/update the records one entity at a time through the 
+   * EntityManager)
+   */
+  public void setBatchSize(Integer batchSize) {
+    this.batchSize = ((batchSize == null) || (batchSize < 0))? null: batchSize;
+  }
+  
+  /**
+   * Get whether inserts and updates are written in JDBC batches.
+   * @return (this.batchSize &gt; 0)
+   */
+  public boolean doBatchWrite() {
+    return (this.getBatchSize() > 0);
+  }
+  
+  /**
+   * Called to convert <tt>date</tt> to a JDBC date or timestamp
+   * @param date the date to convert (can be null)
+   * @param dateType the column's TemporalType
+   * @return a java.sql.Timestamp if dateType=TIMESTAMP, else a java.sql.Date (null if
+   * date = null).
+   */
+  private static Date toSqlDate(Date date, TemporalType dateType) {
+    Date result = null;
+    if (date != null) {
+      result = (TemporalType.TIMESTAMP.equals(dateType))? 
+              new Timestamp(date.getTime()): new java.sql.Date(date.getTime());
+    }
+    return result;
+  }
+  
+  /**
+   * Get the INSERT statement for the facade's table. Parameter order: SENSOR_ID, 
+   * [ActualDateColumn], [OBS_DATE], VALUE, DATA_FLAG.
+   * @return the SQL statement
+   */
+  protected String getBatchInsertSql() {
+    String result = "INSERT INTO " + this.getTableName() + " (SENSOR_ID, " 
+            + this.getActualDateColumn();
+    String values = "?, ?";
+    if (this.hasObsDateColumn()) {
+      result += ", OBS_DATE";
+      values += ", ?";
+    }
+    result += ", VALUE, DATA_FLAG) VALUES (" + values + ", ?, ?)";
+    return result;
+  }
+  
+  /**
+   * Get the UPDATE statement for the facade's table. Parameter order: [OBS_DATE], 
+   * VALUE, DATA_FLAG, SENSOR_ID, [ActualDateColumn].
+   * @return the SQL statement
+   */
+  protected String getBatchUpdateSql() {
+    String result = "UPDATE " + this.getTableName() + " SET ";
+    if (this.hasObsDateColumn()) {
+      result += "OBS_DATE = ?, ";
+    }
+    result += "VALUE = ?, DATA_FLAG = ? WHERE SENSOR_ID = ? AND " 
+            + this.getActualDateColumn() + " = ?";
+    return result;
+  }
+  
+  /**
+   * Called to assign the parameters of the insert or update statement for the record
+   * at <tt>recIndex</tt> - read directly from the map's primitive values.
+   * @param stmt the prepared statement
+   * @param recMap the TimeSeriesMap containing the record
+   * @param recIndex the record's index in recMap
+   * @param doInsert true to assign the INSERT parameters; false for UPDATE.
+   * @throws Exception if assigning the parameters failed.
+   */
+  private void setBatchParameters(PreparedStatement stmt, TMap recMap, int recIndex,
+                                                    boolean doInsert) throws Exception {
+    TemporalType dateType = this.getActualDateType();
+    int sensorId = recMap.sensorId;
+    Date actualDt = TimeSeriesFacade.toSqlDate(recMap.getActualDate(recIndex), 
+                                                                        dateType);
+    double obsValue = recMap.getObsValue(recIndex);
+    String dataFlag = recMap.getDataFlag(recIndex);
+    int index = 1;
+    if (doInsert) {
+      stmt.setInt(index++, sensorId);
+      stmt.setObject(index++, actualDt);
+    }
+    if (this.hasObsDateColumn()) {
+      long obsTime = recMap.getObsTime(recIndex);
+      if (obsTime == TimeSeriesMap.NoObsTime) {
+        stmt.setNull(index++, Types.DATE);
+      } else {
+        stmt.setObject(index++, new java.sql.Date(obsTime));
+      }
+    }
+    if (Double.isNaN(obsValue)) {
+      stmt.setNull(index++, Types.DOUBLE);
+    } else {
+      stmt.setDouble(index++, obsValue);
+    }
+    if (dataFlag == null) {
+      stmt.setNull(index++, Types.VARCHAR);
+    } else {
+      stmt.setString(index++, dataFlag);
+    }
+    if (!doInsert) {
+      stmt.setInt(index++, sensorId);
+      stmt.setObject(index++, actualDt);
+    }
+  }
+  
+  /**
+   * Called to write the records in <tt>recMap</tt> in JDBC batches of {@linkplain 
+   * #getBatchSize() this.batchSize} rows, using the JDBC Connection of the facade's
+   * EntityManager. This must be called within the transaction started by the caller.
+   * <p>The batches' update counts are checked: an UPDATE that matched no row (e.g., 
+   * the record's key changed) is written through the EntityManager ({@linkplain 
+   * #edit(java.io.Serializable) edit}) after the batches are executed, and an INSERT 
+   * that inserted no row fails the write.</p>
+   * @param recMap the TimeSeriesMap containing the records to write
+   * @param doInsert true to insert the records; false to update the records.
+   * @return false if the EntityManager's JDBC Connection is not accessible - the 
+   * caller should then write the records through the EntityManager.
+   * @throws Exception if the batch execution failed.
+   */
+  protected boolean batchWriteRecords(TMap recMap, boolean doInsert) throws Exception {
+    Connection conn = null;
+    try {
+      EntityManager entMngr = this.getEntityManager();
+      conn = (entMngr == null)? null: entMngr.unwrap(Connection.class);
+    } catch (Exception exp) {
+      conn = null;
+    }
+    if (conn == null) {
+      logger.log(Level.FINE, "{0}.batchWriteRecords: The JDBC Connection is not "
+              + "accessible. Write records through the EntityManager.", 
+              this.getClass().getSimpleName());
+      return false;
+    }
+    
+    int maxBatch = this.getBatchSize();
+    int batchCnt = 0;
+    List<Integer> missedRecs = new ArrayList<>();
+    PreparedStatement stmt = null;
+    try {
+      stmt = conn.prepareStatement((doInsert)? this.getBatchInsertSql():
+                                               this.getBatchUpdateSql());
+      int numRecs = recMap.size();
+      for (int iRec = 0; iRec < numRecs; iRec++) {
+        this.setBatchParameters(stmt, recMap, iRec, doInsert);
+        stmt.addBatch();
+        batchCnt++;
+        if (batchCnt >= maxBatch) {
+          TimeSeriesFacade.checkBatchCounts(stmt.executeBatch(), iRec + 1 - batchCnt, 
+                                                                          missedRecs);
+          batchCnt = 0;
+        }
+      }
+      if (batchCnt > 0) {
+        TimeSeriesFacade.checkBatchCounts(stmt.executeBatch(), numRecs - batchCnt, 
+                                                                          missedRecs);
+      }
+    } finally {
+      if (stmt != null) {
+        stmt.close();
+      }
+    }
+    
+    if (!missedRecs.isEmpty()) {
+      if (doInsert) {
+        throw new Exception("The batch insert of " + missedRecs.size() + " record(s) "
+                + "of Sensor[" + recMap.sensorId + "] inserted no rows.");
+      }
+      logger.log(Level.FINE, "{0}.batchWriteRecords: {1} update(s) matched no rows. "
+              + "Write the records through the EntityManager.", 
+              new Object[]{this.getClass().getSimpleName(), missedRecs.size()});
+      for (Integer recIndex : missedRecs) {
+        this.edit(recMap.toRecord(recIndex));
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * Called to add the record indices of the statements in an executed batch that 
+   * affected no rows to <tt>missedRecs</tt>. Counts of SUCCESS_NO_INFO are assumed
+   * successful.
+   * @param counts the batch's update counts
+   * @param firstRec the record index of the batch's first statement
+   * @param missedRecs the list of missed record indices
+   */
+  private static void checkBatchCounts(int[] counts, int firstRec, 
+                                                            List<Integer> missedRecs) {
+    if (counts == null) {
+      return;
+    }
+    for (int iCnt = 0; iCnt < counts.length; iCnt++) {
+      if (counts[iCnt] == 0) {
+        missedRecs.add(firstRec + iCnt);
+      }
+    }
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Period-of-Record Methods">
+  /**
+   * Get the actual date of the last stored observation (i.e., the last record with a
+   * value) for each of the specified sensors. This is a grouped form of the entities'
+   * PORDates query that resolves the dates of up to {@linkplain #MaxInListSize} sensors
+   * in a single query. All errors are trapped and logged.
+   * @param sensorIds the sensorIds of interest
+   * @return a map of the last observation dates by sensorId (sensors without stored 
+   * values are not included).
+   */
+  public HashMap<Integer, Date> getLastObsDates(Collection<Integer> sensorIds) {
+    HashMap<Integer, Date> result = new HashMap<>();
+    if ((sensorIds == null) || (sensorIds.isEmpty())) {
+      return result;
+    }
+    try {
+      EntityManager myEm = this.getEntityManager();
+      List<Integer> idList = new ArrayList<>(sensorIds);
+      String dateCol = this.getActualDateColumn();
+      for (int iStart = 0; iStart < idList.size(); iStart += MaxInListSize) {
+        List<Integer> subList = 
+                idList.subList(iStart, Math.min(iStart + MaxInListSize, idList.size()));
+        StringBuilder sql = new StringBuilder("SELECT SENSOR_ID, MAX(");
+        sql.append(dateCol).append(") FROM ").append(this.getTableName())
+           .append(" WHERE VALUE IS NOT NULL AND SENSOR_ID IN (");
+        for (int iId = 0; iId < subList.size(); iId++) {
+          sql.append((iId == 0)? "?": ", ?");
+        }
+        sql.append(") GROUP BY SENSOR_ID");
+        
+        Query qry = myEm.createNativeQuery(sql.toString());
+        for (int iId = 0; iId < subList.size(); iId++) {
+          qry.setParameter(iId + 1, subList.get(iId));
+        }
+        
+        List<Object[]> qryResult = qry.getResultList();
+        if (qryResult == null) {
+          continue;
+        }
+        for (Object[] objArr : qryResult) {
+          if ((objArr != null) && (objArr.length == 2) && 
+                  (objArr[0] instanceof Number) && (objArr[1] instanceof Date)) {
+            result.put(((Number) objArr[0]).intValue(), 
+                                      new Date(((Date) objArr[1]).getTime()));
+          }
+        }
+      }
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.getLastObsDates Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
+    return result;
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Water Year Rollup Methods">
+  /**
+   * Get the facade table's materialized {@linkplain WyRollupTable} - shared by all
+   * instances of the facade. The table resolves the records' months in the default 
+   * TimeZone - the TimeZone of the dates read through JDBC and the TimeSeriesMaps.
+   * @return the table or null if not {@linkplain #doRollup() this.doRollup}.
+   */
+  protected final WyRollupTable getRollupTable() {
+    WyRollupTable result = null;
+    if (this.doRollup()) {
+      String tableName = this.getTableName();
+      if ((result = TimeSeriesFacade.rollupTables.get(tableName)) == null) {
+        WyRollupTable newTable = new WyRollupTable(null);
+        result = TimeSeriesFacade.rollupTables.putIfAbsent(tableName, newTable);
+        result = (result == null)? newTable: result;
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Get the monthly totals of the specified sensors for a water year. The totals are
+   * read from the facade's {@linkplain #getRollupTable() rollup table}; only the 
+   * rollups not yet retained are loaded from the database (in a single query per
+   * {@linkplain #MaxInListSize} sensors) and retained for subsequent calls. If not
+   * {@linkplain #doRollup() this.doRollup}, the rollups are loaded on each call. 
+   * All errors are trapped and logged.
+   * @param waterYear the water year
+   * @param sensorIds the sensorIds of interest
+   * @return the rollups by sensorId (a sensor without records has an empty rollup) or
+   * an empty map if an error occurred.
+   */
+  public HashMap<Integer, SensorWyRollup> getWyRollups(int waterYear, 
+                                                          Collection<Integer> sensorIds) {
+    HashMap<Integer, SensorWyRollup> result = new HashMap<>();
+    if ((sensorIds == null) || (sensorIds.isEmpty())) {
+      return result;
+    }
+    try {
+      WyRollupTable rollupTable = this.getRollupTable();
+      List<Integer> loadIds = new ArrayList<>();
+      SensorWyRollup rollup = null;
+      for (Integer sensorId : sensorIds) {
+        if ((sensorId == null) || (result.containsKey(sensorId))) {
+          continue;
+        }
+        if ((rollupTable != null) &&
+                ((rollup = rollupTable.get(sensorId, waterYear)) != null)) {
+          result.put(sensorId, rollup);
+        } else if (!loadIds.contains(sensorId)) {
+          loadIds.add(sensorId);
+        }
+      }
+      
+      if (!loadIds.isEmpty()) {
+        WyRollupTable loadTable = (rollupTable == null)? 
+                          new WyRollupTable(null): rollupTable;
+        long loadStamp = loadTable.getStamp();
+        for (SensorWyRollup loaded : this.loadWyRollups(loadTable, waterYear, loadIds)) {
+          result.put(loaded.sensorId, loaded);
+          if (rollupTable != null) {
+            rollupTable.putLoaded(loaded, loadStamp);
+          }
+        }
+      }
+    } catch (Exception exp) {
+      result.clear();
+      logger.log(Level.WARNING, "{0}.getWyRollups Error:\n {1}",
+              new Object[]{this.getClass().getSimpleName(), exp.getMessage()});
+    }
+    return result;
+  }
+  
+  /**
+   * Called by {@linkplain #getWyRollups(int, java.util.Collection) getWyRollups} to 
+   * load the rollups of the specified sensors from the water year's records.
+   * @param rollupTable the table used to resolve the records' water year month
+   * @param waterYear the water year
+   * @param sensorIds the sensorIds to load
+   * @return the loaded rollups (one per sensorId)
+   * @throws Exception if the query failed
+   */
+  private List<SensorWyRollup> loadWyRollups(WyRollupTable rollupTable, int waterYear,
+                                              List<Integer> sensorIds) throws Exception {
+    HashMap<Integer, SensorWyRollup> rollupMap = new HashMap<>();
+    for (Integer sensorId : sensorIds) {
+      rollupMap.put(sensorId, new SensorWyRollup(sensorId, waterYear));
+    }
+    
+    EntityManager myEm = this.getEntityManager();
+    TemporalType dateType = this.getActualDateType();
+    Date startDt = TimeSeriesFacade.toSqlDate(rollupTable.getWyStartDate(waterYear),
+                                                                          dateType);
+    Date endDt = TimeSeriesFacade.toSqlDate(rollupTable.getWyStartDate(waterYear + 1),
+                                                                          dateType);
+    String dateCol = this.getActualDateColumn();
+    for (int iStart = 0; iStart < sensorIds.size(); iStart += MaxInListSize) {
+      List<Integer> subList = sensorIds.subList(iStart, 
+                                    Math.min(iStart + MaxInListSize, sensorIds.size()));
+      StringBuilder sql = new StringBuilder("SELECT SENSOR_ID, ");
+      sql.append(dateCol).append(", VALUE FROM ").append(this.getTableName())
+         .append(" WHERE ").append(dateCol).append(" >= ? AND ").append(dateCol)
+         .append(" < ? AND SENSOR_ID IN (");
+      for (int iId = 0; iId < subList.size(); iId++) {
+        sql.append((iId == 0)? "?": ", ?");
+      }
+      sql.append(")");
+      
+      Query qry = myEm.createNativeQuery(sql.toString());
+      qry.setParameter(1, startDt);
+      qry.setParameter(2, endDt);
+      for (int iId = 0; iId < subList.size(); iId++) {
+        qry.setParameter(iId + 3, subList.get(iId));
+      }
+      
+      List<Object[]> qryResult = qry.getResultList();
+      if (qryResult == null) {
+        continue;
+      }
+      SensorWyRollup rollup = null;
+      for (Object[] objArr : qryResult) {
+        if ((objArr != null) && (objArr.length == 3) && 
+                (objArr[0] instanceof Number) && (objArr[1] instanceof Date) &&
+                ((rollup = rollupMap.get(((Number) objArr[0]).intValue())) != null)) {
+          double value = (objArr[2] instanceof Number)? 
+                                        ((Number) objArr[2]).doubleValue(): Double.NaN;
+          rollupTable.addLoaded(rollup, ((Date) objArr[1]).getTime(), value);
+        }
+      }
+    }
+    return new ArrayList<>(rollupMap.values());
+  }
+  
+  /**
+   * CAN OVERRIDE: Get whether the facade maintains a materialized {@linkplain 
+   * #getRollupTable() water year rollup table} of its table's monthly totals. 
+   * <p>The base method returns false</p>
+   * @return true to maintain the rollups
+   */
+  protected boolean doRollup() {
+    return false;
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Query Result Cache Methods">
+  /**
+   * Get the facade table's {@linkplain QueryResultCache} - shared by all instances of
+   * the facade. Inheritors use it to cache the results of repeated queries between 
+   * merges (see {@linkplain #getCachedResult(gov.ca.water.cdec.core.QueryResultCache.
+   * QueryKey, java.lang.Class) getCachedResult}). 
+   * @return the cache
+   */
+  protected final QueryResultCache getQueryCache() {
+    String tableName = this.getTableName();
+    QueryResultCache result = TimeSeriesFacade.queryCaches.get(tableName);
+    if (result == null) {
+      QueryResultCache newCache = new QueryResultCache(null);
+      result = TimeSeriesFacade.queryCaches.putIfAbsent(tableName, newCache);
+      result = (result == null)? newCache: result;
+    }
+    return result;
+  }
+  
+  /**
+   * Get a cached query result. The result is shared - callers must return a copy if 
+   * the result is mutable.
+   * @param <TResult> the result type
+   * @param key the query key
+   * @param resultClass the result's class
+   * @return the cached result or null if not cached.
+   */
+  protected final <TResult> TResult getCachedResult(QueryKey key, 
+                                                          Class<TResult> resultClass) {
+    return this.getQueryCache().get(key, resultClass);
+  }
+  
+  /**
+   * Called to cache a query result (ignored if null). The <tt>loadStamp</tt> must be 
+   * retrieved from {@linkplain #getQueryCache() this.queryCache}.getStamp() before the
+   * query is executed.
+   * @param key the query key
+   * @param result the query result
+   * @param loadStamp the cache's stamp before the query was executed
+   */
+  protected final void putCachedResult(QueryKey key, Object result, long loadStamp) {
+    this.getQueryCache().put(key, result, loadStamp);
+  }
+  
+  /**
+   * Called to remove all the facade table's cached query results.
+   */
+  public void clearQueryCache() {
+    this.getQueryCache().clear();
+  }
+  //</editor-fold>
+  
+  //<editor-fold defaultstate="collapsed" desc="Table Change Methods">
+  /**
+   * Called before a change to the table's records is written - no rollups or query 
+   * results loaded while the change is in progress will be retained.
+   */
+  private void beginTableChange() {
+    WyRollupTable rollupTable = this.getRollupTable();
+    if (rollupTable != null) {
+      rollupTable.beginChange();
+    }
+    this.getQueryCache().beginChange();
+  }
+  
+  /**
+   * Called after a change to the table's records is written (or failed) to invalidate
+   * the affected cached query results and to apply the change to the water year rollups.
+   * If <tt>localMap</tt> = null, the records' prior values are unknown and their 
+   * rollups are invalidated.
+   * @param updateMap the updated records (can be null)
+   * @param localMap the updated records' prior values (null if unknown)
+   * @param insertMap the inserted records (can be null)
+   */
+  private void endTableChange(TMap updateMap, TMap localMap, TMap insertMap) {
+    QueryResultCache queryCache = this.getQueryCache();
+    try {
+      for (TMap recMap : Arrays.asList(updateMap, insertMap)) {
+        TimeSeriesMap.DateRange dtRange = null;
+        if ((recMap != null) && (!(dtRange = recMap.getDateRange()).isEmpty())) {
+          queryCache.invalidate(recMap.sensorId, dtRange.getStartDate(), 
+                                                                  dtRange.getEndDate());
+        }
+      }
+    } finally {
+      queryCache.endChange();
+    }
+    
+    WyRollupTable rollupTable = this.getRollupTable();
+    if (rollupTable != null) {
+      try {
+        if (localMap != null) {
+          rollupTable.applyMerge(updateMap, localMap, insertMap);
+        } else {
+          rollupTable.invalidate(updateMap);
+          rollupTable.invalidate(insertMap);
+        }
+      } finally {
+        rollupTable.endChange();
+      }
+    }
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="collapsed" desc="Public Sync Methods">
   /**
    * Called to do a merge of the records in <tt>mergeMap</tt> with the records in the
@@ -30,15 +695,50 @@ public abstract class TimeSeriesFacade<TBean extends Serializable,
    * obsValues differ, then mergeMap record is used to update the local record. If the
    * record does not exist in local database, it will be inserted. Both the insert and
    * update is done in a batch transaction.
+   * <p>Merges of the same sensor are serialized by the {@linkplain #getSensorLock(int)
+   * sensor's lock}, while merges of other sensors proceed in parallel - each on its
+   * own thread-bound EntityManager. If no EntityManager can be bound to the thread, 
+   * the merge is also serialized on the facade's shared EntityManager.</p>
+   * <p>If {@linkplain #doRollup() this.doRollup}, the inserted and updated records are
+   * applied to the retained water year rollups. The cached query results of the 
+   * sensor's changed period are invalidated.</p>
    * @param mergeMap the TimeSeriesMap containing the data to merge
    * @throws Exception if the mergeMap's dataRange is empty or retrieving the local data
    * failed.
    */
-  public synchronized void mergeRecords(TMap mergeMap) throws Exception {
+  public void mergeRecords(TMap mergeMap) throws Exception {
     if ((mergeMap == null) || (mergeMap.isEmpty())) {
       return;
     }
     
+    synchronized (this.getSensorLock(mergeMap.sensorId)) {
+      boolean bound = this.bindThreadEntityManager();
+      try {
+        if (this.getThreadEntityManager() != null) {
+          this.onMergeRecords(mergeMap);
+        } else {
+          synchronized (this) {
+            this.onMergeRecords(mergeMap);
+          }
+        }
+      } finally {
+        if (bound) {
+          this.releaseThreadEntityManager();
+        }
+      }
+    }
+  }
+  
+  /**
+   * Called by {@linkplain #mergeRecords(gov.ca.water.cdec.core.TimeSeriesMap) 
+   * this.mergeRecords} to compare the mergeMap with the local data and to update and
+   * insert the changed and new records. The records are compared on the maps' 
+   * primitive values - records that are unchanged are never initiated as entities.
+   * @param mergeMap the TimeSeriesMap containing the data to merge
+   * @throws Exception if the mergeMap's dataRange is empty or retrieving the local data
+   * failed.
+   */
+  private void onMergeRecords(TMap mergeMap) throws Exception {
     TimeSeriesMap.DateRange dtRange = mergeMap.getDateRange();
     if (dtRange.isEmpty()) {
       throw new NullPointerException("The MergeMap's DateRange is empty.");
@@ -53,59 +753,86 @@ public abstract class TimeSeriesFacade<TBean extends Serializable,
     
     TMap updateMap = (TMap) mergeMap.cloneInstance();
     TMap insertMap = (TMap) mergeMap.cloneInstance();
-    TBean localRec = null;
-    for (TBean importRec : mergeMap.getRecords()) {
-      Date recDt = mergeMap.getRecordActualDt(importRec);
-      if ((localRec = localData.getData(recDt)) == null) {
-        insertMap.add(importRec);
-      } else {
-        boolean addUpdate = false;
-        Double impVal = mergeMap.getRecordObsValue(importRec);
-        Double locVal = mergeMap.getRecordObsValue(localRec);
-        if (((impVal != null) && (locVal == null)) ||
-            ((impVal == null) && (locVal != null)) ||
-            ((locVal != null) && (impVal != null) && (!impVal.equals(locVal)))) {
-          addUpdate = true;
-        } 
-        Date impObsDt = mergeMap.getRecordObsDt(importRec);
-        Date locObsDt = mergeMap.getRecordObsDt(localRec);
-        if (((impObsDt != null) && (locObsDt == null)) ||
-          ((impObsDt == null) && (locObsDt != null)) ||
-          ((impObsDt != null) && (locObsDt != null) && (!impObsDt.equals(locObsDt)))) {
-          updateMap.add(importRec);
-        }
-        
-        if (addUpdate) {
-          String dataFlag = mergeMap.getRecordDataFlag(importRec);
-          updateMap.setRecordObsData(localRec, impObsDt, impVal, dataFlag);
-          updateMap.add(localRec);
-        }
+    int numRecs = mergeMap.size();
+    int localIndex = -1;
+    for (int iRec = 0; iRec < numRecs; iRec++) {
+      if ((localIndex = localData.indexOf(mergeMap.getStepIndex(iRec))) < 0) {
+        insertMap.addFrom(mergeMap, iRec);
+      } else if (mergeMap.isChanged(iRec, localData, localIndex)) {
+        updateMap.addFrom(mergeMap, iRec);
       }
     }
     
-    if (!updateMap.isEmpty()) {
-      this.updateRecords(updateMap);
+    if ((updateMap.isEmpty()) && (insertMap.isEmpty())) {
+      return;
     }
     
-    if (!insertMap.isEmpty()) {
-      this.insertRecords(insertMap);
+    boolean written = false;
+    this.beginTableChange();
+    try {
+      if (!updateMap.isEmpty()) {
+        this.onUpdateRecords(updateMap);
+      }
+
+      if (!insertMap.isEmpty()) {
+        this.onInsertRecords(insertMap);
+      }
+      written = true;
+    } finally {
+      this.endTableChange(updateMap, (written)? localData: null, insertMap);
     }
   }
   
   /**
    * Called to update multiple records within a transaction - this process is ThreadSave
+   * for the records' sensor.
+   * If {@linkplain #doBatchWrite() this.doBatchWrite}, the records are written in JDBC
+   * batches; otherwise, or if the JDBC Connection is not accessible, the records are 
+   * updated one entity at a time.
+   * <p>The records' prior values are unknown - their water year rollups (if
+   * {@linkplain #doRollup() this.doRollup}) and cached query results are invalidated.
+   * </p>
    * @param updateMap the TimeSeriesMap containing the records to update.
    * @throws Exception
    */
-  public synchronized void updateRecords(TMap updateMap) throws Exception {
+  public void updateRecords(TMap updateMap) throws Exception {
     if ((updateMap == null) || (updateMap.isEmpty())) {
       return;
     }
     
+    synchronized (this.getSensorLock(updateMap.sensorId)) {
+      boolean bound = this.bindThreadEntityManager();
+      this.beginTableChange();
+      try {
+        if (this.getThreadEntityManager() != null) {
+          this.onUpdateRecords(updateMap);
+        } else {
+          synchronized (this) {
+            this.onUpdateRecords(updateMap);
+          }
+        }
+      } finally {
+        this.endTableChange(updateMap, null, null);
+        if (bound) {
+          this.releaseThreadEntityManager();
+        }
+      }
+    }
+  }
+  
+  /**
+   * Called by {@linkplain #updateRecords(gov.ca.water.cdec.core.TimeSeriesMap) 
+   * this.updateRecords} to write the records within a transaction.
+   * @param updateMap the TimeSeriesMap containing the records to write.
+   * @throws Exception
+   */
+  private void onUpdateRecords(TMap updateMap) throws Exception {
     try {
       this.beginTransaction();
-      for (TBean TBean : updateMap.getRecords()) {
-        this.edit(TBean);
+      if ((!this.doBatchWrite()) || (!this.batchWriteRecords(updateMap, false))) {
+        for (TBean TBean : updateMap.getRecords()) {
+          this.edit(TBean);
+        }
       }
     } catch (Exception exp) {
       this.rollbackTransaction();
@@ -118,18 +845,54 @@ public abstract class TimeSeriesFacade<TBean extends Serializable,
   
   /**
    * Called to insert multiple records within a transaction - this process is ThreadSave
+   * for the records' sensor.
+   * If {@linkplain #doBatchWrite() this.doBatchWrite}, the records are written in JDBC
+   * batches; otherwise, or if the JDBC Connection is not accessible, the records are 
+   * persisted one entity at a time.
+   * <p>The records' prior values are unknown - their water year rollups (if
+   * {@linkplain #doRollup() this.doRollup}) and cached query results are invalidated.
+   * </p>
    * @param insertMap the TimeSeriesMap containing the records to insert.
    * @throws Exception
    */
-  public synchronized void insertRecords(TMap insertMap) throws Exception {
+  public void insertRecords(TMap insertMap) throws Exception {
     if ((insertMap == null) || (insertMap.isEmpty())) {
       return;
     }
     
+    synchronized (this.getSensorLock(insertMap.sensorId)) {
+      boolean bound = this.bindThreadEntityManager();
+      this.beginTableChange();
+      try {
+        if (this.getThreadEntityManager() != null) {
+          this.onInsertRecords(insertMap);
+        } else {
+          synchronized (this) {
+            this.onInsertRecords(insertMap);
+          }
+        }
+      } finally {
+        this.endTableChange(null, null, insertMap);
+        if (bound) {
+          this.releaseThreadEntityManager();
+        }
+      }
+    }
+  }
+  
+  /**
+   * Called by {@linkplain #insertRecords(gov.ca.water.cdec.core.TimeSeriesMap) 
+   * this.insertRecords} to write the records within a transaction.
+   * @param insertMap the TimeSeriesMap containing the records to write.
+   * @throws Exception
+   */
+  private void onInsertRecords(TMap insertMap) throws Exception {
     try {
       this.beginTransaction();
-      for (TBean TBean : insertMap.getRecords()) {
-        this.create(TBean);
+      if ((!this.doBatchWrite()) || (!this.batchWriteRecords(insertMap, true))) {
+        for (TBean TBean : insertMap.getRecords()) {
+          this.create(TBean);
+        }
       }
     } catch (Exception exp) {
       this.rollbackTransaction();
@@ -151,6 +914,32 @@ public abstract class TimeSeriesFacade<TBean extends Serializable,
    * @return the TimeSeriesMap with the query results
    */
   public abstract TMap getSensorDataMap(int sensorId, Date startDt, Date endDt);
+  
+  /**
+   * ABSTRACT: Get the name of the facade's time series table (e.g., DAILY_DATA) used by
+   * the JDBC batch writes.
+   * @return the table name
+   */
+  protected abstract String getTableName();
+  
+  /**
+   * ABSTRACT: Get the name of the table's actual date/time primary key column (e.g., 
+   * ACTUAL_DATE).
+   * @return the column name
+   */
+  protected abstract String getActualDateColumn();
+  
+  /**
+   * ABSTRACT: Get the TemporalType of the table's actual date/time column
+   * @return TemporalType.DATE or TemporalType.TIMESTAMP
+   */
+  protected abstract TemporalType getActualDateType();
+  
+  /**
+   * ABSTRACT: Get whether the table has an OBS_DATE column.
+   * @return true if the records have an observation date
+   */
+  protected abstract boolean hasObsDateColumn();
 //</editor-fold>
   
 }
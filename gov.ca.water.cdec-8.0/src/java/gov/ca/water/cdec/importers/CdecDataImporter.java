@@ -7,17 +7,34 @@ import gov.ca.water.cdec.enums.DurationCodes;
 import gov.ca.water.cdec.facades.*;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.json.JSONObject;
 
 /**
  * <p>A singleton class for managing the importing of data from CDEC to a local CDEC 
  * database. This is an application level class the runs the import processes on separate
  * threads, which is not depended on a Web application session.
- * <p>It import the data once sensor at a time and run each sensor's import process on
- * a separate thread and can run up to 10 threads simultaneous. For more information
- * see documentation for the {@linkplain #configImporter(java.lang.Boolean, 
- * java.lang.Integer) configImporter(autostartExec, maxNumThreads}, {@linkplain 
+ * <p>It groups the sensors by sensorType, import the data of up to {@linkplain 
+ * #configBatchDownloads(java.lang.Integer) maxBatchStations} sensors in a single 
+ * multi-station request, and submit each batch's import process to a bounded 
+ * {@linkplain ImportEngine}, which executes the processes on a pool of reusable worker
+ * threads and limits the number of concurrent downloads and database merges. 
+ * Processes that cannot be accepted by the engine remain in the importer's pending
+ * queue until the engine has capacity. For more information see documentation
+ * for the {@linkplain #configImporter(java.lang.Boolean, java.lang.Integer,
+ * java.lang.Integer) configImporter(autostartExec, maxNumThreads, maxTryCount},
+ * {@linkplain #configStageLimits(java.lang.Integer, java.lang.Integer)
+ * configStageLimits(maxDownloads, maxMerges)}, {@linkplain
  * #importTimeSeriesData(java.util.Date, java.util.Date, 
  * gov.ca.water.cdec.core.CdecSensorInfo...) importTimeSeriesData(startDt, endDt, 
  * sensorInfos)}, and {@linkplain #importTimeSeriesData(java.util.Date, java.util.Date,
@@ -53,46 +70,6 @@ public class CdecDataImporter implements Serializable {
   }
   //</editor-fold>
   
-  // <editor-fold defaultstate="collapsed" desc="Private StartNextExecThread Class">
-  /**
-   * A Runnable to fire the
-   */
-  private class StartNextExecThread implements Runnable {
-    
-    private Thread nextThread;
-    private Thread priorThread;
-
-    // <editor-fold defaultstate="collapsed" desc="Constructor">
-    /**
-     * Public Constructor
-     */
-    public StartNextExecThread(Thread priorThread, Thread nextThread) {
-      this.priorThread = priorThread;
-      this.nextThread = nextThread;
-    }
-    // </editor-fold>
-
-    @Override
-    public void run() {
-      if ((this.nextThread == null) && (this.priorThread == null)) {
-        return;
-      }
-      
-      String priorThreadId = null;
-      try {
-        if ((this.priorThread != null) && (this.priorThread.isAlive())) {
-          this.priorThread.join(100);
-        }
-      } catch (InterruptedException ex) {
-      } finally {
-        if (this.nextThread != null) {
-          this.nextThread.start();
-        }
-      }
-    }
-  }
-  // </editor-fold>
-  
   //<editor-fold defaultstate="collapsed" desc="Static Fields/Methods">
   /**
    * The Url to request the SHEF formatted data
@@ -112,6 +89,56 @@ public class CdecDataImporter implements Serializable {
     return "Import Station[" + sensor.stationId + "].Sensor[" 
                             + sensor.sensorType.acronym + "]";
   }
+  
+  /**
+   * Overload 2: Get the ImportProcessor Name of a multi-station import of sensors of
+   * the same sensorType. 
+   * @param sensors the sensors' SensorInfo
+   * @return {@linkplain #getProcessName(gov.ca.water.cdec.core.CdecSensorInfo) 
+   * getProcessName(sensors[0])} if a single sensor or "Import Stations[" + stationIds
+   * + "].Sensor[" + sensor.sensorType.acronym + "]"
+   */
+  public static String getProcessName(List<CdecSensorInfo> sensors) {
+    if ((sensors == null) || (sensors.isEmpty())) {
+      throw new NullPointerException("The SensorInfos are undefined");
+    }
+    if (sensors.size() == 1) {
+      return CdecDataImporter.getProcessName(sensors.get(0));
+    }
+    String stations = null;
+    for (CdecSensorInfo sensor : sensors) {
+      stations = (stations == null)? sensor.stationId: stations + "," + sensor.stationId;
+    }
+    return "Import Stations[" + stations + "].Sensor[" 
+                            + sensors.get(0).sensorType.acronym + "]";
+  }
+  
+  /**
+   * The default maximum number of stations combined in a single CDEC download request
+   * (default = 10).
+   */
+  public static final int DefaultMaxBatchStations = 10;
+  /**
+   * The default number of days before a Daily or Event sensor's watermark from which 
+   * data is re-imported in incremental mode to pick up revised values (default = 7).
+   */
+  public static final int DefaultLookBackDays = 7;
+  /**
+   * The default number of months before a Monthly sensor's watermark from which data 
+   * is re-imported in incremental mode to pick up revised values (default = 2).
+   */
+  public static final int DefaultLookBackMonths = 2;
+  
+  /**
+   * The remapping function used to only move a sensor watermark forward.
+   */
+  private static final BiFunction<Date, Date, Date> LaterDate = 
+                                                  new BiFunction<Date, Date, Date>() {
+    @Override
+    public Date apply(Date curDt, Date newDt) {
+      return (newDt.after(curDt))? newDt: curDt;
+    }
+  };
 //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Private Fields">
@@ -148,33 +175,70 @@ public class CdecDataImporter implements Serializable {
    */
   private EventDataFacade eventFacade;  
   /**
-   * The Queue of Import Processes to execute.
+   * The Queue of pending Import Processes waiting to be submitted to the engine.
    */
-  private List<ImportProcessor> processingQueue;
+  private ConcurrentLinkedDeque<ImportProcessor> processingQueue;
   /**
-   * A list of all executing Threads.
+   * The Map of Import Processes (by processId) submitted to the engine that are not
+   * yet completed.
    */
-  private LinkedHashMap<String, Thread> exectingThreads;
+  private ConcurrentHashMap<String, ImportProcessor> executingProcesses;
+  /**
+   * The ImportEngine executing the import processes
+   */
+  private ImportEngine importEngine;
+  /**
+   * The lock used to serialize the dispatching of pending processes to the engine
+   */
+  private final Object dispatchLock = new Object();
+  /**
+   * Flag set when processes are dispatched and reset when the ExecutionCompleted event
+   * is fired - it prevent the event from being fired more than once.
+   */
+  private final AtomicBoolean executionActive = new AtomicBoolean(false);
+  /**
+   * The policy that schedules the delayed retries of processes that ended with
+   * ImportStatus=RETRY.
+   */
+  private final ImportRetryPolicy retryPolicy = new ImportRetryPolicy();
+  /**
+   * The circuit breaker that pauses the dispatch of processes when the failure rate
+   * of the recently completed processes is too high.
+   */
+  private final ImportCircuitBreaker circuitBreaker = new ImportCircuitBreaker();
+  /**
+   * Flag set while a resume of the dispatch of processes (paused by the open circuit 
+   * breaker) is scheduled - it prevents scheduling more than one resume.
+   */
+  private final AtomicBoolean resumeScheduled = new AtomicBoolean(false);
+  /**
+   * The number of retries scheduled but not yet added to this.processingQueue
+   */
+  private final AtomicInteger pendingRetries = new AtomicInteger();
   /**
    * The time when the first process was completed
    */
-  private Date startTime;
+  private volatile Date startTime;
   /**
    * The time when the last process was completed
    */
-  private Date endTime;
+  private volatile Date endTime;
   /**
    * The Number of Import Processes submitted for processing
    */
-  private Integer numProcesses;
+  private final AtomicInteger numProcesses = new AtomicInteger();
   /**
    * The Number of Import Processes completed
    */
-  private Integer numCompleted;
+  private final AtomicInteger numCompleted = new AtomicInteger();
   /**
    * The Number of Import Processes that failed
    */
-  private Integer numErrors;
+  private final AtomicInteger numErrors = new AtomicInteger();
+  /**
+   * The Number of Import Processes that were cancelled
+   */
+  private final AtomicInteger numCancelled = new AtomicInteger();
   /**
    * The maximum Number of threads that can run at a given time (default = 1);
    */
@@ -183,6 +247,28 @@ public class CdecDataImporter implements Serializable {
    * The maximum Number retries allowed before a import process failed (default = 10);
    */
   private Integer maxTryCount;
+  /**
+   * The maximum number of stations (of the same sensorType) combined in a single 
+   * download request (default = {@linkplain #DefaultMaxBatchStations}).
+   */
+  private Integer maxBatchStations;
+  /**
+   * The incremental import's revision look-back for Daily and Event sensors in days
+   * (default = {@linkplain #DefaultLookBackDays}).
+   */
+  private Integer lookBackDays;
+  /**
+   * The incremental import's revision look-back for Monthly sensors in months
+   * (default = {@linkplain #DefaultLookBackMonths}).
+   */
+  private Integer lookBackMonths;
+  /**
+   * The high-water marks (i.e., the actual date of the last stored observation) by 
+   * sensorId. Seeded from the local database on first use and updated after each 
+   * successful merge.
+   */
+  private final ConcurrentHashMap<Integer, Date> sensorWatermarks = 
+                                                            new ConcurrentHashMap<>();
   /**
    * Flag indicating whether the processing of import should start as they are added.
    * - no need to call startExecute (default = false|manual start)
@@ -266,11 +352,12 @@ public class CdecDataImporter implements Serializable {
         throw new Exception("Unable to access the EventDataFacade Facade");
       }
       
-      this.processingQueue = new ArrayList<>();
-      this.exectingThreads = new LinkedHashMap<>();
+      this.processingQueue = new ConcurrentLinkedDeque<>();
+      this.executingProcesses = new ConcurrentHashMap<>();
       this.resetProgress();
       this.autoStartExec = null;
       this.maxThreadCount = null;
+      this.importEngine = new ImportEngine(this.getMaxNumThreads(), null, null, null);
       this.importLogger = new CdecImportLogger();
       this.sensorUpdateDay = null;
       this.doTrustToCertificates();
@@ -326,27 +413,43 @@ public class CdecDataImporter implements Serializable {
    * @return the TimeSeriesMap with the imported data.
    */
   private boolean addImportProcess(CdecSensorInfo sensor, Date startDt, Date endDt) {
+    return (sensor != null) && 
+                        this.addImportProcess(Arrays.asList(sensor), startDt, endDt);
+  }
+  
+  /**
+   * Overload 2: Called to import the CDEC data of one or more sensors of the same 
+   * sensorType in a single (multi-station) download request.
+   * @param sensors the Sensors' Information
+   * @param startDt the start date
+   * @param endDt the end date
+   * @return true if the processor was queued.
+   */
+  private boolean addImportProcess(List<CdecSensorInfo> sensors, Date startDt, 
+                                                                            Date endDt) {
     boolean result = false;
     String procName = null;
     try {
       DurationCodes durCode = null;
       TimeSeriesImportProcessor processor = null;
+      CdecSensorInfo sensor = ((sensors == null) || (sensors.isEmpty()))? null: 
+                                                                      sensors.get(0);
       if ((sensor != null) && ((durCode = sensor.sensorType.getDurationCode()) != null) &&
-              ((procName = CdecDataImporter.getProcessName(sensor)) != null)) {
+              ((procName = CdecDataImporter.getProcessName(sensors)) != null)) {
         if (DurationCodes.D.equals(durCode)) {
-          processor = new DailyDataImportProcessor(procName, sensor, startDt, endDt);
+          processor = new DailyDataImportProcessor(procName, sensors, startDt, endDt);
           if (processor == null) {
             throw new Exception("Initiating the DailyData ImportProcessor for '" +
                     procName + "' failed.");
           }
         } else if (DurationCodes.M.equals(durCode)) {
-          processor = new MonthlyDataImportProcessor(procName, sensor, startDt, endDt);
+          processor = new MonthlyDataImportProcessor(procName, sensors, startDt, endDt);
           if (processor == null) {
             throw new Exception("Initiating the MonthlyData ImportProcessor for '" +
                     procName + "' failed.");
           }
         } else if (DurationCodes.E.equals(durCode)) {
-          processor = new EventDataImportProcessor(procName, sensor, startDt, endDt);
+          processor = new EventDataImportProcessor(procName, sensors, startDt, endDt);
           if (processor == null) {
             throw new Exception("Initiating the EventData ImportProcessor for '" +
                     procName + "' failed.");
@@ -364,6 +467,193 @@ public class CdecDataImporter implements Serializable {
     return result;
   }
   
+  /**
+   * Called to group the <tt>sensors</tt> by sensorType and queue an import process for
+   * each group of up to {@linkplain #getMaxBatchStations() this.maxBatchStations} 
+   * sensors. Each process downloads the data of its sensors in a single multi-station
+   * request. Undefined sensors are skipped.
+   * @param sensors the list of sensors to import
+   * @param startDt the start date
+   * @param endDt the end date
+   * @return the number of processes queued
+   */
+  private int addBatchImportProcesses(List<CdecSensorInfo> sensors, Date startDt, 
+                                                                            Date endDt) {
+    int result = 0;
+    if ((sensors == null) || (sensors.isEmpty())) {
+      return result;
+    }
+    
+    LinkedHashMap<CdecSensorTypes, List<CdecSensorInfo>> typeGroups = 
+                                                                  new LinkedHashMap<>();
+    for (CdecSensorInfo sensor : sensors) {
+      if (sensor == null) {
+        continue;
+      }
+      List<CdecSensorInfo> group = typeGroups.get(sensor.sensorType);
+      if (group == null) {
+        group = new ArrayList<>();
+        typeGroups.put(sensor.sensorType, group);
+      }
+      group.add(sensor);
+    }
+    
+    int maxStations = this.getMaxBatchStations();
+    for (List<CdecSensorInfo> group : typeGroups.values()) {
+      for (int iStart = 0; iStart < group.size(); iStart += maxStations) {
+        List<CdecSensorInfo> batch = new ArrayList<>(group.subList(iStart, 
+                                    Math.min(iStart + maxStations, group.size())));
+        if (this.addImportProcess(batch, startDt, endDt)) {
+          result++;
+        }
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Get the local TimeSeriesFacade for the specified DurationCode
+   * @param durCode the DurationCode
+   * @return the daily-, monthly, or eventFacade or null if not supported.
+   */
+  private TimeSeriesFacade<?, ?, ?> getTimeSeriesFacade(DurationCodes durCode) {
+    TimeSeriesFacade<?, ?, ?> result = null;
+    if (DurationCodes.D.equals(durCode)) {
+      result = this.dailyFacade;
+    } else if (DurationCodes.M.equals(durCode)) {
+      result = this.monthlyFacade;
+    } else if (DurationCodes.E.equals(durCode)) {
+      result = this.eventFacade;
+    }
+    return result;
+  }
+  
+  /**
+   * Called to update the sensor watermarks with the <tt>lastObsDates</tt> of a 
+   * completed import process. A watermark is only moved forward.
+   * @param lastObsDates the last merged observation dates by sensorId (can be null)
+   */
+  private void updateWatermarks(Map<Integer, Date> lastObsDates) {
+    if ((lastObsDates == null) || (lastObsDates.isEmpty())) {
+      return;
+    }
+    for (Map.Entry<Integer, Date> entry : lastObsDates.entrySet()) {
+      if (entry.getValue() != null) {
+        this.sensorWatermarks.merge(entry.getKey(), entry.getValue(), 
+                                                          CdecDataImporter.LaterDate);
+      }
+    }
+  }
+  
+  /**
+   * Called to seed the watermarks of the <tt>sensors</tt> without a cached watermark 
+   * from the local database (one query per DurationCode - see {@linkplain 
+   * TimeSeriesFacade#getLastObsDates(java.util.Collection)}). Sensors without any 
+   * stored observations remain without a watermark.
+   * @param sensors the sensors of interest
+   */
+  private void seedWatermarks(List<CdecSensorInfo> sensors) {
+    HashMap<DurationCodes, Set<Integer>> seedIds = new HashMap<>();
+    for (CdecSensorInfo sensor : sensors) {
+      if ((sensor == null) || (this.sensorWatermarks.containsKey(sensor.sensorId))) {
+        continue;
+      }
+      DurationCodes durCode = sensor.sensorType.getDurationCode();
+      Set<Integer> sensorIds = seedIds.get(durCode);
+      if (sensorIds == null) {
+        sensorIds = new HashSet<>();
+        seedIds.put(durCode, sensorIds);
+      }
+      sensorIds.add(sensor.sensorId);
+    }
+    
+    for (Map.Entry<DurationCodes, Set<Integer>> entry : seedIds.entrySet()) {
+      TimeSeriesFacade<?, ?, ?> facade = this.getTimeSeriesFacade(entry.getKey());
+      if (facade != null) {
+        this.updateWatermarks(facade.getLastObsDates(entry.getValue()));
+      }
+    }
+  }
+  
+  /**
+   * Get the incremental import start date of <tt>sensor</tt>: its watermark less the
+   * revision look-back ({@linkplain #getLookBackMonths() lookBackMonths} set to the 
+   * first of the month for Monthly sensors; else {@linkplain #getLookBackDays() 
+   * lookBackDays}), bounded by <tt>startDt</tt> and <tt>endDt</tt>.
+   * @param sensor the sensor
+   * @param startDt the requested start date (the earliest date to import)
+   * @param endDt the requested end date
+   * @return the start date (startDt if the sensor has no watermark)
+   */
+  private Date getIncrementalStartDate(CdecSensorInfo sensor, Date startDt, 
+                                                                        Date endDt) {
+    Date watermark = this.sensorWatermarks.get(sensor.sensorId);
+    if (watermark == null) {
+      return startDt;
+    }
+    
+    Calendar cal = Calendar.getInstance();
+    cal.setTime(watermark);
+    if (DurationCodes.M.equals(sensor.sensorType.getDurationCode())) {
+      cal.add(Calendar.MONTH, -1 * this.getLookBackMonths());
+      cal.set(Calendar.DAY_OF_MONTH, 1);
+    } else {
+      cal.add(Calendar.DAY_OF_MONTH, -1 * this.getLookBackDays());
+    }
+    cal.set(Calendar.HOUR_OF_DAY, 0);
+    cal.set(Calendar.MINUTE, 0);
+    cal.set(Calendar.SECOND, 0);
+    cal.set(Calendar.MILLISECOND, 0);
+    
+    Date result = cal.getTime();
+    if (result.before(startDt)) {
+      result = startDt;
+    } else if (result.after(endDt)) {
+      result = endDt;
+    }
+    return result;
+  }
+  
+  /**
+   * Called to queue the incremental import of the <tt>sensors</tt>. It seeds the
+   * sensors' watermarks (if not yet cached), resolves each sensor's {@linkplain 
+   * #getIncrementalStartDate(gov.ca.water.cdec.core.CdecSensorInfo, java.util.Date, 
+   * java.util.Date) incremental start date}, and call {@linkplain 
+   * #addBatchImportProcesses(java.util.List, java.util.Date, java.util.Date) 
+   * this.addBatchImportProcesses} for each group of sensors sharing a start date.
+   * @param sensors the list of sensors to import
+   * @param startDt the earliest date to import
+   * @param endDt the end date
+   * @return the number of processes queued
+   */
+  private int addIncrementalImportProcesses(List<CdecSensorInfo> sensors, Date startDt,
+                                                                            Date endDt) {
+    int result = 0;
+    if ((sensors == null) || (sensors.isEmpty())) {
+      return result;
+    }
+    this.seedWatermarks(sensors);
+    
+    TreeMap<Date, List<CdecSensorInfo>> startGroups = new TreeMap<>();
+    for (CdecSensorInfo sensor : sensors) {
+      if (sensor == null) {
+        continue;
+      }
+      Date sensorStartDt = this.getIncrementalStartDate(sensor, startDt, endDt);
+      List<CdecSensorInfo> group = startGroups.get(sensorStartDt);
+      if (group == null) {
+        group = new ArrayList<>();
+        startGroups.put(sensorStartDt, group);
+      }
+      group.add(sensor);
+    }
+    
+    for (Map.Entry<Date, List<CdecSensorInfo>> entry : startGroups.entrySet()) {
+      result += this.addBatchImportProcesses(entry.getValue(), entry.getKey(), endDt);
+    }
+    return result;
+  }
+  
   /**
    * Called to import the CDEC DailyData for a specified  sensor
    * @param startDt the start date
@@ -377,10 +667,10 @@ public class CdecDataImporter implements Serializable {
     try {
       if (processor != null) {          
         this.processingQueue.add(processor);
-        this.numProcesses++;
+        this.numProcesses.incrementAndGet();
         
         if (this.doAutoStartExec()) {
-          this.onExcuteProcesses(null);
+          this.onExcuteProcesses();
         }
         result = true;
       }      
@@ -395,7 +685,7 @@ public class CdecDataImporter implements Serializable {
    * Called by the eventHandler when the ImportProcess starts
    * @param processor the ImportProcessor that ended
    */
-  private synchronized void startImportProcess(ImportProcessor processor) {
+  private void startImportProcess(ImportProcessor processor) {
 //    if (processor != null) {
 //      String processName = processor.getProcessName();
 //      
@@ -403,32 +693,49 @@ public class CdecDataImporter implements Serializable {
   }
       
   /**
-   * Called by the eventHandler when the ImportProcess ended
+   * Called by the processor's completion future when the ImportProcess ended (or was
+   * cancelled). It removes the processor from this.executingProcesses, records the 
+   * process outcome with the circuit breaker (RETRY and ERROR are failures), schedules
+   * the {@linkplain #retryImportProcess(gov.ca.water.cdec.importers.ImportProcessor) 
+   * retry} of a process that ended with status=RETRY, update the progress counters, 
+   * fire the StatusChanged event, and finally call {@linkplain #onExcuteProcesses() 
+   * this.onExcuteProcesses} to dispatch the next pending processes.
    * @param processor the ImportProcessor that ended
+   * @param status the processor's final status (null if the process was cancelled)
    */
-  private synchronized void endImportProcess(ImportProcessor processor) {
+  private void endImportProcess(ImportProcessor processor, ImportStatus status) {
     if (processor == null) {
       return;
     }
-    Thread execThread = null;
     String processId = processor.processId;
     String processName = processor.getProcessName();
     try {
-      ImportStatus status = processor.getImportStatus();
+      if (processor instanceof TimeSeriesImportProcessor) {
+        this.updateWatermarks(((TimeSeriesImportProcessor) processor).getLastObsDates());
+      }
       
-      if (this.exectingThreads.containsKey(processId)) {
-        execThread = this.exectingThreads.remove(processId);
-        if ((this.endTime == null) && (this.processingQueue.isEmpty()) &&
-                (this.exectingThreads.isEmpty())) {
-          this.endTime = Calendar.getInstance().getTime();
-        }
+      if (status != null) {
+        this.circuitBreaker.recordOutcome(processId, 
+                (ImportStatus.ERROR.equals(status)) || (ImportStatus.RETRY.equals(status)));
+      } else {
+        this.circuitBreaker.cancelDispatch(processId);
       }
       
-      if (!ImportStatus.RETRY.equals(status)) {
-        this.numCompleted++;
+      if (status == null) {
+        this.numCancelled.incrementAndGet();
+      } else if (ImportStatus.RETRY.equals(status)) {
+        this.retryImportProcess(processor);
+      } else {
+        this.numCompleted.incrementAndGet();
       }
       if (ImportStatus.ERROR.equals(status)) {
-        this.numErrors++;
+        this.numErrors.incrementAndGet();
+      }
+      
+      if (this.executingProcesses.remove(processId) != null) {
+        if ((this.endTime == null) && (!this.isBusy())) {
+          this.endTime = Calendar.getInstance().getTime();
+        }
       }
       
       this.fireStatusChanged(new ImportEventArgs());
@@ -437,29 +744,51 @@ public class CdecDataImporter implements Serializable {
               new Object[]{this.getClass().getSimpleName(), processName, 
                 exp.getMessage()});
     } finally {
-      this.onExcuteProcesses(execThread);
+      this.onExcuteProcesses();
     }
   }
         
   /**
-   * Called by the eventHandler when the ImportProcess fire its ProcessRetry event.
-   * If initiates a {@linkplain ImportProcessor#nextTryClone() nextTryClone} instance
-   * of the processor, add it to the processingQueue and call onExecuteProcess.
+   * Called by {@linkplain #endImportProcess(gov.ca.water.cdec.importers.ImportProcessor,
+   * gov.ca.water.cdec.importers.ImportStatus) this.endImportProcess} when the process
+   * ended with status=RETRY - the only place a retry is scheduled. If the
+   * process has not exhausted its {@linkplain #getMaxTryCount() tries}, it initiates a
+   * {@linkplain ImportProcessor#nextTryClone() nextTryClone} instance of the processor
+   * and schedules it with this.retryPolicy to be added to the processingQueue after a
+   * jittered exponential backoff delay. Otherwise, the process is counted as a
+   * completed process with an error.
    * @param processor the ImportProcessor that ended
    */
-  private synchronized void retryImportProcess(ImportProcessor processor) {
+  private void retryImportProcess(ImportProcessor processor) {
     if (processor == null) {
       return;
     }
     String processName = processor.getProcessName();
     try {
-      if (processor.getTryCount() >= this.getMaxTryCount()) {
-        this.numCompleted++;
-        throw new Exception("The Import Process retried out.");
+      int tryCount = processor.getTryCount();
+      if (tryCount >= this.getMaxTryCount()) {
+        this.numCompleted.incrementAndGet();
+        this.numErrors.incrementAndGet();
+        this.retryPolicy.recordExhausted();
+        throw new Exception("The Import Process retried out after " + tryCount 
+                + " tries.");
       }
     
-      ImportProcessor cloneProc = processor.nextTryClone();
-      this.processingQueue.add(cloneProc);
+      final ImportProcessor cloneProc = processor.nextTryClone();
+      cloneProc.setTryCount(tryCount + 1);
+      this.pendingRetries.incrementAndGet();
+      long delay = this.retryPolicy.scheduleRetry(tryCount, new Runnable() {
+        
+        @Override
+        public void run() {
+          CdecDataImporter.this.processingQueue.add(cloneProc);
+          CdecDataImporter.this.pendingRetries.decrementAndGet();
+          CdecDataImporter.this.onExcuteProcesses();
+        }
+      });
+      logger.log(Level.INFO, "{0}.retryImportProcess[{1}]: Try {2} scheduled in {3} ms.",
+              new Object[]{this.getClass().getSimpleName(), processName, 
+                (tryCount + 1), delay});
     } catch (Exception exp) {
       logger.log(Level.WARNING, "{0}.retryImportProcess[{1}] Error:\n {2}",
               new Object[]{this.getClass().getSimpleName(), processName, 
@@ -468,117 +797,130 @@ public class CdecDataImporter implements Serializable {
   }
   
   /**
-   * Called to launch up to this.maxNumThreads threads, adding the threads to 
-   * this.exectingThreads and remove it from this.processingQueue. It also assign
-   * this as the listener to the processor's ProcessStart and ProcessEnd events and
-   * this.importLogger as an event listener to the processors LogMessage event.
+   * Called by {@linkplain #onExcuteProcesses() this.onExcuteProcesses} to assign this
+   * as the listener to the processor's ProcessStart event,
+   * this.importLogger as an event listener to the processors LogMessage event, and the
+   * CdecFacade required by the processor.
+   * @param processor the processor to initiate
+   * @throws Exception if the processor type is not supported.
    */
-  private void onExcuteProcesses(Thread priorThread) {
+  private void initProcessor(ImportProcessor processor) throws Exception {
+    /**
+     * Assign the ProcessStart eventHandler
+     */
+    processor.ProcessStart.add(new ImportEventDelegate(this) {
+
+      @Override
+      public void onEvent(Object sender, ImportEventArgs args) {
+        CdecDataImporter listener = (CdecDataImporter) this.getListener();
+        if ((listener != null) && 
+                (sender != null) && (sender instanceof ImportProcessor)) {
+          ImportProcessor processor = (ImportProcessor) sender;
+          listener.startImportProcess(processor);
+        }
+      }
+    });
+
+    /**
+     * Assign the importLogegr as an eventListener
+     */
+    this.importLogger.addAsLogEventListener(processor);
+
+    if (processor instanceof StationImportProcessor) {
+      StationImportProcessor staProcess = (StationImportProcessor) processor;
+      staProcess.setFacade(this.stationFacade);
+    } else if (processor instanceof SensorImportProcessor) {
+      SensorImportProcessor senProcess = (SensorImportProcessor) processor;
+      senProcess.setFacade(this.sensorFacade);
+    } else if (processor instanceof SensorDefImportProcessor) {
+      SensorDefImportProcessor senDefProcess = (SensorDefImportProcessor) processor;
+      senDefProcess.setFacade(this.sensorDefFacade);
+    } else if (processor instanceof TimeSeriesImportProcessor) {
+      TimeSeriesImportProcessor timeProcessor = (TimeSeriesImportProcessor) processor;
+      if (DurationCodes.D.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
+        timeProcessor.initProcessor(this.dailyFacade);
+      } else if (DurationCodes.M.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
+        timeProcessor.initProcessor(this.monthlyFacade);
+      } else if (DurationCodes.E.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
+        timeProcessor.initProcessor(this.eventFacade);
+      } else {
+        throw new Exception("A CdecFacade for SensorType[" 
+                + timeProcessor.sensorInfo.sensorType.acronym + "] is not yet supported.");
+      }
+    } else {
+      throw new Exception("A Processor[" 
+                + processor.getClass().getSimpleName() + "] is not yet supported.");
+    }
+  }
+  
+  /**
+   * Called to submit pending processes from this.processingQueue to this.importEngine
+   * until the queue is empty or the engine has no more capacity. Each process is
+   * initiated by {@linkplain #initProcessor(gov.ca.water.cdec.importers.ImportProcessor)
+   * this.initProcessor} and added to this.executingProcesses. Its completion future 
+   * calls {@linkplain #endImportProcess(gov.ca.water.cdec.importers.ImportProcessor,
+   * gov.ca.water.cdec.importers.ImportStatus) this.endImportProcess} when the process
+   * ended. If the engine rejects the process, it is returned to the head of the queue.
+   * The dispatch is paused while this.circuitBreaker is open, in which case a single 
+   * resume is scheduled for when the breaker's open period expires. Finally, it fires
+   * the ExecutionCompleted event if no more processes are pending, waiting for a 
+   * retry, or executing.
+   */
+  private void onExcuteProcesses() {
     try {
-      while ((this.exectingThreads.size() < this.getMaxNumThreads()) &&
-              (!this.processingQueue.isEmpty())) {
-        ImportProcessor processor = this.processingQueue.get(0);
-        /**
-         * Assign the ProcessStart eventHandler
-         */
-        processor.ProcessStart.add(new ImportEventDelegate(this) {
+      synchronized (this.dispatchLock) {
+        ImportProcessor processor = null;
+        while ((this.importEngine.hasCapacity()) && (!this.processingQueue.isEmpty())) {
+          if ((processor = this.processingQueue.pollFirst()) == null) {
+            break;
+          }
+          if (!this.circuitBreaker.allowDispatch(processor.processId)) {
+            this.processingQueue.addFirst(processor);
+            this.scheduleDispatchResume();
+            break;
+          }
+          try {
+            this.initProcessor(processor);
+          } catch (Exception exp) {
+            this.circuitBreaker.cancelDispatch(processor.processId);
+            logger.log(Level.WARNING, "{0}.onExcuteProcesses[{1}] Error:\n {2}",
+                    new Object[]{this.getClass().getSimpleName(), 
+                      processor.getProcessName(), exp.getMessage()});
+            this.numCompleted.incrementAndGet();
+            this.numErrors.incrementAndGet();
+            continue;
+          }
           
-          @Override
-          public void onEvent(Object sender, ImportEventArgs args) {
-            CdecDataImporter listener = (CdecDataImporter) this.getListener();
-            if ((listener != null) && 
-                    (sender != null) && (sender instanceof ImportProcessor)) {
-              ImportProcessor processor = (ImportProcessor) sender;
-              listener.startImportProcess(processor);
-            }
+          if (this.startTime == null) {
+            this.startTime = Calendar.getInstance().getTime();
           }
-        });
-        
-        /**
-         * Assign the ProcessEnd eventHandler
-         */
-        processor.ProcessEnd.add(new ImportEventDelegate(this) {
           
-          @Override
-          public void onEvent(Object sender, ImportEventArgs args) {
-            CdecDataImporter listener = (CdecDataImporter) this.getListener();
-            if ((listener != null) && 
-                    (sender != null) && (sender instanceof ImportProcessor)) {
-              ImportProcessor processor = (ImportProcessor) sender;
-              listener.endImportProcess(processor);
-            }
+          this.executionActive.set(true);
+          this.executingProcesses.put(processor.processId, processor);
+          CompletableFuture<ImportStatus> completion = null;
+          try {
+            completion = this.importEngine.submit(processor);
+          } catch (RejectedExecutionException exp) {
+            this.circuitBreaker.cancelDispatch(processor.processId);
+            this.executingProcesses.remove(processor.processId);
+            this.processingQueue.addFirst(processor);
+            break;
           }
-        });
-        
-        /**
-         * Assign the ProcessRetry eventHandler
-         */
-        processor.ProcessRetry.add(new ImportEventDelegate(this) {
           
-          @Override
-          public void onEvent(Object sender, ImportEventArgs args) {
-            CdecDataImporter listener = (CdecDataImporter) this.getListener();
-            if ((listener != null) && 
-                    (sender != null) && (sender instanceof ImportProcessor)) {
-              ImportProcessor processor = (ImportProcessor) sender;
-              listener.retryImportProcess(processor);
+          final ImportProcessor endProcessor = processor;
+          completion.whenComplete(new BiConsumer<ImportStatus, Throwable>() {
+            
+            @Override
+            public void accept(ImportStatus status, Throwable error) {
+              ImportStatus endStatus = (error == null)? status:
+                      (error instanceof CancellationException)? null: ImportStatus.ERROR;
+              CdecDataImporter.this.endImportProcess(endProcessor, endStatus);
             }
-          }
-        });
-        
-        /**
-         * Assign the importLogegr as an eventListener
-         */
-        this.importLogger.addAsLogEventListener(processor);
-        
-        if (processor instanceof StationImportProcessor) {
-          StationImportProcessor staProcess = (StationImportProcessor) processor;
-          staProcess.setFacade(this.stationFacade);
-        } else if (processor instanceof SensorImportProcessor) {
-          SensorImportProcessor senProcess = (SensorImportProcessor) processor;
-          senProcess.setFacade(this.sensorFacade);
-        } else if (processor instanceof SensorDefImportProcessor) {
-          SensorDefImportProcessor senDefProcess = (SensorDefImportProcessor) processor;
-          senDefProcess.setFacade(this.sensorDefFacade);
-        } else if (processor instanceof TimeSeriesImportProcessor) {
-          TimeSeriesImportProcessor timeProcessor = (TimeSeriesImportProcessor) processor;
-          if (DurationCodes.D.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
-            timeProcessor.initProcessor(this.dailyFacade);
-          } else if (DurationCodes.M.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
-            timeProcessor.initProcessor(this.monthlyFacade);
-          } else if (DurationCodes.E.equals(timeProcessor.sensorInfo.sensorType.getDurationCode())) {
-            timeProcessor.initProcessor(this.eventFacade);
-          } else {
-            throw new Exception("A CdecFacade for SensorType[" 
-                    + timeProcessor.sensorInfo.sensorType.acronym + "] is not yet supported.");
-          }
-        } else {
-          throw new Exception("A Processor[" 
-                    + processor.getClass().getSimpleName() + "] is not yet supported.");
-        }               
-        
-        Thread procThread = new Thread(processor, processor.processId);
-        this.exectingThreads.put(processor.processId, procThread);
-        this.processingQueue.remove(processor);
-        
-        if (this.startTime == null) {
-          this.startTime = Calendar.getInstance().getTime();
-        }
-        
-        StartNextExecThread startNext = new StartNextExecThread(priorThread, procThread);
-        Thread startNextThread = new Thread(startNext);
-        startNextThread.start();
-        if (startNextThread.isAlive()) {
-          startNextThread.join(100);
+          });
         }
-        priorThread = null;
-      }
-      
-      if ((priorThread != null) && (priorThread.isAlive())) {
-        priorThread.join(100);
       }
       
-      if (!this.isBusy()) {
+      if ((!this.isBusy()) && (this.executionActive.compareAndSet(true, false))) {
         this.fireExecutionCompleted(new ImportEventArgs());
       }
     } catch (Exception exp) {
@@ -587,13 +929,35 @@ public class CdecDataImporter implements Serializable {
     }
   }
   
+  /**
+   * Called by {@linkplain #onExcuteProcesses() this.onExcuteProcesses} when the circuit
+   * breaker refused the dispatch of a process. If the breaker is OPEN and no resume is 
+   * yet scheduled, it schedules a call to onExcuteProcesses when the breaker's open 
+   * period expires. If the breaker is HALF_OPEN, the dispatch resumes when the trial
+   * process ends.
+   */
+  private void scheduleDispatchResume() {
+    long delay = this.circuitBreaker.getRemainingOpenMillis();
+    if ((delay > 0) && (this.resumeScheduled.compareAndSet(false, true))) {
+      this.retryPolicy.scheduleTask(delay, new Runnable() {
+        
+        @Override
+        public void run() {
+          CdecDataImporter.this.resumeScheduled.set(false);
+          CdecDataImporter.this.onExcuteProcesses();
+        }
+      });
+    }
+  }
+  
   /**
    * Called internally to reset the progress indicators.
    */
   private void resetProgress() {
-    this.numProcesses = 0;
-    this.numCompleted = 0;
-    this.numErrors = 0;
+    this.numProcesses.set(0);
+    this.numCompleted.set(0);
+    this.numErrors.set(0);
+    this.numCancelled.set(0);
     this.startTime = null;
     this.endTime = null;
   }
@@ -655,11 +1019,13 @@ public class CdecDataImporter implements Serializable {
   }
   
   /**
-   * Get the maximum allowed Thread to execute at any given time (default = 1)
+   * Get the maximum allowed Thread to execute at any given time (default = 
+   * {@linkplain ImportEngine#DefaultMaxThreads})
    * @return the assigned value
    */
   public int getMaxNumThreads() {
-    return (this.maxThreadCount == null)? 1: this.maxThreadCount;
+    return (this.maxThreadCount == null)? ImportEngine.DefaultMaxThreads: 
+                                          this.maxThreadCount;
   }
   
   /**
@@ -672,19 +1038,19 @@ public class CdecDataImporter implements Serializable {
   }
   
   /**
-   * Get the number of threads currently executing
-   * @return this.exectingThreads.size
+   * Get the number of processes currently submitted to the engine (queued or running)
+   * @return this.executingProcesses.size
    */
   public int getNumExecutingThreads() {
-    return (this.exectingThreads.size());
+    return (this.executingProcesses.size());
   }
   
   /**
    * Call to configure the data imported
    * @param autoStartExec set the autoStart (true=start automatically as adding
    * processes; false=start manually by calling startExecute) (default = false|null).
-   * @param maxNumThreads the maximum number of threads (1..10) - default is 1.
-   * Assume default if null| &le; 0; assume 10 if &gt; 10.
+   * @param maxNumThreads the maximum number of engine worker threads - default is
+   * {@linkplain ImportEngine#DefaultMaxThreads}. Assume default if null| &le; 0.
    * @param maxTryCount the maximum number of retries (on server connection failure) 
    * allowed before the process fails (default = 10).
    */
@@ -693,19 +1059,184 @@ public class CdecDataImporter implements Serializable {
     this.autoStartExec = 
               ((autoStartExec == null) || (!autoStartExec))? null: autoStartExec;
     this.maxThreadCount = 
-            ((maxNumThreads == null) || (maxNumThreads <= 0))? null: 
-            ((maxNumThreads > 10)? 10: maxNumThreads);
+            ((maxNumThreads == null) || (maxNumThreads <= 0))? null: maxNumThreads;
     if ((maxTryCount != null) && (maxTryCount >= 0)) {
       this.maxTryCount = maxTryCount;
     }
+    this.importEngine.setMaxThreads(this.getMaxNumThreads());
+  }
+  
+  /**
+   * Get the maximum number of stations (of the same sensorType) combined in a single
+   * CDEC download request
+   * @return the assigned value or {@linkplain #DefaultMaxBatchStations} if unassigned.
+   */
+  public int getMaxBatchStations() {
+    return (this.maxBatchStations == null)? CdecDataImporter.DefaultMaxBatchStations:
+                                            this.maxBatchStations;
+  }
+  
+  /**
+   * Call to configure the maximum number of stations (of the same sensorType) that are
+   * combined in a single CDEC download request.
+   * @param maxStations the maximum number of stations per request (null|&le; 0 to
+   * reset to {@linkplain #DefaultMaxBatchStations}; 1 to download each sensor 
+   * separately)
+   */
+  public void configBatchDownloads(Integer maxStations) {
+    this.maxBatchStations = 
+                ((maxStations == null) || (maxStations <= 0))? null: maxStations;
+  }
+  
+  /**
+   * Call to configure the shared {@linkplain ImportHttpClient} used by the import
+   * processes to download the CDEC data.
+   * @param connectTimeout the connect timeout in milliseconds (null|&le; 0 for the
+   * {@linkplain ImportHttpClient#DefaultConnectTimeout default})
+   * @param readTimeout the read timeout in milliseconds (null|&le; 0 for the
+   * {@linkplain ImportHttpClient#DefaultReadTimeout default})
+   * @param maxPerHost the maximum number of concurrent connections per host (null|&le;
+   * 0 for the {@linkplain ImportHttpClient#DefaultMaxPerHost default})
+   */
+  public void configHttpClient(Integer connectTimeout, Integer readTimeout, 
+                                                                  Integer maxPerHost) {
+    ImportHttpClient.getInstance().configure(connectTimeout, readTimeout, maxPerHost);
+  }
+  
+  /**
+   * Call to configure the backoff of the retries of processes that failed due to a 
+   * transient server condition. The retry delay of try[n] is a random value between
+   * half and the full <tt>min(maxDelay, baseDelay * 2^(n-1))</tt>. The number of tries 
+   * is limited by {@linkplain #getMaxTryCount() maxTryCount}.
+   * @param baseDelay the base delay in milliseconds (null|&le; 0 for the {@linkplain
+   * ImportRetryPolicy#DefaultBaseDelay default})
+   * @param maxDelay the maximum delay in milliseconds (null|&le; 0 for the {@linkplain
+   * ImportRetryPolicy#DefaultMaxDelay default})
+   */
+  public void configRetry(Long baseDelay, Long maxDelay) {
+    this.retryPolicy.configure(baseDelay, maxDelay);
+  }
+  
+  /**
+   * Call to configure the circuit breaker that pauses the dispatch of processes when
+   * the failure rate of the recently completed processes reaches 
+   * <tt>failureRate</tt>. The call resets the breaker.
+   * @param windowSize the number of recent process outcomes evaluated (null|&le; 0 for
+   * the {@linkplain ImportCircuitBreaker#DefaultWindowSize default})
+   * @param failureRate the failure rate [0..1] that trips the breaker (null|&le; 0 for 
+   * the {@linkplain ImportCircuitBreaker#DefaultFailureRate default})
+   * @param openMillis the initial pause in milliseconds (null|&le; 0 for the 
+   * {@linkplain ImportCircuitBreaker#DefaultOpenMillis default})
+   */
+  public void configCircuitBreaker(Integer windowSize, Double failureRate, 
+                                                                    Long openMillis) {
+    this.circuitBreaker.configure(windowSize, failureRate, openMillis);
+  }
+  
+  /**
+   * Get the retry and circuit breaker metrics as a JSONObject
+   * @return {"retries": {@linkplain ImportRetryPolicy#getAsJSON()}, "circuit": 
+   * {@linkplain ImportCircuitBreaker#getAsJSON()}}
+   */
+  public JSONObject getRetryMetrics() {
+    JSONObject result = new JSONObject();
+    result.put("retries", this.retryPolicy.getAsJSON());
+    result.put("circuit", this.circuitBreaker.getAsJSON());
+    return result;
+  }
+  
+  /**
+   * Get the incremental import's revision look-back for Daily and Event sensors
+   * @return the assigned value or {@linkplain #DefaultLookBackDays} if unassigned.
+   */
+  public int getLookBackDays() {
+    return (this.lookBackDays == null)? CdecDataImporter.DefaultLookBackDays:
+                                        this.lookBackDays;
+  }
+  
+  /**
+   * Get the incremental import's revision look-back for Monthly sensors
+   * @return the assigned value or {@linkplain #DefaultLookBackMonths} if unassigned.
+   */
+  public int getLookBackMonths() {
+    return (this.lookBackMonths == null)? CdecDataImporter.DefaultLookBackMonths:
+                                          this.lookBackMonths;
+  }
+  
+  /**
+   * Call to configure the revision look-back of incremental imports. Values that
+   * were revised at the source within the look-back period before a sensor's 
+   * watermark will be picked up by the next incremental import.
+   * @param lookBackDays the look-back for Daily and Event sensors in days (null|&lt; 0
+   * to reset to {@linkplain #DefaultLookBackDays})
+   * @param lookBackMonths the look-back for Monthly sensors in months (null|&lt; 0
+   * to reset to {@linkplain #DefaultLookBackMonths})
+   */
+  public void configIncremental(Integer lookBackDays, Integer lookBackMonths) {
+    this.lookBackDays = 
+                ((lookBackDays == null) || (lookBackDays < 0))? null: lookBackDays;
+    this.lookBackMonths = 
+                ((lookBackMonths == null) || (lookBackMonths < 0))? null: lookBackMonths;
+  }
+  
+  /**
+   * Get the cached high-water mark (i.e., the actual date of the last stored 
+   * observation) of the specified sensor.
+   * @param sensorId the sensorId
+   * @return the watermark or null if not yet seeded or the sensor has no data.
+   */
+  public Date getSensorWatermark(Integer sensorId) {
+    return (sensorId == null)? null: this.sensorWatermarks.get(sensorId);
+  }
+  
+  /**
+   * Called to clear the cached sensor watermarks - they will be re-seeded from the 
+   * local database on the next incremental import.
+   */
+  public void resetWatermarks() {
+    this.sensorWatermarks.clear();
+  }
+  
+  /**
+   * Call to configure the number of import processes that can be in a specific
+   * {@linkplain ImportStage} at a given time. The engine is replaced with a new 
+   * instance if the limits changed. The call is ignored if the importer 
+   * {@linkplain #isBusy() isBusy}.
+   * @param maxDownloads the maximum number of concurrent downloads (default = 
+   * maxNumThreads if null| &le; 0)
+   * @param maxMerges the maximum number of concurrent merges with the local database
+   * (default = {@linkplain ImportEngine#DefaultMaxMerges} if null| &le; 0)
+   */
+  public void configStageLimits(Integer maxDownloads, Integer maxMerges) {
+    if (this.isBusy()) {
+      logger.log(Level.WARNING, "{0}.configStageLimits: Ignored because the Importer is "
+              + "busy.", this.getClass().getSimpleName());
+      return;
+    }
+    ImportEngine prevEngine = this.importEngine;
+    this.importEngine = 
+           new ImportEngine(this.getMaxNumThreads(), null, maxDownloads, maxMerges);
+    prevEngine.shutdown();
+  }
+
+  /**
+   * Call to configure the number of rows per JDBC batch used by the Daily, Monthly, and
+   * Event Data facades when merging the imported time series data.
+   * @param batchSize the rows per batch (null|&lt; 0 to reset to the {@linkplain
+   * TimeSeriesFacade#DefaultBatchSize default}; 0 to disable batch writes)
+   */
+  public void configBatchWrite(Integer batchSize) {
+    this.dailyFacade.setBatchSize(batchSize);
+    this.monthlyFacade.setBatchSize(batchSize);
+    this.eventFacade.setBatchSize(batchSize);
   }
   
   /**
    * Overload 1: Called to initiates the importing process. It retrieves all sensors for
-   * the specified <tt>sensorTypes</tt>, and call {@linkplain #addImportProcess(
-   * gov.ca.water.cdec.core.CdecSensorInfo, java.util.Date, java.util.Date) 
-   * this.addImportProcess} to initiate a {@link TimeSeriesImportProcessor} and add it to 
-   * this.processingQueue. If {@linkplain #doAutoStartExec() this.doAutoStartExec} = true,
+   * the specified <tt>sensorTypes</tt>, and call {@linkplain #addBatchImportProcesses(
+   * java.util.List, java.util.Date, java.util.Date) this.addBatchImportProcesses} to
+   * initiate a {@link TimeSeriesImportProcessor} for each batch of sensors and add it
+   * to this.processingQueue. If {@linkplain #doAutoStartExec() this.doAutoStartExec} = true,
    * it will automatically launching the execution process. Otherwise, this call must
    * be followed by a call to {@linkplain #startExecute() this.startExecute} to launch 
    * the import process.
@@ -718,6 +1249,27 @@ public class CdecDataImporter implements Serializable {
    */
   public boolean importTimeSeriesData(Date startDt, Date endDt,
                                                     CdecSensorTypes...sensorTypes) {
+    return this.importTimeSeriesData(startDt, endDt, false, sensorTypes);
+  }
+  
+  /**
+   * Overload 1b: Called to initiates the importing process for the specified 
+   * <tt>sensorTypes</tt>. If <tt>incremental</tt>, each sensor's data is only imported
+   * from its watermark (the last stored observation) less the revision look-back 
+   * (see {@linkplain #configIncremental(java.lang.Integer, java.lang.Integer) 
+   * configIncremental}), with <tt>startDt</tt> as the earliest date to import. 
+   * Sensors without a watermark are imported from startDt. Otherwise, it is the same
+   * as Overload 1.
+   * <p>
+   * <b>NOTE:</b> The process will fail if a prior execution is in progress.
+   * @param startDt the period of interest start date (inclusive)
+   * @param endDt the period of interest end date (inclusive)
+   * @param incremental true to only import the data after the sensors' watermarks
+   * @param sensorTypes and array of sensor type for which to import data
+   * @return (!this.hasError)
+   */
+  public boolean importTimeSeriesData(Date startDt, Date endDt, boolean incremental,
+                                                    CdecSensorTypes...sensorTypes) {
     this.clearError();
     try {
       if (this.isExecuting()) {
@@ -769,7 +1321,7 @@ public class CdecDataImporter implements Serializable {
         Station senSta = null;
         SensorPK senPk = null; 
         CdecSensorInfo sensorinfo = null;
-        int impCnt = 0;
+        List<CdecSensorInfo> impSensors = new ArrayList<>();
         for (Sensor sensor : sensorList) {
           if ((senPk = sensor.getSensorPK()) == null) {
             logger.log(Level.WARNING, "ImportTimeSeriesData: Sensor[{0}]'s "
@@ -788,14 +1340,18 @@ public class CdecDataImporter implements Serializable {
           } else {  
             Date senEndDt = sensor.getEndDate();
             if ((senEndDt == null) || (!senEndDt.before(startDt))){
-              this.addImportProcess(sensorinfo, startDt, endDt);
-              impCnt++;
+              impSensors.add(sensorinfo);
             }
           }
         }
+        int procCnt = (incremental)? 
+                      this.addIncrementalImportProcesses(impSensors, startDt, endDt):
+                      this.addBatchImportProcesses(impSensors, startDt, endDt);
         logger.log(Level.INFO, "ImportTimeSeriesData: Completed imports for "
-                + "SensorType[{0}]; Sensor Count = {1}; Queued Count = {2}.",
-              new Object[]{senType.acronym, sensorList.size(), impCnt});
+                + "SensorType[{0}]; Sensor Count = {1}; Queued Count = {2}; "
+                + "Process Count = {3}.",
+              new Object[]{senType.acronym, sensorList.size(), impSensors.size(), 
+                           procCnt});
       }      
     } catch (Exception exp) {
       this.setErrorMsg(exp.getMessage());
@@ -807,9 +1363,9 @@ public class CdecDataImporter implements Serializable {
   
   /**
    * Overload 1: Called to initiates the importing process. For each sensor specified in
-   * <tt>sensorInfos</tt> call {@linkplain #addImportProcess(
-   * gov.ca.water.cdec.core.CdecSensorInfo, java.util.Date, java.util.Date) 
-   * this.addImportProcess} to initiate a {@link TimeSeriesImportProcessor} and add it to 
+   * <tt>sensorInfos</tt> call {@linkplain #addBatchImportProcesses(java.util.List, 
+   * java.util.Date, java.util.Date) this.addBatchImportProcesses} to initiate a 
+   * {@link TimeSeriesImportProcessor} for each batch of sensors and add it to 
    * this.processingQueue. If {@linkplain #doAutoStartExec() this.doAutoStartExec} = true,
    * it will automatically launching the execution process. Otherwise, this call must
    * be followed by a call to {@linkplain #startExecute() this.startExecute} to launch 
@@ -855,9 +1411,7 @@ public class CdecDataImporter implements Serializable {
         startDt = tmpDt;
       }     
       
-      for (CdecSensorInfo sensorinfo : sensorInfos) {    
-        this.addImportProcess(sensorinfo, startDt, endDt);
-      }
+      this.addBatchImportProcesses(Arrays.asList(sensorInfos), startDt, endDt);
     } catch (Exception exp) {
       this.setErrorMsg(exp.getMessage());
       logger.log(Level.WARNING, "{0}.importTimeSeriesData Error:\n {1}",
@@ -973,67 +1527,63 @@ public class CdecDataImporter implements Serializable {
    */
   public void startExecute() {
     if (!this.isExecuting()) {
-      this.onExcuteProcesses(null);
+      this.onExcuteProcesses();
     }
   }
   
   /**
-   * Called to stop the execution process by clearing the processing Queue and
-   * interrupt all executing processes.
+   * Called to stop the execution process by clearing the processing Queue, cancel all
+   * scheduled retries, and cancel all queued and executing processes in the engine 
+   * (executing processes are interrupted).
    */
   public void stopExecute() {
     if (!this.isBusy()) {
       return;
     }
     
-    if (this.processingQueue != null) {
+    synchronized (this.dispatchLock) {
+      this.retryPolicy.cancelAll();
+      this.pendingRetries.set(0);
+      this.resumeScheduled.set(false);
       this.processingQueue.clear();
+      this.importEngine.cancelAll();
+      this.executingProcesses.clear();
     }
-    
-    if ((this.exectingThreads != null) && (!this.exectingThreads.isEmpty())) {
-      List<String> processKeys = new ArrayList<>(this.exectingThreads.keySet());
-      for (String processId : processKeys) {
-        if (this.exectingThreads.containsKey(processId)) {
-          Thread execThread = this.exectingThreads.remove(processId);
-          if ((execThread != null) && (execThread.isAlive())) {
-            try {
-              execThread.interrupt();
-            } catch (Exception exp) {}
-          }
-        }
-      }
-      this.exectingThreads.clear();
-    }
+    this.executionActive.set(false);
     this.fireExecutionCompleted(new ImportEventArgs());
   }
   
   /**
    * Check if the Importer is currently executing import processes or have processes that
-   * are not yet executed.
-   * @return true if this.processingQueue or this.exectingThreads is not empty.
+   * are not yet executed (including processes waiting for a scheduled retry).
+   * @return true if this.processingQueue or this.executingProcesses is not empty, or
+   * retries are scheduled.
    */
   public boolean isBusy() {
-    return ((!this.processingQueue.isEmpty()) || (!this.exectingThreads.isEmpty()));
+    return ((!this.processingQueue.isEmpty()) || (!this.executingProcesses.isEmpty()) ||
+            (this.pendingRetries.get() > 0));
   }
   
   /**
    * Check if the Importer is currently executing import processes
-   * @return true if this.exectingThreads is not empty.
+   * @return true if this.executingProcesses is not empty.
    */
   public boolean isExecuting() {
-    return (!this.exectingThreads.isEmpty());
+    return (!this.executingProcesses.isEmpty());
   }
   
   /**
-   * Get the current percentage of submitted processes completed.
+   * Get the current percentage of submitted processes completed or cancelled.
    * @return the current fraction or (0.0 if no process is running)
    */
   public double progress() {
     double result = 0.0;
-    if (this.numProcesses > 0) {
+    int processes = this.numProcesses.get();
+    if (processes > 0) {
       result = 1.0;
-      if (this.numCompleted < this.numProcesses) {
-        result = (1.0d * this.numCompleted)/(this.numProcesses);
+      int completed = this.numCompleted.get() + this.numCancelled.get();
+      if (completed < processes) {
+        result = (1.0d * completed)/(processes);
       }
     }
     return result;
@@ -1044,7 +1594,7 @@ public class CdecDataImporter implements Serializable {
    * @return this.numProcesses
    */
   public int getNumProcesses() {
-    return this.numProcesses;
+    return this.numProcesses.get();
   }
   
   /**
@@ -1052,7 +1602,7 @@ public class CdecDataImporter implements Serializable {
    * @return this.numCompleted (0 if numProcess = 0)
    */
   public int getNumCompleted() {
-    return this.numCompleted;
+    return this.numCompleted.get();
   }
   
   /**
@@ -1060,7 +1610,16 @@ public class CdecDataImporter implements Serializable {
    * @return this.numErrors
    */
   public int getNumImportErrors() {
-    return this.numErrors;
+    return this.numErrors.get();
+  }
+  
+  /**
+   * Get the Number of processes that were cancelled before they completed (these are
+   * not included in {@linkplain #getNumCompleted() numCompleted})
+   * @return this.numCancelled
+   */
+  public int getNumCancelled() {
+    return this.numCancelled.get();
   }
   
   
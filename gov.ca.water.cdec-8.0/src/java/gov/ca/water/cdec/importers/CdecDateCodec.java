@@ -0,0 +1,268 @@
+package gov.ca.water.cdec.importers;
+
+import gov.ca.water.cdec.core.TimeStepIndex;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>An immutable (thread-safe) parser for the fixed-width numeric date-time formats
+ * used by the CDEC data services (e.g., "yyyy-MM-dd HH:mm", "yyyy-MM-dd HH:mm:ss", or
+ * "yyyyMMdd HH:mm"). It parses the digits of the input directly into an epoch time in
+ * milliseconds - no substrings, SimpleDateFormats, or Calendars are initiated per
+ * value. The codec are cached by format and TimeZone - use {@linkplain
+ * #getInstance(java.lang.String, java.util.TimeZone) getInstance} to access it.</p>
+ * <p>Like {@linkplain ImportUtils#dateFromString(java.lang.String, java.lang.String,
+ * java.util.TimeZone) ImportUtils.dateFromString}, it ignores leading and trailing
+ * white spaces and any trailing text (e.g. fractional seconds), accepts a "T" or " "
+ * as the date-time separator, and rolls over out of range fields. Time fields missing
+ * from the input (e.g. "2020-01-31" for "yyyy-MM-dd HH:mm") are set to zero.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class CdecDateCodec implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The cache of codecs by format and TimeZone ID
+   */
+  private static final ConcurrentHashMap<String, CdecDateCodec> Codecs =
+                                                              new ConcurrentHashMap<>();
+  /**
+   * The field codes of the format's letters
+   */
+  private static final char YEAR = 'y';
+  private static final char MONTH = 'M';
+  private static final char DAY = 'd';
+  private static final char HOUR = 'H';
+  private static final char MINUTE = 'm';
+  private static final char SECOND = 's';
+  /**
+   * The field code of a format's literal separator
+   */
+  private static final char LITERAL = 0;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Static Methods">
+  /**
+   * Get the cached codec for the <tt>dtFormat</tt> and <tt>timeZone</tt> - initiate and
+   * cache a new codec if not yet cached.
+   * @param dtFormat the date-time format (e.g., "yyyy-MM-dd HH:mm")
+   * @param timeZone the TimeZone of the input values (null for the default TimeZone)
+   * @return the cached codec
+   * @exception IllegalArgumentException if the format is not a fixed-width numeric
+   * format (i.e., only letters y, M, d, H, m, and s are supported).
+   */
+  public static CdecDateCodec getInstance(String dtFormat, TimeZone timeZone) {
+    timeZone = (timeZone == null)? TimeStepIndex.getLocalZone(): timeZone;
+    String cacheKey = dtFormat + "|" + timeZone.getID();
+    CdecDateCodec result = CdecDateCodec.Codecs.get(cacheKey);
+    if (result == null) {
+      result = new CdecDateCodec(dtFormat, timeZone);
+      CdecDateCodec prevCodec = CdecDateCodec.Codecs.putIfAbsent(cacheKey, result);
+      result = (prevCodec == null)? result: prevCodec;
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The format string
+   */
+  private final String dtFormat;
+  /**
+   * The TimeZone of the input values
+   */
+  private final TimeZone timeZone;
+  /**
+   * The field code of each element in the format
+   */
+  private final char[] fieldCodes;
+  /**
+   * The number of digits of each (non-literal) element in the format
+   */
+  private final int[] fieldWidths;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor - compiles the format into its fields
+   * @param dtFormat the date-time format
+   * @param timeZone the TimeZone of the input values
+   */
+  private CdecDateCodec(String dtFormat, TimeZone timeZone) {
+    super();
+    if ((dtFormat = ImportUtils.cleanString(dtFormat)) == null) {
+      throw new IllegalArgumentException("The Date-Time Format cannot be unassigned.");
+    }
+    this.dtFormat = dtFormat;
+    this.timeZone = (TimeZone) timeZone.clone();
+
+    char[] codes = new char[dtFormat.length()];
+    int[] widths = new int[dtFormat.length()];
+    int numFields = 0;
+    int iChar = 0;
+    while (iChar < dtFormat.length()) {
+      char fmtChar = dtFormat.charAt(iChar);
+      if (Character.isLetter(fmtChar)) {
+        if ((fmtChar != YEAR) && (fmtChar != MONTH) && (fmtChar != DAY) &&
+                (fmtChar != HOUR) && (fmtChar != MINUTE) && (fmtChar != SECOND)) {
+          throw new IllegalArgumentException("Format[" + dtFormat + "]'s letter '"
+                  + fmtChar + "' is not supported.");
+        }
+        int width = 0;
+        while ((iChar < dtFormat.length()) && (dtFormat.charAt(iChar) == fmtChar)) {
+          width++;
+          iChar++;
+        }
+        codes[numFields] = fmtChar;
+        widths[numFields] = width;
+      } else {
+        codes[numFields] = LITERAL;
+        widths[numFields] = 1;
+        iChar++;
+      }
+      numFields++;
+    }
+    this.fieldCodes = new char[numFields];
+    this.fieldWidths = new int[numFields];
+    System.arraycopy(codes, 0, this.fieldCodes, 0, numFields);
+    System.arraycopy(widths, 0, this.fieldWidths, 0, numFields);
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Get the codec's date-time format
+   * @return the format
+   */
+  public String getFormat() {
+    return this.dtFormat;
+  }
+
+  /**
+   * Get the codec's TimeZone
+   * @return the TimeZone
+   */
+  public TimeZone getTimeZone() {
+    return (TimeZone) this.timeZone.clone();
+  }
+
+  /**
+   * Check whether <tt>value</tt> contains no characters other than white spaces
+   * @param value the value to check (can be null)
+   * @return true if null or blank
+   */
+  public static boolean isBlank(CharSequence value) {
+    if (value != null) {
+      for (int iChar = 0; iChar < value.length(); iChar++) {
+        if (!Character.isWhitespace(value.charAt(iChar))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parse <tt>value</tt> to an epoch time in milliseconds.
+   * @param value the value to parse (not blank)
+   * @return the epoch time
+   * @throws Exception if the value is blank or does not match the format.
+   */
+  public long parseTime(CharSequence value) throws Exception {
+    int length = (value == null)? 0: value.length();
+    int pos = 0;
+    while ((pos < length) && (Character.isWhitespace(value.charAt(pos)))) {
+      pos++;
+    }
+    if (pos >= length) {
+      throw new Exception("The Date-Time value is blank.");
+    }
+
+    int year = 1970;
+    int month = 1;
+    int day = 1;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    boolean hasDate = false;
+    for (int iField = 0; iField < this.fieldCodes.length; iField++) {
+      char code = this.fieldCodes[iField];
+      if (code == LITERAL) {
+        if ((pos < length) && (!Character.isDigit(value.charAt(pos)))) {
+          pos++;
+        }
+        continue;
+      }
+      if ((pos >= length) || (!Character.isDigit(value.charAt(pos)))) {
+        if ((hasDate) && ((code == HOUR) || (code == MINUTE) || (code == SECOND))) {
+          break;
+        }
+        throw new Exception("Value[" + value + "] does not match Format["
+                + this.dtFormat + "].");
+      }
+
+      int maxWidth = (code == YEAR)? Math.max(4, this.fieldWidths[iField]):
+                                     Math.max(2, this.fieldWidths[iField]);
+      int fieldVal = 0;
+      int width = 0;
+      char digit = 0;
+      while ((width < maxWidth) && (pos < length) &&
+              (Character.isDigit(digit = value.charAt(pos)))) {
+        fieldVal = 10 * fieldVal + (digit - '0');
+        width++;
+        pos++;
+      }
+      switch (code) {
+        case YEAR:
+          year = fieldVal;
+          break;
+        case MONTH:
+          month = fieldVal;
+          break;
+        case DAY:
+          day = fieldVal;
+          hasDate = true;
+          break;
+        case HOUR:
+          hour = fieldVal;
+          break;
+        case MINUTE:
+          minute = fieldVal;
+          break;
+        default:
+          second = fieldVal;
+      }
+    }
+
+    long localMillis = TimeStepIndex.toEpochDay(year, month, day)
+                                                      * TimeStepIndex.MillisPerDay
+                     + (hour * 3600L + minute * 60L + second) * 1000L;
+    return TimeStepIndex.fromLocalMillis(localMillis, this.timeZone);
+  }
+
+  /**
+   * Parse <tt>value</tt> to a Date
+   * @param value the value to parse
+   * @return the Date or null if the value is null or blank.
+   * @throws Exception if the value does not match the format.
+   */
+  public Date parse(CharSequence value) throws Exception {
+    return (CdecDateCodec.isBlank(value))? null: new Date(this.parseTime(value));
+  }
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Object Overrides">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: return the format and the TimeZone ID</p>
+   */
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[" + this.dtFormat + "; "
+            + this.timeZone.getID() + "]";
+  }
+  // </editor-fold>
+}
@@ -0,0 +1,39 @@
+package gov.ca.water.cdec.importers;
+
+/**
+ * Enums with the states of the {@linkplain ImportCircuitBreaker}:<ul>
+ *  <li><b>{@linkplain #CLOSED}:</b> - (label=Closed) Processes are dispatched as
+ *    normal.</li>
+ *  <li><b>{@linkplain #OPEN}:</b> - (label=Open) The error rate exceeded the
+ *    threshold - the dispatch of processes is paused.</li>
+ *  <li><b>{@linkplain #HALF_OPEN}:</b> - (label=Half Open) The pause expired - a
+ *    single trial process is dispatched to test whether the source recovered.</li>
+ * </ul>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public enum CircuitState {
+
+  //<editor-fold defaultstate="collapsed" desc="Enum Values">
+  /**
+   * Processes are dispatched as normal. [0]
+   */
+  CLOSED(0,"Closed"),
+  /**
+   * The dispatch of processes is paused. [1]
+   */
+  OPEN(1,"Open"),
+  /**
+   * A single trial process is dispatched. [2]
+   */
+  HALF_OPEN(2,"Half Open");
+//</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Enum Constructor">
+  public final int intValue;
+  public final String label;
+  private CircuitState(int intValue, String label) {
+    this.intValue = intValue;
+    this.label = label;
+  }
+//</editor-fold>
+}
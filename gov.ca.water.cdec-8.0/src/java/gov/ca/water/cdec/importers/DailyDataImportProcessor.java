@@ -3,6 +3,7 @@ package gov.ca.water.cdec.importers;
 import gov.ca.water.cdec.core.*;
 import gov.ca.water.cdec.entities.DailyData;
 import java.util.Date;
+import java.util.List;
 
 /**
  * A Data Importer from the DWR CDEC database to a local database.
@@ -19,6 +20,15 @@ public class DailyDataImportProcessor extends TimeSeriesImportProcessor<DailyDat
                              Date startDt, Date endDt) {
     super(processName,sensorInfo,startDt,endDt); 
   }
+  
+  /**
+   * Overload 2: Constructor for a multi-station import of sensors of the same 
+   * sensorType
+   */
+  DailyDataImportProcessor(String processName, List<CdecSensorInfo> sensorInfos,
+                             Date startDt, Date endDt) {
+    super(processName,sensorInfos,startDt,endDt); 
+  }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Object CdecImportProcessor">
@@ -27,11 +37,11 @@ public class DailyDataImportProcessor extends TimeSeriesImportProcessor<DailyDat
    * <p>OVERRIDE: return a new DailyDataMap instance</p>
    */
   @Override
-  protected DailyDataMap onNewTimeSeriesMap() {
-    if (this.sensorInfo == null) {
+  protected DailyDataMap onNewTimeSeriesMap(CdecSensorInfo sensorInfo) {
+    if (sensorInfo == null) {
       throw new NullPointerException("The Processoor's SensorInfo is undefined.");
     }
-    return new DailyDataMap(this.sensorInfo.sensorId);
+    return new DailyDataMap(sensorInfo.sensorId);
   }
 
   /**
@@ -52,7 +62,7 @@ public class DailyDataImportProcessor extends TimeSeriesImportProcessor<DailyDat
   @Override
   public DailyDataImportProcessor nextTryClone() {
     DailyDataImportProcessor result = new DailyDataImportProcessor(this.processName, 
-                                            this.sensorInfo, this.startDt, this.endDt);
+                                            this.sensorInfos, this.startDt, this.endDt);
     result.setTryCount(this.getTryCount() + 1);
     return result;
   }
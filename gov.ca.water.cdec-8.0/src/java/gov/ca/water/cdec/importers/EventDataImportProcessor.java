@@ -4,6 +4,7 @@ import gov.ca.water.cdec.core.*;
 import gov.ca.water.cdec.entities.EventData;
 import gov.ca.water.cdec.enums.EventStep;
 import java.util.Date;
+import java.util.List;
 
 /**
  * A Data Importer from the DWR CDEC database to a local database.
@@ -20,6 +21,15 @@ public class EventDataImportProcessor extends TimeSeriesImportProcessor<EventDat
                              Date startDt, Date endDt) {
     super(processName,sensorInfo,startDt,endDt); 
   }
+  
+  /**
+   * Overload 2: Constructor for a multi-station import of sensors of the same 
+   * sensorType
+   */
+  EventDataImportProcessor(String processName, List<CdecSensorInfo> sensorInfos,
+                             Date startDt, Date endDt) {
+    super(processName,sensorInfos,startDt,endDt); 
+  }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Object CdecImportProcessor">
@@ -28,11 +38,11 @@ public class EventDataImportProcessor extends TimeSeriesImportProcessor<EventDat
    * <p>OVERRIDE: return a new DailyDataMap instance</p>
    */
   @Override
-  protected EventDataMap onNewTimeSeriesMap() {
-    if (this.sensorInfo == null) {
+  protected EventDataMap onNewTimeSeriesMap(CdecSensorInfo sensorInfo) {
+    if (sensorInfo == null) {
       throw new NullPointerException("The Processoor's SensorInfo is undefined.");
     }
-    return new EventDataMap(EventStep.MINUTES, this.sensorInfo.sensorId);
+    return new EventDataMap(EventStep.MINUTES, sensorInfo.sensorId);
   }
 
   /**
@@ -53,7 +63,7 @@ public class EventDataImportProcessor extends TimeSeriesImportProcessor<EventDat
   @Override
   public EventDataImportProcessor nextTryClone() {
     EventDataImportProcessor result = new EventDataImportProcessor(this.processName, 
-                                            this.sensorInfo, this.startDt, this.endDt);
+                                            this.sensorInfos, this.startDt, this.endDt);
     result.setTryCount(this.getTryCount() + 1);
     return result;
   }
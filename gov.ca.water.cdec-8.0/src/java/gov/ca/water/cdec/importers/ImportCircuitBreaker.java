@@ -0,0 +1,297 @@
+package gov.ca.water.cdec.importers;
+
+import java.io.Serializable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.json.JSONObject;
+
+/**
+ * <p>A global circuit breaker for the {@linkplain CdecDataImporter}'s dispatch of
+ * import processes. It tracks the outcome of the last {@linkplain #DefaultWindowSize}
+ * processes and trips ({@linkplain CircuitState#OPEN OPEN}) when the failure rate in
+ * the window reaches the threshold. While open, no processes are dispatched. When the
+ * open period expires the breaker becomes {@linkplain CircuitState#HALF_OPEN
+ * HALF_OPEN} and allows a single trial process: its success closes the breaker; its
+ * failure re-opens the breaker with a doubled open period (up to
+ * {@linkplain #MaxOpenMillis}). The trial is identified by its processId - the
+ * outcomes of processes dispatched before the breaker tripped are ignored while the
+ * breaker is OPEN or HALF_OPEN.</p>
+ * <p>All methods are synchronized - the breaker is only called once per dispatch and
+ * once per completed process.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ImportCircuitBreaker implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger =
+                              Logger.getLogger(ImportCircuitBreaker.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default number of process outcomes in the sliding window (20)
+   */
+  public static final int DefaultWindowSize = 20;
+  /**
+   * The default failure rate that trips the breaker (0.5)
+   */
+  public static final double DefaultFailureRate = 0.5d;
+  /**
+   * The default initial open period in milliseconds (30 seconds)
+   */
+  public static final long DefaultOpenMillis = 30000L;
+  /**
+   * The maximum open period in milliseconds (10 minutes)
+   */
+  public static final long MaxOpenMillis = 600000L;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The ring buffer of the outcomes in the window (true = failure)
+   */
+  private boolean[] outcomes;
+  /**
+   * The next index in the ring buffer
+   */
+  private int nextIndex;
+  /**
+   * The number of outcomes in the window
+   */
+  private int numOutcomes;
+  /**
+   * The number of failures in the window
+   */
+  private int numFailures;
+  /**
+   * The failure rate that trips the breaker
+   */
+  private double failureRate;
+  /**
+   * The initial open period in milliseconds
+   */
+  private long baseOpenMillis;
+  /**
+   * The current open period in milliseconds
+   */
+  private long openMillis;
+  /**
+   * The time (in milliseconds) the breaker was opened
+   */
+  private long openedAt;
+  /**
+   * The breaker's current state
+   */
+  private CircuitState state;
+  /**
+   * The processId of the half-open trial process (null if no trial is executing)
+   */
+  private String trialProcessId;
+  /**
+   * The number of times the breaker tripped
+   */
+  private long numTrips;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor with the default settings
+   */
+  public ImportCircuitBreaker() {
+    super();
+    this.configure(null, null, null);
+    this.numTrips = 0;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Call to configure the breaker. It resets the breaker to CLOSED.
+   * @param windowSize the number of outcomes in the window (null|&le; 0 for
+   * {@linkplain #DefaultWindowSize})
+   * @param failureRate the failure rate [0..1] that trips the breaker (null|&le; 0|
+   * &gt; 1 for {@linkplain #DefaultFailureRate})
+   * @param openMillis the initial open period (null|&le; 0 for {@linkplain
+   * #DefaultOpenMillis})
+   */
+  public final synchronized void configure(Integer windowSize, Double failureRate,
+                                                                    Long openMillis) {
+    int size = ((windowSize == null) || (windowSize <= 0))? DefaultWindowSize:
+                                                            windowSize;
+    this.outcomes = new boolean[size];
+    this.failureRate = ((failureRate == null) || (failureRate <= 0.0d) ||
+                        (failureRate > 1.0d))? DefaultFailureRate: failureRate;
+    this.baseOpenMillis = ((openMillis == null) || (openMillis <= 0))?
+                                                        DefaultOpenMillis: openMillis;
+    this.reset();
+  }
+
+  /**
+   * Call to close the breaker and clear the window.
+   */
+  public synchronized void reset() {
+    this.nextIndex = 0;
+    this.numOutcomes = 0;
+    this.numFailures = 0;
+    this.openMillis = this.baseOpenMillis;
+    this.openedAt = 0;
+    this.state = CircuitState.CLOSED;
+    this.trialProcessId = null;
+  }
+
+  /**
+   * Get the breaker's current state (an expired OPEN state is reported as HALF_OPEN)
+   * @return the state
+   */
+  public synchronized CircuitState getState() {
+    this.checkExpired();
+    return this.state;
+  }
+
+  /**
+   * Called before dispatching a process to check whether the dispatch is allowed. In
+   * the HALF_OPEN state, only a single trial process is allowed.
+   * @param processId the processId of the process to dispatch (not null)
+   * @return true if the process can be dispatched.
+   */
+  public synchronized boolean allowDispatch(String processId) {
+    if (processId == null) {
+      throw new NullPointerException("The ProcessId cannot be unassigned.");
+    }
+    this.checkExpired();
+    boolean result = true;
+    if (CircuitState.OPEN.equals(this.state)) {
+      result = false;
+    } else if (CircuitState.HALF_OPEN.equals(this.state)) {
+      result = (this.trialProcessId == null);
+      if (result) {
+        this.trialProcessId = processId;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Called when a process allowed by {@linkplain #allowDispatch(java.lang.String) 
+   * allowDispatch} could not be dispatched (e.g., it was rejected by the engine) or was
+   * cancelled. If it is the HALF_OPEN trial process, the trial is released so that the
+   * next dispatch can claim it.
+   * @param processId the processId of the process
+   */
+  public synchronized void cancelDispatch(String processId) {
+    if ((CircuitState.HALF_OPEN.equals(this.state)) && (processId != null) &&
+            (processId.equals(this.trialProcessId))) {
+      this.trialProcessId = null;
+    }
+  }
+
+  /**
+   * Get the remaining time before an OPEN breaker becomes HALF_OPEN
+   * @return the time in milliseconds (0 if not OPEN)
+   */
+  public synchronized long getRemainingOpenMillis() {
+    this.checkExpired();
+    long result = 0L;
+    if (CircuitState.OPEN.equals(this.state)) {
+      result = Math.max(0L, this.openedAt + this.openMillis - System.currentTimeMillis());
+    }
+    return result;
+  }
+
+  /**
+   * Called to record the outcome of a completed process. A HALF_OPEN breaker is
+   * closed on success or re-opened (with a doubled open period) on failure of its trial
+   * process - the outcomes of other processes are ignored. A CLOSED breaker trips if 
+   * the window is full and its failure rate &ge; the threshold.
+   * @param processId the processId of the completed process
+   * @param failed true if the process failed
+   */
+  public synchronized void recordOutcome(String processId, boolean failed) {
+    this.checkExpired();
+    if (CircuitState.HALF_OPEN.equals(this.state)) {
+      if ((processId == null) || (!processId.equals(this.trialProcessId))) {
+        return;
+      }
+      this.trialProcessId = null;
+      if (failed) {
+        this.trip(Math.min(MaxOpenMillis, 2 * this.openMillis));
+      } else {
+        logger.log(Level.INFO, "{0}: Trial process succeeded. Circuit closed.",
+                this.getClass().getSimpleName());
+        long curTrips = this.numTrips;
+        this.reset();
+        this.numTrips = curTrips;
+      }
+      return;
+    } else if (CircuitState.OPEN.equals(this.state)) {
+      return;
+    }
+
+    if (this.numOutcomes == this.outcomes.length) {
+      if (this.outcomes[this.nextIndex]) {
+        this.numFailures--;
+      }
+    } else {
+      this.numOutcomes++;
+    }
+    this.outcomes[this.nextIndex] = failed;
+    if (failed) {
+      this.numFailures++;
+    }
+    this.nextIndex = (this.nextIndex + 1) % this.outcomes.length;
+
+    if ((this.numOutcomes == this.outcomes.length) &&
+            (this.numFailures >= (this.failureRate * this.numOutcomes))) {
+      this.trip(this.baseOpenMillis);
+    }
+  }
+
+  /**
+   * Get the breaker's metrics as a JSONObject
+   * @return {"state": label, "failures": #, "window": #, "trips": #,
+   * "remainingOpenMs": #}
+   */
+  public synchronized JSONObject getAsJSON() {
+    JSONObject result = new JSONObject();
+    result.put("state", this.getState().label);
+    result.put("failures", this.numFailures);
+    result.put("window", this.numOutcomes);
+    result.put("trips", this.numTrips);
+    result.put("remainingOpenMs", this.getRemainingOpenMillis());
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Called to switch an OPEN breaker to HALF_OPEN when its open period expired.
+   */
+  private void checkExpired() {
+    if ((CircuitState.OPEN.equals(this.state)) &&
+            (System.currentTimeMillis() >= (this.openedAt + this.openMillis))) {
+      this.state = CircuitState.HALF_OPEN;
+      this.trialProcessId = null;
+    }
+  }
+
+  /**
+   * Called to open the breaker for <tt>openMillis</tt> and clear the window
+   * @param openMillis the open period
+   */
+  private void trip(long openMillis) {
+    this.state = CircuitState.OPEN;
+    this.openMillis = openMillis;
+    this.openedAt = System.currentTimeMillis();
+    this.trialProcessId = null;
+    this.nextIndex = 0;
+    this.numOutcomes = 0;
+    this.numFailures = 0;
+    this.numTrips++;
+    logger.log(Level.WARNING, "{0}: Error rate exceeded. Circuit opened for {1} ms.",
+            new Object[]{this.getClass().getSimpleName(), openMillis});
+  }
+  //</editor-fold>
+}
@@ -0,0 +1,474 @@
+package gov.ca.water.cdec.importers;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>The ImportEngine executes {@linkplain ImportProcessor ImportProcessors} on a pool
+ * of reusable worker threads. The engine's {@link ImportEngineExecutor} extends
+ * {@link ThreadPoolExecutor} with a bounded {@linkplain ImportQueue}, which will 
+ * reject new submissions when the queue is full - the caller is expected to hold back
+ * its pending processes until {@linkplain #hasCapacity() this.hasCapacity}. Unless a
+ * queue capacity is specified, the queue's capacity follows the {@linkplain 
+ * #setMaxThreads(int) maximum number of threads}.</p>
+ * <p>Next to the total number of worker threads, the engine limits the number of
+ * processes that can be in a specific {@linkplain ImportStage} at a given time (e.g.
+ * allow 8 concurrent downloads, but only 2 concurrent merges with the database). The
+ * processors call {@linkplain #enterStage(gov.ca.water.cdec.importers.ImportStage)
+ * enterStage} and {@linkplain #exitStage(gov.ca.water.cdec.importers.ImportStage)
+ * exitStage} to claim and release a stage permit.</p>
+ * <p>Each submitted processor is represented by a {@linkplain CompletableFuture} that
+ * completes with the processor's final {@linkplain ImportStatus} when the process
+ * ended (or is cancelled when the engine's tasks are cancelled).</p>
+ * <p><b>NOTE:</b> The engine uses daemon threads that time out when idle, the engine
+ * therefore does not need to be shutdown explicitly.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ImportEngine implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger = Logger.getLogger(ImportEngine.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default number of worker threads (twice the number of available processors,
+   * because the import processes spend most of their time waiting on the network).
+   */
+  public static final int DefaultMaxThreads =
+                                      2 * Runtime.getRuntime().availableProcessors();
+  /**
+   * The default number of concurrent merges with the local database (the number of
+   * available processors).
+   */
+  public static final int DefaultMaxMerges = Runtime.getRuntime().availableProcessors();
+  /**
+   * The number of seconds an idle worker thread is kept alive (60)
+   */
+  public static final int IdleThreadSeconds = 60;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[ImportTask]">
+  /**
+   * A FutureTask wrapper for an ImportProcessor that completes the processor's
+   * CompletableFuture when the task is done (completed, failed, or cancelled).
+   */
+  private class ImportTask extends FutureTask<ImportStatus> {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The ImportProcessor to execute
+     */
+    private final ImportProcessor processor;
+    /**
+     * The processor's completion future
+     */
+    private final CompletableFuture<ImportStatus> completion;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Public Constructor
+     */
+    public ImportTask(final ImportProcessor processor) {
+      super(processor, null);
+      this.processor = processor;
+      this.completion = new CompletableFuture<>();
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="FutureTask Overrides">
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Remove the task from the engine's active tasks and complete
+     * this.completion with the processor's ImportStatus, cancel it if the task was
+     * cancelled, or complete it exceptionally if the run failed.</p>
+     */
+    @Override
+    protected void done() {
+      ImportEngine.this.activeTasks.remove(this.processor.processId, this);
+      if (this.isCancelled()) {
+        this.completion.cancel(false);
+      } else {
+        try {
+          this.get();
+          this.completion.complete(this.processor.getImportStatus());
+        } catch (ExecutionException exp) {
+          this.completion.completeExceptionally(exp.getCause());
+        } catch (Exception exp) {
+          this.completion.completeExceptionally(exp);
+        }
+      }
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[ImportThreadFactory]">
+  /**
+   * The ThreadFactory for the engine's daemon worker threads.
+   */
+  private static class ImportThreadFactory implements ThreadFactory {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The counter used in naming the threads
+     */
+    private final AtomicInteger threadCount = new AtomicInteger();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Implement ThreadFactory">
+    /**
+     * {@inheritDoc} <p>IMPLEMENT: Return  new daemon Thread named
+     * "CdecImport-[count]"</p>
+     */
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread result = new Thread(runnable, "CdecImport-"
+                                                    + this.threadCount.incrementAndGet());
+      result.setDaemon(true);
+      return result;
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[ImportQueue]">
+  /**
+   * The engine's work queue - a LinkedBlockingQueue with an adjustable capacity. Only
+   * {@linkplain #offer(java.lang.Runnable) offer} (used by the executor to queue a 
+   * task) is bounded by the capacity.
+   */
+  private static class ImportQueue extends LinkedBlockingQueue<Runnable> {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The queue's current capacity
+     */
+    private volatile int capacity;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Public Constructor
+     * @param capacity the initial capacity (&gt; 0)
+     */
+    public ImportQueue(int capacity) {
+      super();
+      this.capacity = capacity;
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Set the queue's capacity. Tasks already queued beyond a reduced capacity remain 
+     * queued.
+     * @param capacity the new capacity (&gt; 0)
+     */
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="LinkedBlockingQueue Overrides">
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Return false if the queue's size &ge; this.capacity.</p>
+     */
+    @Override
+    public synchronized boolean offer(Runnable runnable) {
+      return ((this.size() < this.capacity) && (super.offer(runnable)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Return this.capacity - size (&ge; 0)</p>
+     */
+    @Override
+    public int remainingCapacity() {
+      return Math.max(0, this.capacity - this.size());
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[ImportEngineExecutor]">
+  /**
+   * The engine's ThreadPoolExecutor with a bounded queue. It log uncaught errors
+   * thrown by the ImportTasks.
+   */
+  private static class ImportEngineExecutor extends ThreadPoolExecutor {
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Public Constructor
+     */
+    public ImportEngineExecutor(int maxThreads, int queueCapacity) {
+      super(maxThreads, maxThreads, IdleThreadSeconds, TimeUnit.SECONDS,
+              new ImportQueue(queueCapacity), new ImportThreadFactory());
+      this.allowCoreThreadTimeOut(true);
+    }
+    // </editor-fold>
+
+    /**
+     * {@inheritDoc} <p>OVERRIDE: Log the throwable if assigned.</p>
+     */
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+      super.afterExecute(runnable, throwable);
+      if (throwable != null) {
+        logger.log(Level.WARNING, "{0}.afterExecute Error:\n {1}",
+                new Object[]{ImportEngine.class.getSimpleName(), throwable.getMessage()});
+      }
+    }
+  }
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The engine's Executor
+   */
+  private final transient ImportEngineExecutor executor;
+  /**
+   * The Map of submitted ImportTasks by their processId
+   */
+  private final transient ConcurrentHashMap<String, ImportTask> activeTasks;
+  /**
+   * The Permits for the DOWNLOAD stage
+   */
+  private final transient Semaphore downloadPermits;
+  /**
+   * The Permits for the MERGE stage
+   */
+  private final transient Semaphore mergePermits;
+  /**
+   * The specified queue capacity (null if the capacity follows maxThreads)
+   */
+  private Integer queueCapacity;
+  /**
+   * The number of DOWNLOAD stage permits
+   */
+  private int maxDownloads;
+  /**
+   * The number of MERGE stage permits
+   */
+  private int maxMerges;
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor with the default settings: maxThreads = {@linkplain
+   * #DefaultMaxThreads}; queueCapacity = maxThreads; maxDownloads = maxThreads; and
+   * maxMerges = {@linkplain #DefaultMaxMerges}.
+   */
+  public ImportEngine() {
+    this(DefaultMaxThreads, null, null, null);
+  }
+
+  /**
+   * Public Constructor
+   * @param maxThreads the maximum number of worker threads (must be &gt; 0)
+   * @param queueCapacity the capacity of the queue of submitted processes waiting for
+   * a worker thread (default = maxThreads - following any change of maxThreads - if 
+   * null| &le; 0)
+   * @param maxDownloads the maximum number of concurrent downloads (default =
+   * maxThreads if null| &le; 0)
+   * @param maxMerges the maximum number of concurrent merges (default =
+   * {@linkplain #DefaultMaxMerges} if null| &le; 0)
+   */
+  public ImportEngine(int maxThreads, Integer queueCapacity, Integer maxDownloads,
+                                                                  Integer maxMerges) {
+    super();
+    if (maxThreads <= 0) {
+      throw new IllegalArgumentException("The ImportEngine's maximum number of threads "
+              + "must be greater than zero.");
+    }
+    this.queueCapacity = ((queueCapacity == null) || (queueCapacity <= 0))? null:
+                                                                      queueCapacity;
+    int capacity = (this.queueCapacity == null)? maxThreads: this.queueCapacity;
+    this.maxDownloads = ((maxDownloads == null) || (maxDownloads <= 0))? maxThreads:
+                                                                      maxDownloads;
+    this.maxMerges = ((maxMerges == null) || (maxMerges <= 0))? DefaultMaxMerges:
+                                                                      maxMerges;
+    this.executor = new ImportEngineExecutor(maxThreads, capacity);
+    this.activeTasks = new ConcurrentHashMap<>();
+    this.downloadPermits = new Semaphore(this.maxDownloads, true);
+    this.mergePermits = new Semaphore(this.maxMerges, true);
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the Semaphore for the specified stage
+   * @param stage the stage
+   * @return the stage's permits (null if stage = null)
+   */
+  private Semaphore getPermits(ImportStage stage) {
+    Semaphore result = null;
+    if (ImportStage.DOWNLOAD.equals(stage)) {
+      result = this.downloadPermits;
+    } else if (ImportStage.MERGE.equals(stage)) {
+      result = this.mergePermits;
+    }
+    return result;
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Submit the <tt>processor</tt> for execution. The processor is assigned this engine
+   * as its stage gate before it is queued.
+   * @param processor the processor to execute
+   * @return the processor's completion future.
+   * @throws RejectedExecutionException if the engine's queue is full or the engine is
+   * shutdown.
+   */
+  public CompletableFuture<ImportStatus> submit(ImportProcessor processor) {
+    if (processor == null) {
+      throw new NullPointerException("The ImportProcessor cannot be unassigned.");
+    }
+    ImportTask task = new ImportTask(processor);
+    processor.setImportEngine(this);
+    this.activeTasks.put(processor.processId, task);
+    try {
+      this.executor.execute(task);
+    } catch (RejectedExecutionException exp) {
+      this.activeTasks.remove(processor.processId, task);
+      processor.setImportEngine(null);
+      throw exp;
+    }
+    return task.completion;
+  }
+
+  /**
+   * Check whether the engine's queue can accept another process
+   * @return true if the queue's remaining capacity &gt; 0 and the engine is not
+   * shutdown.
+   */
+  public boolean hasCapacity() {
+    return ((!this.executor.isShutdown()) &&
+            (this.executor.getQueue().remainingCapacity() > 0));
+  }
+
+  /**
+   * Get the number of submitted processes that are queued or running
+   * @return this.activeTasks.size
+   */
+  public int getNumActive() {
+    return this.activeTasks.size();
+  }
+
+  /**
+   * Get the number of processes that are currently running
+   * @return the executor's active count
+   */
+  public int getNumRunning() {
+    return this.executor.getActiveCount();
+  }
+
+  /**
+   * Get the maximum number of worker threads
+   * @return the assigned value
+   */
+  public int getMaxThreads() {
+    return this.executor.getMaximumPoolSize();
+  }
+
+  /**
+   * Set the maximum number of worker threads. Ignored if maxThreads &le; 0. If no
+   * queue capacity was specified, the queue's capacity is set to maxThreads.
+   * @param maxThreads the new maximum
+   */
+  public void setMaxThreads(int maxThreads) {
+    if ((maxThreads <= 0) || (maxThreads == this.executor.getMaximumPoolSize())) {
+      return;
+    }
+    if (maxThreads > this.executor.getMaximumPoolSize()) {
+      this.executor.setMaximumPoolSize(maxThreads);
+      this.executor.setCorePoolSize(maxThreads);
+    } else {
+      this.executor.setCorePoolSize(maxThreads);
+      this.executor.setMaximumPoolSize(maxThreads);
+    }
+    if (this.queueCapacity == null) {
+      ((ImportQueue) this.executor.getQueue()).setCapacity(maxThreads);
+    }
+  }
+
+  /**
+   * Get the maximum number of processes allowed in <tt>stage</tt> at a given time.
+   * @param stage the stage
+   * @return the assigned limit (0 if stage = null).
+   */
+  public int getStageLimit(ImportStage stage) {
+    int result = 0;
+    if (ImportStage.DOWNLOAD.equals(stage)) {
+      result = this.maxDownloads;
+    } else if (ImportStage.MERGE.equals(stage)) {
+      result = this.maxMerges;
+    }
+    return result;
+  }
+
+  /**
+   * Called by an ImportProcessor before it enters <tt>stage</tt>. It blocks until a
+   * stage permit is available. Ignored if stage = null.
+   * @param stage the stage to enter
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  public void enterStage(ImportStage stage) throws InterruptedException {
+    Semaphore permits = this.getPermits(stage);
+    if (permits != null) {
+      permits.acquire();
+    }
+  }
+
+  /**
+   * Called by an ImportProcessor after it completed <tt>stage</tt> to release the
+   * stage permit claimed by {@linkplain #enterStage(
+   * gov.ca.water.cdec.importers.ImportStage) enterStage}. Ignored if stage = null.
+   * @param stage the stage to exit
+   */
+  public void exitStage(ImportStage stage) {
+    Semaphore permits = this.getPermits(stage);
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  /**
+   * Called to cancel all queued and running processes. Running processes are
+   * interrupted.
+   */
+  public void cancelAll() {
+    List<ImportTask> tasks = new ArrayList<>(this.activeTasks.values());
+    for (ImportTask task : tasks) {
+      try {
+        this.executor.remove(task);
+        task.cancel(true);
+      } catch (Exception exp) {
+        logger.log(Level.WARNING, "{0}.cancelAll[{1}] Error:\n {2}",
+                new Object[]{this.getClass().getSimpleName(),
+                  task.processor.getProcessName(), exp.getMessage()});
+      }
+    }
+    this.activeTasks.clear();
+  }
+
+  /**
+   * Called to shutdown the engine - it cancels all queued and running processes.
+   */
+  public void shutdown() {
+    this.cancelAll();
+    this.executor.shutdownNow();
+  }
+  // </editor-fold>
+}
@@ -0,0 +1,594 @@
+package gov.ca.water.cdec.importers;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.SecureRandom;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import javax.net.ssl.*;
+
+/**
+ * <p>The shared HTTP client used by the {@linkplain ImportProcessor ImportProcessors}
+ * and other CDEC downloaders. It wraps the JDK's HttpURLConnection so that:</p><ul>
+ *  <li>connections are returned to the JDK's keep-alive cache (the response stream is
+ *    drained and closed instead of calling disconnect);</li>
+ *  <li>all HTTPS connections share one SSLSocketFactory (and thus one TLS session
+ *    cache), which is assigned per connection - the JVM-wide defaults and system
+ *    properties are only set once;</li>
+ *  <li>responses are requested with <tt>Accept-Encoding: gzip</tt> and transparently
+ *    decompressed;</li>
+ *  <li>the number of concurrent connections per host is limited (default =
+ *    {@linkplain #DefaultMaxPerHost}); and</li>
+ *  <li>the connect and read timeouts are configurable.</li>
+ * </ul>
+ * <p>Usage: <tt>try (ImportHttpClient.Response response = client.get(url)) {...}</tt>
+ * - the response must be closed to release the host permit and the connection.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ImportHttpClient {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger =
+                                  Logger.getLogger(ImportHttpClient.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default connect timeout in milliseconds (30 seconds)
+   */
+  public static final int DefaultConnectTimeout = 30000;
+  /**
+   * The default read timeout in milliseconds (120 seconds)
+   */
+  public static final int DefaultReadTimeout = 120000;
+  /**
+   * The default maximum number of concurrent connections per host (8). This is also
+   * the JDK's maximum number of idle keep-alive connections per host.
+   */
+  public static final int DefaultMaxPerHost = 8;
+  /**
+   * The maximum number of unread response bytes that are drained when closing a
+   * response to return its connection to the keep-alive cache (64 KB). Larger
+   * remainders are discarded with the connection.
+   */
+  private static final int MaxDrainBytes = 65536;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Singleton Access">
+  /**
+   * Placeholder for the Singleton Instance
+   */
+  private static ImportHttpClient INSTANCE = null;
+
+  /**
+   * Get the shared ImportHttpClient instance. On first call, it sets the JDK's
+   * keep-alive and TLS system properties (if not already assigned).
+   * @return the singleton instance.
+   */
+  public static synchronized ImportHttpClient getInstance() {
+    if (ImportHttpClient.INSTANCE == null) {
+      ImportHttpClient.initSystemProperties();
+      ImportHttpClient.INSTANCE = new ImportHttpClient();
+    }
+    return ImportHttpClient.INSTANCE;
+  }
+
+  /**
+   * Called once to assign the JDK's HTTP keep-alive settings and the TLS settings
+   * required by the CDEC servers. Existing keep-alive settings are not overridden.
+   */
+  private static void initSystemProperties() {
+    if (System.getProperty("http.keepAlive") == null) {
+      System.setProperty("http.keepAlive", "true");
+    }
+    if (System.getProperty("http.maxConnections") == null) {
+      System.setProperty("http.maxConnections",
+                                    Integer.toString(ImportHttpClient.DefaultMaxPerHost));
+    }
+    System.setProperty("https.protocols", "TLSv1,TLSv1.1,TLSv1.2");
+    System.setProperty("jsse.enableSNIExtension", "false");
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[HostPermits]">
+  /**
+   * The connection permits of a host - a fair Semaphore that can be resized while
+   * permits are claimed.
+   */
+  private static class HostPermits extends Semaphore {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The current number of permits (claimed and available)
+     */
+    private int limit;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Public Constructor
+     * @param limit the number of permits
+     */
+    public HostPermits(int limit) {
+      super(limit, true);
+      this.limit = limit;
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Called to change the number of permits. If reduced, the available permits can
+     * become negative until the claimed permits are released.
+     * @param newLimit the new number of permits
+     */
+    public void resize(int newLimit) {
+      int delta = newLimit - this.limit;
+      if (delta > 0) {
+        this.release(delta);
+      } else if (delta < 0) {
+        this.reducePermits(-delta);
+      }
+      this.limit = newLimit;
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[Response]">
+  /**
+   * The Response of an {@linkplain ImportHttpClient#get(java.net.URL, java.lang.String)
+   * ImportHttpClient.get} request. It must be closed to return the connection to the
+   * keep-alive cache and release the host permit.
+   */
+  public class Response implements Closeable {
+
+    //<editor-fold defaultstate="collapsed" desc="Private Fields">
+    /**
+     * The request's connection
+     */
+    private final HttpURLConnection conn;
+    /**
+     * The host permit claimed for the request
+     */
+    private final Semaphore hostPermits;
+    /**
+     * The response code
+     */
+    private final int responseCode;
+    /**
+     * The (decoded) response stream - lazy initiated
+     */
+    private InputStream inStream;
+    /**
+     * Flag set when the response is closed.
+     */
+    private boolean closed;
+    //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructor">
+    /**
+     * Private Constructor
+     */
+    private Response(HttpURLConnection conn, Semaphore hostPermits) throws IOException {
+      this.conn = conn;
+      this.hostPermits = hostPermits;
+      this.inStream = null;
+      this.closed = false;
+      this.responseCode = conn.getResponseCode();
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Get the response's HTTP response code
+     * @return the code
+     */
+    public int getResponseCode() {
+      return this.responseCode;
+    }
+
+    /**
+     * Get the response's HTTP response message
+     * @return the message (can be null)
+     */
+    public String getResponseMessage() {
+      String result = null;
+      try {
+        result = this.conn.getResponseMessage();
+      } catch (IOException exp) {
+        result = null;
+      }
+      return result;
+    }
+
+    /**
+     * Get whether the response code = HTTP_OK
+     * @return true if successful
+     */
+    public boolean isOk() {
+      return (this.responseCode == HttpURLConnection.HTTP_OK);
+    }
+
+    /**
+     * Get whether the response code = HTTP_NOT_MODIFIED (i.e., the validators of a
+     * conditional request matched).
+     * @return true if not modified
+     */
+    public boolean isNotModified() {
+      return (this.responseCode == HttpURLConnection.HTTP_NOT_MODIFIED);
+    }
+
+    /**
+     * Get the value of a response header
+     * @param name the header name
+     * @return the value or null if not assigned
+     */
+    public String getHeader(String name) {
+      return (name == null)? null: this.conn.getHeaderField(name);
+    }
+
+    /**
+     * Get the response's Last-Modified time
+     * @return the time in milliseconds or null if not assigned
+     */
+    public Long getLastModified() {
+      long result = this.conn.getLastModified();
+      return (result <= 0)? null: result;
+    }
+
+    /**
+     * Get the response's body stream. If the content is gzip-encoded, the stream is
+     * wrapped in a GZIPInputStream. For response codes &ge; 400 it returns the error
+     * stream.
+     * @return the stream (not buffered; can be null if the response has no body)
+     * @throws IOException if the stream is not accessible.
+     */
+    public InputStream getInputStream() throws IOException {
+      if (this.closed) {
+        throw new IOException("The Response is closed.");
+      }
+      if (this.inStream == null) {
+        InputStream rawStream = (this.responseCode >= 400)? this.conn.getErrorStream():
+                                                            this.conn.getInputStream();
+        if ((rawStream != null) &&
+                ("gzip".equalsIgnoreCase(this.conn.getContentEncoding()))) {
+          rawStream = new GZIPInputStream(rawStream);
+        }
+        this.inStream = rawStream;
+      }
+      return this.inStream;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>OVERRIDE: Drain up to 64 KB of the unread response and close the stream, which
+     * returns the connection to the JDK's keep-alive cache, and release the host
+     * permit. If the remainder is larger, the connection is disconnected.</p>
+     */
+    @Override
+    public void close() {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      try {
+        InputStream drainStream = this.inStream;
+        if (drainStream == null) {
+          drainStream = (this.responseCode >= 400)? this.conn.getErrorStream():
+                                                    this.conn.getInputStream();
+        }
+        if (drainStream != null) {
+          byte[] drainBuffer = new byte[4096];
+          int drained = 0;
+          int iRead = 0;
+          while ((drained <= ImportHttpClient.MaxDrainBytes) &&
+                  ((iRead = drainStream.read(drainBuffer)) > 0)) {
+            drained += iRead;
+          }
+          drainStream.close();
+          if (drained > ImportHttpClient.MaxDrainBytes) {
+            this.conn.disconnect();
+          }
+        }
+      } catch (IOException exp) {
+        this.conn.disconnect();
+      } finally {
+        this.inStream = null;
+        this.hostPermits.release();
+      }
+    }
+    //</editor-fold>
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The shared SSLSocketFactory - reused by all HTTPS connections to share the TLS
+   * session cache.
+   */
+  private final SSLSocketFactory socketFactory;
+  /**
+   * The HostnameVerifier assigned to all HTTPS connections
+   */
+  private final HostnameVerifier hostVerifier;
+  /**
+   * The connection permits by host
+   */
+  private final ConcurrentHashMap<String, HostPermits> hostPermits;
+  /**
+   * The connect timeout in milliseconds
+   */
+  private volatile int connectTimeout;
+  /**
+   * The read timeout in milliseconds
+   */
+  private volatile int readTimeout;
+  /**
+   * The maximum number of concurrent connections per host
+   */
+  private volatile int maxPerHost;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Private Constructor
+   */
+  private ImportHttpClient() {
+    super();
+    this.socketFactory = ImportHttpClient.newSocketFactory();
+    this.hostVerifier = new HostnameVerifier() {
+      @Override
+      public boolean verify(String string, SSLSession ssls) {
+        return true;
+      }
+    };
+    this.hostPermits = new ConcurrentHashMap<>();
+    this.connectTimeout = ImportHttpClient.DefaultConnectTimeout;
+    this.readTimeout = ImportHttpClient.DefaultReadTimeout;
+    this.maxPerHost = ImportHttpClient.DefaultMaxPerHost;
+  }
+
+  /**
+   * Called to initiate the SSLSocketFactory for the CDEC servers (trusting all
+   * certificates).
+   * @return the factory or null if the initiation failed (use the JVM default).
+   */
+  private static SSLSocketFactory newSocketFactory() {
+    SSLSocketFactory result = null;
+    try {
+      TrustManager[] trustAllCerts = new TrustManager[]{
+        new X509TrustManager() {
+          @Override
+          public X509Certificate[] getAcceptedIssuers() {
+            return null;
+          }
+
+          @Override
+          public void checkServerTrusted(X509Certificate[] certs, String authType)
+                                                           throws CertificateException {
+          }
+
+          @Override
+          public void checkClientTrusted(X509Certificate[] certs, String authType)
+                                                          throws CertificateException {
+          }
+        }
+      };
+      SSLContext sc = SSLContext.getInstance("SSL");
+      sc.init(null, trustAllCerts, new SecureRandom());
+      result = sc.getSocketFactory();
+    } catch (Exception exp) {
+      logger.log(Level.WARNING, "{0}.newSocketFactory Error:\n {1}",
+              new Object[]{ImportHttpClient.class.getSimpleName(), exp.getMessage()});
+    }
+    return result;
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Call to configure the client
+   * @param connectTimeout the connect timeout in milliseconds (null|&le; 0 to reset to
+   * {@linkplain #DefaultConnectTimeout})
+   * @param readTimeout the read timeout in milliseconds (null|&le; 0 to reset to
+   * {@linkplain #DefaultReadTimeout})
+   * @param maxPerHost the maximum number of concurrent connections per host (null|&le;
+   * 0 to reset to {@linkplain #DefaultMaxPerHost}). A new limit resizes the permits of
+   * all known hosts - a reduced limit applies once enough open responses are closed.
+   */
+  public void configure(Integer connectTimeout, Integer readTimeout,
+                                                                  Integer maxPerHost) {
+    this.connectTimeout = ((connectTimeout == null) || (connectTimeout <= 0))?
+                          ImportHttpClient.DefaultConnectTimeout: connectTimeout;
+    this.readTimeout = ((readTimeout == null) || (readTimeout <= 0))?
+                          ImportHttpClient.DefaultReadTimeout: readTimeout;
+    int newMax = ((maxPerHost == null) || (maxPerHost <= 0))?
+                          ImportHttpClient.DefaultMaxPerHost: maxPerHost;
+    synchronized (this.hostPermits) {
+      if (newMax != this.maxPerHost) {
+        this.maxPerHost = newMax;
+        for (HostPermits permits : this.hostPermits.values()) {
+          permits.resize(newMax);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the connect timeout
+   * @return the timeout in milliseconds
+   */
+  public int getConnectTimeout() {
+    return this.connectTimeout;
+  }
+
+  /**
+   * Get the read timeout
+   * @return the timeout in milliseconds
+   */
+  public int getReadTimeout() {
+    return this.readTimeout;
+  }
+
+  /**
+   * Get the maximum number of concurrent connections per host
+   * @return the limit
+   */
+  public int getMaxPerHost() {
+    return this.maxPerHost;
+  }
+
+  /**
+   * Overload 1: Send a GET request for <tt>url</tt> without an Accept header.
+   * @param url the request URL
+   * @return the response - must be closed by the caller
+   * @throws IOException if the connection failed.
+   */
+  public Response get(URL url) throws IOException {
+    return this.get(url, null);
+  }
+
+  /**
+   * Overload 2: Send a GET request for <tt>url</tt> (not a conditional request).
+   * @param url the request URL
+   * @param accept the Accept header value (optional)
+   * @return the response - must be closed by the caller
+   * @throws IOException if the connection failed or the wait was interrupted.
+   */
+  public Response get(URL url, String accept) throws IOException {
+    return this.get(url, accept, null, null);
+  }
+
+  /**
+   * Overload 3: Send a (conditional) GET request for <tt>url</tt>. It waits for a host
+   * permit before opening the connection. The permit is released when the response is
+   * closed or if the connection failed. If <tt>etag</tt> or <tt>lastModified</tt> is
+   * assigned, the server can respond with {@linkplain Response#isNotModified()
+   * HTTP_NOT_MODIFIED} (without a body).
+   * @param url the request URL
+   * @param accept the Accept header value (optional)
+   * @param etag the ETag of the cached content (optional - sent as If-None-Match)
+   * @param lastModified the Last-Modified time (in milliseconds) of the cached content
+   * (optional - sent as If-Modified-Since)
+   * @return the response - must be closed by the caller
+   * @throws IOException if the connection failed or the wait was interrupted.
+   */
+  public Response get(URL url, String accept, String etag, Long lastModified)
+                                                                    throws IOException {
+    if (url == null) {
+      throw new IOException("The Request URL is undefined.");
+    }
+    Semaphore permits = this.getHostPermits(url.getHost());
+    try {
+      permits.acquire();
+    } catch (InterruptedException exp) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Waiting for a connection to Host["
+              + url.getHost() + "] was interrupted.");
+    }
+
+    Response result = null;
+    HttpURLConnection httpConn = null;
+    try {
+      URLConnection conn = url.openConnection();
+      if (!(conn instanceof HttpURLConnection)) {
+        throw new IOException("URL[" + url.toString() + "] is not a HTTP URL.");
+      }
+      httpConn = (HttpURLConnection) conn;
+      if ((httpConn instanceof HttpsURLConnection) && (this.socketFactory != null)) {
+        HttpsURLConnection sslConn = (HttpsURLConnection) httpConn;
+        sslConn.setSSLSocketFactory(this.socketFactory);
+        sslConn.setHostnameVerifier(this.hostVerifier);
+      }
+      httpConn.setRequestMethod("GET");
+      httpConn.setConnectTimeout(this.connectTimeout);
+      httpConn.setReadTimeout(this.readTimeout);
+      httpConn.setUseCaches(false);
+      httpConn.setRequestProperty("Accept-Encoding", "gzip");
+      httpConn.setRequestProperty("Connection", "keep-alive");
+      if (accept != null) {
+        httpConn.setRequestProperty("Accept", accept);
+      }
+      if (etag != null) {
+        httpConn.setRequestProperty("If-None-Match", etag);
+      }
+      if ((lastModified != null) && (lastModified > 0)) {
+        httpConn.setIfModifiedSince(lastModified);
+      }
+      httpConn.connect();
+      result = new Response(httpConn, permits);
+    } finally {
+      if (result == null) {
+        if (httpConn != null) {
+          httpConn.disconnect();
+        }
+        permits.release();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Send a GET request for <tt>url</tt> and read the full response as a UTF-8 string.
+   * @param url the request URL
+   * @param accept the Accept header value (optional)
+   * @return the response string (null if the response is empty)
+   * @throws IOException if the connection failed or the response code is not
+   * HTTP_OK.
+   */
+  public String getString(URL url, String accept) throws IOException {
+    String result = null;
+    try (Response response = this.get(url, accept)) {
+      if (!response.isOk()) {
+        throw new IOException("Connection[" + url.toString() + "] failed; Response "
+                + "Code[" + response.getResponseCode() + "]: "
+                + response.getResponseMessage());
+      }
+      InputStream inStream = response.getInputStream();
+      if (inStream != null) {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream(8192);
+        byte[] readBuffer = new byte[4096];
+        int iRead = 0;
+        while ((iRead = inStream.read(readBuffer)) > 0) {
+          outStream.write(readBuffer, 0, iRead);
+        }
+        result = (outStream.size() == 0)? null: outStream.toString("UTF-8");
+      }
+    }
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Get the connection permits for <tt>host</tt> (lazy initiated). New permits are
+   * created under the same lock as {@linkplain #configure(java.lang.Integer, 
+   * java.lang.Integer, java.lang.Integer) configure} resizes the existing permits.
+   * @param host the host name
+   * @return the host's Semaphore
+   */
+  private Semaphore getHostPermits(String host) {
+    String hostKey = (host == null)? "": host.toLowerCase();
+    HostPermits result = this.hostPermits.get(hostKey);
+    if (result == null) {
+      synchronized (this.hostPermits) {
+        if ((result = this.hostPermits.get(hostKey)) == null) {
+          result = new HostPermits(this.maxPerHost);
+          this.hostPermits.put(hostKey, result);
+        }
+      }
+    }
+    return result;
+  }
+  //</editor-fold>
+}
@@ -11,5 +11,6 @@ public class ImportKeys {
   public final static String END_DT = "EndDt";
   public final static String IMPORT_STR = "ImportStr";
   public final static String IMPORT_DATA = "ImportData";
+  public final static String IMPORT_BATCH = "ImportBatch";
   public final static String LOCAL_DATA = "LocalData";
 }
@@ -2,13 +2,9 @@ package gov.ca.water.cdec.importers;
 
 import java.io.*;
 import java.net.*;
-import java.security.SecureRandom;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.util.LinkedHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.net.ssl.*;
 
 /**
  *
@@ -23,68 +19,6 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
   protected static final Logger logger = Logger.getLogger(ImportProcessor.class.getName());
   //</editor-fold>
   
-  //<editor-fold defaultstate="collapsed" desc="Static Logger">
-  /**
-   * Static Placeholder for the CdecVerifier (type HostnameVerifier) reference 
-   */
-  private static HostnameVerifier _cdecVerifier = null;
-  /**
-   * Get the Static CdecVerifier reference.
-   * @return _cdecVerifier (LIAC)
-   */
-  private static HostnameVerifier CdecVerifier() {
-    if (_cdecVerifier == null) {
-      _cdecVerifier = new HostnameVerifier() {
-          @Override
-          public boolean verify(String string, SSLSession ssls) {
-            return true;
-          }
-        };
-    }
-    return _cdecVerifier;
-  }
-  /**
-   * Static Placeholder for the SocketFactory (type SSLSocketFactory) reference 
-   */
-  private static SSLSocketFactory _socketFactory = null;
-  /**
-   * Get the Static SocketFactory reference.
-   * @return _socketFactory (LIAC)
-   */
-  private static SSLSocketFactory SocketFactory() {
-    if (_socketFactory == null) {
-      try {
-        TrustManager[] trustAllCerts = new TrustManager[]{
-          new X509TrustManager() {
-            @Override
-            public X509Certificate[] getAcceptedIssuers() {
-              return null;
-            }
-
-            @Override
-            public void checkServerTrusted(X509Certificate[] certs, String authType) 
-                                                             throws CertificateException {
-            }
-
-            @Override
-            public void checkClientTrusted(X509Certificate[] certs, String authType) 
-                                                            throws CertificateException {
-            }
-          }
-        };
-        SSLContext sc = SSLContext.getInstance("SSL");
-        sc.init(null, trustAllCerts, new SecureRandom());
-        _socketFactory = sc.getSocketFactory();
-        
-      } catch (Exception exp) {
-        logger.log(Level.WARNING, "{0}.SocketFactory Error:\n {1}",
-                new Object[]{ImportProcessor.class.getSimpleName(), exp.getMessage()});
-      }
-    }
-    return _socketFactory;
-  }
-  //</editor-fold>
-  
   //<editor-fold defaultstate="collapsed" desc="Class ImportArgs">
   /**
    * <p>Protected CancelRequestArgs argument used by inheritors to respond to the
@@ -180,8 +114,8 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
     /**
      * <p>Call to set the ImportStatus={@linkplain ImportStatus#RETRY
      * RETRY}.</p>
-     * <p>This should only be called if the connection and import was successful,
-     * but no or no new data has been download. </p>
+     * <p>This should only be called if the connection failed due to a transient
+     * condition (e.g., a server time-out) and the import should be retried.</p>
      */
     public void setRetry() {
       this.importStatus = ImportStatus.RETRY;
@@ -295,6 +229,11 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
    * The Number of re-tries to connect
    */
   protected Integer tryCount;
+  /**
+   * The ImportEngine executing this process - used to throttle the import stages (can
+   * be null if the process is executed outside an engine).
+   */
+  private transient volatile ImportEngine importEngine;
   // </editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="Public Events">
@@ -310,10 +249,6 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
    * The EventHandler that fires the Process End Event.
    */
   public final ImportEventHandler ProcessEnd;
-  /**
-   * The EventHandler that fires the Process End Event.
-   */
-  public final ImportEventHandler ProcessRetry;
   /**
    * Called to fire the LegMessage  Event.  
    * @param logMsg the message to log
@@ -346,15 +281,6 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
     //this.sendLogMessage(Level.INFO, "Completed Import Process.");
   }
 
-  /**
-   * Called to fire the Process End Event.
-   *
-   * @param eventInfo the event info
-   */
-  protected final void fireProcessRetry() {
-    this.ProcessEnd.fireEvent(this, new ImportEventArgs());
-    this.sendLogMessage(Level.INFO, "Retry Import Process.");
-  }
   //</editor-fold>
 
   //<editor-fold defaultstate="collapsed" desc="Constructor">
@@ -371,7 +297,6 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
       this.LogMessage = new ImportEventHandler();
       this.ProcessStart = new ImportEventHandler();
       this.ProcessEnd = new ImportEventHandler();
-      this.ProcessRetry = new ImportEventHandler();
       this.processId = ImportUtils.newUniqueID();
       this.processName = processName;
       this.importStatus = ImportStatus.NOTSTARTED;
@@ -402,7 +327,6 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
   private void resetProcessor() {
     this.LogMessage.clear();
     this.ProcessEnd.clear();
-    this.ProcessRetry.clear();
     this.ProcessStart.clear();
     
   }
@@ -442,6 +366,48 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
       this.tryCount = newCount;
     }
   }
+
+  /**
+   * Called by the {@linkplain ImportEngine} to assign itself as the process' stage
+   * gate before the process is queued for execution.
+   * @param importEngine the executing engine (can be null)
+   */
+  void setImportEngine(ImportEngine importEngine) {
+    this.importEngine = importEngine;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Stage Methods">
+  /**
+   * Called to claim a stage permit from this.importEngine before entering
+   * <tt>stage</tt>. Ignored if this.importEngine = null.
+   * @param stage the stage to enter
+   * @return true if a permit was claimed and must be released by {@linkplain
+   * #exitStage(gov.ca.water.cdec.importers.ImportStage) exitStage}.
+   * @throws InterruptedException if the process was interrupted while waiting
+   */
+  private boolean enterStage(ImportStage stage) throws InterruptedException {
+    ImportEngine engine = this.importEngine;
+    boolean result = false;
+    if (engine != null) {
+      engine.enterStage(stage);
+      result = true;
+    }
+    return result;
+  }
+
+  /**
+   * Called to release a stage permit claimed by {@linkplain #enterStage(
+   * gov.ca.water.cdec.importers.ImportStage) enterStage}.
+   * @param stage the stage to exit
+   * @param claimed the flag returned by enterStage (ignored if false)
+   */
+  private void exitStage(ImportStage stage, boolean claimed) {
+    ImportEngine engine = this.importEngine;
+    if ((claimed) && (engine != null)) {
+      engine.exitStage(stage);
+    }
+  }
   //</editor-fold>
   
   //<editor-fold defaultstate="collapsed" desc="Public/Protected Abstract Methods">
@@ -469,17 +435,18 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
 
   /**
    * <p>CAN OVERRIDE: Called by the {@linkplain #run() run} method to handle the
-   * custom download of data of data and update the {@linkplain ImportArgs args}.</p>
+   * custom download of data of data and update the {@linkplain ImportArgs args}. The
+   * base implementation downloads args.parameter[IMPORT_URL] using the shared 
+   * {@linkplain ImportHttpClient} (keep-alive, gzip, and per-host connection limits).
+   * A transient failure (i.e., a {@linkplain #isTransientResponse(int) transient 
+   * response code}, a connect failure, or a read time-out) sets args.status=RETRY - 
+   * the owner of the process is responsible for scheduling the {@linkplain 
+   * #nextTryClone() retry} after a backoff delay. All other failures are errors.</p>
    * <p><b>NOTE:</b> Errors should be trapped and assigned as args.errorMsg.
    * @param args the ImportArgs initiated in {@linkplain #run() run}
    */
   protected void onImportData(ImportArgs args) {
     try {
-      System.setProperty("https.protocols", "TLSv1,TLSv1.1,TLSv1.2");
-      System.setProperty ("jsse.enableSNIExtension", "false");
-      HttpsURLConnection.setDefaultHostnameVerifier(ImportProcessor.CdecVerifier());
-      HttpsURLConnection.setDefaultSSLSocketFactory(ImportProcessor.SocketFactory());
-      
       URL urlAddr = args.getParameter(ImportKeys.IMPORT_URL, null);
       if (urlAddr == null) {
         throw new Exception("The Import URL is undefined or accessible.");
@@ -487,97 +454,103 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
       
       this.sendLogMessage(Level.FINE,"Import Url = " + urlAddr.toString());
       
-      int loopCount = 0;
-      while (loopCount <= 10) {
-        loopCount++;
-        URLConnection conn = null;
-        String dataStr = null;
-        int respondCode = 0;
-        HttpsURLConnection sslConn = null;
-        try {
-          conn = urlAddr.openConnection();  
-          if ((conn == null) || (!(conn instanceof HttpsURLConnection )) ||
-              ((sslConn = (HttpsURLConnection) conn) == null)) {  
-            throw new Exception("Open a conenction for URL[" + urlAddr.toString() 
-                    + "] or is not a failed SSL Conenction. No reason was provided.");
-          } 
-          sslConn.setRequestMethod("GET");
-          sslConn.connect();
-
-          InputStream inStream = sslConn.getInputStream();
-          if ((respondCode = sslConn.getResponseCode()) == HttpURLConnection.HTTP_OK) {
-            int iRead = 0;
-            byte[] readBuffer = new byte[4096];
-            String subStr = null;
-
-            /** Read the first line to validate that the data is correct **/
-            iRead = inStream.read(readBuffer);
-            if (iRead > 0) {
-              subStr = new String(readBuffer, 0, iRead, "UTF-8");
-              if ((subStr == null) || ((subStr.startsWith("<!DOCTYPE")))) {
-                throw new Exception("No data found.");
-              }
-              dataStr = subStr;
-            }
-
-            if (dataStr != null) {
-              while (true) {
-                iRead = inStream.read(readBuffer);
-                if (iRead <= 0) {
-                  break;
-                }
-                subStr = new String(readBuffer, 0, iRead, "UTF-8");
-                if (subStr != null) {
-                  dataStr += subStr;
-                }
-              }
-            }
-            args.setParameter(ImportKeys.IMPORT_STR, dataStr);
-            break;
-          } else {
-            this.sendLogMessage(Level.WARNING, "Connection[" + urlAddr.toString() 
-                                        + "] failed; Response Code[" 
-                                      + respondCode + ". Retry Connection");
-          }
-        } catch (IOException expIO) {
-          String errMsg = "Connection[" + urlAddr.toString() 
-                                        + "] failed; Error: " + expIO.getMessage() 
-                                        + ".";
-          if (respondCode == 500) {
-            errMsg += " Retry Connection.";
-            this.sendLogMessage(Level.WARNING, errMsg);
-          } else {
-            this.sendLogMessage(Level.WARNING, errMsg);
-            args.setErrorMsg(errMsg);
-          }
-        } catch (NoClassDefFoundError expClass) {
-          String errMsg = "Connection[" + urlAddr.toString() 
-                                        + "] failed; Error: " + expClass.getMessage();
-          this.sendLogMessage(Level.WARNING, errMsg);
-          args.setErrorMsg(errMsg);   
-        } catch (Exception expIn) {
+      ImportHttpClient httpClient = ImportHttpClient.getInstance();
+      int respondCode = 0;
+      try (ImportHttpClient.Response response = httpClient.get(urlAddr)) {
+        if ((respondCode = response.getResponseCode()) == HttpURLConnection.HTTP_OK) {
+          this.onReadImportStream(response.getInputStream(), args);
+        } else if (ImportProcessor.isTransientResponse(respondCode)) {
+          this.sendLogMessage(Level.WARNING, "Connection[" + urlAddr.toString() 
+                                      + "] failed; Response Code[" 
+                                      + respondCode + "]. Retry Connection");
+          args.setRetry();
+        } else {
           String errMsg = "Connection[" + urlAddr.toString() 
-                                        + "] failed; Error: " + expIn.getMessage();
+                                      + "] failed; Response Code[" 
+                                      + respondCode + "].";
           this.sendLogMessage(Level.WARNING, errMsg);
-          args.setErrorMsg(errMsg);          
-        } finally {
-          if (conn != null) {
-            if (sslConn != null) {
-              sslConn.disconnect();
-            }
-            conn = null;
-          }
-        }
-        
-        if (!args.getImportStatus().equals(ImportStatus.IMPORTING)) {
-          break;
+          args.setErrorMsg(errMsg);
         }
+      } catch (SocketTimeoutException | ConnectException expIO) {
+        this.sendLogMessage(Level.WARNING, "Connection[" + urlAddr.toString() 
+                                      + "] failed; Error: " + expIO.getMessage() 
+                                      + ". Retry Connection");
+        args.setRetry();
+      } catch (IOException expIO) {
+        String errMsg = "Connection[" + urlAddr.toString() 
+                                      + "] failed; Error: " + expIO.getMessage() 
+                                      + ".";
+        this.sendLogMessage(Level.WARNING, errMsg);
+        args.setErrorMsg(errMsg);
+      } catch (NoClassDefFoundError expClass) {
+        String errMsg = "Connection[" + urlAddr.toString() 
+                                      + "] failed; Error: " + expClass.getMessage();
+        this.sendLogMessage(Level.WARNING, errMsg);
+        args.setErrorMsg(errMsg);   
+      } catch (Exception expIn) {
+        String errMsg = "Connection[" + urlAddr.toString() 
+                                      + "] failed; Error: " + expIn.getMessage();
+        this.sendLogMessage(Level.WARNING, errMsg);
+        args.setErrorMsg(errMsg);          
       }
     } catch (Exception exp) {
       String errMsg = "onImportData Error:\n " + exp.getMessage();
       args.setErrorMsg(errMsg);
     }
   }
+  
+  /**
+   * Check whether a HTTP response code indicates a transient server condition that 
+   * could succeed when retried (i.e., 408 Request Timeout, 429 Too Many Requests, 
+   * 500 Internal Error, 502 Bad Gateway, 503 Unavailable, or 504 Gateway Timeout).
+   * @param respondCode the HTTP response code
+   * @return true if the request should be retried.
+   */
+  protected static boolean isTransientResponse(int respondCode) {
+    return ((respondCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT) || 
+            (respondCode == 429) ||
+            (respondCode == HttpURLConnection.HTTP_INTERNAL_ERROR) ||
+            (respondCode == HttpURLConnection.HTTP_BAD_GATEWAY) ||
+            (respondCode == HttpURLConnection.HTTP_UNAVAILABLE) ||
+            (respondCode == HttpURLConnection.HTTP_GATEWAY_TIMEOUT));
+  }
+
+  /**
+   * <p>CAN OVERRIDE: Called by {@linkplain #onImportData(
+   * gov.ca.water.cdec.importers.ImportProcessor.ImportArgs) this.onImportData} to read
+   * the response of a successful connection. The base implementation reads the stream
+   * in a byte buffer, decode it once as a UTF-8 string and assigns the string to
+   * args.parameter[IMPORT_STR]. Inheritors that can parse the data directly from the 
+   * stream should override this method and assign the parsed data to 
+   * args.parameter[IMPORT_DATA].</p>
+   * @param inStream the connection's InputStream (not closed by this call)
+   * @param args the ImportArgs initiated in {@linkplain #run() run}
+   * @throws Exception if the response is not valid data (e.g. an HTML page) or the
+   * read failed.
+   */
+  protected void onReadImportStream(InputStream inStream, ImportArgs args) 
+                                                                      throws Exception {
+    String dataStr = null;
+    int iRead = 0;
+    byte[] readBuffer = new byte[4096];
+
+    /** Read the first line to validate that the data is correct **/
+    iRead = inStream.read(readBuffer);
+    if (iRead > 0) {
+      String subStr = new String(readBuffer, 0, iRead, "UTF-8");
+      if (subStr.startsWith("<!DOCTYPE")) {
+        throw new Exception("No data found.");
+      }
+      
+      ByteArrayOutputStream outStream = new ByteArrayOutputStream(2 * readBuffer.length);
+      outStream.write(readBuffer, 0, iRead);
+      while ((iRead = inStream.read(readBuffer)) > 0) {
+        outStream.write(readBuffer, 0, iRead);
+      }
+      dataStr = outStream.toString("UTF-8");
+    }
+    args.setParameter(ImportKeys.IMPORT_STR, dataStr);
+  }
 
   /**
    * <p>ABSTRACT: Called by {@linkplain #run() this.run} to parse the imported data 
@@ -613,7 +586,9 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
    * <li>It calls {@linkplain #onImportData(
    *  gov.ca.water.cdec.importers.ImportProcessor.ImportArgs) this.onImportData}.
    *  and raise the exception if args.status=ERROR. If the args.status=RETRY, it
-   *  set this.importStatus=RETRY and end the import process.</li>
+   *  set this.importStatus=RETRY and end the import process. If executed by an
+   *  {@linkplain ImportEngine}, the call is gated by the engine's {@linkplain
+   *  ImportStage#DOWNLOAD} permits.</li>
    * <li>It calls {@linkplain #onParseImportData(
    *  gov.ca.water.cdec.importers.ImportProcessor.ImportArgs) this.onParseImportData}.
    *  and raise the exception if args.status=ERROR. If the args.status=NOTFOUND, it
@@ -623,7 +598,9 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
    *  and raise the exception if args.status=ERROR</li>
    * <li>It calls {@linkplain #onMergeData(
    *  gov.ca.water.cdec.importers.ImportProcessor.ImportArgs) this.onMergeData}.
-   *  and raise the exception if args.status=ERROR</li>
+   *  and raise the exception if args.status=ERROR. If executed by an
+   *  {@linkplain ImportEngine}, the call is gated by the engine's {@linkplain
+   *  ImportStage#MERGE} permits.</li>
    * <li>It sets this.importStatus=COMPLETED</li>
    * <li>FINALLY: It fires this.ProcessEnd event. before returning to the Thread.</li>
    * </ul>
@@ -638,7 +615,12 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
       if (ImportStatus.ERROR.equals(args.getImportStatus())) {
         throw new Exception(args.getErrorMessage());
       }
-      this.onImportData(args);
+      boolean claimed = this.enterStage(ImportStage.DOWNLOAD);
+      try {
+        this.onImportData(args);
+      } finally {
+        this.exitStage(ImportStage.DOWNLOAD, claimed);
+      }
       if (ImportStatus.ERROR.equals(args.getImportStatus())) {
         throw new Exception(args.getErrorMessage());
       } else if (ImportStatus.RETRY.equals(args.getImportStatus())) {
@@ -653,7 +635,12 @@ public abstract class ImportProcessor<TEntity extends Serializable> implements R
         this.sendLogMessage(Level.INFO, "No import data found.");
         return;
       }
-      this.onMergeData(args);
+      claimed = this.enterStage(ImportStage.MERGE);
+      try {
+        this.onMergeData(args);
+      } finally {
+        this.exitStage(ImportStage.MERGE, claimed);
+      }
       if (ImportStatus.ERROR.equals(args.getImportStatus())) {
         throw new Exception(args.getErrorMessage());
       }
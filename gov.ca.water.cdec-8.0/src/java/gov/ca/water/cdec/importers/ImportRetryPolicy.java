@@ -0,0 +1,246 @@
+package gov.ca.water.cdec.importers;
+
+import java.io.Serializable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.json.JSONObject;
+
+/**
+ * <p>The retry policy of the {@linkplain CdecDataImporter}. Processes that ended with
+ * {@linkplain ImportStatus#RETRY} are re-queued after a jittered exponential backoff
+ * delay: <tt>delay = min(maxDelay, baseDelay * 2^(tryCount-1))</tt>, of which a random
+ * half is subtracted ("equal jitter") so that the retries of many processes that
+ * failed at the same time are spread out.</p>
+ * <p>The delayed tasks are scheduled on a single daemon timer thread - the engine's
+ * worker threads are never blocked while waiting for a retry. The policy also counts
+ * the scheduled, executed, and exhausted retries, which are reported by {@linkplain
+ * #getAsJSON() getAsJSON}.</p>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public class ImportRetryPolicy implements Serializable {
+
+  //<editor-fold defaultstate="collapsed" desc="Static Logger">
+  /**
+   * Protected Static Logger object for logging errors, warnings, and info messages.
+   */
+  protected static final Logger logger =
+                                Logger.getLogger(ImportRetryPolicy.class.getName());
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Static Fields">
+  /**
+   * The default base delay in milliseconds (1 second)
+   */
+  public static final long DefaultBaseDelay = 1000L;
+  /**
+   * The default maximum delay in milliseconds (2 minutes)
+   */
+  public static final long DefaultMaxDelay = 120000L;
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Class[RetryThreadFactory]">
+  /**
+   * The ThreadFactory for the policy's timer thread (a daemon thread named
+   * "CdecImportRetry").
+   */
+  private static class RetryThreadFactory implements ThreadFactory {
+
+    @Override
+    public Thread newThread(Runnable task) {
+      Thread result = new Thread(task, "CdecImportRetry");
+      result.setDaemon(true);
+      return result;
+    }
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Fields">
+  /**
+   * The timer used to schedule the delayed tasks
+   */
+  private final transient ScheduledThreadPoolExecutor timer;
+  /**
+   * The base delay in milliseconds
+   */
+  private volatile long baseDelay;
+  /**
+   * The maximum delay in milliseconds
+   */
+  private volatile long maxDelay;
+  /**
+   * The number of scheduled tasks not yet executed
+   */
+  private final AtomicInteger numPending;
+  /**
+   * The total number of retries scheduled
+   */
+  private final AtomicLong numScheduled;
+  /**
+   * The total number of retries executed
+   */
+  private final AtomicLong numExecuted;
+  /**
+   * The total number of processes that exhausted their retries
+   */
+  private final AtomicLong numExhausted;
+  //</editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Constructor">
+  /**
+   * Public Constructor with the default settings
+   */
+  public ImportRetryPolicy() {
+    super();
+    this.timer = new ScheduledThreadPoolExecutor(1, new RetryThreadFactory());
+    this.timer.setRemoveOnCancelPolicy(true);
+    this.baseDelay = DefaultBaseDelay;
+    this.maxDelay = DefaultMaxDelay;
+    this.numPending = new AtomicInteger();
+    this.numScheduled = new AtomicLong();
+    this.numExecuted = new AtomicLong();
+    this.numExhausted = new AtomicLong();
+  }
+  // </editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Public Methods">
+  /**
+   * Call to configure the backoff delays
+   * @param baseDelay the base delay in milliseconds (null|&le; 0 for {@linkplain
+   * #DefaultBaseDelay})
+   * @param maxDelay the maximum delay in milliseconds (null|&le; 0 for {@linkplain
+   * #DefaultMaxDelay})
+   */
+  public void configure(Long baseDelay, Long maxDelay) {
+    this.baseDelay = ((baseDelay == null) || (baseDelay <= 0))? DefaultBaseDelay:
+                                                                baseDelay;
+    this.maxDelay = ((maxDelay == null) || (maxDelay <= 0))? DefaultMaxDelay:
+                                                             maxDelay;
+  }
+
+  /**
+   * Get the jittered backoff delay for the specified try
+   * @param tryCount the number of tries completed (&ge; 1)
+   * @return the delay in milliseconds
+   */
+  public long getRetryDelay(int tryCount) {
+    int shift = Math.min(30, Math.max(0, tryCount - 1));
+    long delay = Math.min(this.maxDelay, this.baseDelay << shift);
+    if (delay <= 0) {
+      delay = this.maxDelay;
+    }
+    long halfDelay = delay / 2;
+    return halfDelay + ThreadLocalRandom.current().nextLong(halfDelay + 1);
+  }
+
+  /**
+   * Called to schedule the retry of a process after its {@linkplain
+   * #getRetryDelay(int) backoff delay}.
+   * @param tryCount the number of tries the process completed
+   * @param retryTask the task that re-queues the process
+   * @return the scheduled delay in milliseconds
+   */
+  public long scheduleRetry(int tryCount, Runnable retryTask) {
+    long result = this.getRetryDelay(tryCount);
+    this.numScheduled.incrementAndGet();
+    this.schedule(result, retryTask, true);
+    return result;
+  }
+
+  /**
+   * Called to schedule a task (e.g. resume the dispatch of paused processes) after
+   * <tt>delay</tt> milliseconds. It is not counted as a retry.
+   * @param delay the delay in milliseconds
+   * @param task the task to execute
+   */
+  public void scheduleTask(long delay, Runnable task) {
+    this.schedule(delay, task, false);
+  }
+
+  /**
+   * Called to record a process that exhausted its retries.
+   */
+  public void recordExhausted() {
+    this.numExhausted.incrementAndGet();
+  }
+
+  /**
+   * Get whether there are scheduled tasks that have not yet executed.
+   * @return (this.numPending &gt; 0)
+   */
+  public boolean hasPending() {
+    return (this.numPending.get() > 0);
+  }
+
+  /**
+   * Get the number of scheduled tasks that have not yet executed
+   * @return the count
+   */
+  public int getNumPending() {
+    return this.numPending.get();
+  }
+
+  /**
+   * Called to cancel all scheduled tasks.
+   */
+  public void cancelAll() {
+    for (Runnable task : this.timer.getQueue().toArray(new Runnable[0])) {
+      if ((task instanceof ScheduledFuture) && (((ScheduledFuture) task).cancel(false))) {
+        this.numPending.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Get the retry metrics as a JSONObject
+   * @return {"pending": #, "scheduled": #, "executed": #, "exhausted": #,
+   * "baseDelayMs": #, "maxDelayMs": #}
+   */
+  public JSONObject getAsJSON() {
+    JSONObject result = new JSONObject();
+    result.put("pending", this.numPending.get());
+    result.put("scheduled", this.numScheduled.get());
+    result.put("executed", this.numExecuted.get());
+    result.put("exhausted", this.numExhausted.get());
+    result.put("baseDelayMs", this.baseDelay);
+    result.put("maxDelayMs", this.maxDelay);
+    return result;
+  }
+  //</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Private Methods">
+  /**
+   * Called to schedule <tt>task</tt> on the timer. The pending count is decremented
+   * after the task is executed.
+   * @param delay the delay in milliseconds
+   * @param task the task
+   * @param isRetry true to count the execution as an executed retry
+   */
+  private void schedule(long delay, final Runnable task, final boolean isRetry) {
+    this.numPending.incrementAndGet();
+    this.timer.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+        if (isRetry) {
+          ImportRetryPolicy.this.numExecuted.incrementAndGet();
+        }
+        try {
+          task.run();
+        } catch (Exception exp) {
+          logger.log(Level.WARNING, "{0}.schedule Error:\n {1}",
+                new Object[]{ImportRetryPolicy.class.getSimpleName(), exp.getMessage()});
+        } finally {
+          ImportRetryPolicy.this.numPending.decrementAndGet();
+        }
+      }
+    }, Math.max(0L, delay), TimeUnit.MILLISECONDS);
+  }
+  //</editor-fold>
+}
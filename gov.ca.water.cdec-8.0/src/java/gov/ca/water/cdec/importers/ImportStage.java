@@ -0,0 +1,34 @@
+package gov.ca.water.cdec.importers;
+
+/**
+ * Enums with the stages of an {@linkplain ImportProcessor} run that can be throttled
+ * separately by the {@linkplain ImportEngine}:<ul>
+ *  <li><b>{@linkplain #DOWNLOAD}:</b> - (label=Download) The download of the data from
+ *    the CDEC web services.</li>
+ *  <li><b>{@linkplain #MERGE}:</b> - (label=Merge) The merge of the imported data with
+ *    the local database.</li>
+ * </ul>
+ * @author J.G. "Koos" Prins, D.Eng. PE.
+ */
+public enum ImportStage {
+
+  //<editor-fold defaultstate="collapsed" desc="Enum Values">
+  /**
+   * The download of the data from the CDEC web services. [0]
+   */
+  DOWNLOAD(0,"Download"),
+  /**
+   * The merge of the imported data with the local database. [1]
+   */
+  MERGE(1,"Merge");
+//</editor-fold>
+
+  //<editor-fold defaultstate="collapsed" desc="Enum Constructor">
+  public final int intValue;
+  public final String label;
+  private ImportStage(int intValue, String label) {
+    this.intValue = intValue;
+    this.label = label;
+  }
+//</editor-fold>
+}
@@ -2,11 +2,14 @@ package gov.ca.water.cdec.importers;
 
 import gov.ca.water.cdec.core.*;
 import gov.ca.water.cdec.enums.DurationCodes;
+import java.io.Reader;
 import java.io.Serializable;
-import java.util.Date;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Map;
 import java.util.TimeZone;
-import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  * A TimeSeriesDataParser for Parsing TimeSeries Data from SHEF-format text stings. It currently 
@@ -65,17 +68,113 @@ public class JsonTimeSeriesParser<TEntity extends Serializable,
   }
   // </editor-fold>
   
+  //<editor-fold defaultstate="collapsed" desc="Protected Methods">
+  /**
+   * CAN OVERRIDE: Called by {@linkplain #onParseBatchStream(java.io.Reader, 
+   * java.util.Map, gov.ca.water.cdec.core.CdecSensorInfo) this.onParseBatchStream} to
+   * read the record's sensorId to resolve the TimeSeriesMap the record must be added
+   * to. The base implementation returns the record's "sensorId" value.
+   * @param jsonObj the JSON record
+   * @return the sensorId or null if undefined.
+   */
+  protected Integer getRecordSensorId(JSONObject jsonObj) {
+    int sensorId = jsonObj.optInt("sensorId", -1);
+    return (sensorId <= 0)? null: sensorId;
+  }
+  
+  /**
+   * <p>CAN OVERRIDE: Called by {@linkplain #onParseStream(java.io.Reader, 
+   * gov.ca.water.cdec.core.TimeSeriesMap, gov.ca.water.cdec.core.CdecSensorInfo) 
+   * this.onParseStream} for each non-empty JSON record read from the stream. It reads
+   * the record's sensorId, actualDate, obsDate (DurationCodes D|M only), value and
+   * dataFlag, and add the values to the <tt>timeSeriesMap</tt> (a missing value is 
+   * stored as NaN). The dates are parsed by the <tt>dtCodec</tt> directly to epoch 
+   * times.</p>
+   * @param jsonObj the JSON record to parse
+   * @param timeSeriesMap the TimeSeriesMap to update
+   * @param durCode the sensor's DurationCode
+   * @param dtCodec the Date-Time codec for the DurationCode's format
+   * @throws Exception if the record is invalid
+   */
+  protected void onParseRecord(JSONObject jsonObj, TMap timeSeriesMap,
+                        DurationCodes durCode, CdecDateCodec dtCodec) throws Exception {
+    long actualTime = 0L;
+    double obsValue = Double.NaN;
+    String flag = null;
+    int sensorId = 0;
+    long obsTime = TimeSeriesMap.NoObsTime;
+    String valStr = null;
+    boolean hasObsData = ((durCode.equals(DurationCodes.D)) || 
+                             (durCode.equals(DurationCodes.M)));
+    
+    if ((sensorId = jsonObj.optInt("sensorId", -1)) <= 0) {
+      throw new Exception("The sensorId is undefined.");
+    } else if (sensorId != timeSeriesMap.sensorId) {
+      throw new Exception("The record's sensorId does not matched the "
+              + "TimeSeriesMap's sensorId.");
+    }
+
+    if (CdecDateCodec.isBlank(valStr = jsonObj.optString("actualDate", null))) {
+      throw new Exception("The Actual Date is undefined.");
+    }
+    actualTime = dtCodec.parseTime(valStr);
+
+    if (hasObsData) {
+      obsTime = (CdecDateCodec.isBlank(valStr = jsonObj.optString("obsDate", null)))?
+                                                  actualTime: dtCodec.parseTime(valStr);
+    }
+
+    obsValue = jsonObj.optDouble("value", Double.NaN);
+
+    flag = jsonObj.optString("dataFlag", "");
+
+    timeSeriesMap.addValue(actualTime, obsTime, obsValue, flag);
+  }
+  //</editor-fold>
+  
   //<editor-fold defaultstate="collapsed" desc="TimeSeriesDataParser Override">
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Wrap the <tt>dataStr</tt> in a StringReader and call {@linkplain 
+   * #onParseStream(java.io.Reader, gov.ca.water.cdec.core.TimeSeriesMap,
+   * gov.ca.water.cdec.core.CdecSensorInfo) this.onParseStream}.</p>
+   */
   @Override
   protected void onParseData(String dataStr, TMap timeSeriesMap, 
                                         CdecSensorInfo sensorInfo) throws Exception {
-    
-    Date actualDt = null;
-    Double obsValue = null;
-    String flag = null;
-    Integer sensorId = null;
-    Date obsDt = null;
-
+    if ((dataStr = ImportUtils.cleanString(dataStr)) != null) {
+      this.onParseStream(new StringReader(dataStr), timeSeriesMap, sensorInfo);
+    }
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Call {@linkplain #onParseBatchStream(java.io.Reader, java.util.Map, 
+   * gov.ca.water.cdec.core.CdecSensorInfo) this.onParseBatchStream} with the 
+   * <tt>timeSeriesMap</tt> as the only sensor map.</p>
+   */
+  @Override
+  protected void onParseStream(Reader reader, TMap timeSeriesMap, 
+                                        CdecSensorInfo sensorInfo) throws Exception {
+    this.onParseBatchStream(reader, 
+            Collections.singletonMap(timeSeriesMap.sensorId, timeSeriesMap), sensorInfo);
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>OVERRIDE: Read the JSON array from the <tt>reader</tt> one record at a time
+   * using a {@linkplain JSONTokener}, resolve the record's TimeSeriesMap from its 
+   * {@linkplain #getRecordSensorId(org.json.JSONObject) sensorId} and call {@linkplain 
+   * #onParseRecord(org.json.JSONObject, gov.ca.water.cdec.core.TimeSeriesMap, 
+   * gov.ca.water.cdec.enums.DurationCodes, gov.ca.water.cdec.importers.CdecDateCodec)
+   * this.onParseRecord} for
+   * each record. Only the current record is held in memory, the full array is never
+   * build. An empty stream or an empty array is ignored. A record of a sensor not in
+   * <tt>sensorMaps</tt> is reported as an error.</p>
+   */
+  @Override
+  protected void onParseBatchStream(Reader reader, Map<Integer, TMap> sensorMaps, 
+                                        CdecSensorInfo sensorInfo) throws Exception {
     try {
       DurationCodes durCode = sensorInfo.sensorType.getDurationCode();
       String dtFormat = JsonTimeSeriesParser.getDateTimeFormat(durCode);
@@ -83,79 +182,52 @@ public class JsonTimeSeriesParser<TEntity extends Serializable,
         throw new Exception("Unable to resolve the Date-Time format for DurationCode["
         + durCode.toString() + "].");
       }
+      CdecDateCodec dtCodec = CdecDateCodec.getInstance(dtFormat, this.getTimeZone());
       
-      boolean hasObsData = ((durCode.equals(DurationCodes.D)) || 
-                               (durCode.equals(DurationCodes.M)));
-      
-      
-      JSONArray parsedObjs = null;   
-      if (((dataStr = ImportUtils.cleanString(dataStr)) == null) ||
-          ((parsedObjs = new JSONArray(dataStr)) == null) || 
-          (parsedObjs.length() == 0)) {
+      JSONTokener tokener = new JSONTokener(reader);
+      char nextChar = tokener.nextClean();
+      if (nextChar == 0) {
         return;
+      } else if (nextChar != '[') {
+        throw tokener.syntaxError("A JSONArray text must start with '['");
       }
       
       JSONObject jsonObj = null;
-      String valStr = null;
       Integer recCnt = 0;
-      for (int index = 0; index < parsedObjs.length(); index++) {
-        if (((jsonObj = parsedObjs.getJSONObject(index)) == null) ||
-                (jsonObj.length() == 0)) {
+      while (true) {
+        nextChar = tokener.nextClean();
+        if (nextChar == ']') {
+          break;
+        } else if (nextChar == 0) {
+          throw tokener.syntaxError("Expected a ',' or ']'");
+        } else if (nextChar == ',') {
+          continue;
+        }
+        
+        tokener.back();
+        if (((jsonObj = new JSONObject(tokener)) == null) || (jsonObj.length() == 0)) {
           continue;
         }
         
-        sensorId = null;
-        actualDt = null;
-        obsValue = null;
-        obsDt = null;
-        flag = null;
         recCnt++;
         try {
-          if ((sensorId = jsonObj.optInt("sensorId", -1)) <= 0) {
+          Integer sensorId = this.getRecordSensorId(jsonObj);
+          TMap timeSeriesMap = null;
+          if (sensorId == null) {
             throw new Exception("The sensorId is undefined.");
-          } else if (sensorId != timeSeriesMap.sensorId) {
-            throw new Exception("The record's sensorId does not matched the "
-                    + "TimeSeriesMap's sensorId.");
-          }
-          
-//          if (sensorId == 3203) {
-//            logger.log(Level.INFO, "onParseData[Sensor[{0}]; Json:\n{1}",
-//              new Object[]{sensorId, dataStr});
-//          }
-
-          if (((valStr = 
-               ImportUtils.cleanString(jsonObj.optString("actualDate",""))) == null) ||
-             ((actualDt = ImportUtils.dateFromString(valStr, dtFormat, 
-                            this.getTimeZone())) == null)) {
-            throw new Exception("The Actual Date is undefined.");
-          }
-
-          if (hasObsData) {
-            if (((valStr = 
-                 ImportUtils.cleanString(jsonObj.optString("obsDate",""))) == null) ||
-                ((obsDt = ImportUtils.dateFromString(valStr, dtFormat, 
-                                this.getTimeZone())) == null)) {
-              obsDt = actualDt;
-            }
-          }
-          
-          if ((obsValue = jsonObj.optDouble("value", Double.NaN)).isNaN()){
-            obsValue = null;
+          } else if ((timeSeriesMap = sensorMaps.get(sensorId)) == null) {
+            throw new Exception("The record's sensorId[" + sensorId 
+                    + "] does not match the sensorId of any of the TimeSeriesMaps.");
           }
-          
-          flag = jsonObj.optString("dataFlag", "");
-          
-          TEntity record = timeSeriesMap.newRecord(actualDt);
-          timeSeriesMap.setRecordObsData(record, obsDt, obsValue, flag);
-          timeSeriesMap.add(record);
+          this.onParseRecord(jsonObj, timeSeriesMap, durCode, dtCodec);
         } catch (Exception pExp) {
           throw new Exception("Record[" + recCnt + "] Error:\n " + pExp.getMessage() 
-                  +"\nDataStr = \n" + dataStr);
+                  +"\nRecord = \n" + jsonObj.toString());
         }
       }
     } catch (Exception pExp) {
       throw new Exception(this.getClass().getSimpleName()
-              + ".onParseRecord Error:\n " + pExp.getMessage());
+              + ".onParseBatchStream Error:\n " + pExp.getMessage());
     }
   }
   //</editor-fold>
@@ -3,6 +3,7 @@ package gov.ca.water.cdec.importers;
 import gov.ca.water.cdec.core.*;
 import gov.ca.water.cdec.entities.MonthlyData; 
 import java.util.Date;
+import java.util.List;
 
 /**
  * A Data Importer from the DWR CDEC database to a local database.
@@ -20,6 +21,15 @@ public class MonthlyDataImportProcessor
                              Date startDt, Date endDt) {
     super(processName,sensorInfo,startDt,endDt); 
   }
+  
+  /**
+   * Overload 2: Constructor for a multi-station import of sensors of the same 
+   * sensorType
+   */
+  MonthlyDataImportProcessor(String processName, List<CdecSensorInfo> sensorInfos,
+                             Date startDt, Date endDt) {
+    super(processName,sensorInfos,startDt,endDt); 
+  }
   // </editor-fold>
 
   // <editor-fold defaultstate="collapsed" desc="Object CdecImportProcessor">
@@ -28,11 +38,11 @@ public class MonthlyDataImportProcessor
    * <p>OVERRIDE: Return a new MonthlyDataMap instance</p>
    */
   @Override
-  protected MonthlyDataMap onNewTimeSeriesMap() {
-    if (this.sensorInfo == null) {
+  protected MonthlyDataMap onNewTimeSeriesMap(CdecSensorInfo sensorInfo) {
+    if (sensorInfo == null) {
       throw new NullPointerException("The Processoor's SensorInfo is undefined.");
     }
-    return new MonthlyDataMap(this.sensorInfo.sensorId);
+    return new MonthlyDataMap(sensorInfo.sensorId);
   }
 
   /**
@@ -53,7 +63,7 @@ public class MonthlyDataImportProcessor
   @Override
   public MonthlyDataImportProcessor nextTryClone() {
     MonthlyDataImportProcessor result = new MonthlyDataImportProcessor(this.processName, 
-                                            this.sensorInfo, this.startDt, this.endDt);
+                                            this.sensorInfos, this.startDt, this.endDt);
     result.setTryCount(this.getTryCount() + 1);
     return result;
   }
@@ -114,7 +114,7 @@ public class SHEFDataParser<TEntity extends Serializable,
 
       sDate += " " + sTime.substring(0, 2);
       sDate += ":" + sTime.substring(2);
-      actualDt = ImportUtils.dateFromString(sDate, "yyyyMMdd HH:mm", timeZn);
+      actualDt = CdecDateCodec.getInstance("yyyyMMdd HH:mm", timeZn).parse(sDate);
 
       String strVal = ImportUtils.cleanString(recValues[6]);
       if (strVal == null) {
@@ -132,9 +132,7 @@ public class SHEFDataParser<TEntity extends Serializable,
     }
 
     if (actualDt != null) {
-      TEntity record = timeSeriesMap.newRecord(actualDt);
-      timeSeriesMap.setRecordObsData(record, actualDt, obsValue, flag);
-      timeSeriesMap.add(record);
+      timeSeriesMap.addValue(actualDt, actualDt, obsValue, flag);
     }
   }
 
@@ -1,7 +1,9 @@
 package gov.ca.water.cdec.importers;
 
 import gov.ca.water.cdec.core.*;
+import java.io.Reader;
 import java.io.Serializable;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.logging.Logger;
 
@@ -147,6 +149,62 @@ public abstract class TimeSeriesDataParser<TEntity extends Serializable,
     }
     return (!this.hasParseError());
   }
+  
+  /**
+   * <p>Called to update the <tt>timeSeriesMap</tt> with data read directly from an 
+   * import stream (e.g. the HTTP connection's InputStream) without first loading the
+   * full response in a data string.</p>
+   * <p>It resets the parseError before calling {@linkplain #onParseStream(
+   * java.io.Reader, gov.ca.water.cdec.core.TimeSeriesMap, 
+   * gov.ca.water.cdec.core.CdecSensorInfo) this.onParseStream}. The latter will only be
+   * called if the reader and timeSeriesMap are assigned. Errors are trapped and
+   * assigned as ParseErrors.</p>
+   * <p><b>NOTE:</b> The reader is not closed.</p>
+   * @param reader the reader of the data in the supported format
+   * @param timeSeriesMap the The TiemSeriesMap to update
+   * @param sensorInfo the CDEC Information on the sensor
+   * @return true if no parse errors were reported.
+   */
+  public final boolean parseStream(Reader reader, TMap timeSeriesMap, 
+                                                           CdecSensorInfo sensorInfo) {
+    this.clearParseError();
+    if ((reader != null) && (timeSeriesMap != null)) {
+      try {
+        this.onParseStream(reader, timeSeriesMap, sensorInfo); 
+      } catch (Exception exp) {
+        this.setParseError(exp.getMessage());
+      }
+    }
+    return (!this.hasParseError());
+  }
+  
+  /**
+   * <p>Called to update the TimeSeriesMaps of several sensors (of the same sensorType)
+   * with data read directly from the import stream of a multi-station request. Each
+   * record is added to the TimeSeriesMap of its sensor.</p>
+   * <p>It resets the parseError before calling {@linkplain #onParseBatchStream(
+   * java.io.Reader, java.util.Map, gov.ca.water.cdec.core.CdecSensorInfo) 
+   * this.onParseBatchStream}. The latter will only be called if the reader is assigned
+   * and sensorMaps is not empty. Errors are trapped and assigned as ParseErrors.</p>
+   * <p><b>NOTE:</b> The reader is not closed.</p>
+   * @param reader the reader of the data in the supported format
+   * @param sensorMaps the TimeSeriesMaps to update by sensorId
+   * @param sensorInfo the CDEC Information on the (first) sensor - all sensors must
+   * share its sensorType.
+   * @return true if no parse errors were reported.
+   */
+  public final boolean parseBatchStream(Reader reader, Map<Integer, TMap> sensorMaps, 
+                                                           CdecSensorInfo sensorInfo) {
+    this.clearParseError();
+    if ((reader != null) && (sensorMaps != null) && (!sensorMaps.isEmpty())) {
+      try {
+        this.onParseBatchStream(reader, sensorMaps, sensorInfo); 
+      } catch (Exception exp) {
+        this.setParseError(exp.getMessage());
+      }
+    }
+    return (!this.hasParseError());
+  }
 //</editor-fold>
     
   // <editor-fold defaultstate="collapsed" desc="Abstract Methods">  
@@ -164,5 +222,55 @@ public abstract class TimeSeriesDataParser<TEntity extends Serializable,
    */
   protected abstract void onParseData(String dataStr, TMap timeSeriesMap, 
                                            CdecSensorInfo sensorInfo) throws Exception;
+  
+  /**
+   * <p>CAN OVERRIDE: Called by the {@linkplain #parseStream(java.io.Reader, 
+   * gov.ca.water.cdec.core.TimeSeriesMap, gov.ca.water.cdec.core.CdecSensorInfo) 
+   * this.parseStream} method to parse the records directly from the <tt>reader</tt>.
+   * The base implementation reads the reader to a data string and calls {@linkplain 
+   * #onParseData(java.lang.String, gov.ca.water.cdec.core.TimeSeriesMap, 
+   * gov.ca.water.cdec.core.CdecSensorInfo) this.onParseData}. Inheritors that support
+   * parsing records one at a time should override this method.</p>
+   * @param reader the reader of the data to parse
+   * @param timeSeriesMap the TimeSeriesMap to update
+   * @param sensorInfo the CDEC Information on the sensor
+   * @throws Exception if parsing fails
+   */
+  protected void onParseStream(Reader reader, TMap timeSeriesMap, 
+                                           CdecSensorInfo sensorInfo) throws Exception {
+    StringBuilder dataStr = new StringBuilder();
+    char[] readBuffer = new char[4096];
+    int iRead = 0;
+    while ((iRead = reader.read(readBuffer)) > 0) {
+      dataStr.append(readBuffer, 0, iRead);
+    }
+    String cleanStr = ImportUtils.cleanString(dataStr.toString());
+    if (cleanStr != null) {
+      this.onParseData(cleanStr, timeSeriesMap, sensorInfo);
+    }
+  }
+  
+  /**
+   * <p>CAN OVERRIDE: Called by the {@linkplain #parseBatchStream(java.io.Reader, 
+   * java.util.Map, gov.ca.water.cdec.core.CdecSensorInfo) this.parseBatchStream} method
+   * to parse the records of several sensors from the <tt>reader</tt>. The base 
+   * implementation only support a single sensor and calls {@linkplain #onParseStream(
+   * java.io.Reader, gov.ca.water.cdec.core.TimeSeriesMap, 
+   * gov.ca.water.cdec.core.CdecSensorInfo) this.onParseStream}. Inheritors that 
+   * support multi-station responses should override this method.</p>
+   * @param reader the reader of the data to parse
+   * @param sensorMaps the TimeSeriesMaps to update by sensorId
+   * @param sensorInfo the CDEC Information on the (first) sensor
+   * @throws Exception if parsing fails or the parser does not support multiple
+   * sensors.
+   */
+  protected void onParseBatchStream(Reader reader, Map<Integer, TMap> sensorMaps, 
+                                           CdecSensorInfo sensorInfo) throws Exception {
+    if (sensorMaps.size() > 1) {
+      throw new Exception(this.getClass().getSimpleName() 
+              + " does not support parsing the data of multiple sensors.");
+    }
+    this.onParseStream(reader, sensorMaps.values().iterator().next(), sensorInfo);
+  }
   // </editor-fold>
 }
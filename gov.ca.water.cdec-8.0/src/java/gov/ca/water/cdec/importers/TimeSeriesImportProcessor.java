@@ -3,9 +3,14 @@ package gov.ca.water.cdec.importers;
 import gov.ca.water.cdec.core.*;
 import gov.ca.water.cdec.enums.DurationCodes;
 import gov.ca.water.cdec.facades.TimeSeriesFacade;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.net.URL;
-import java.util.Date;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -20,9 +25,14 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   
   // <editor-fold defaultstate="collapsed" desc="Private/Protected Fields">
   /**
-   * Placeholder for ProcessName
+   * Placeholder for the (first) sensor's SensorInfo
    */
   protected final CdecSensorInfo sensorInfo;
+  /**
+   * The SensorInfos of all the sensors (of the same sensorType) imported by the process.
+   * sensorInfos[0] = this.sensorInfo.
+   */
+  protected final List<CdecSensorInfo> sensorInfos;
   /**
    * Placeholder for Import Start Start 
    */
@@ -39,19 +49,48 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
    * The Query for loading the local Data
    */
   private TimeSeriesFacade<TEntity, TStepKey, TMap> localFacade;
+  /**
+   * The actual dates of the last observations merged by the process by sensorId
+   */
+  private final ConcurrentHashMap<Integer, Date> lastObsDates;
   //</editor-fold>
   
   // <editor-fold defaultstate="collapsed" desc="Constructor">
   /**
-   * Public Constructor  
+   * Public Constructor for importing the data of a single sensor
    */
   public TimeSeriesImportProcessor(String processName, CdecSensorInfo sensorInfo,
                              Date startDt, Date endDt) {
+    this(processName, (sensorInfo == null)? null: Arrays.asList(sensorInfo), startDt, 
+                                                                              endDt);
+  }
+  
+  /**
+   * Overload 2: Public Constructor for importing the data of one or more sensors of the
+   * same sensor type in a single multi-station request.
+   * @param processName the process name
+   * @param sensorInfos the list of sensors (must all be of the same sensorType and 
+   * have unique stationIds)
+   * @param startDt the import start date
+   * @param endDt the import end date
+   */
+  public TimeSeriesImportProcessor(String processName, List<CdecSensorInfo> sensorInfos,
+                             Date startDt, Date endDt) {
     super(processName);  
     try {            
-      if (sensorInfo == null) {
+      if ((sensorInfos == null) || (sensorInfos.isEmpty()) || 
+              (sensorInfos.contains(null))) {
         throw new NullPointerException("The SensorInfo cannot be undefined");
       }
+      CdecSensorInfo sensorInfo = sensorInfos.get(0);
+      for (CdecSensorInfo batchInfo : sensorInfos) {
+        if (!sensorInfo.sensorType.equals(batchInfo.sensorType)) {
+          throw new IllegalArgumentException("Sensor[" + batchInfo.sensorId 
+                  + "]'s SensorType[" + batchInfo.sensorType.acronym 
+                  + "] does not match SensorType[" + sensorInfo.sensorType.acronym 
+                  + "].");
+        }
+      }
       if (startDt == null) {
         throw new NullPointerException("The Start Date cannot be undefined");
       }
@@ -60,7 +99,9 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
       }
       
       this.localFacade = null;
+      this.lastObsDates = new ConcurrentHashMap<>();
       this.sensorInfo = sensorInfo;
+      this.sensorInfos = Collections.unmodifiableList(new ArrayList<>(sensorInfos));
       this.startDt = startDt;
       this.endDt = endDt;
       this.dataParser = null;
@@ -73,16 +114,68 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   
   //<editor-fold defaultstate="collapsed" desc="Protected Methods">
   /**
-   *  Called to initiate a new TimeSeriesMap instance - called {@linkplain
-   * #onNewTimeSeriesMap() this.onNewTimeSeriesMap}, which implementation should
-   * return a new TimeSeriesMap instance of the generic Entity type
+   * Get whether the process imports the data of more than one sensor
+   * @return (this.sensorInfos.size &gt; 1)
+   */
+  public final boolean isBatch() {
+    return (this.sensorInfos.size() > 1);
+  }
+  
+  /**
+   * Get the actual dates of the last observations (i.e., records with values) that 
+   * were successfully merged with the local database by the process. Sensors without
+   * merged observations are not included.
+   * @return an unmodifiable map of dates by sensorId
+   */
+  public final Map<Integer, Date> getLastObsDates() {
+    return Collections.unmodifiableMap(this.lastObsDates);
+  }
+  
+  /**
+   * Called to merge <tt>importMap</tt> with the local database and record the map's
+   * {@linkplain TimeSeriesMap#getLastObsDate() lastObsDate} if the merge succeeded.
+   * @param importMap the map to merge
+   * @throws Exception if the merge failed.
+   */
+  private void mergeSensorMap(TMap importMap) throws Exception {
+    this.localFacade.mergeRecords(importMap);
+    Date lastDt = importMap.getLastObsDate();
+    if (lastDt != null) {
+      this.lastObsDates.put(importMap.sensorId, lastDt);
+    }
+  }
+  
+  /**
+   * Called to initiate a new TimeSeriesMap instance for each of this.sensorInfos.
+   * @return a map of TimeSeriesMaps by sensorId.
+   * @throws Exception if the process fails.
+   */
+  protected final LinkedHashMap<Integer, TMap> newSensorMaps() throws Exception {
+    LinkedHashMap<Integer, TMap> result = new LinkedHashMap<>();
+    for (CdecSensorInfo batchInfo : this.sensorInfos) {
+      TMap timeSeriesMap = this.newTimeSeriesMap(batchInfo);
+      if (timeSeriesMap == null) {
+        throw new Exception("Initiating a New TimeSeriesMap for Sensor[" 
+                + batchInfo.sensorId + "] failed.");
+      }
+      result.put(batchInfo.sensorId, timeSeriesMap);
+    }
+    return result;
+  }
+  
+  /**
+   *  Called to initiate a new TimeSeriesMap instance for the specified sensor - called
+   * {@linkplain #onNewTimeSeriesMap(gov.ca.water.cdec.core.CdecSensorInfo) 
+   * this.onNewTimeSeriesMap}, which implementation should return a new TimeSeriesMap
+   * instance of the generic Entity type
+   * @param sensorInfo the sensor's SensorInfo
    * @return new TimeSeriesMap instance.
    * @throws Exception if the process fails.
    */
-  protected final TMap newTimeSeriesMap() throws Exception {
+  protected final TMap newTimeSeriesMap(CdecSensorInfo sensorInfo) throws Exception {
     TMap result = null;
     try {
-      result = this.onNewTimeSeriesMap();
+      result = this.onNewTimeSeriesMap(sensorInfo);
       if (result == null) {
         throw new Exception("Initiating a new TimeSeriesMap failed.");
       }
@@ -120,10 +213,11 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   
   //<editor-fold defaultstate="collapsed" desc="Protected Abstact Methods">
   /**
-   * ABSTRACT: Called to initiate a new TimeSeriesMap instance
+   * ABSTRACT: Called to initiate a new TimeSeriesMap instance for the specified sensor
+   * @param sensorInfo the sensor's SensorInfo
    * @return new
    */
-  protected abstract TMap onNewTimeSeriesMap();
+  protected abstract TMap onNewTimeSeriesMap(CdecSensorInfo sensorInfo);
   
   /**
    * ABSTRACT: Called to initiate a the Processor's DataPareser
@@ -155,7 +249,8 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
    * {@inheritDoc}
    * <p>
    * OVERRIDE: Initiate the URL for the connecting to the external web-based data 
-   * source and import the timeseries data. <p>
+   * source and import the timeseries data. The stationIds of all this.sensorInfos are
+   * assigned as a comma-separated list. <p>
    * Example URL: http://cdec4gov.water.ca.gov/preciptemp/req/DailyDataServlet?
    * Start=2014-01-01&End=2014-02-01&SensorNums=45&Stations='FOL'</p>
    */
@@ -187,7 +282,12 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
       urlStr = ImportUtils.appendToUrl(urlStr, "Start", startDtStr);
       urlStr = ImportUtils.appendToUrl(urlStr, "End", endDtStr);
       urlStr = ImportUtils.appendToUrl(urlStr, "SensorNums", sensorNo.toString());
-      urlStr = ImportUtils.appendToUrl(urlStr, "Stations", this.sensorInfo.stationId);
+      String stations = null;
+      for (CdecSensorInfo batchInfo : this.sensorInfos) {
+        stations = (stations == null)? batchInfo.stationId: 
+                                       stations + "," + batchInfo.stationId;
+      }
+      urlStr = ImportUtils.appendToUrl(urlStr, "Stations", stations);
        //       "'" +this.sensorInfo.stationId + "'");
       //urlStr = ImportUtils.appendToUrl(urlStr, "dur_code", durCode.name());
       
@@ -206,7 +306,70 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   /**
    * {@inheritDoc}
    * <p>
-   * OVERRIDE: Parse the imported data string into the TimeSeries Entities. It calls the
+   * OVERRIDE: Parse the records directly from the connection's <tt>inStream</tt> into
+   * a new TimeSeriesMap by calling the {@linkplain TimeSeriesDataParser#parseStream(
+   * java.io.Reader, gov.ca.water.cdec.core.TimeSeriesMap, 
+   * gov.ca.water.cdec.core.CdecSensorInfo) parser.parseStream} method and assign the
+   * map to args.parameter[IMPORT_DATA]. The response is never loaded as a single 
+   * string. Nothing is assigned if the stream is empty. If {@linkplain #isBatch() 
+   * this.isBatch}, the records are demultiplexed into a TimeSeriesMap per sensor and
+   * the map of sensor maps is assigned to args.parameter[IMPORT_BATCH].</p>
+   */
+  @Override
+  protected void onReadImportStream(InputStream inStream, ImportArgs args) 
+                                                                      throws Exception {
+    BufferedReader reader = 
+                      new BufferedReader(new InputStreamReader(inStream, "UTF-8"));
+    
+    /** Read the first characters to validate that the data is correct **/
+    char[] headBuffer = new char[9];
+    int headLen = 0;
+    int iRead = 0;
+    reader.mark(headBuffer.length);
+    while ((headLen < headBuffer.length) &&
+         ((iRead = reader.read(headBuffer, headLen, headBuffer.length - headLen)) > 0)) {
+      headLen += iRead;
+    }
+    if (headLen <= 0) {
+      return;
+    } else if (new String(headBuffer, 0, headLen).startsWith("<!DOCTYPE")) {
+      throw new Exception("No data found.");
+    }
+    reader.reset();
+    
+    TParser parser = null;
+    if ((parser = this.getDataParser()) == null) {
+      throw new Exception("The Downloader does not support a Data Parser or "
+              + "initiating the Data Parser failed.");
+    }
+
+    if (this.isBatch()) {
+      LinkedHashMap<Integer, TMap> sensorMaps = this.newSensorMaps();
+      if (!parser.parseBatchStream(reader, sensorMaps, this.sensorInfo)) {
+        throw new Exception(parser.getParseError());
+      }
+      args.setParameter(ImportKeys.IMPORT_BATCH, sensorMaps);
+    } else {
+      TMap timeSeriesMap = this.newTimeSeriesMap(this.sensorInfo);
+      if (timeSeriesMap == null) {
+        throw new Exception("Initiating a New TimeSeriesMap failed.");
+      }
+
+      if (!parser.parseStream(reader, timeSeriesMap, this.sensorInfo)) {
+        throw new Exception(parser.getParseError());
+      }
+      args.setParameter(ImportKeys.IMPORT_DATA, timeSeriesMap);
+    }
+  }
+  
+  /**
+   * {@inheritDoc}
+   * <p>
+   * OVERRIDE: If the data were already parsed from the import stream (i.e., 
+   * args.parameter[IMPORT_DATA|IMPORT_BATCH] is assigned), it only calls 
+   * args.setNotFound if the parsed TimeSeriesMap(s) is empty (empty sensor maps are
+   * removed from the IMPORT_BATCH map). Otherwise, it parse the imported data string into
+   * the TimeSeries Entities. It calls the
    * {@linkplain JsonDataParser#parseData(java.lang.String, 
    * gov.ca.water.cdec.core.TimeSeriesMap,
    * gov.ca.water.cdec.core.CdecSensorInfo) JsonDataParser.parseData} method to handle
@@ -216,6 +379,29 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   @Override
   protected final void onParseImportData(ImportArgs args)  {
     try {
+      LinkedHashMap<Integer, TMap> batchMaps = 
+                                      args.getParameter(ImportKeys.IMPORT_BATCH, null);
+      if (batchMaps != null) {
+        Iterator<TMap> iter = batchMaps.values().iterator();
+        while (iter.hasNext()) {
+          if (iter.next().isEmpty()) {
+            iter.remove();
+          }
+        }
+        if (batchMaps.isEmpty()) {
+          args.setNotFound();
+        }
+        return;
+      }
+      
+      TMap streamMap = args.getParameter(ImportKeys.IMPORT_DATA, null);
+      if (streamMap != null) {
+        if (streamMap.isEmpty()) {
+          args.setNotFound();
+        }
+        return;
+      }
+      
       TParser parser = null;
       String dataStr = args.getParameter(ImportKeys.IMPORT_STR, null);
       if (((dataStr = ImportUtils.cleanString(dataStr)) != null) &&
@@ -225,7 +411,18 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
                   + "initiating the Data Parser failed.");
         }
         
-        TMap timeSeriesMap = this.newTimeSeriesMap();
+        if (this.isBatch()) {
+          LinkedHashMap<Integer, TMap> sensorMaps = this.newSensorMaps();
+          if (!parser.parseBatchStream(new StringReader(dataStr), sensorMaps, 
+                                                                  this.sensorInfo)) {
+            throw new Exception(parser.getParseError());
+          }
+          args.setParameter(ImportKeys.IMPORT_BATCH, sensorMaps);
+          this.onParseImportData(args);
+          return;
+        }
+        
+        TMap timeSeriesMap = this.newTimeSeriesMap(this.sensorInfo);
         if (timeSeriesMap == null) {
           throw new Exception("Initiating a New TimeSeriesMap failed.");
         }
@@ -258,6 +455,13 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
   @Override
   protected void onMergeData(ImportArgs args) {
     try {
+      LinkedHashMap<Integer, TMap> batchMaps = 
+                                      args.getParameter(ImportKeys.IMPORT_BATCH, null);
+      if (batchMaps != null) {
+        this.onMergeBatchData(batchMaps);
+        return;
+      }
+      
       TMap importMap = args.getParameter(ImportKeys.IMPORT_DATA, null);
       if ((importMap == null) ||(importMap.isEmpty())) {
         throw new Exception("The imported Data Map is no longer accessible.");
@@ -266,11 +470,43 @@ public abstract class TimeSeriesImportProcessor<TEntity extends Serializable,
       if (this.localFacade == null) {
         throw new Exception("The Processor's Local Entity Facade is not accessible.");
       }
-      this.localFacade.mergeRecords(importMap);
+      this.mergeSensorMap(importMap);
     } catch (Exception exp) {
       String errMsg = "onMergeData Error:\n " + exp.getMessage();
       args.setErrorMsg(errMsg);
     }
   }
+  
+  /**
+   * Called by {@linkplain #onMergeData(
+   * gov.ca.water.cdec.importers.ImportProcessor.ImportArgs) this.onMergeData} to merge
+   * each sensor's TimeSeriesMap of a batch import. All sensors are merged before the
+   * merge errors (if any) are reported.
+   * @param batchMaps the map of TimeSeriesMaps by sensorId
+   * @throws Exception if the localFacade is not accessible or one or more merges
+   * failed.
+   */
+  private void onMergeBatchData(LinkedHashMap<Integer, TMap> batchMaps) 
+                                                                    throws Exception {
+    if ((batchMaps == null) || (batchMaps.isEmpty())) {
+      throw new Exception("The imported Data Maps are no longer accessible.");
+    }
+    if (this.localFacade == null) {
+      throw new Exception("The Processor's Local Entity Facade is not accessible.");
+    }
+    
+    String errMsg = null;
+    for (Map.Entry<Integer, TMap> entry : batchMaps.entrySet()) {
+      try {
+        this.mergeSensorMap(entry.getValue());
+      } catch (Exception exp) {
+        errMsg = ((errMsg == null)? "": errMsg + "\n ") 
+                + "Sensor[" + entry.getKey() + "]: " + exp.getMessage();
+      }
+    }
+    if (errMsg != null) {
+      throw new Exception(errMsg);
+    }
+  }
   //</editor-fold>
 }